@@ -1,84 +1,139 @@
 package sublimedisruptors.quoridor.board;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
+import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
 import java.util.EnumMap;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import javax.annotation.Nullable;
 import sublimedisruptors.quoridor.Player;
 import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Groove.Orientation;
 
 /**
  * A Quoridor game board.
  *
  * <p>The state of the board is fully observable by taking a {@link #snapshot} of its current state.
- * The board is only mutable via {@link #movePawn} and {@link #placeWall}.
+ * The board is only mutable via {@link #movePawn} and {@link #placeWall}. Every mutation is
+ * recorded, and the most recent one can be reverted in place via {@link #undo}, which allows
+ * callers to explore hypothetical moves without copying the board.
+ *
+ * <p>For performance-sensitive callers, the board may also be queried by the location indices
+ * described in {@link BoardGeometry}, which avoids allocating or taking a snapshot.
+ *
+ * <p>Taking a snapshot costs the same however many walls have been placed, since the snapshot
+ * shares the board's wall bitsets. The board copies them before it next changes them instead, so
+ * a board that is mutated repeatedly without taking snapshots, as in a search, never copies them.
+ *
+ * <p>The board maintains a 64-bit {@linkplain #zobristKey Zobrist key} identifying its current
+ * position. The key is updated incrementally by each mutation, so it is cheap enough to use for
+ * transposition tables and repetition detection. The key of the position's {@linkplain
+ * Snapshot#mirror mirror image} is maintained alongside it, so that a position and its mirror
+ * image can be identified by the same {@linkplain #canonicalZobristKey canonical key}.
  *
  * <p>This class is oblivious to the "rules of the game". It accepts moves unconditionally,
  * performing no validity checks (including boundary checks). Accounting is performed to track how
  * many walls a player has available, however, a player is <em>not</em> prohibited from placing a
  * wall even if {@link Snapshot#wallsAvailable} indicates that the player has zero walls available.
+ * The one exception is that every groove and vertex covered by a wall must lie within the board's
+ * {@code size x size} grid, since walls are stored in bitsets indexed by location.
  *
  * <p>A {@code Board} instance can be obtained via {@link #createFromSettings}. The board always
  * starts in an empty state. Pawns and walls must be added via the board's mutating methods.
  */
 public final class Board {
 
+  private static final Player[] PLAYERS = Player.values();
+
   /** Creates a board in accordance with the given {@code settings}. */
   public static Board createFromSettings(QuoridorSettings settings) {
     Map<Player, Integer> wallsAvailable = new EnumMap<>(Player.class);
     settings.players().forEach(player -> wallsAvailable.put(player, settings.wallsPerPlayer()));
-    return new Board(
-        settings.boardSize(),
-        /*pawns=*/ new EnumMap<>(Player.class),
-        wallsAvailable,
-        /*walledOffGrooves=*/ new HashSet<>(),
-        /*walledOffVertices=*/ new HashSet<>(),
-        /*currentSnapshot=*/ null);
+    int cellCount = settings.boardSize() * settings.boardSize();
+    Board board =
+        new Board(
+            settings.boardSize(),
+            wallsAvailable,
+            new long[(2 * cellCount + Long.SIZE - 1) / Long.SIZE],
+            new long[(cellCount + Long.SIZE - 1) / Long.SIZE],
+            /*currentSnapshot=*/ null);
+    for (Map.Entry<Player, Integer> entry : wallsAvailable.entrySet()) {
+      long key = Zobrist.wallsAvailable(entry.getKey(), entry.getValue());
+      board.zobristKey ^= key;
+      board.mirroredZobristKey ^= key;
+    }
+    return board;
   }
 
   /**
    * Creates a board in the same state as the given {@code snapshot}.
    *
    * <p>This method provides a way to obtain a deep copy of a board, such that future mutations to
-   * one board will not be reflected in the other.
+   * one board will not be reflected in the other. The copy shares the snapshot's wall bitsets
+   * until either board places a wall, so it takes constant time.
    */
   public static Board fromSnapshot(Snapshot snapshot) {
-    return new Board(
-        snapshot.size(),
-        new EnumMap<>(snapshot.pawns()),
-        new HashMap<>(snapshot.wallsAvailable()),
-        new HashSet<>(snapshot.walledOffGrooves()),
-        new HashSet<>(snapshot.walledOffVertices()),
-        snapshot);
+    Map<Player, Integer> wallsAvailable = new EnumMap<>(Player.class);
+    wallsAvailable.putAll(snapshot.wallsAvailable());
+    Board board =
+        new Board(
+            snapshot.size(),
+            wallsAvailable,
+            snapshot.grooveBits(),
+            snapshot.vertexBits(),
+            snapshot);
+    snapshot.pawns().forEach(board::setPawn);
+    board.pawnMap = snapshot.pawns();
+    board.wallsAvailableMap = snapshot.wallsAvailable();
+    board.lastMover = snapshot.lastMover();
+    board.zobristKey = snapshot.zobristKey();
+    board.mirroredZobristKey = snapshot.mirroredZobristKey();
+    return board;
   }
 
   private final int size;
-  private final Map<Player, Square> pawns;
+  private final int cellCount;
+  private final Square[] pawns;
+  private final int[] pawnIndices;
   private final Map<Player, Integer> wallsAvailable;
-  private final Set<Groove> walledOffGrooves;
-  private final Set<Vertex> walledOffVertices;
+  private long[] grooves;
+  private long[] vertices;
+  /** Whether {@link #grooves} and {@link #vertices} may be referenced by a snapshot. */
+  private boolean wallBitsShared;
+  @Nullable private Player lastMover = null;
+  private long zobristKey = 0;
+  private long mirroredZobristKey = 0;
   @Nullable private Snapshot currentSnapshot;
+  /** The pawns of the latest snapshot, or {@code null} if a pawn has moved since it was taken. */
+  @Nullable private ImmutableMap<Player, Square> pawnMap = null;
+  /** The walls available in the latest snapshot, or {@code null} if a wall has been placed. */
+  @Nullable private ImmutableMap<Player, Integer> wallsAvailableMap = null;
+  private Mutation[] history = new Mutation[16];
+  private int historySize = 0;
 
   private Board(
       int size,
-      Map<Player, Square> pawns,
       Map<Player, Integer> wallsAvailable,
-      Set<Groove> walledOffGrooves,
-      Set<Vertex> walledOffVertices,
+      long[] grooves,
+      long[] vertices,
       @Nullable Snapshot currentSnapshot) {
     this.size = size;
-    this.pawns = pawns;
+    this.cellCount = size * size;
+    this.pawns = new Square[PLAYERS.length];
+    this.pawnIndices = new int[PLAYERS.length];
     this.wallsAvailable = wallsAvailable;
-    this.walledOffGrooves = walledOffGrooves;
-    this.walledOffVertices = walledOffVertices;
+    this.grooves = grooves;
+    this.vertices = vertices;
+    this.wallBitsShared = currentSnapshot != null;
     this.currentSnapshot = currentSnapshot;
+    Arrays.fill(pawnIndices, -1);
   }
 
   /** Returns the number of rows and columns on this board. */
@@ -86,21 +141,139 @@ public final class Board {
     return size;
   }
 
-  /** Returns an immutable {@link Snapshot} of the board's current state. */
+  /**
+   * Returns an immutable {@link Snapshot} of the board's current state.
+   *
+   * <p>The same instance is returned until the board is next mutated. A new snapshot takes
+   * constant time, since it shares the wall bitsets with the board, and the maps of pawns and
+   * available walls with the previous snapshot if they have not changed.
+   */
   public Snapshot snapshot() {
     if (currentSnapshot == null) {
+      if (pawnMap == null) {
+        Map<Player, Square> pawnsByPlayer = new EnumMap<>(Player.class);
+        for (Player player : PLAYERS) {
+          if (pawns[player.ordinal()] != null) {
+            pawnsByPlayer.put(player, pawns[player.ordinal()]);
+          }
+        }
+        pawnMap = ImmutableMap.copyOf(pawnsByPlayer);
+      }
+      if (wallsAvailableMap == null) {
+        wallsAvailableMap = ImmutableMap.copyOf(wallsAvailable);
+      }
       currentSnapshot =
-          new AutoValue_Board_Snapshot.Builder()
-              .setSize(size)
-              .setPawns(pawns)
-              .setWallsAvailable(wallsAvailable)
-              .setWalledOffGrooves(walledOffGrooves)
-              .setWalledOffVertices(walledOffVertices)
-              .build();
+          new AutoValue_Board_Snapshot(
+              size,
+              pawnMap,
+              wallsAvailableMap,
+              lastMover,
+              zobristKey,
+              mirroredZobristKey,
+              grooves,
+              vertices);
+      wallBitsShared = true;
     }
     return currentSnapshot;
   }
 
+  /**
+   * Returns the Zobrist key of the board's current position.
+   *
+   * <p>The key accounts for the position of every pawn, every walled-off groove and vertex, the
+   * number of walls available to each player and the {@linkplain Snapshot#lastMover last player to
+   * move}. Boards in the same position always have the same key. Boards in different positions have
+   * different keys with overwhelming probability.
+   */
+  public long zobristKey() {
+    return zobristKey;
+  }
+
+  /**
+   * Returns the Zobrist key of the {@linkplain Snapshot#mirror mirror image} of the board's current
+   * position, which is maintained incrementally in the same way as the {@link #zobristKey}.
+   */
+  public long mirroredZobristKey() {
+    return mirroredZobristKey;
+  }
+
+  /**
+   * Returns the smaller of the {@link #zobristKey} and the {@link #mirroredZobristKey}, which is
+   * the same for a position and its mirror image. This is the key of the position's {@linkplain
+   * Snapshot#canonical canonical form}.
+   *
+   * <p>A position is only equivalent to its mirror image in games whose players all aim for a row,
+   * which is checked by {@link BoardGeometry#isMirrorSymmetric}.
+   */
+  public long canonicalZobristKey() {
+    return Math.min(zobristKey, mirroredZobristKey);
+  }
+
+  /** Returns the position of the given player's pawn, or {@code null} if it is not on the board. */
+  @Nullable
+  public Square pawn(Player player) {
+    return pawns[player.ordinal()];
+  }
+
+  /**
+   * Returns the {@linkplain BoardGeometry square index} of the given player's pawn, or {@code -1}
+   * if it is not on the board.
+   */
+  public int pawnIndex(Player player) {
+    return pawnIndices[player.ordinal()];
+  }
+
+  /**
+   * Returns the number of walls available to {@code player}, or {@code null} if the player is not
+   * participating.
+   */
+  @Nullable
+  public Integer wallsAvailable(Player player) {
+    return wallsAvailable.get(player);
+  }
+
+  /** Returns {@code true} if any player's pawn is on the given {@code square}. */
+  public boolean isOccupied(Square square) {
+    for (Square pawn : pawns) {
+      if (square.equals(pawn)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns {@code true} if any player's pawn is on the square with the given index. */
+  public boolean isOccupied(int squareIndex) {
+    for (int pawnIndex : pawnIndices) {
+      if (pawnIndex == squareIndex) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns {@code true} if the given {@code groove} is covered by a wall. */
+  public boolean isWalledOff(Groove groove) {
+    int cell = cell(groove);
+    return cell >= 0 && isSet(grooves, groove.orientation().ordinal() * cellCount + cell);
+  }
+
+  /** Returns {@code true} if the given {@code vertex} is covered by a wall. */
+  public boolean isWalledOff(Vertex vertex) {
+    int cell = cell(vertex);
+    return cell >= 0 && isSet(vertices, cell);
+  }
+
+  /** Returns {@code true} if the groove with the given index is covered by a wall. */
+  public boolean isGrooveWalledOff(int grooveIndex) {
+    return isSet(grooves, grooveIndex);
+  }
+
+  /** Returns {@code true} if the vertex with the given index is covered by a wall. */
+  public boolean isVertexWalledOff(int vertexIndex) {
+    return isSet(vertices, vertexIndex);
+  }
+
   /**
    * Moves the given player's pawn to {@code square}.
    *
@@ -109,8 +282,21 @@ public final class Board {
    * <p>No validation is performed to determine whether the move can legally be made.
    */
   public void movePawn(Player player, Square square) {
+    checkNotNull(square);
+    Mutation mutation = recordMutation(player);
+    Square previousPawn = pawns[player.ordinal()];
+    mutation.previousPawn = previousPawn;
     currentSnapshot = null;
-    pawns.put(player, checkNotNull(square));
+    pawnMap = null;
+    setPawn(player, square);
+    if (previousPawn != null) {
+      zobristKey ^= Zobrist.pawn(player, previousPawn);
+      mirroredZobristKey ^=
+          Zobrist.pawn(player, mirroredColumn(previousPawn.column(), 1), previousPawn.row());
+    }
+    zobristKey ^= Zobrist.pawn(player, square);
+    mirroredZobristKey ^= Zobrist.pawn(player, mirroredColumn(square.column(), 1), square.row());
+    updateLastMover(player);
   }
 
   /**
@@ -122,13 +308,252 @@ public final class Board {
    * <p>No validation is performed to determine whether the wall can legally be placed.
    */
   public void placeWall(Wall wall, Player player) {
+    for (int i = 0; i < wall.length(); i++) {
+      checkArgument(
+          coveredCell(wall, i) >= 0, "%s extends outside of a board of size %s", wall, size);
+    }
+    Mutation mutation = recordMutation(player);
+    mutation.wall = wall;
+    mutation.previousWallsAvailable = wallsAvailable.get(player);
+    if (overlapsExistingWall(wall)) {
+      // Undoing must not remove the pre-existing walls, so keep a full copy to restore.
+      mutation.previousWallBits = new long[][] {grooves.clone(), vertices.clone()};
+    }
     currentSnapshot = null;
-    walledOffGrooves.addAll(wall.coveredGrooves());
-    walledOffVertices.addAll(wall.coveredVertices());
-    wallsAvailable.merge(player, -1, Integer::sum);
+    wallsAvailableMap = null;
+    unshareWallBits();
+    Orientation orientation = wall.orientation();
+    int grooveOffset = orientation.ordinal() * cellCount;
+    int grooveWidth = orientation == Orientation.VERTICAL ? 2 : 1;
+    for (int i = 0; i < wall.length(); i++) {
+      int cell = coveredCell(wall, i);
+      char column = column(cell, size);
+      int row = row(cell, size);
+      if (!isSet(grooves, grooveOffset + cell)) {
+        set(grooves, grooveOffset + cell);
+        zobristKey ^= Zobrist.groove(orientation, column, row);
+        mirroredZobristKey ^= Zobrist.groove(orientation, mirroredColumn(column, grooveWidth), row);
+      }
+      if (i < wall.length() - 1 && !isSet(vertices, cell)) {
+        set(vertices, cell);
+        zobristKey ^= Zobrist.vertex(column, row);
+        mirroredZobristKey ^= Zobrist.vertex(mirroredColumn(column, 2), row);
+      }
+    }
+    long wallsAvailableKey = 0;
+    Integer previousWallsAvailable = mutation.previousWallsAvailable;
+    if (previousWallsAvailable != null) {
+      wallsAvailableKey ^= Zobrist.wallsAvailable(player, previousWallsAvailable);
+    }
+    int newWallsAvailable = wallsAvailable.merge(player, -1, Integer::sum);
+    wallsAvailableKey ^= Zobrist.wallsAvailable(player, newWallsAvailable);
+    zobristKey ^= wallsAvailableKey;
+    mirroredZobristKey ^= wallsAvailableKey;
+    updateLastMover(player);
+  }
+
+  /**
+   * Reverts the most recent {@link #movePawn} or {@link #placeWall} that has not already been
+   * undone.
+   *
+   * <p>The board is restored exactly, including the player's {@linkplain Snapshot#wallsAvailable
+   * available walls}, and a subsequent call to {@link #snapshot} returns the same instance that
+   * would have been returned before the reverted mutation.
+   *
+   * <p>This method throws {@link IllegalStateException} if there is nothing to undo.
+   */
+  public void undo() {
+    checkState(historySize > 0, "Nothing to undo");
+    Mutation mutation = history[--historySize];
+    Player player = mutation.player;
+    Wall wall = mutation.wall;
+    if (wall == null) {
+      setPawn(player, mutation.previousPawn);
+      pawnMap = null;
+    } else {
+      wallsAvailableMap = null;
+      unshareWallBits();
+      if (mutation.previousWallBits != null) {
+        System.arraycopy(mutation.previousWallBits[0], 0, grooves, 0, grooves.length);
+        System.arraycopy(mutation.previousWallBits[1], 0, vertices, 0, vertices.length);
+      } else {
+        int grooveOffset = wall.orientation().ordinal() * cellCount;
+        for (int i = 0; i < wall.length(); i++) {
+          int cell = coveredCell(wall, i);
+          clear(grooves, grooveOffset + cell);
+          if (i < wall.length() - 1) {
+            clear(vertices, cell);
+          }
+        }
+      }
+      if (mutation.previousWallsAvailable == null) {
+        wallsAvailable.remove(player);
+      } else {
+        wallsAvailable.put(player, mutation.previousWallsAvailable);
+      }
+    }
+    lastMover = mutation.previousLastMover;
+    zobristKey = mutation.previousZobristKey;
+    mirroredZobristKey = mutation.previousMirroredZobristKey;
+    currentSnapshot = mutation.previousSnapshot;
+    if (currentSnapshot != null) {
+      pawnMap = currentSnapshot.pawns();
+      wallsAvailableMap = currentSnapshot.wallsAvailable();
+    }
+    mutation.clear();
+  }
+
+  /** Copies the wall bitsets if a snapshot may reference them, so that they can be modified. */
+  private void unshareWallBits() {
+    if (wallBitsShared) {
+      grooves = grooves.clone();
+      vertices = vertices.clone();
+      wallBitsShared = false;
+    }
   }
 
-  /** An immutable snapshot of a board at a given point in time. */
+  private void setPawn(Player player, @Nullable Square square) {
+    pawns[player.ordinal()] = square;
+    pawnIndices[player.ordinal()] = square == null ? -1 : cell(square);
+  }
+
+  private void updateLastMover(Player player) {
+    long lastMoverKey = Zobrist.lastMover(lastMover) ^ Zobrist.lastMover(player);
+    zobristKey ^= lastMoverKey;
+    mirroredZobristKey ^= lastMoverKey;
+    lastMover = player;
+  }
+
+  private Mutation recordMutation(Player player) {
+    checkNotNull(player);
+    if (historySize == history.length) {
+      history = Arrays.copyOf(history, historySize * 2);
+    }
+    Mutation mutation = history[historySize];
+    if (mutation == null) {
+      mutation = new Mutation();
+      history[historySize] = mutation;
+    }
+    historySize++;
+    mutation.player = player;
+    mutation.previousLastMover = lastMover;
+    mutation.previousZobristKey = zobristKey;
+    mutation.previousMirroredZobristKey = mirroredZobristKey;
+    mutation.previousSnapshot = currentSnapshot;
+    return mutation;
+  }
+
+  private boolean overlapsExistingWall(Wall wall) {
+    int grooveOffset = wall.orientation().ordinal() * cellCount;
+    for (int i = 0; i < wall.length(); i++) {
+      int cell = coveredCell(wall, i);
+      if (isSet(grooves, grooveOffset + cell) || (i < wall.length() - 1 && isSet(vertices, cell))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the grid index of the {@code i}th groove covered by {@code wall}, which is also the
+   * index of its {@code i}th covered vertex if {@code i < wall.length() - 1}, or {@code -1} if that
+   * location is outside of the grid.
+   */
+  private int coveredCell(Wall wall, int i) {
+    Vertex first = wall.firstVertex();
+    return wall.orientation() == Orientation.VERTICAL
+        ? BoardGeometry.cellIndex(size, first.column(), first.row() + i)
+        : BoardGeometry.cellIndex(size, (char) (first.column() + i), first.row());
+  }
+
+  private int cell(Locatable location) {
+    return BoardGeometry.cellIndex(size, location.column(), location.row());
+  }
+
+  /** Returns the column of the mirror image of a location spanning {@code width} columns. */
+  private char mirroredColumn(char column, int width) {
+    return mirroredColumn(column, width, size);
+  }
+
+  /**
+   * Returns the column of the mirror image, on a board of the given {@code size}, of a location
+   * that starts at {@code column} and spans {@code width} columns: one for a square or horizontal
+   * groove, and two for a vertical groove or vertex, which lie between two columns.
+   */
+  private static char mirroredColumn(char column, int width, int size) {
+    return (char) ('a' + size - width - (column - 'a'));
+  }
+
+  private static char column(int cell, int size) {
+    return (char) ('a' + cell % size);
+  }
+
+  private static int row(int cell, int size) {
+    return cell / size + 1;
+  }
+
+  private static boolean isSet(long[] bits, int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  private static void set(long[] bits, int index) {
+    bits[index >>> 6] |= 1L << index;
+  }
+
+  private static void clear(long[] bits, int index) {
+    bits[index >>> 6] &= ~(1L << index);
+  }
+
+  private static int nextSetBit(long[] bits, int fromIndex) {
+    int word = fromIndex >>> 6;
+    if (word >= bits.length) {
+      return -1;
+    }
+    long remaining = bits[word] & (-1L << fromIndex);
+    while (remaining == 0) {
+      if (++word == bits.length) {
+        return -1;
+      }
+      remaining = bits[word];
+    }
+    return word * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+  }
+
+  /**
+   * The information needed to {@linkplain #undo undo} a single mutation.
+   *
+   * <p>Instances are reused as the history grows and shrinks, so that exploring moves via {@link
+   * #movePawn}/{@link #placeWall} and {@link #undo} does not allocate in the steady state.
+   */
+  private static final class Mutation {
+    Player player;
+    @Nullable Square previousPawn;
+    @Nullable Wall wall;
+    @Nullable Integer previousWallsAvailable;
+    @Nullable long[][] previousWallBits;
+    @Nullable Player previousLastMover;
+    long previousZobristKey;
+    long previousMirroredZobristKey;
+    @Nullable Snapshot previousSnapshot;
+
+    void clear() {
+      player = null;
+      previousPawn = null;
+      wall = null;
+      previousWallsAvailable = null;
+      previousWallBits = null;
+      previousLastMover = null;
+      previousSnapshot = null;
+    }
+  }
+
+  /**
+   * An immutable snapshot of a board at a given point in time.
+   *
+   * <p>A snapshot holds the walls in the board's bitsets, which are never modified once shared, and
+   * builds the sets of {@linkplain #walledOffGrooves grooves} and {@linkplain #walledOffVertices
+   * vertices} from them only when first requested.
+   */
   @AutoValue
   public abstract static class Snapshot {
 
@@ -141,20 +566,140 @@ public final class Board {
     /** Returns a map indicating how many walls each player has remaining. */
     public abstract ImmutableMap<Player, Integer> wallsAvailable();
 
+    /**
+     * Returns the player who most recently moved a pawn or placed a wall, or {@code null} if the
+     * board has not been mutated.
+     *
+     * <p>Given a fixed turn order, this determines which player is next to move.
+     */
+    @Nullable
+    public abstract Player lastMover();
+
+    /** Returns the {@linkplain Board#zobristKey Zobrist key} of this position. */
+    public abstract long zobristKey();
+
+    /** Returns the Zobrist key of the {@linkplain #mirror mirror image} of this position. */
+    public abstract long mirroredZobristKey();
+
+    /** The walled-off grooves, vertical then horizontal, indexed by grid cell. Never modified. */
+    @SuppressWarnings("mutable")
+    abstract long[] grooveBits();
+
+    /** The walled-off vertices, indexed by grid cell. Never modified. */
+    @SuppressWarnings("mutable")
+    abstract long[] vertexBits();
+
     /** Returns the set of grooves that are walled off. */
-    public abstract ImmutableSet<Groove> walledOffGrooves();
+    @Memoized
+    public ImmutableSet<Groove> walledOffGrooves() {
+      int cellCount = size() * size();
+      long[] grooves = grooveBits();
+      ImmutableSet.Builder<Groove> walledOffGrooves = ImmutableSet.builder();
+      for (int i = nextSetBit(grooves, 0); i >= 0; i = nextSetBit(grooves, i + 1)) {
+        int cell = i % cellCount;
+        walledOffGrooves.add(
+            i < cellCount
+                ? Groove.vertical(column(cell, size()), row(cell, size()))
+                : Groove.horizontal(column(cell, size()), row(cell, size())));
+      }
+      return walledOffGrooves.build();
+    }
 
     /** Returns the set of vertices that are walled off. */
-    public abstract ImmutableSet<Vertex> walledOffVertices();
-
-    @AutoValue.Builder
-    abstract static class Builder {
-      abstract Builder setSize(int size);
-      abstract Builder setPawns(Map<Player, Square> pawns);
-      abstract Builder setWallsAvailable(Map<Player, Integer> wallsAvailable);
-      abstract Builder setWalledOffGrooves(Set<Groove> walledOffGrooves);
-      abstract Builder setWalledOffVertices(Set<Vertex> walledOffVertices);
-      abstract Snapshot build();
+    @Memoized
+    public ImmutableSet<Vertex> walledOffVertices() {
+      long[] vertices = vertexBits();
+      ImmutableSet.Builder<Vertex> walledOffVertices = ImmutableSet.builder();
+      for (int i = nextSetBit(vertices, 0); i >= 0; i = nextSetBit(vertices, i + 1)) {
+        walledOffVertices.add(Vertex.at(column(i, size()), row(i, size())));
+      }
+      return walledOffVertices.build();
+    }
+
+    /**
+     * Returns the mirror image of this position, reflected left to right so that the first and last
+     * columns trade places. Every pawn and wall moves to the reflected location, and the walls
+     * available and the last mover are unchanged.
+     *
+     * <p>When every player aims for a row, as the two players of a standard game do, a position
+     * and its mirror image are equivalent: every move in one corresponds to the mirrored move in
+     * the other, and the outcome is the same. Otherwise the mirror image is of no particular use.
+     *
+     * <p>This method throws {@link IllegalStateException} if a wall lies on the right edge of the
+     * board, which has no mirror image on the board. Such walls cannot be placed in a game.
+     */
+    public Snapshot mirror() {
+      int size = size();
+      int cellCount = size * size;
+      Map<Player, Square> mirroredPawns = new EnumMap<>(Player.class);
+      pawns()
+          .forEach(
+              (player, square) ->
+                  mirroredPawns.put(
+                      player, Square.at(mirroredColumn(square.column(), 1, size), square.row())));
+      long[] grooves = grooveBits();
+      long[] mirroredGrooves = new long[grooves.length];
+      for (int i = nextSetBit(grooves, 0); i >= 0; i = nextSetBit(grooves, i + 1)) {
+        int width = i < cellCount ? 2 : 1;
+        set(mirroredGrooves, i - i % cellCount + mirroredCell(i % cellCount, width));
+      }
+      long[] vertices = vertexBits();
+      long[] mirroredVertices = new long[vertices.length];
+      for (int i = nextSetBit(vertices, 0); i >= 0; i = nextSetBit(vertices, i + 1)) {
+        set(mirroredVertices, mirroredCell(i, 2));
+      }
+      return new AutoValue_Board_Snapshot(
+          size,
+          ImmutableMap.copyOf(mirroredPawns),
+          wallsAvailable(),
+          lastMover(),
+          mirroredZobristKey(),
+          zobristKey(),
+          mirroredGrooves,
+          mirroredVertices);
+    }
+
+    /**
+     * Returns the canonical form of this position: this position or its {@linkplain #mirror mirror
+     * image}, whichever has the smaller {@linkplain #zobristKey Zobrist key}. A position and its
+     * mirror image have the same canonical form, so it may be used to store one entry for both.
+     *
+     * <p>A position that is its own mirror image is its own canonical form. The canonical form
+     * only identifies equivalent positions if every player aims for a row, which is checked by
+     * {@link BoardGeometry#isMirrorSymmetric}.
+     */
+    public Snapshot canonical() {
+      return isCanonical() ? this : mirror();
+    }
+
+    /**
+     * Returns {@code true} if this position is its own {@linkplain #canonical canonical form}.
+     * Otherwise, moves found for the canonical form must be {@linkplain
+     * sublimedisruptors.quoridor.move.PackedMove#mirror mirrored} to apply to this position.
+     */
+    public boolean isCanonical() {
+      return zobristKey() <= mirroredZobristKey();
+    }
+
+    /** Returns the grid index of the mirror image of a location spanning {@code width} columns. */
+    private int mirroredCell(int cell, int width) {
+      int column = cell % size();
+      int mirroredColumn = size() - width - column;
+      checkState(mirroredColumn >= 0, "Wall on the edge of the board cannot be mirrored");
+      return cell - column + mirroredColumn;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper("Snapshot")
+          .add("size", size())
+          .add("pawns", pawns())
+          .add("wallsAvailable", wallsAvailable())
+          .add("walledOffGrooves", walledOffGrooves())
+          .add("walledOffVertices", walledOffVertices())
+          .add("lastMover", lastMover())
+          .add("zobristKey", zobristKey())
+          .toString();
     }
   }
 }
@@ -0,0 +1,327 @@
+package sublimedisruptors.quoridor.board;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Groove.Orientation;
+
+/**
+ * Precomputed lookup tables describing the shape of a Quoridor board.
+ *
+ * <p>A geometry depends only on the {@linkplain QuoridorSettings#boardSize board size} and the
+ * {@linkplain QuoridorSettings#wallLength wall length}. Geometries are immutable and cached, so all
+ * boards of the same shape share a single instance obtained via {@link #forSettings}.
+ *
+ * <p>Locations are identified by dense integer indices, which are shared with {@link Board}:
+ *
+ * <ul>
+ *   <li>A square or vertex at column {@code c} and row {@code r} has index {@code (r - 1) * size +
+ *       (c - 'a')}, in the range {@code [0, size * size)}.
+ *   <li>A groove has index {@code orientation.ordinal() * size * size + i}, where {@code i} is the
+ *       index of the groove's location as above. Vertical grooves thus come first, followed by
+ *       horizontal grooves.
+ *   <li>A wall placement has an index in the range {@code [0, wallPlacementCount())}. Only walls of
+ *       the configured length that lie entirely within the interior of the board have a placement
+ *       index.
+ * </ul>
+ *
+ * <p>Methods that look up a neighboring location return {@code -1} if there is no such location on
+ * the board.
+ */
+public final class BoardGeometry {
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final Player[] PLAYERS = Player.values();
+  private static final ConcurrentMap<Long, BoardGeometry> cache = new ConcurrentHashMap<>();
+
+  /** Returns the geometry shared by all boards created with the given {@code settings}. */
+  public static BoardGeometry forSettings(QuoridorSettings settings) {
+    return of(settings.boardSize(), settings.wallLength());
+  }
+
+  /**
+   * Returns {@code true} if every player of games with the given {@code settings} aims for a row
+   * rather than a column, so that every position is equivalent to its {@linkplain
+   * Board.Snapshot#mirror mirror image}. This holds for two-player games, but not for four.
+   */
+  public static boolean isMirrorSymmetric(QuoridorSettings settings) {
+    for (Player player : settings.players()) {
+      if (player != Player.PLAYER1 && player != Player.PLAYER2) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static BoardGeometry of(int size, int wallLength) {
+    checkArgument(size > 0, "Board size must be positive, got %s", size);
+    checkArgument(wallLength > 0, "Wall length must be positive, got %s", wallLength);
+    return cache.computeIfAbsent(
+        ((long) size << 32) | wallLength, key -> new BoardGeometry(size, wallLength));
+  }
+
+  private final int size;
+  private final int wallLength;
+  private final int squareCount;
+  private final Square[] squares;
+  private final Groove[] grooves;
+  private final Vertex[] vertices;
+  private final int[] neighbors;
+  private final int[] borderingGrooves;
+  private final Wall[] walls;
+  private final int[] wallPlacementIndices;
+  private final int[] coveredGrooves;
+  private final int[] coveredVertices;
+  private final long[][] goalMasks;
+  private final int[] initialSquares;
+
+  private BoardGeometry(int size, int wallLength) {
+    this.size = size;
+    this.wallLength = wallLength;
+    this.squareCount = size * size;
+    this.squares = new Square[squareCount];
+    this.grooves = new Groove[2 * squareCount];
+    this.vertices = new Vertex[squareCount];
+    this.neighbors = new int[squareCount * DIRECTIONS.length];
+    this.borderingGrooves = new int[squareCount * DIRECTIONS.length];
+    for (int index = 0; index < squareCount; index++) {
+      char column = column(index);
+      int row = row(index);
+      squares[index] = Square.at(column, row);
+      vertices[index] = Vertex.at(column, row);
+      grooves[index] = Groove.vertical(column, row);
+      grooves[squareCount + index] = Groove.horizontal(column, row);
+    }
+    for (int index = 0; index < squareCount; index++) {
+      for (Direction direction : DIRECTIONS) {
+        int neighbor = squareIndex(squares[index].adjacentSquare(direction));
+        neighbors[index * DIRECTIONS.length + direction.ordinal()] = neighbor;
+        borderingGrooves[index * DIRECTIONS.length + direction.ordinal()] =
+            neighbor < 0 ? -1 : grooveIndex(squares[index].borderingGroove(direction));
+      }
+    }
+
+    // A wall must not cover a groove on the right or bottom edge of the board, and it must fit
+    // within the remaining rows (vertical) or columns (horizontal).
+    int perOrientation = Math.max(0, size - wallLength + 1) * (size - 1);
+    this.walls = new Wall[2 * perOrientation];
+    this.wallPlacementIndices = new int[2 * squareCount];
+    this.coveredGrooves = new int[walls.length * wallLength];
+    this.coveredVertices = new int[walls.length * (wallLength - 1)];
+    Arrays.fill(wallPlacementIndices, -1);
+    int placement = 0;
+    for (Orientation orientation : Orientation.values()) {
+      for (int index = 0; index < squareCount; index++) {
+        boolean vertical = orientation == Orientation.VERTICAL;
+        int along = vertical ? index / size : index % size;
+        int across = vertical ? index % size : index / size;
+        if (across >= size - 1 || along + wallLength > size) {
+          continue;
+        }
+        Wall wall =
+            vertical
+                ? Wall.vertical(column(index), row(index)).withLength(wallLength)
+                : Wall.horizontal(column(index), row(index)).withLength(wallLength);
+        walls[placement] = wall;
+        wallPlacementIndices[orientation.ordinal() * squareCount + index] = placement;
+        int step = vertical ? size : 1;
+        for (int i = 0; i < wallLength; i++) {
+          coveredGrooves[placement * wallLength + i] =
+              orientation.ordinal() * squareCount + index + i * step;
+        }
+        for (int i = 0; i < wallLength - 1; i++) {
+          coveredVertices[placement * (wallLength - 1) + i] = index + i * step;
+        }
+        placement++;
+      }
+    }
+
+    this.goalMasks = new long[PLAYERS.length][];
+    this.initialSquares = new int[PLAYERS.length];
+    int middle = size / 2;
+    for (Player player : PLAYERS) {
+      long[] goalMask = new long[(squareCount + Long.SIZE - 1) / Long.SIZE];
+      for (int index = 0; index < squareCount; index++) {
+        if (isGoalLocation(player, index % size, index / size)) {
+          goalMask[index >>> 6] |= 1L << index;
+        }
+      }
+      goalMasks[player.ordinal()] = goalMask;
+      int initialColumn;
+      int initialRow;
+      switch (player) {
+        case PLAYER1:
+          initialColumn = middle;
+          initialRow = size - 1;
+          break;
+        case PLAYER2:
+          initialColumn = middle;
+          initialRow = 0;
+          break;
+        case PLAYER3:
+          initialColumn = 0;
+          initialRow = middle;
+          break;
+        case PLAYER4:
+          initialColumn = size - 1;
+          initialRow = middle;
+          break;
+        default:
+          throw new IllegalStateException("Unknown player: " + player);
+      }
+      initialSquares[player.ordinal()] = initialRow * size + initialColumn;
+    }
+  }
+
+  /** Returns the number of rows and columns on the board. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns the length of each wall, in terms of the number of grooves it covers. */
+  public int wallLength() {
+    return wallLength;
+  }
+
+  /** Returns the number of squares on the board, which is also the number of vertex indices. */
+  public int squareCount() {
+    return squareCount;
+  }
+
+  /** Returns the number of groove indices, which is twice the number of squares. */
+  public int grooveCount() {
+    return 2 * squareCount;
+  }
+
+  /** Returns the index of the given square or vertex, or {@code -1} if it is off the board. */
+  public int squareIndex(Locatable location) {
+    return cellIndex(size, location.column(), location.row());
+  }
+
+  /** Returns the index of the given groove, or {@code -1} if it is off the board. */
+  public int grooveIndex(Groove groove) {
+    int index = squareIndex(groove);
+    return index < 0 ? -1 : groove.orientation().ordinal() * squareCount + index;
+  }
+
+  /** Returns the {@link Square} with the given index. */
+  public Square square(int squareIndex) {
+    return squares[squareIndex];
+  }
+
+  /** Returns the {@link Groove} with the given index. */
+  public Groove groove(int grooveIndex) {
+    return grooves[grooveIndex];
+  }
+
+  /** Returns the {@link Vertex} with the given index. */
+  public Vertex vertex(int vertexIndex) {
+    return vertices[vertexIndex];
+  }
+
+  /** Returns the index of the square adjacent to the given square in the given direction. */
+  public int neighbor(int squareIndex, Direction direction) {
+    return neighbors[squareIndex * DIRECTIONS.length + direction.ordinal()];
+  }
+
+  /**
+   * Returns the index of the groove between the given square and its {@linkplain #neighbor
+   * neighbor} in the given direction.
+   */
+  public int borderingGroove(int squareIndex, Direction direction) {
+    return borderingGrooves[squareIndex * DIRECTIONS.length + direction.ordinal()];
+  }
+
+  /** Returns the number of distinct walls that may be placed on an empty board. */
+  public int wallPlacementCount() {
+    return walls.length;
+  }
+
+  /**
+   * Returns the placement index of the given wall, or {@code -1} if the wall has the wrong length
+   * or is not entirely within the interior of the board.
+   */
+  public int wallPlacementIndex(Wall wall) {
+    if (wall.length() != wallLength) {
+      return -1;
+    }
+    int index = squareIndex(wall.firstVertex());
+    return index < 0
+        ? -1
+        : wallPlacementIndices[wall.orientation().ordinal() * squareCount + index];
+  }
+
+  /** Returns the {@link Wall} with the given placement index. */
+  public Wall wall(int wallPlacementIndex) {
+    return walls[wallPlacementIndex];
+  }
+
+  /**
+   * Returns the index of the {@code i}th groove covered by the wall with the given placement index,
+   * where {@code 0 <= i < wallLength()}.
+   */
+  public int coveredGroove(int wallPlacementIndex, int i) {
+    return coveredGrooves[wallPlacementIndex * wallLength + i];
+  }
+
+  /**
+   * Returns the index of the {@code i}th vertex covered by the wall with the given placement index,
+   * where {@code 0 <= i < wallLength() - 1}.
+   */
+  public int coveredVertex(int wallPlacementIndex, int i) {
+    return coveredVertices[wallPlacementIndex * (wallLength - 1) + i];
+  }
+
+  /** Returns {@code true} if {@code player} wins the game by reaching the given square. */
+  public boolean isGoal(Player player, int squareIndex) {
+    return (goalMasks[player.ordinal()][squareIndex >>> 6] & (1L << squareIndex)) != 0;
+  }
+
+  /**
+   * Returns a bitset of the squares that are goals for {@code player}, where bit {@code i} of word
+   * {@code i / 64} is set if square {@code i} is a goal. The returned array must not be modified.
+   */
+  public long[] goalMask(Player player) {
+    return goalMasks[player.ordinal()];
+  }
+
+  /** Returns the index of the square on which {@code player}'s pawn starts the game. */
+  public int initialSquare(Player player) {
+    return initialSquares[player.ordinal()];
+  }
+
+  static int cellIndex(int size, char column, int row) {
+    int columnOffset = column - 'a';
+    int rowOffset = row - 1;
+    if (columnOffset < 0 || columnOffset >= size || rowOffset < 0 || rowOffset >= size) {
+      return -1;
+    }
+    return rowOffset * size + columnOffset;
+  }
+
+  private boolean isGoalLocation(Player player, int columnOffset, int rowOffset) {
+    switch (player) {
+      case PLAYER1:
+        return rowOffset == 0;
+      case PLAYER2:
+        return rowOffset == size - 1;
+      case PLAYER3:
+        return columnOffset == size - 1;
+      case PLAYER4:
+        return columnOffset == 0;
+    }
+    throw new IllegalArgumentException("Unknown player: " + player);
+  }
+
+  private char column(int index) {
+    return (char) ('a' + index % size);
+  }
+
+  private int row(int index) {
+    return index / size + 1;
+  }
+}
@@ -23,8 +23,21 @@ public abstract class Groove implements Locatable {
     HORIZONTAL
   }
 
+  private static final Orientation[] ORIENTATIONS = Orientation.values();
+  private static final Groove[] cache = new Groove[ORIENTATIONS.length * LocationCache.SIZE];
   private static final Interner<Groove> interner = Interners.newStrongInterner();
 
+  static {
+    for (int i = 0; i < cache.length; i++) {
+      int location = i % LocationCache.SIZE;
+      cache[i] =
+          new AutoValue_Groove(
+              LocationCache.column(location),
+              LocationCache.row(location),
+              ORIENTATIONS[i / LocationCache.SIZE]);
+    }
+  }
+
   public static Groove vertical(char column, int row) {
     return groove(column, row, Orientation.VERTICAL);
   }
@@ -34,7 +47,10 @@ public abstract class Groove implements Locatable {
   }
 
   static Groove groove(char column, int row, Orientation orientation) {
-    return interner.intern(new AutoValue_Groove(column, row, orientation));
+    int index = LocationCache.index(column, row);
+    return index >= 0
+        ? cache[orientation.ordinal() * LocationCache.SIZE + index]
+        : interner.intern(new AutoValue_Groove(column, row, orientation));
   }
 
   public abstract Orientation orientation();
@@ -0,0 +1,44 @@
+package sublimedisruptors.quoridor.board;
+
+/**
+ * The range of coordinates for which {@link Square}, {@link Vertex}, {@link Groove} and {@link
+ * Wall} instances are held in flat arrays, so that obtaining one is a single array load rather than
+ * a lookup in a shared, ever-growing interner.
+ *
+ * <p>The range covers boards of up to {@value #MAX_BOARD_SIZE} rows and columns, plus a margin of
+ * one on every side so that locations just past the edge of a board, such as those produced by
+ * {@link Direction#apply}, are also cached. Locations outside of the range fall back to interning.
+ */
+final class LocationCache {
+
+  static final int MAX_BOARD_SIZE = 26;
+
+  private static final int SPAN = MAX_BOARD_SIZE + 2;
+
+  /** The number of distinct cached coordinates. */
+  static final int SIZE = SPAN * SPAN;
+
+  /**
+   * Returns the cache index in {@code [0, SIZE)} for the given coordinates, or {@code -1} if they
+   * are outside of the cached range.
+   */
+  static int index(char column, int row) {
+    int columnOffset = column - 'a' + 1;
+    if (columnOffset < 0 || columnOffset >= SPAN || row < 0 || row >= SPAN) {
+      return -1;
+    }
+    return row * SPAN + columnOffset;
+  }
+
+  /** Returns the column of the given cache index. */
+  static char column(int index) {
+    return (char) ('a' - 1 + index % SPAN);
+  }
+
+  /** Returns the row of the given cache index. */
+  static int row(int index) {
+    return index / SPAN;
+  }
+
+  private LocationCache() {}
+}
@@ -16,10 +16,18 @@ import sublimedisruptors.quoridor.board.Groove.Orientation;
 @AutoValue
 public abstract class Square implements Locatable {
 
+  private static final Square[] cache = new Square[LocationCache.SIZE];
   private static final Interner<Square> interner = Interners.newStrongInterner();
 
+  static {
+    for (int i = 0; i < cache.length; i++) {
+      cache[i] = new AutoValue_Square(LocationCache.column(i), LocationCache.row(i));
+    }
+  }
+
   public static Square at(char column, int row) {
-    return interner.intern(new AutoValue_Square(column, row));
+    int index = LocationCache.index(column, row);
+    return index >= 0 ? cache[index] : interner.intern(new AutoValue_Square(column, row));
   }
 
   /** Returns the {@link Groove} that borders this square in the given {@link Direction}. */
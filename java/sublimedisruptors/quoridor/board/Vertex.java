@@ -8,9 +8,17 @@ import com.google.common.collect.Interners;
 @AutoValue
 public abstract class Vertex implements Locatable {
 
+  private static final Vertex[] cache = new Vertex[LocationCache.SIZE];
   private static final Interner<Vertex> interner = Interners.newStrongInterner();
 
+  static {
+    for (int i = 0; i < cache.length; i++) {
+      cache[i] = new AutoValue_Vertex(LocationCache.column(i), LocationCache.row(i));
+    }
+  }
+
   static Vertex at(char column, int row) {
-    return interner.intern(new AutoValue_Vertex(column, row));
+    int index = LocationCache.index(column, row);
+    return index >= 0 ? cache[index] : interner.intern(new AutoValue_Vertex(column, row));
   }
 }
@@ -7,6 +7,7 @@ import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Interner;
 import com.google.common.collect.Interners;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 import sublimedisruptors.quoridor.board.Groove.Orientation;
@@ -35,18 +36,20 @@ import sublimedisruptors.quoridor.board.Groove.Orientation;
 @AutoValue
 public abstract class Wall {
 
+  /** Walls of up to this length are cached in a flat array, longer walls are interned. */
+  private static final int MAX_CACHED_LENGTH = 9;
+
+  private static final AtomicReferenceArray<Wall> cache =
+      new AtomicReferenceArray<>(
+          Orientation.values().length * MAX_CACHED_LENGTH * LocationCache.SIZE);
   private static final Interner<Wall> interner = Interners.newStrongInterner();
 
   public static Builder vertical(char column, int row) {
-    return builder(column, row).setOrientation(Orientation.VERTICAL);
+    return new Builder(column, row, Orientation.VERTICAL);
   }
 
   public static Builder horizontal(char column, int row) {
-    return builder(column, row).setOrientation(Orientation.HORIZONTAL);
-  }
-
-  private static Builder builder(char column, int row) {
-    return new AutoValue_Wall.Builder().setFirstVertex(Vertex.at(column, row));
+    return new Builder(column, row, Orientation.HORIZONTAL);
   }
 
   /** Returns the {@linkplain Groove grooves} covered by this wall. */
@@ -63,22 +66,53 @@ public abstract class Wall {
   }
 
   public abstract int length();
-  abstract Vertex firstVertex();
-  abstract Orientation orientation();
 
-  @AutoValue.Builder
-  public abstract static class Builder {
+  /**
+   * Returns the {@link Vertex} at which this wall starts, which shares its column and row with the
+   * first {@linkplain #coveredGrooves covered groove}.
+   */
+  public abstract Vertex firstVertex();
+
+  /** Returns the {@link Orientation} of every groove covered by this wall. */
+  public abstract Orientation orientation();
+
+  /**
+   * Completes a {@link Wall} by specifying its length.
+   *
+   * <p>Walls within the {@linkplain LocationCache cached range} are created lazily and published
+   * with a compare-and-set, so concurrent callers never block and always observe the same instance.
+   */
+  public static final class Builder {
 
-    public final Wall withLength(int length) {
+    private final char column;
+    private final int row;
+    private final Orientation orientation;
+
+    private Builder(char column, int row, Orientation orientation) {
+      this.column = column;
+      this.row = row;
+      this.orientation = orientation;
+    }
+
+    public Wall withLength(int length) {
       checkArgument(length > 0, "Wall length must be positive, got %s", length);
-      setLength(length);
-      return interner.intern(build());
+      int location = LocationCache.index(column, row);
+      if (location < 0 || length > MAX_CACHED_LENGTH) {
+        return interner.intern(create(length));
+      }
+      int index =
+          (orientation.ordinal() * MAX_CACHED_LENGTH + length - 1) * LocationCache.SIZE + location;
+      Wall wall = cache.get(index);
+      if (wall == null) {
+        Wall created = create(length);
+        wall = cache.compareAndSet(index, null, created) ? created : cache.get(index);
+      }
+      return wall;
     }
 
-    abstract Builder setFirstVertex(Vertex firstVertex);
-    abstract Builder setOrientation(Orientation orientation);
-    abstract Builder setLength(int length);
-    abstract Wall build();
+    private Wall create(int length) {
+      return new AutoValue_Wall(length, Vertex.at(column, row), orientation);
+    }
   }
 
   private Stream<Vertex> vertexStream() {
@@ -0,0 +1,90 @@
+package sublimedisruptors.quoridor.board;
+
+import javax.annotation.Nullable;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Groove.Orientation;
+
+/**
+ * Zobrist keys for the features of a {@link Board}.
+ *
+ * <p>The key of a board is the XOR of the keys of all of its features: the square occupied by each
+ * player's pawn, each walled-off groove and vertex, the number of walls available to each player,
+ * and the player who made the most recent move (which, given a fixed turn order, determines whose
+ * turn it is). Since XOR is its own inverse, the key can be maintained incrementally as features
+ * are added and removed.
+ *
+ * <p>The {@linkplain Board#mirroredZobristKey mirrored key} of a board is the key of its mirror
+ * image, which is maintained in the same way from the features reflected left to right.
+ *
+ * <p>Rather than drawing each feature's key from a table of random numbers, keys are derived by
+ * mixing a unique encoding of the feature. This supports boards of any size without allocating
+ * tables, and keys are stable across processes so that they may be persisted.
+ */
+final class Zobrist {
+
+  private static final int PAWN = 1;
+  private static final int GROOVE = 2;
+  private static final int VERTEX = 3;
+  private static final int WALLS_AVAILABLE = 4;
+  private static final int LAST_MOVER = 5;
+
+  static long pawn(Player player, Square square) {
+    return pawn(player, square.column(), square.row());
+  }
+
+  static long pawn(Player player, char column, int row) {
+    return mix(PAWN, player.ordinal(), column, row);
+  }
+
+  static long groove(Orientation orientation, char column, int row) {
+    return mix(GROOVE, orientation.ordinal(), column, row);
+  }
+
+  static long vertex(char column, int row) {
+    return mix(VERTEX, 0, column, row);
+  }
+
+  static long wallsAvailable(Player player, int wallsAvailable) {
+    return mix(WALLS_AVAILABLE, player.ordinal(), 0, wallsAvailable);
+  }
+
+  static long lastMover(@Nullable Player player) {
+    return player == null ? 0 : mix(LAST_MOVER, player.ordinal(), 0, 0);
+  }
+
+  /** Computes the key of {@code snapshot} from scratch. */
+  static long keyOf(Board.Snapshot snapshot) {
+    long key = lastMover(snapshot.lastMover());
+    for (Player player : snapshot.pawns().keySet()) {
+      key ^= pawn(player, snapshot.pawns().get(player));
+    }
+    for (Player player : snapshot.wallsAvailable().keySet()) {
+      key ^= wallsAvailable(player, snapshot.wallsAvailable().get(player));
+    }
+    for (Groove groove : snapshot.walledOffGrooves()) {
+      key ^= groove(groove.orientation(), groove.column(), groove.row());
+    }
+    for (Vertex vertex : snapshot.walledOffVertices()) {
+      key ^= vertex(vertex.column(), vertex.row());
+    }
+    return key;
+  }
+
+  /**
+   * Packs the given fields into a unique 64-bit value and scrambles it with the SplitMix64
+   * finalizer, which is a bijection, so that distinct features never share a key.
+   */
+  private static long mix(int feature, int variant, int column, int row) {
+    long z =
+        ((long) feature << 56)
+            | ((long) variant << 48)
+            | ((column & 0xFFFFL) << 32)
+            | (row & 0xFFFFFFFFL);
+    z += 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private Zobrist() {}
+}
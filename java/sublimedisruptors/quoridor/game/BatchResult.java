@@ -0,0 +1,95 @@
+package sublimedisruptors.quoridor.game;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.List;
+import javax.annotation.Nullable;
+import sublimedisruptors.quoridor.Player;
+
+/** The outcome of a batch of games played by a {@link BatchRunner}. */
+@AutoValue
+public abstract class BatchResult {
+
+  static BatchResult create(List<GameOutcome> games, Duration elapsed) {
+    return new AutoValue_BatchResult(ImmutableList.copyOf(games), elapsed);
+  }
+
+  /** The outcome of each game, in the order in which the games were numbered. */
+  public abstract ImmutableList<GameOutcome> games();
+
+  /** The wall-clock time spent playing the whole batch. */
+  public abstract Duration elapsed();
+
+  /** Returns the number of games won by {@code player}. */
+  public final int wins(Player player) {
+    return (int) games().stream().filter(game -> game.winner() == player).count();
+  }
+
+  /**
+   * Returns the number of games lost by {@code player}, either because another player won or
+   * because {@code player} forfeited.
+   */
+  public final int losses(Player player) {
+    return (int)
+        games().stream()
+            .filter(
+                game ->
+                    (game.winner() != null && game.winner() != player)
+                        || game.forfeiter() == player)
+            .count();
+  }
+
+  /** Returns the number of games forfeited by {@code player} by requesting an illegal move. */
+  public final int forfeits(Player player) {
+    return (int) games().stream().filter(game -> game.forfeiter() == player).count();
+  }
+
+  /** Returns the number of games that reached the maximum number of plies without a winner. */
+  public final int draws() {
+    return (int) games().stream().filter(GameOutcome::isDrawn).count();
+  }
+
+  /** Returns the mean number of moves per game, or zero if no games were played. */
+  public final double averagePlies() {
+    return games().stream().mapToInt(GameOutcome::plies).average().orElse(0);
+  }
+
+  /** Returns the number of games played per second of {@link #elapsed} time. */
+  public final double gamesPerSecond() {
+    long nanos = elapsed().toNanos();
+    return nanos == 0 ? 0 : games().size() * 1e9 / nanos;
+  }
+
+  /** The outcome of a single game in a batch. */
+  @AutoValue
+  public abstract static class GameOutcome {
+
+    static GameOutcome create(
+        int index, long seed, @Nullable Player winner, @Nullable Player forfeiter, int plies) {
+      return new AutoValue_BatchResult_GameOutcome(index, seed, winner, forfeiter, plies);
+    }
+
+    /** The number of the game within its batch, starting from zero. */
+    public abstract int index();
+
+    /** The seed passed to the players of the game, with which it can be reproduced. */
+    public abstract long seed();
+
+    /** The winner, or {@code null} if the game was drawn or forfeited. */
+    @Nullable
+    public abstract Player winner();
+
+    /** The player who requested an illegal move, ending the game, or {@code null} if none did. */
+    @Nullable
+    public abstract Player forfeiter();
+
+    /** The number of moves made by all players. */
+    public abstract int plies();
+
+    /** Returns {@code true} if the game ended with neither a winner nor a forfeit. */
+    public final boolean isDrawn() {
+      return winner() == null && forfeiter() == null;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package sublimedisruptors.quoridor.game;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.player.QuoridorPlayer;
+
+/**
+ * Plays a batch of games between the same players, several at a time, and reports aggregate
+ * results.
+ *
+ * <p>Each game is played by its own {@link GameMaster} with newly created players, so players are
+ * never shared between games. Each game is also given a seed, derived from the seed of the batch
+ * and the number of the game, which is passed to {@linkplain SeededFactory seeded factories}. A
+ * batch run with the same seed and deterministic players therefore always has the same outcome,
+ * regardless of the number of threads.
+ *
+ * <p>A player that requests an illegal move forfeits the game in which it did so, and the rest of
+ * the batch is still played. Any other exception thrown by a player fails the whole batch.
+ */
+public final class BatchRunner {
+
+  /** The maximum number of moves per game used by {@link #create}. */
+  public static final int DEFAULT_MAX_PLIES = 1000;
+
+  /** Creates {@link QuoridorPlayer} instances for the games of a batch. */
+  @FunctionalInterface
+  public interface SeededFactory {
+    /**
+     * Creates a {@link QuoridorPlayer} prepared to participate as {@code self} in a game with the
+     * given {@code settings}, using {@code seed} for any random choices it makes.
+     */
+    QuoridorPlayer createPlayer(Player self, QuoridorSettings settings, long seed);
+  }
+
+  /**
+   * Creates a runner that plays games with the given {@code settings} between players created by
+   * {@code playerFactories}, on one thread per available processor, declaring a draw after
+   * {@value #DEFAULT_MAX_PLIES} moves.
+   *
+   * <p>{@code playerFactories} must contain an entry for each player in {@link
+   * QuoridorSettings#players}.
+   */
+  public static BatchRunner create(
+      QuoridorSettings settings, Map<Player, QuoridorPlayer.Factory> playerFactories) {
+    return create(
+        settings, playerFactories, fixedThreadPools(Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Creates a runner that plays games with the given {@code settings} between players created by
+   * {@code playerFactories}, on an executor obtained from {@code executors} for each run, declaring
+   * a draw after {@value #DEFAULT_MAX_PLIES} moves. The runner shuts down each executor once its
+   * run is over, so on Java 21 {@code Executors::newVirtualThreadPerTaskExecutor} plays each game
+   * on a virtual thread of its own.
+   *
+   * <p>{@code playerFactories} must contain an entry for each player in {@link
+   * QuoridorSettings#players}.
+   */
+  public static BatchRunner create(
+      QuoridorSettings settings,
+      Map<Player, QuoridorPlayer.Factory> playerFactories,
+      Supplier<? extends ExecutorService> executors) {
+    Map<Player, SeededFactory> seededFactories = new EnumMap<>(Player.class);
+    playerFactories.forEach(
+        (player, factory) ->
+            seededFactories.put(
+                player, (self, gameSettings, seed) -> factory.createPlayer(self, gameSettings)));
+    return createSeeded(settings, seededFactories, executors, DEFAULT_MAX_PLIES);
+  }
+
+  /**
+   * Creates a runner that plays games with the given {@code settings} between players created by
+   * {@code playerFactories}, on the given number of {@code threads}, declaring a draw after {@code
+   * maxPlies} moves.
+   *
+   * <p>{@code playerFactories} must contain an entry for each player in {@link
+   * QuoridorSettings#players}.
+   */
+  public static BatchRunner createSeeded(
+      QuoridorSettings settings,
+      Map<Player, ? extends SeededFactory> playerFactories,
+      int threads,
+      int maxPlies) {
+    checkArgument(threads > 0, "Threads must be positive, got %s", threads);
+    return createSeeded(settings, playerFactories, fixedThreadPools(threads), maxPlies);
+  }
+
+  /**
+   * Creates a runner that plays games with the given {@code settings} between players created by
+   * {@code playerFactories}, on an executor obtained from {@code executors} for each run, declaring
+   * a draw after {@code maxPlies} moves. The runner shuts down each executor once its run is over.
+   *
+   * <p>{@code playerFactories} must contain an entry for each player in {@link
+   * QuoridorSettings#players}.
+   */
+  public static BatchRunner createSeeded(
+      QuoridorSettings settings,
+      Map<Player, ? extends SeededFactory> playerFactories,
+      Supplier<? extends ExecutorService> executors,
+      int maxPlies) {
+    checkNotNull(executors);
+    checkArgument(maxPlies > 0, "Max plies must be positive, got %s", maxPlies);
+    for (Player player : settings.players()) {
+      checkNotNull(playerFactories.get(player), "No factory for %s", player);
+    }
+    return new BatchRunner(settings, ImmutableMap.copyOf(playerFactories), executors, maxPlies);
+  }
+
+  /**
+   * Returns a supplier of pools of the given number of platform threads. These are the default, as
+   * virtual threads need Java 21, and nothing in the build requires a JDK that new.
+   */
+  private static Supplier<ExecutorService> fixedThreadPools(int threads) {
+    return () ->
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("batch-runner-%d").build());
+  }
+
+  private final QuoridorSettings settings;
+  private final ImmutableMap<Player, SeededFactory> playerFactories;
+  private final Supplier<? extends ExecutorService> executors;
+  private final int maxPlies;
+
+  private BatchRunner(
+      QuoridorSettings settings,
+      ImmutableMap<Player, SeededFactory> playerFactories,
+      Supplier<? extends ExecutorService> executors,
+      int maxPlies) {
+    this.settings = settings;
+    this.playerFactories = playerFactories;
+    this.executors = executors;
+    this.maxPlies = maxPlies;
+  }
+
+  /**
+   * Plays the given number of {@code games}, with per-game seeds derived from {@code seed}, and
+   * returns once all of them are over.
+   */
+  public BatchResult run(int games, long seed) {
+    checkArgument(games >= 0, "Negative number of games: %s", games);
+    long start = System.nanoTime();
+    ExecutorService executor = checkNotNull(executors.get(), "Null executor");
+    try {
+      List<Future<BatchResult.GameOutcome>> futures = new ArrayList<>(games);
+      for (int i = 0; i < games; i++) {
+        int index = i;
+        futures.add(executor.submit(() -> play(index, gameSeed(seed, index))));
+      }
+      List<BatchResult.GameOutcome> outcomes = new ArrayList<>(games);
+      for (Future<BatchResult.GameOutcome> future : futures) {
+        outcomes.add(getUninterruptibly(future));
+      }
+      return BatchResult.create(outcomes, Duration.ofNanos(System.nanoTime() - start));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private BatchResult.GameOutcome play(int index, long seed) {
+    Map<Player, QuoridorPlayer.Factory> factories = new EnumMap<>(Player.class);
+    playerFactories.forEach(
+        (player, factory) ->
+            factories.put(
+                player, (self, gameSettings) -> factory.createPlayer(self, gameSettings, seed)));
+    GameMaster gameMaster = GameMaster.setUpGame(settings, factories);
+    try {
+      gameMaster.playGame(maxPlies);
+    } catch (IllegalMoveException e) {
+      return BatchResult.GameOutcome.create(
+          index, seed, null, e.player(), gameMaster.getPlyCount());
+    }
+    return BatchResult.GameOutcome.create(
+        index,
+        seed,
+        gameMaster.isDrawn() ? null : gameMaster.getWinner(),
+        null,
+        gameMaster.getPlyCount());
+  }
+
+  /**
+   * Returns the seed for the game numbered {@code index} in a batch run with {@code seed}, mixed
+   * with the SplitMix64 finalizer so that neighbouring games get unrelated seeds.
+   */
+  static long gameSeed(long seed, int index) {
+    long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private static BatchResult.GameOutcome getUninterruptibly(
+      Future<BatchResult.GameOutcome> future) {
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Game failed", e.getCause());
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package sublimedisruptors.quoridor.game;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.auto.value.AutoValue;
+import java.time.Duration;
+
+/**
+ * Time controls for a game of Quoridor.
+ *
+ * <p>Each player starts with the same {@linkplain #initialTime amount of time}, which runs down
+ * while it is that player's turn, and gains an {@linkplain #increment increment} after each move it
+ * makes (the "Fischer" increment). Independently of the time remaining, a single move may take at
+ * most the {@linkplain #moveLimit move limit}. A player that exceeds either has timed out, and is
+ * dealt with according to the {@linkplain #timeoutAction timeout action}.
+ *
+ * <p>Clocks may be constructed via the {@link Builder}, or by calling {@link #fischer}.
+ */
+@AutoValue
+public abstract class GameClock {
+
+  /** What a {@link GameMaster} does when a player times out. */
+  public enum TimeoutAction {
+    /**
+     * The game ends immediately with no winner, as it does when a player requests an illegal move.
+     */
+    FORFEIT,
+    /**
+     * The game master moves the player's pawn one step along a shortest path to its goal instead,
+     * and the move the player requested, if it ever arrives, is discarded. The player's clock is
+     * charged the time the move took, but no more than the move limit, and gains the increment as
+     * usual. If the pawn has no valid move, the player forfeits as under {@link #FORFEIT}.
+     */
+    MOVE_TOWARD_GOAL
+  }
+
+  /** No limit on the duration of a move beyond the time remaining on the player's clock. */
+  public static final Duration NO_MOVE_LIMIT = Duration.ofNanos(Long.MAX_VALUE);
+
+  /**
+   * Creates a clock that gives each player {@code initialTime} plus {@code increment} per move,
+   * with no other limit on a single move, and that forfeits the game when a player times out.
+   */
+  public static GameClock fischer(Duration initialTime, Duration increment) {
+    return builder().setInitialTime(initialTime).setIncrement(increment).build();
+  }
+
+  /**
+   * Returns a builder with no increment, {@linkplain #NO_MOVE_LIMIT no move limit} and a timeout
+   * action of {@link TimeoutAction#FORFEIT}. The initial time must be set.
+   */
+  public static Builder builder() {
+    return new AutoValue_GameClock.Builder()
+        .setIncrement(Duration.ZERO)
+        .setMoveLimit(NO_MOVE_LIMIT)
+        .setTimeoutAction(TimeoutAction.FORFEIT);
+  }
+
+  /** The time each player has at the start of the game. */
+  public abstract Duration initialTime();
+
+  /** The time added to a player's clock after each move it makes. */
+  public abstract Duration increment();
+
+  /** The maximum duration of a single move, regardless of the time remaining. */
+  public abstract Duration moveLimit();
+
+  /** What happens when a player runs out of time. */
+  public abstract TimeoutAction timeoutAction();
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    /** Sets the {@linkplain #initialTime initial time}, which must be positive. */
+    public abstract Builder setInitialTime(Duration initialTime);
+
+    /** Sets the {@linkplain #increment increment}, which must not be negative. */
+    public abstract Builder setIncrement(Duration increment);
+
+    /** Sets the {@linkplain #moveLimit move limit}, which must be positive. */
+    public abstract Builder setMoveLimit(Duration moveLimit);
+
+    /** Sets the {@linkplain #timeoutAction timeout action}. */
+    public abstract Builder setTimeoutAction(TimeoutAction timeoutAction);
+
+    /**
+     * Builds the clock.
+     *
+     * <p>This method throws {@link IllegalStateException} if any setting is invalid.
+     */
+    public final GameClock build() {
+      GameClock clock = autoBuild();
+      checkState(
+          !clock.initialTime().isNegative() && !clock.initialTime().isZero(),
+          "Initial time must be positive, got %s",
+          clock.initialTime());
+      checkState(
+          !clock.increment().isNegative(),
+          "Increment must be non-negative, got %s",
+          clock.increment());
+      checkState(
+          !clock.moveLimit().isNegative() && !clock.moveLimit().isZero(),
+          "Move limit must be positive, got %s",
+          clock.moveLimit());
+      return clock;
+    }
+
+    abstract GameClock autoBuild();
+  }
+}
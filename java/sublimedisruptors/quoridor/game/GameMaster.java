@@ -1,23 +1,46 @@
 package sublimedisruptors.quoridor.game;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterators;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.Nullable;
 import sublimedisruptors.quoridor.Player;
 import sublimedisruptors.quoridor.QuoridorSettings;
 import sublimedisruptors.quoridor.board.Board;
 import sublimedisruptors.quoridor.board.Square;
 import sublimedisruptors.quoridor.move.Move;
 import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.player.AsyncQuoridorPlayer;
 import sublimedisruptors.quoridor.player.QuoridorPlayer;
+import sublimedisruptors.quoridor.record.GameRecordWriter;
 
-/** Plays a game of Quoridor. */
+/**
+ * Plays a game of Quoridor.
+ *
+ * <p>A game may be played {@linkplain #playGame() on the calling thread}, which blocks while each
+ * player decides on its move, or {@linkplain #playGameAsync asynchronously} under a {@link
+ * GameClock}, in which case no thread is blocked while a player is thinking and a player that
+ * takes too long is dealt with according to the clock's {@linkplain GameClock#timeoutAction
+ * timeout action}.
+ */
 public final class GameMaster {
 
   /**
@@ -31,6 +54,24 @@ public final class GameMaster {
    */
   public static GameMaster setUpGame(
       QuoridorSettings settings, Map<Player, QuoridorPlayer.Factory> playerFactories) {
+    Map<Player, AsyncQuoridorPlayer.Factory> asyncFactories = new EnumMap<>(Player.class);
+    playerFactories.forEach(
+        (player, factory) ->
+            asyncFactories.put(
+                player,
+                (self, gameSettings) -> {
+                  QuoridorPlayer playerImpl = factory.createPlayer(self, gameSettings);
+                  return playerImpl == null ? null : AsyncQuoridorPlayer.blocking(playerImpl);
+                }));
+    return setUpAsyncGame(settings, asyncFactories);
+  }
+
+  /**
+   * Creates a {@code GameMaster} for {@linkplain AsyncQuoridorPlayer asynchronous players}, with
+   * the same requirements as {@link #setUpGame}.
+   */
+  public static GameMaster setUpAsyncGame(
+      QuoridorSettings settings, Map<Player, AsyncQuoridorPlayer.Factory> playerFactories) {
     Board board = Board.createFromSettings(settings);
     return new GameMaster(
         board,
@@ -39,13 +80,13 @@ public final class GameMaster {
         createPlayerImpls(playerFactories, settings));
   }
 
-  private static Map<Player, QuoridorPlayer> createPlayerImpls(
-      Map<Player, QuoridorPlayer.Factory> playerFactories, QuoridorSettings settings) {
-    Map<Player, QuoridorPlayer> playerImpls = new EnumMap<>(Player.class);
+  private static Map<Player, AsyncQuoridorPlayer> createPlayerImpls(
+      Map<Player, AsyncQuoridorPlayer.Factory> playerFactories, QuoridorSettings settings) {
+    Map<Player, AsyncQuoridorPlayer> playerImpls = new EnumMap<>(Player.class);
     for (Player player : settings.players()) {
-      QuoridorPlayer.Factory factory =
+      AsyncQuoridorPlayer.Factory factory =
           checkNotNull(playerFactories.get(player), "No factory for %s", player);
-      QuoridorPlayer playerImpl =
+      AsyncQuoridorPlayer playerImpl =
           checkNotNull(
               factory.createPlayer(player, settings), "%s factory created a null player", player);
       playerImpls.put(player, playerImpl);
@@ -56,21 +97,41 @@ public final class GameMaster {
   private final Board board;
   private final RulesGovernor governor;
   private final Iterator<Player> players;
-  private final Map<Player, QuoridorPlayer> playerImpls;
+  private final Map<Player, AsyncQuoridorPlayer> playerImpls;
+  private final Map<Player, Long> remainingNanos = new EnumMap<>(Player.class);
   private boolean played = false;
+  private boolean drawn = false;
+  private int plyCount = 0;
+  private Player lastPlayerToMove = null;
+  private Square lastPawnMove = null;
   private Player winner = null;
+  @Nullable private GameRecordWriter recorder = null;
 
   private GameMaster(
       Board board,
       RulesGovernor governor,
       Iterator<Player> players,
-      Map<Player, QuoridorPlayer> playerImpls) {
+      Map<Player, AsyncQuoridorPlayer> playerImpls) {
     this.board = board;
     this.governor = governor;
     this.players = players;
     this.playerImpls = playerImpls;
   }
 
+  /**
+   * Records the game to {@code recorder} as it is played, which must not have had any moves
+   * appended. The record is {@linkplain GameRecordWriter#end ended} when the game ends, including
+   * when a player forfeits, and is then complete up to the last legal move.
+   *
+   * <p>This method must be called before the game is played. A failure to write the record fails
+   * the game with {@link UncheckedIOException}.
+   */
+  public void recordTo(GameRecordWriter recorder) {
+    checkState(!played, "Game already played");
+    checkArgument(recorder.moveCount() == 0, "Record already has moves");
+    this.recorder = recorder;
+  }
+
   /**
    * Plays the game.
    *
@@ -80,47 +141,317 @@ public final class GameMaster {
    * there will be no winner.
    */
   public void playGame() {
+    playGame(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Plays the game, declaring a {@linkplain #isDrawn draw} if no player has won after {@code
+   * maxPlies} moves in total.
+   *
+   * <p>It is an error to call this method twice on the same {@code GameMaster} instance.
+   *
+   * <p>If any player requests an illegal move, this method throws {@link IllegalMoveException} and
+   * there will be no winner.
+   */
+  public void playGame(int maxPlies) {
+    startGame(maxPlies);
+    try {
+      while (!isOver(maxPlies)) {
+        Player player = players.next();
+        ImmutableSet<Move> validPawnMoves = governor.generateValidPawnMoves(player);
+        Move move = awaitMove(requestMove(player, validPawnMoves));
+        makeMove(player, move, validPawnMoves);
+      }
+    } finally {
+      endRecord();
+    }
+  }
+
+  /**
+   * Plays the game asynchronously under the given {@code clock}, with no limit on the number of
+   * moves.
+   *
+   * @see #playGameAsync(GameClock, int, ScheduledExecutorService)
+   */
+  public CompletableFuture<Void> playGameAsync(GameClock clock, ScheduledExecutorService timer) {
+    return playGameAsync(clock, Integer.MAX_VALUE, timer);
+  }
+
+  /**
+   * Plays the game asynchronously under the given {@code clock}, declaring a {@linkplain #isDrawn
+   * draw} if no player has won after {@code maxPlies} moves in total, and continuing turns that
+   * were not decided immediately on the {@linkplain ForkJoinPool#commonPool common pool}.
+   *
+   * @see #playGameAsync(GameClock, int, ScheduledExecutorService, Executor)
+   */
+  public CompletableFuture<Void> playGameAsync(
+      GameClock clock, int maxPlies, ScheduledExecutorService timer) {
+    return playGameAsync(clock, maxPlies, timer, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Plays the game asynchronously under the given {@code clock}, declaring a {@linkplain #isDrawn
+   * draw} if no player has won after {@code maxPlies} moves in total.
+   *
+   * <p>{@code timer} is used only to detect timeouts, so it may be shared by any number of games. A
+   * move that a player decides on immediately is followed by the next turn on the same thread; once
+   * a player's move arrives later, or it times out, the game continues on {@code executor}. The
+   * returned future completes when the game is over, after which {@link #getWinner} may be called.
+   * It completes exceptionally with {@link IllegalMoveException} if a player requests an illegal
+   * move, with {@link MoveTimeoutException} if a player forfeits by timing out, or with any
+   * exception with which a player's move completed.
+   *
+   * <p>It is an error to call this method, or {@link #playGame}, twice on the same {@code
+   * GameMaster} instance.
+   */
+  public CompletableFuture<Void> playGameAsync(
+      GameClock clock, int maxPlies, ScheduledExecutorService timer, Executor executor) {
+    checkNotNull(clock);
+    checkNotNull(timer);
+    checkNotNull(executor);
+    startGame(maxPlies);
+    long initialNanos = clock.initialTime().toNanos();
+    for (Player player : playerImpls.keySet()) {
+      remainingNanos.put(player, initialNanos);
+    }
+    CompletableFuture<Void> game = new CompletableFuture<>();
+    playTurns(game, clock, maxPlies, timer, executor);
+    return game;
+  }
+
+  /**
+   * Plays turns until the game is over or a player does not decide on its move immediately, in
+   * which case the remaining turns are played once the move arrives.
+   */
+  private void playTurns(
+      CompletableFuture<Void> game,
+      GameClock clock,
+      int maxPlies,
+      ScheduledExecutorService timer,
+      Executor executor) {
+    try {
+      while (!isOver(maxPlies)) {
+        Player player = players.next();
+        ImmutableSet<Move> validPawnMoves = governor.generateValidPawnMoves(player);
+        long allowedNanos = Math.min(remainingNanos.get(player), clock.moveLimit().toNanos());
+        long start = System.nanoTime();
+        CompletableFuture<Move> requested = requestMove(player, validPawnMoves);
+        CompletableFuture<Move> turn = new CompletableFuture<>();
+        ScheduledFuture<?> timeout =
+            timer.schedule(
+                () -> turn.completeExceptionally(new TimeoutException()),
+                allowedNanos,
+                NANOSECONDS);
+        requested.whenComplete(
+            (move, failure) -> {
+              if (failure == null) {
+                turn.complete(move);
+              } else {
+                turn.completeExceptionally(failure);
+              }
+            });
+        if (!turn.isDone()) {
+          // Not on the thread that completed the turn, which may be the shared timer.
+          turn.whenCompleteAsync(
+              (move, failure) -> {
+                try {
+                  finishTurn(
+                      player, validPawnMoves, clock, start, allowedNanos, requested, timeout);
+                } catch (RuntimeException e) {
+                  endGame(game, e);
+                  return;
+                }
+                playTurns(game, clock, maxPlies, timer, executor);
+              },
+              executor);
+          return;
+        }
+        finishTurn(player, validPawnMoves, clock, start, allowedNanos, requested, timeout);
+      }
+    } catch (RuntimeException e) {
+      endGame(game, e);
+      return;
+    }
+    endGame(game, null);
+  }
+
+  /** Ends the record, if any, and completes {@code game}, exceptionally if there was a failure. */
+  private void endGame(CompletableFuture<Void> game, @Nullable RuntimeException failure) {
+    try {
+      endRecord();
+    } catch (RuntimeException e) {
+      if (failure == null) {
+        failure = e;
+      } else {
+        failure.addSuppressed(e);
+      }
+    }
+    if (failure == null) {
+      game.complete(null);
+    } else {
+      game.completeExceptionally(failure);
+    }
+  }
+
+  /** Makes the move requested by {@code player}, or deals with its timeout, and runs its clock. */
+  private void finishTurn(
+      Player player,
+      ImmutableSet<Move> validPawnMoves,
+      GameClock clock,
+      long start,
+      long allowedNanos,
+      CompletableFuture<Move> requested,
+      ScheduledFuture<?> timeout) {
+    timeout.cancel(false);
+    long elapsedNanos = System.nanoTime() - start;
+    // A move that overran its limit is charged the limit, like a move that took just as long.
+    long chargedNanos = Math.min(elapsedNanos, clock.moveLimit().toNanos());
+    long remaining = Math.max(0, remainingNanos.get(player) - chargedNanos);
+    if (elapsedNanos > allowedNanos || !requested.isDone()) {
+      requested.cancel(true);
+      // A pawn with no valid move cannot be moved toward its goal, so its player forfeits.
+      if (clock.timeoutAction() == GameClock.TimeoutAction.FORFEIT || validPawnMoves.isEmpty()) {
+        throw new MoveTimeoutException(player, Duration.ofNanos(elapsedNanos), board.snapshot());
+      }
+      makeMove(player, moveTowardGoal(player, validPawnMoves), validPawnMoves);
+    } else {
+      makeMove(player, awaitMove(requested), validPawnMoves);
+    }
+    long increment = clock.increment().toNanos();
+    remainingNanos.put(
+        player, remaining > Long.MAX_VALUE - increment ? Long.MAX_VALUE : remaining + increment);
+  }
+
+  private CompletableFuture<Move> requestMove(Player player, ImmutableSet<Move> validPawnMoves) {
+    return checkNotNull(
+        playerImpls.get(player).getMove(board.snapshot(), validPawnMoves),
+        "%s returned a null future",
+        player);
+  }
+
+  private void startGame(int maxPlies) {
+    checkArgument(maxPlies > 0, "Max plies must be positive, got %s", maxPlies);
     checkState(!played, "Game already played");
     played = true;
-    Player lastPlayerToMove = null;
-    Square lastPawnMove = null;
-    while (!gameOver(lastPlayerToMove, lastPawnMove)) {
-      Player player = players.next();
-      ImmutableSet<Move> validPawnMoves = governor.generateValidPawnMoves(player);
-      Move move = playerImpls.get(player).getMove(board.snapshot(), validPawnMoves);
-      checkLegalMove(move, mv -> mv.player() == player, player);
-      if (move.type() == Move.Type.PAWN) {
-        checkLegalMove(move, validPawnMoves::contains, player);
-        Square destination = move.destination();
-        board.movePawn(player, destination);
-        lastPawnMove = destination;
-      } else {
-        checkLegalMove(move, governor::isValidWallMove, player);
-        board.placeWall(move.wall(), player);
-        lastPawnMove = null;
+  }
+
+  /** Returns {@code true}, and records the result, if the game is over. */
+  private boolean isOver(int maxPlies) {
+    if (lastPawnMove != null && governor.isGoal(lastPlayerToMove, lastPawnMove)) {
+      winner = lastPlayerToMove;
+      return true;
+    }
+    if (plyCount == maxPlies) {
+      drawn = true;
+      return true;
+    }
+    return false;
+  }
+
+  private void makeMove(Player player, Move move, ImmutableSet<Move> validPawnMoves) {
+    checkLegalMove(move, mv -> mv != null && mv.player() == player, player);
+    if (move.type() == Move.Type.PAWN) {
+      checkLegalMove(move, validPawnMoves::contains, player);
+      Square destination = move.destination();
+      board.movePawn(player, destination);
+      lastPawnMove = destination;
+    } else {
+      checkLegalMove(move, governor::isValidWallMove, player);
+      board.placeWall(move.wall(), player);
+      lastPawnMove = null;
+    }
+    lastPlayerToMove = player;
+    plyCount++;
+    if (recorder != null) {
+      try {
+        recorder.append(move);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private void endRecord() {
+    if (recorder != null) {
+      try {
+        recorder.end();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
       }
-      lastPlayerToMove = player;
     }
-    winner = lastPlayerToMove;
+  }
+
+  /**
+   * Returns the valid pawn move after which {@code player} is closest to its goal, of which there
+   * must be at least one.
+   */
+  private Move moveTowardGoal(Player player, ImmutableSet<Move> validPawnMoves) {
+    Move best = null;
+    int bestDistance = Integer.MAX_VALUE;
+    for (Move move : validPawnMoves) {
+      board.movePawn(player, move.destination());
+      int distance = governor.shortestDistanceToGoal(player);
+      board.undo();
+      if (distance < bestDistance) {
+        best = move;
+        bestDistance = distance;
+      }
+    }
+    return best;
+  }
+
+  /** Returns the number of moves made so far by all players. */
+  public int getPlyCount() {
+    return plyCount;
+  }
+
+  /**
+   * Returns the time remaining on {@code player}'s clock, which is only kept for games {@linkplain
+   * #playGameAsync played asynchronously}.
+   */
+  public Duration getRemainingTime(Player player) {
+    Long remaining = remainingNanos.get(player);
+    checkState(remaining != null, "No clock for %s", player);
+    return Duration.ofNanos(remaining);
+  }
+
+  /**
+   * Returns {@code true} if the game was drawn because it reached the maximum number of plies
+   * passed to {@link #playGame(int)}.
+   */
+  public boolean isDrawn() {
+    return drawn;
   }
 
   /**
    * Returns the winner of this game.
    *
-   * <p>This method must only be called after {@link #playGame}.
+   * <p>This method must only be called after {@link #playGame}, and not if the game was
+   * {@linkplain #isDrawn drawn}.
    */
   public Player getWinner() {
     checkState(played && winner != null, "Game not played to completion");
     return winner;
   }
 
-  private boolean gameOver(Player lastPlayerToMove, Square lastPawnMove) {
-    return lastPawnMove != null && governor.isGoal(lastPlayerToMove, lastPawnMove);
-  }
-
   private void checkLegalMove(Move move, Predicate<Move> predicate, Player player) {
     if (!predicate.test(move)) {
       throw new IllegalMoveException(move, player, board.snapshot());
     }
   }
+
+  /** Waits for a move that was requested from a player, rethrowing any failure of the player. */
+  private static Move awaitMove(CompletableFuture<Move> move) {
+    try {
+      return move.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
 }
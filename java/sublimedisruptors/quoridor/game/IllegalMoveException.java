@@ -10,7 +10,15 @@ import sublimedisruptors.quoridor.move.Move;
  */
 final class IllegalMoveException extends RuntimeException {
 
+  private final Player player;
+
   IllegalMoveException(Move move, Player player, Board.Snapshot board) {
     super(String.format("%s requested an illegal move: %s\n%s", player, move, board));
+    this.player = player;
+  }
+
+  /** Returns the player who requested the illegal move. */
+  Player player() {
+    return player;
   }
 }
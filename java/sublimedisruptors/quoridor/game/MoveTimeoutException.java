@@ -0,0 +1,25 @@
+package sublimedisruptors.quoridor.game;
+
+import java.time.Duration;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Board;
+
+/**
+ * An exception that occurs when a {@link sublimedisruptors.quoridor.player.AsyncQuoridorPlayer}
+ * runs out of time under a {@link GameClock} that {@linkplain GameClock.TimeoutAction#FORFEIT
+ * forfeits} the game, or when its pawn has no valid move to be made for it instead.
+ */
+final class MoveTimeoutException extends RuntimeException {
+
+  private final Player player;
+
+  MoveTimeoutException(Player player, Duration elapsed, Board.Snapshot board) {
+    super(String.format("%s ran out of time after %s\n%s", player, elapsed, board));
+    this.player = player;
+  }
+
+  /** Returns the player who ran out of time. */
+  Player player() {
+    return player;
+  }
+}
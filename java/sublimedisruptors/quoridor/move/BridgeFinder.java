@@ -0,0 +1,159 @@
+package sublimedisruptors.quoridor.move;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.board.Direction;
+
+/**
+ * Finds the grooves that separate a player's pawn from their goal, i.e. the grooves which, if
+ * walled off on their own, would leave the player with no way to reach the goal.
+ *
+ * <p>The squares of the board form a graph whose edges are the grooves that are not walled off. All
+ * of the player's goal squares are additionally connected to a single virtual goal node. One
+ * depth-first search over this graph identifies every bridge using Tarjan's algorithm, and a bridge
+ * separates the pawn from the goal exactly when the goal node lies beneath it in the search tree.
+ * The same search yields a path to the goal, and a wall that covers none of the path's grooves can
+ * never block the player.
+ *
+ * <p>A {@code BridgeFinder} reuses its arrays between analyses, so analyzing does not allocate.
+ * Consequently, it is not safe for concurrent use.
+ */
+final class BridgeFinder {
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final BoardGeometry geometry;
+  private final int goalNode;
+  private final int[] discovery;
+  private final int[] low;
+  private final int[] parents;
+  private final int[] parentGrooves;
+  private final int[] nextEdges;
+  private final int[] stack;
+  private final long[] separatingGrooves;
+  private final long[] pathGrooves;
+
+  BridgeFinder(BoardGeometry geometry) {
+    this.geometry = checkNotNull(geometry);
+    this.goalNode = geometry.squareCount();
+    this.discovery = new int[goalNode + 1];
+    this.low = new int[goalNode + 1];
+    this.parents = new int[goalNode + 1];
+    this.parentGrooves = new int[goalNode + 1];
+    this.nextEdges = new int[goalNode + 1];
+    this.stack = new int[goalNode + 1];
+    this.separatingGrooves = new long[(geometry.grooveCount() + Long.SIZE - 1) / Long.SIZE];
+    this.pathGrooves = new long[separatingGrooves.length];
+  }
+
+  /**
+   * Analyzes the grooves of {@code board} with respect to {@code player}, replacing the results of
+   * any previous analysis.
+   *
+   * @return {@code false} if {@code player} already has no path to their goal, in which case no
+   *     grooves are reported as separating or on the path
+   */
+  boolean analyze(Player player, Board board) {
+    checkArgument(
+        board.size() == geometry.size(),
+        "Board of size %s does not match geometry of size %s",
+        board.size(),
+        geometry.size());
+    int start = board.pawnIndex(player);
+    checkState(start >= 0, "%s has no pawn on board", player);
+    Arrays.fill(discovery, 0);
+    Arrays.fill(separatingGrooves, 0);
+    Arrays.fill(pathGrooves, 0);
+
+    int time = 0;
+    int depth = 0;
+    discovery[start] = low[start] = ++time;
+    parents[start] = -1;
+    nextEdges[start] = 0;
+    stack[depth++] = start;
+    while (depth > 0) {
+      int node = stack[depth - 1];
+      int child = -1;
+      int childGroove = -1;
+      int edgeCount = node == goalNode ? goalNode : DIRECTIONS.length + 1;
+      while (child < 0 && nextEdges[node] < edgeCount) {
+        int edge = nextEdges[node]++;
+        int other;
+        int groove = -1;
+        if (node == goalNode) {
+          other = geometry.isGoal(player, edge) ? edge : -1;
+        } else if (edge == 0) {
+          // Try the goal first, so that the path found ends at the first goal square reached.
+          other = geometry.isGoal(player, node) ? goalNode : -1;
+        } else {
+          Direction direction = DIRECTIONS[edge - 1];
+          other = geometry.neighbor(node, direction);
+          groove = geometry.borderingGroove(node, direction);
+          if (other >= 0 && board.isGrooveWalledOff(groove)) {
+            other = -1;
+          }
+        }
+        if (other < 0 || other == parents[node]) {
+          continue;
+        }
+        if (discovery[other] != 0) {
+          low[node] = Math.min(low[node], discovery[other]);
+        } else {
+          child = other;
+          childGroove = groove;
+        }
+      }
+
+      if (child >= 0) {
+        discovery[child] = low[child] = ++time;
+        parents[child] = node;
+        parentGrooves[child] = childGroove;
+        nextEdges[child] = 0;
+        stack[depth++] = child;
+        continue;
+      }
+      depth--;
+      int parent = parents[node];
+      if (parent < 0) {
+        continue;
+      }
+      low[parent] = Math.min(low[parent], low[node]);
+      // Every node discovered since this one is beneath it, so the goal node is beneath it iff it
+      // has been discovered since.
+      int groove = parentGrooves[node];
+      if (groove >= 0 && low[node] > discovery[parent] && discovery[goalNode] >= discovery[node]) {
+        separatingGrooves[groove >>> 6] |= 1L << groove;
+      }
+    }
+
+    if (discovery[goalNode] == 0) {
+      return false;
+    }
+    for (int node = goalNode; node != start; node = parents[node]) {
+      int groove = parentGrooves[node];
+      if (groove >= 0) {
+        pathGrooves[groove >>> 6] |= 1L << groove;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns {@code true} if walling off the given groove alone would prevent the player from
+   * reaching their goal.
+   */
+  boolean isSeparating(int grooveIndex) {
+    return (separatingGrooves[grooveIndex >>> 6] & (1L << grooveIndex)) != 0;
+  }
+
+  /** Returns {@code true} if the given groove is on the path found by the last analysis. */
+  boolean isOnPath(int grooveIndex) {
+    return (pathGrooves[grooveIndex >>> 6] & (1L << grooveIndex)) != 0;
+  }
+}
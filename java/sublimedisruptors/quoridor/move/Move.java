@@ -3,6 +3,7 @@ package sublimedisruptors.quoridor.move;
 import com.google.auto.value.AutoOneOf;
 import com.google.auto.value.AutoValue;
 import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Board;
 import sublimedisruptors.quoridor.board.Square;
 import sublimedisruptors.quoridor.board.Wall;
 
@@ -78,6 +79,28 @@ public abstract class Move {
     return pawnOrWall().wall();
   }
 
+  /**
+   * Applies this move to {@code board}.
+   *
+   * <p>Like the {@link Board} methods it delegates to, this performs no validation. The move can be
+   * reverted by calling {@link Board#undo}.
+   */
+  public final void applyTo(Board board) {
+    if (type() == Type.PAWN) {
+      board.movePawn(player(), destination());
+    } else {
+      board.placeWall(wall(), player());
+    }
+  }
+
+  /**
+   * Returns the move that corresponds to this one in the {@linkplain Board.Snapshot#mirror mirror
+   * image} of a position on a board of the given size.
+   */
+  public final Move mirror(int boardSize) {
+    return PackedMove.decode(PackedMove.mirror(PackedMove.encode(this), boardSize));
+  }
+
   abstract PawnOrWall pawnOrWall();
 
   @AutoOneOf(Type.class)
@@ -0,0 +1,93 @@
+package sublimedisruptors.quoridor.move;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, growable list of {@linkplain PackedMove packed moves}.
+ *
+ * <p>A {@code MoveList} is backed by an {@code int} array that only grows, so once it has reached
+ * the size needed for a position, {@linkplain #clear clearing} and refilling it does not allocate.
+ * Callers that generate moves repeatedly, such as searches, should hold on to one list per ply.
+ */
+public final class MoveList {
+
+  private static final int DEFAULT_CAPACITY = 160;
+
+  private int[] moves;
+  private int size = 0;
+
+  /** Creates an empty list with room for all moves on a standard board. */
+  public MoveList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /** Creates an empty list with the given initial capacity. */
+  public MoveList(int initialCapacity) {
+    this.moves = new int[Math.max(initialCapacity, 1)];
+  }
+
+  /** Returns the number of moves in this list. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns {@code true} if this list contains no moves. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns the packed move at the given {@code index}. */
+  public int get(int index) {
+    checkElementIndex(index, size);
+    return moves[index];
+  }
+
+  /** Replaces the packed move at the given {@code index}. */
+  public void set(int index, int packedMove) {
+    checkElementIndex(index, size);
+    moves[index] = packedMove;
+  }
+
+  /** Appends the given packed move to the end of this list. */
+  public void add(int packedMove) {
+    if (size == moves.length) {
+      moves = Arrays.copyOf(moves, size * 2);
+    }
+    moves[size++] = packedMove;
+  }
+
+  /** Returns {@code true} if this list contains the given packed move. */
+  public boolean contains(int packedMove) {
+    for (int i = 0; i < size; i++) {
+      if (moves[i] == packedMove) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Swaps the moves at the two given indices, which is useful for ordering moves in place. */
+  public void swap(int i, int j) {
+    checkElementIndex(i, size);
+    checkElementIndex(j, size);
+    int move = moves[i];
+    moves[i] = moves[j];
+    moves[j] = move;
+  }
+
+  /** Removes all moves from this list, retaining its capacity. */
+  public void clear() {
+    size = 0;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      builder.append(i == 0 ? "" : ", ").append(PackedMove.decode(moves[i]));
+    }
+    return builder.append(']').toString();
+  }
+}
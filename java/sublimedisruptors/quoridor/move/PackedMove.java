@@ -0,0 +1,184 @@
+package sublimedisruptors.quoridor.move;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Groove.Orientation;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move.Type;
+
+/**
+ * Static utilities for encoding a {@link Move} as a single non-negative {@code int}.
+ *
+ * <p>Packed moves carry exactly the same information as {@link Move} instances and can be converted
+ * in either direction via {@link #encode} and {@link #decode}. Unlike {@code Move}, they can be
+ * created, stored and compared without allocating, which makes them suitable for move generation
+ * in {@link MoveList}s, search and transposition tables.
+ *
+ * <p>From least to most significant, a packed move holds the row (8 bits), the column offset from
+ * {@code 'a'} (8 bits), the {@linkplain Type type} (1 bit), the wall {@linkplain Orientation
+ * orientation} (1 bit), the wall length (6 bits) and the {@link Player} (2 bits). The row and
+ * column are those of the destination square of a pawn move or of the {@linkplain
+ * Wall#firstVertex first vertex} of a wall. Pawn moves have orientation and length zero.
+ */
+public final class PackedMove {
+
+  /** A value that is never a valid packed move, which may be used to denote the absence of one. */
+  public static final int NONE = -1;
+
+  private static final Player[] PLAYERS = Player.values();
+  private static final Orientation[] ORIENTATIONS = Orientation.values();
+
+  private static final int COORDINATE_BITS = 8;
+  private static final int COORDINATE_MASK = (1 << COORDINATE_BITS) - 1;
+  private static final int COLUMN_SHIFT = COORDINATE_BITS;
+  private static final int TYPE_SHIFT = 2 * COORDINATE_BITS;
+  private static final int ORIENTATION_SHIFT = TYPE_SHIFT + 1;
+  private static final int LENGTH_SHIFT = ORIENTATION_SHIFT + 1;
+  private static final int LENGTH_BITS = 6;
+  private static final int LENGTH_MASK = (1 << LENGTH_BITS) - 1;
+  private static final int PLAYER_SHIFT = LENGTH_SHIFT + LENGTH_BITS;
+
+  /** Encodes a move of {@code player}'s pawn to the square at the given column and row. */
+  public static int pawnMove(Player player, char column, int row) {
+    return pack(player, column, row) | (Type.PAWN.ordinal() << TYPE_SHIFT);
+  }
+
+  /** Encodes the placement by {@code player} of a wall starting at the given column and row. */
+  public static int wallMove(
+      Player player, Orientation orientation, char column, int row, int length) {
+    checkArgument(
+        length > 0 && length <= LENGTH_MASK,
+        "Wall length must be in [1, %s], got %s",
+        LENGTH_MASK,
+        length);
+    return pack(player, column, row)
+        | (Type.WALL.ordinal() << TYPE_SHIFT)
+        | (orientation.ordinal() << ORIENTATION_SHIFT)
+        | (length << LENGTH_SHIFT);
+  }
+
+  /** Encodes the given {@code move}. */
+  public static int encode(Move move) {
+    if (move.type() == Type.PAWN) {
+      Square destination = move.destination();
+      return pawnMove(move.player(), destination.column(), destination.row());
+    }
+    Wall wall = move.wall();
+    return wallMove(
+        move.player(),
+        wall.orientation(),
+        wall.firstVertex().column(),
+        wall.firstVertex().row(),
+        wall.length());
+  }
+
+  /** Decodes the given packed move into an equivalent {@link Move}. */
+  public static Move decode(int packedMove) {
+    if (type(packedMove) == Type.PAWN) {
+      return Move.pawnMove(player(packedMove), destination(packedMove));
+    }
+    return Move.wallMove(player(packedMove), wall(packedMove));
+  }
+
+  /** Returns the {@link Player} responsible for the given packed move. */
+  public static Player player(int packedMove) {
+    return PLAYERS[packedMove >>> PLAYER_SHIFT];
+  }
+
+  /** Returns the {@link Type} of the given packed move. */
+  public static Type type(int packedMove) {
+    return ((packedMove >>> TYPE_SHIFT) & 1) == 0 ? Type.PAWN : Type.WALL;
+  }
+
+  /**
+   * Returns the column of the destination of a pawn move or of the first vertex of a wall move.
+   */
+  public static char column(int packedMove) {
+    return (char) ('a' + ((packedMove >>> COLUMN_SHIFT) & COORDINATE_MASK));
+  }
+
+  /** Returns the row of the destination of a pawn move or of the first vertex of a wall move. */
+  public static int row(int packedMove) {
+    return packedMove & COORDINATE_MASK;
+  }
+
+  /** Returns the {@link Orientation} of a wall move. */
+  public static Orientation orientation(int packedMove) {
+    checkArgument(type(packedMove) == Type.WALL, "Not a wall move");
+    return ORIENTATIONS[(packedMove >>> ORIENTATION_SHIFT) & 1];
+  }
+
+  /** Returns the length of the wall of a wall move. */
+  public static int wallLength(int packedMove) {
+    checkArgument(type(packedMove) == Type.WALL, "Not a wall move");
+    return (packedMove >>> LENGTH_SHIFT) & LENGTH_MASK;
+  }
+
+  /** Returns the destination {@link Square} of a pawn move. */
+  public static Square destination(int packedMove) {
+    checkArgument(type(packedMove) == Type.PAWN, "Not a pawn move");
+    return Square.at(column(packedMove), row(packedMove));
+  }
+
+  /** Returns the {@link Wall} of a wall move. */
+  public static Wall wall(int packedMove) {
+    Wall.Builder builder =
+        orientation(packedMove) == Orientation.VERTICAL
+            ? Wall.vertical(column(packedMove), row(packedMove))
+            : Wall.horizontal(column(packedMove), row(packedMove));
+    return builder.withLength(wallLength(packedMove));
+  }
+
+  /**
+   * Returns the packed move that corresponds to the given one in the {@linkplain
+   * Board.Snapshot#mirror mirror image} of a position on a board of the given size, or {@link
+   * #NONE} if {@code packedMove} is {@code NONE}. Mirroring a move twice restores it.
+   *
+   * <p>Only the column changes. A pawn's square and a horizontal wall are reflected across the
+   * board, while a vertical wall, which lies between two columns, is reflected to lie between
+   * their mirror images.
+   */
+  public static int mirror(int packedMove, int boardSize) {
+    if (packedMove == NONE) {
+      return NONE;
+    }
+    int width =
+        type(packedMove) == Type.PAWN
+            ? 1
+            : orientation(packedMove) == Orientation.VERTICAL ? 2 : wallLength(packedMove);
+    int columnOffset = boardSize - width - ((packedMove >>> COLUMN_SHIFT) & COORDINATE_MASK);
+    checkArgument(
+        columnOffset >= 0 && columnOffset <= COORDINATE_MASK,
+        "%s cannot be mirrored on a board of size %s",
+        decode(packedMove),
+        boardSize);
+    return (packedMove & ~(COORDINATE_MASK << COLUMN_SHIFT)) | (columnOffset << COLUMN_SHIFT);
+  }
+
+  /**
+   * Applies the given packed move to {@code board}, without decoding it into a {@link Move}.
+   *
+   * <p>Like {@link Move#applyTo}, this performs no validation. The move can be reverted by calling
+   * {@link Board#undo}.
+   */
+  public static void applyTo(int packedMove, Board board) {
+    if (type(packedMove) == Type.PAWN) {
+      board.movePawn(player(packedMove), destination(packedMove));
+    } else {
+      board.placeWall(wall(packedMove), player(packedMove));
+    }
+  }
+
+  private static int pack(Player player, char column, int row) {
+    int columnOffset = column - 'a';
+    checkArgument(
+        columnOffset >= 0 && columnOffset <= COORDINATE_MASK, "Column out of range: %s", column);
+    checkArgument(row >= 0 && row <= COORDINATE_MASK, "Row out of range: %s", row);
+    return (player.ordinal() << PLAYER_SHIFT) | (columnOffset << COLUMN_SHIFT) | row;
+  }
+
+  private PackedMove() {}
+}
@@ -1,63 +1,127 @@
 package sublimedisruptors.quoridor.move;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
-import com.google.common.collect.Sets;
-import java.util.Set;
+import java.util.Arrays;
 import sublimedisruptors.quoridor.Player;
 import sublimedisruptors.quoridor.board.Board;
-import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.board.Direction;
 
-/** Performs searches to determine whether a player can reach their goal. */
+/**
+ * Performs searches to determine whether, and how quickly, a player can reach their goal.
+ *
+ * <p>Searches are breadth-first over the {@linkplain BoardGeometry square indices} of the board,
+ * considering only walls. Other pawns are treated as passable, since a pawn that is in the way may
+ * always be jumped or will eventually move. The board is never mutated.
+ *
+ * <p>A {@code PathFinder} reuses its queue and distance array between searches, so searching does
+ * not allocate. Consequently, it is not safe for concurrent use.
+ */
 final class PathFinder {
 
+  /** Returned by {@link #shortestDistanceToGoal} if the goal cannot be reached. */
+  static final int NO_PATH = -1;
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final BoardGeometry geometry;
+  private final int[] queue;
+  private final int[] distances;
+  private final int[] parents;
+  private final int[] parentGrooves;
+
+  PathFinder(BoardGeometry geometry) {
+    this.geometry = checkNotNull(geometry);
+    this.queue = new int[geometry.squareCount()];
+    this.distances = new int[geometry.squareCount()];
+    this.parents = new int[geometry.squareCount()];
+    this.parentGrooves = new int[geometry.squareCount()];
+  }
+
   /**
    * Determines whether {@code player} can possibly reach their goal on {@code board} by performing
    * valid moves.
    */
-  static boolean pathToGoalExists(Player player, Board board, RulesGovernor governor) {
-    return new DepthFirstSearch(player, board, governor).search();
+  boolean pathToGoalExists(Player player, Board board) {
+    return shortestDistanceToGoal(player, board) != NO_PATH;
   }
 
-  private static final class DepthFirstSearch {
-
-    private final Player player;
-    private final Board board;
-    private final RulesGovernor governor;
+  /**
+   * Returns the minimum number of steps {@code player} must take to reach their goal on {@code
+   * board}, or {@link #NO_PATH} if the goal cannot be reached.
+   */
+  int shortestDistanceToGoal(Player player, Board board) {
+    int goal = search(player, board);
+    return goal < 0 ? NO_PATH : distances[goal];
+  }
 
-    DepthFirstSearch(Player player, Board board, RulesGovernor governor) {
-      this.player = player;
-      this.board = board;
-      this.governor = governor;
+  /**
+   * Finds a shortest path for {@code player} to reach their goal on {@code board}.
+   *
+   * <p>The {@linkplain BoardGeometry#grooveIndex indices} of the grooves crossed by the path are
+   * written to the start of {@code grooves}, which must have room for at least {@code
+   * geometry.squareCount() - 1} elements.
+   *
+   * @return the length of the path, or {@link #NO_PATH} if the goal cannot be reached
+   */
+  int findPath(Player player, Board board, int[] grooves) {
+    int square = search(player, board);
+    if (square < 0) {
+      return NO_PATH;
     }
-
-    boolean search() {
-      Square currentSquare = board.snapshot().pawns().get(player);
-      checkState(currentSquare != null, "%s has no pawn on board", player);
-      try {
-        return search(currentSquare, Sets.newHashSet(currentSquare));
-      } finally {
-        board.movePawn(player, currentSquare); // Ensure the pawn is placed back where it was.
-      }
+    int length = distances[square];
+    for (int i = length - 1; i >= 0; i--) {
+      grooves[i] = parentGrooves[square];
+      square = parents[square];
     }
+    return length;
+  }
 
-    private boolean search(Square currentSquare, Set<Square> visited) {
-      if (governor.isGoal(player, currentSquare)) {
-        return true;
-      }
-      for (Move move : governor.generateValidPawnMoves(player)) {
-        Square destination = move.destination();
-        if (!visited.add(destination)) {
+  /**
+   * Performs a breadth-first search from {@code player}'s pawn, returning the first goal square
+   * reached or {@code -1} if there is none.
+   */
+  private int search(Player player, Board board) {
+    checkArgument(
+        board.size() == geometry.size(),
+        "Board of size %s does not match geometry of size %s",
+        board.size(),
+        geometry.size());
+    int start = board.pawnIndex(player);
+    checkState(start >= 0, "%s has no pawn on board", player);
+    distances[start] = 0;
+    if (geometry.isGoal(player, start)) {
+      return start;
+    }
+    Arrays.fill(distances, NO_PATH);
+    distances[start] = 0;
+    queue[0] = start;
+    int head = 0;
+    int tail = 1;
+    while (head < tail) {
+      int square = queue[head++];
+      int distance = distances[square] + 1;
+      for (Direction direction : DIRECTIONS) {
+        int neighbor = geometry.neighbor(square, direction);
+        if (neighbor < 0 || distances[neighbor] != NO_PATH) {
           continue;
         }
-        board.movePawn(player, destination);
-        if (search(destination, visited)) {
-          return true;
+        int groove = geometry.borderingGroove(square, direction);
+        if (board.isGrooveWalledOff(groove)) {
+          continue;
         }
+        distances[neighbor] = distance;
+        parents[neighbor] = square;
+        parentGrooves[neighbor] = groove;
+        if (geometry.isGoal(player, neighbor)) {
+          return neighbor;
+        }
+        queue[tail++] = neighbor;
       }
-      return false;
     }
+    return -1;
   }
-
-  private PathFinder() {}
 }
@@ -0,0 +1,159 @@
+package sublimedisruptors.quoridor.move;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.move.Move.Type;
+
+/**
+ * Counts the positions reachable from a given position by every sequence of legal moves of a given
+ * length, a technique known from chess programming as perft.
+ *
+ * <p>The counts depend on nothing but the rules, so they can be compared against those of any
+ * other move generator to find bugs, and the time taken to compute them is a reproducible measure
+ * of move generation throughput. {@link #divide} breaks the count down by the first move, which
+ * narrows a discrepancy down to the move that leads to it.
+ *
+ * <p>Players move in the order of {@link QuoridorSettings#players}. A position in which a player
+ * has reached their goal is over, so it has no moves and no positions are reachable from it other
+ * than itself.
+ *
+ * <p>Reference counts from the initial position with {@linkplain Move.Type#WALL walls} of length 2,
+ * for the default two players:
+ *
+ * <table>
+ *   <tr>
+ *     <th>Board size</th><th>Walls per player</th><th>Depth 1</th><th>Depth 2</th><th>Depth 3</th>
+ *   </tr>
+ *   <tr><td>5</td><td>4</td><td>35</td><td>1,109</td><td>31,540</td></tr>
+ *   <tr><td>7</td><td>6</td><td>75</td><td>5,357</td><td>363,872</td></tr>
+ *   <tr><td>9</td><td>8</td><td>131</td><td>16,677</td><td>2,062,264</td></tr>
+ * </table>
+ *
+ * <p>Positions are explored by applying {@linkplain PackedMove packed moves} to a private copy of
+ * the board and {@linkplain Board#undo undoing} them, with one reusable {@link MoveList} per ply.
+ * Consequently, a {@code Perft} is not safe for concurrent use.
+ */
+public final class Perft {
+
+  /** Creates a {@code Perft} for positions in games with the given {@code settings}. */
+  public static Perft create(QuoridorSettings settings) {
+    return new Perft(settings);
+  }
+
+  private final QuoridorSettings settings;
+  private final ImmutableList<Player> players;
+  private final BoardGeometry geometry;
+  private final List<MoveList> moveLists = new ArrayList<>();
+  private Board board;
+  private RulesGovernor rulesGovernor;
+
+  private Perft(QuoridorSettings settings) {
+    this.settings = settings;
+    this.players = settings.players();
+    this.geometry = BoardGeometry.forSettings(settings);
+  }
+
+  /**
+   * Returns the number of positions reached from {@code position} by every sequence of {@code
+   * depth} legal moves, the first of which is made by {@code player}.
+   */
+  public long perft(Board.Snapshot position, Player player, int depth) {
+    int turn = setUp(position, player, depth);
+    return isOver() ? (depth == 0 ? 1 : 0) : count(turn, depth);
+  }
+
+  /**
+   * Returns the number of positions reached from {@code position} by every sequence of {@code
+   * depth} legal moves, the first of which is made by {@code player}, broken down by that first
+   * move. The moves are in the order in which the {@link RulesGovernor} generates them, pawn moves
+   * first, and the counts add up to {@link #perft}.
+   *
+   * <p>{@code depth} must be at least 1.
+   */
+  public ImmutableMap<Move, Long> divide(Board.Snapshot position, Player player, int depth) {
+    checkArgument(depth >= 1, "Depth must be at least 1, got %s", depth);
+    int turn = setUp(position, player, depth);
+    ImmutableMap.Builder<Move, Long> counts = ImmutableMap.builder();
+    if (isOver()) {
+      return counts.build();
+    }
+    MoveList moves = generateMoves(turn, depth);
+    int next = (turn + 1) % players.size();
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      counts.put(PackedMove.decode(move), countAfter(move, next, depth - 1));
+    }
+    return counts.build();
+  }
+
+  private int setUp(Board.Snapshot position, Player player, int depth) {
+    checkArgument(
+        position.size() == settings.boardSize(),
+        "Position of size %s does not match settings %s",
+        position.size(),
+        settings);
+    checkArgument(players.contains(player), "%s not participating", player);
+    checkArgument(depth >= 0, "Negative depth: %s", depth);
+    board = Board.fromSnapshot(position);
+    rulesGovernor = RulesGovernor.create(board, settings);
+    while (moveLists.size() <= depth) {
+      moveLists.add(new MoveList());
+    }
+    return players.indexOf(player);
+  }
+
+  private long count(int turn, int depth) {
+    if (depth == 0) {
+      return 1;
+    }
+    MoveList moves = generateMoves(turn, depth);
+    if (depth == 1) {
+      return moves.size();
+    }
+    int next = (turn + 1) % players.size();
+    long positions = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      positions += countAfter(moves.get(i), next, depth - 1);
+    }
+    return positions;
+  }
+
+  /** Counts the positions reached after {@code move} by {@code depth} further moves. */
+  private long countAfter(int move, int next, int depth) {
+    if (PackedMove.type(move) == Type.PAWN
+        && rulesGovernor.isGoal(PackedMove.player(move), PackedMove.destination(move))) {
+      return depth == 0 ? 1 : 0;
+    }
+    PackedMove.applyTo(move, board);
+    long positions = count(next, depth);
+    board.undo();
+    return positions;
+  }
+
+  private MoveList generateMoves(int turn, int depth) {
+    MoveList moves = moveLists.get(depth);
+    moves.clear();
+    rulesGovernor.generateValidPawnMoves(players.get(turn), moves);
+    rulesGovernor.generateValidWallMoves(players.get(turn), moves);
+    return moves;
+  }
+
+  /** Returns {@code true} if a player has already reached their goal on the board. */
+  private boolean isOver() {
+    for (Player player : players) {
+      int square = board.pawnIndex(player);
+      if (square >= 0 && geometry.isGoal(player, square)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,62 @@
+package sublimedisruptors.quoridor.move;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Groove.Orientation;
+import sublimedisruptors.quoridor.board.Wall;
+
+/**
+ * Prints the {@linkplain Perft#divide perft breakdown} of the initial position of a two-player
+ * game, followed by the total and the number of positions counted per second.
+ *
+ * <p>Usage: {@code PerftMain <depth> [board size] [walls per player]}. The board size defaults to
+ * 9 and the walls per player to 8.
+ */
+public final class PerftMain {
+
+  public static void main(String[] args) {
+    if (args.length < 1 || args.length > 3) {
+      System.err.println("Usage: PerftMain <depth> [board size] [walls per player]");
+      System.exit(2);
+    }
+    int depth = Integer.parseInt(args[0]);
+    QuoridorSettings settings =
+        QuoridorSettings.defaultTwoPlayer().toBuilder()
+            .setBoardSize(args.length > 1 ? Integer.parseInt(args[1]) : 9)
+            .setWallsPerPlayer(args.length > 2 ? Integer.parseInt(args[2]) : 8)
+            .build();
+    Board board = Board.createFromSettings(settings);
+    RulesGovernor.createAndSetUpPawns(board, settings);
+    Player player = settings.players().get(0);
+
+    long start = System.nanoTime();
+    ImmutableMap<Move, Long> counts =
+        Perft.create(settings).divide(board.snapshot(), player, depth);
+    long elapsedNanos = System.nanoTime() - start;
+
+    long total = 0;
+    for (Map.Entry<Move, Long> entry : counts.entrySet()) {
+      System.out.format("%s: %d\n", notation(entry.getKey()), entry.getValue());
+      total += entry.getValue();
+    }
+    System.out.format("Moves: %d\n", counts.size());
+    System.out.format("Positions: %d\n", total);
+    System.out.format("Time: %.3f s\n", elapsedNanos / 1e9);
+    System.out.format("Positions/second: %.0f\n", total / (elapsedNanos / 1e9));
+  }
+
+  /** Formats {@code move} in Glendenning notation. */
+  private static String notation(Move move) {
+    if (move.type() == Move.Type.PAWN) {
+      return "" + move.destination().column() + move.destination().row();
+    }
+    Wall wall = move.wall();
+    return ""
+        + wall.firstVertex().column()
+        + wall.firstVertex().row()
+        + (wall.orientation() == Orientation.VERTICAL ? 'v' : 'h');
+  }
+}
@@ -4,41 +4,62 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Range;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import sublimedisruptors.quoridor.Player;
 import sublimedisruptors.quoridor.QuoridorSettings;
 import sublimedisruptors.quoridor.board.Board;
 import sublimedisruptors.quoridor.board.Board.Snapshot;
+import sublimedisruptors.quoridor.board.BoardGeometry;
 import sublimedisruptors.quoridor.board.Direction;
-import sublimedisruptors.quoridor.board.Groove;
-import sublimedisruptors.quoridor.board.Groove.Orientation;
-import sublimedisruptors.quoridor.board.Locatable;
 import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Vertex;
 import sublimedisruptors.quoridor.board.Wall;
 import sublimedisruptors.quoridor.move.Move.Type;
 
 /** Governs the game according to the rules of Quoridor. */
 public final class RulesGovernor {
 
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final Direction[] HORIZONTAL_DIRECTIONS = {Direction.LEFT, Direction.RIGHT};
+  private static final Direction[] VERTICAL_DIRECTIONS = {Direction.UP, Direction.DOWN};
+  private static final Player[] PLAYERS = Player.values();
+
   /** Creates a {@code RulesGovernor} and sets up pawns in their initial positions. */
   public static RulesGovernor createAndSetUpPawns(Board board, QuoridorSettings settings) {
-    RulesGovernor rulesGovernor = new RulesGovernor(checkNotNull(board), settings.wallLength());
+    RulesGovernor rulesGovernor =
+        new RulesGovernor(checkNotNull(board), BoardGeometry.forSettings(settings));
     settings.players().forEach(rulesGovernor::placePawnInInitialSquare);
     return rulesGovernor;
   }
 
+  /**
+   * Creates a {@code RulesGovernor} for a board whose pawns are already in place, such as one
+   * {@linkplain Board#fromSnapshot restored from a snapshot}. The board is not mutated.
+   */
+  public static RulesGovernor create(Board board, QuoridorSettings settings) {
+    checkArgument(
+        board.size() == settings.boardSize(),
+        "Board of size %s does not match settings %s",
+        board.size(),
+        settings);
+    return new RulesGovernor(board, BoardGeometry.forSettings(settings));
+  }
+
   private final Board board;
-  private final int wallLength;
+  private final BoardGeometry geometry;
+  private final PathFinder pathFinder;
+  private final CachedPath[] cachedPaths;
+  private final BridgeFinder[] bridgeFinders;
 
-  private RulesGovernor(Board board, int wallLength) {
+  private RulesGovernor(Board board, BoardGeometry geometry) {
     this.board = board;
-    this.wallLength = wallLength;
+    this.geometry = geometry;
+    this.pathFinder = new PathFinder(geometry);
+    this.cachedPaths = new CachedPath[PLAYERS.length];
+    for (Player player : PLAYERS) {
+      cachedPaths[player.ordinal()] = new CachedPath(player);
+    }
+    this.bridgeFinders = new BridgeFinder[PLAYERS.length];
   }
 
   /**
@@ -48,49 +69,53 @@ public final class RulesGovernor {
    * <p>{@code player} must be participating in the game (i.e. has a pawn on the board).
    */
   public ImmutableSet<Move> generateValidPawnMoves(Player player) {
-    Board.Snapshot snapshot = board.snapshot();
-    Map<Player, Square> pawns = snapshot.pawns();
-    Square currentSquare = pawns.get(player);
-    checkState(currentSquare != null, "%s has no pawn on the board", player);
-    Set<Groove> walledOffGrooves = snapshot.walledOffGrooves();
-
-    ImmutableSet.Builder<Move> moves = ImmutableSet.builder();
-    for (Direction direction : Direction.values()) {
-      if (walledOffGrooves.contains(currentSquare.borderingGroove(direction))) {
-        continue;
-      }
-      Square adjacentSquare = currentSquare.adjacentSquare(direction);
-      if (!isInBounds(adjacentSquare)) {
+    MoveList moves = new MoveList();
+    generateValidPawnMoves(player, moves);
+    return decode(moves);
+  }
+
+  /**
+   * Appends all valid {@linkplain Move.Type#PAWN pawn moves} that the given {@code player} can
+   * legally make to {@code moves}, as {@linkplain PackedMove packed moves}.
+   *
+   * <p>This is an allocation-free alternative to {@link #generateValidPawnMoves(Player)}.
+   */
+  public void generateValidPawnMoves(Player player, MoveList moves) {
+    int current = board.pawnIndex(player);
+    checkState(current >= 0, "%s has no pawn on the board", player);
+
+    int start = moves.size();
+    for (Direction direction : DIRECTIONS) {
+      int adjacent = geometry.neighbor(current, direction);
+      if (adjacent < 0 || board.isGrooveWalledOff(geometry.borderingGroove(current, direction))) {
         continue;
       }
-      if (!pawns.containsValue(adjacentSquare)) {
-        moves.add(Move.pawnMove(player, adjacentSquare));
+      if (!board.isOccupied(adjacent)) {
+        addPawnMove(player, adjacent, moves, start);
         continue;
       }
       // An adjacent square is occupied by a pawn. Check whether that pawn can be jumped.
-      if (!walledOffGrooves.contains(adjacentSquare.borderingGroove(direction))) {
-        Square jump = adjacentSquare.adjacentSquare(direction);
-        if (isInBounds(jump) && !pawns.containsValue(jump)) {
-          moves.add(Move.pawnMove(player, jump));
-          continue;
-        }
+      int jump = geometry.neighbor(adjacent, direction);
+      if (jump >= 0
+          && !board.isGrooveWalledOff(geometry.borderingGroove(adjacent, direction))
+          && !board.isOccupied(jump)) {
+        addPawnMove(player, jump, moves, start);
+        continue;
       }
       // A jump cannot be made. Check whether a diagonal move can be made.
-      List<Direction> orthogonals =
-          direction.equals(Direction.UP) || direction.equals(Direction.DOWN)
-              ? ImmutableList.of(Direction.LEFT, Direction.RIGHT)
-              : ImmutableList.of(Direction.UP, Direction.DOWN);
+      Direction[] orthogonals =
+          direction == Direction.UP || direction == Direction.DOWN
+              ? HORIZONTAL_DIRECTIONS
+              : VERTICAL_DIRECTIONS;
       for (Direction orthogonal : orthogonals) {
-        if (walledOffGrooves.contains(adjacentSquare.borderingGroove(orthogonal))) {
-          continue;
-        }
-        Square diagonalSquare = adjacentSquare.adjacentSquare(orthogonal);
-        if (isInBounds(diagonalSquare) && !pawns.containsValue(diagonalSquare)) {
-          moves.add(Move.pawnMove(player, diagonalSquare));
+        int diagonal = geometry.neighbor(adjacent, orthogonal);
+        if (diagonal >= 0
+            && !board.isGrooveWalledOff(geometry.borderingGroove(adjacent, orthogonal))
+            && !board.isOccupied(diagonal)) {
+          addPawnMove(player, diagonal, moves, start);
         }
       }
     }
-    return moves.build();
   }
 
   /**
@@ -106,39 +131,102 @@ public final class RulesGovernor {
    *   <li>The wall overlaps a vertex of a wall already on the board.
    *   <li>The wall prevents one or more participants from possibly reaching their goal.
    * </ol>
+   *
+   * <p>A path to the goal is cached for each player and reused for as long as it remains open. A
+   * wall that does not cross any player's cached path is known not to block anyone, so no search
+   * is needed. Only players whose path is crossed by the wall are searched again.
    */
   public boolean isValidWallMove(Move wallMove) {
     checkArgument(wallMove.type() == Type.WALL, "%s not a wall move", wallMove);
     Wall wall = wallMove.wall();
-    if (wall.length() != wallLength) {
-      return false;
-    }
-    Board.Snapshot snapshot = board.snapshot();
-    Integer wallsAvailable = snapshot.wallsAvailable().get(wallMove.player());
+    Integer wallsAvailable = board.wallsAvailable(wallMove.player());
     checkState(wallsAvailable != null, "%s not participating", wallMove.player());
-    if (wallsAvailable < 1) {
+    int placement = geometry.wallPlacementIndex(wall);
+    if (placement < 0 || wallsAvailable < 1 || overlapsExistingWall(placement)) {
       return false;
     }
-    for (Groove groove : wall.coveredGrooves()) {
-      if (!isInBounds(groove)
-          || (groove.orientation() == Orientation.VERTICAL && groove.column() == lastColumn())
-          || (groove.orientation() == Orientation.HORIZONTAL && groove.row() == bottomRow())
-          || snapshot.walledOffGrooves().contains(groove)) {
-        return false;
+    int crossedPlayers = 0;
+    for (Player player : PLAYERS) {
+      if (board.pawnIndex(player) < 0) {
+        continue;
+      }
+      CachedPath path = cachedPaths[player.ordinal()];
+      if (!path.refresh()) {
+        return false; // The player is already walled in.
+      }
+      if (path.isCrossedBy(placement)) {
+        crossedPlayers |= 1 << player.ordinal();
       }
     }
-    if (!Collections.disjoint(snapshot.walledOffVertices(), wall.coveredVertices())) {
-      return false;
+    return crossedPlayers == 0 || !blocksAnyPlayer(wall, wallMove.player(), crossedPlayers);
+  }
+
+  /**
+   * Generates the set of all valid {@linkplain Move.Type#WALL wall moves} that the given {@code
+   * player} can legally make.
+   *
+   * <p>This is equivalent to, but much faster than, calling {@link #isValidWallMove} for every
+   * possible wall. A single {@linkplain BridgeFinder bridge analysis} per participant classifies
+   * each groove as one that alone cuts the participant off from their goal, one on a known path to
+   * the goal, or neither. A wall covering a cutting groove is invalid, and a wall covering no
+   * groove on any path is valid. Only the remaining walls, which may cut a participant off by
+   * covering several grooves together, require a search.
+   *
+   * <p>{@code player} must be participating in the game.
+   */
+  public ImmutableSet<Move> generateValidWallMoves(Player player) {
+    MoveList moves = new MoveList();
+    generateValidWallMoves(player, moves);
+    return decode(moves);
+  }
+
+  /**
+   * Appends all valid {@linkplain Move.Type#WALL wall moves} that the given {@code player} can
+   * legally make to {@code moves}, as {@linkplain PackedMove packed moves}.
+   *
+   * <p>This is an allocation-free alternative to {@link #generateValidWallMoves(Player)}.
+   */
+  public void generateValidWallMoves(Player player, MoveList moves) {
+    Integer wallsAvailable = board.wallsAvailable(player);
+    checkState(wallsAvailable != null, "%s not participating", player);
+    if (wallsAvailable < 1) {
+      return;
     }
-    Board boardWithWall = Board.fromSnapshot(snapshot);
-    boardWithWall.placeWall(wall, wallMove.player());
-    RulesGovernor governor = new RulesGovernor(boardWithWall, wallLength);
-    for (Player player : snapshot.pawns().keySet()) {
-      if (!PathFinder.pathToGoalExists(player, boardWithWall, governor)) {
-        return false;
+    int participants = 0;
+    for (Player participant : PLAYERS) {
+      if (board.pawnIndex(participant) < 0) {
+        continue;
+      }
+      if (!bridgeFinder(participant).analyze(participant, board)) {
+        return; // Every wall would leave this participant cut off.
+      }
+      participants |= 1 << participant.ordinal();
+    }
+
+    for (int placement = 0; placement < geometry.wallPlacementCount(); placement++) {
+      if (overlapsExistingWall(placement)) {
+        continue;
+      }
+      int crossedPlayers = crossedPlayers(placement, participants);
+      Wall wall = geometry.wall(placement);
+      if (crossedPlayers == 0
+          || (crossedPlayers > 0 && !blocksAnyPlayer(wall, player, crossedPlayers))) {
+        Vertex first = wall.firstVertex();
+        moves.add(
+            PackedMove.wallMove(
+                player, wall.orientation(), first.column(), first.row(), wall.length()));
       }
     }
-    return true;
+  }
+
+  /**
+   * Returns the minimum number of pawn moves {@code player} needs to reach their goal, ignoring
+   * other pawns, or {@code -1} if the goal is unreachable.
+   *
+   * <p>{@code player} must be participating in the game (i.e. has a pawn on the board).
+   */
+  public int shortestDistanceToGoal(Player player) {
+    return pathFinder.shortestDistanceToGoal(player, board);
   }
 
   /**
@@ -147,66 +235,170 @@ public final class RulesGovernor {
    * <p>No validation is performed to ensure that {@code player} has a pawn on the board.
    */
   public boolean isGoal(Player player, Square square) {
-    switch (player) {
-      case PLAYER1:
-        return square.row() == topRow();
-      case PLAYER2:
-        return square.row() == bottomRow();
-      case PLAYER3:
-        return square.column() == lastColumn();
-      case PLAYER4:
-        return square.column() == firstColumn();
-    }
-    throw new IllegalArgumentException("Unknown player: " + player);
+    checkNotNull(player);
+    int index = geometry.squareIndex(square);
+    return index >= 0 && geometry.isGoal(player, index);
   }
 
   private void placePawnInInitialSquare(Player player) {
-    Square initialSquare;
-    switch (player) {
-      case PLAYER1:
-        initialSquare = Square.at(middleColumn(), bottomRow());
-        break;
-      case PLAYER2:
-        initialSquare = Square.at(middleColumn(), topRow());
-        break;
-      case PLAYER3:
-        initialSquare = Square.at(firstColumn(), middleRow());
-        break;
-      case PLAYER4:
-        initialSquare = Square.at(lastColumn(), middleRow());
-        break;
-      default:
-        throw new IllegalStateException("Unknown player: " + player);
-    }
-    board.movePawn(player, initialSquare);
+    board.movePawn(player, geometry.square(geometry.initialSquare(player)));
   }
 
-  private boolean isInBounds(Locatable location) {
-    return Range.closed(firstColumn(), lastColumn()).contains(location.column())
-        && Range.closed(topRow(), bottomRow()).contains(location.row());
+  /**
+   * Appends a move of {@code player}'s pawn to the given square, unless an identical move was
+   * already appended at or after index {@code start}.
+   */
+  private void addPawnMove(Player player, int square, MoveList moves, int start) {
+    Square destination = geometry.square(square);
+    int move = PackedMove.pawnMove(player, destination.column(), destination.row());
+    for (int i = start; i < moves.size(); i++) {
+      if (moves.get(i) == move) {
+        return;
+      }
+    }
+    moves.add(move);
   }
 
-  private char firstColumn() {
-    return 'a';
+  private static ImmutableSet<Move> decode(MoveList moves) {
+    ImmutableSet.Builder<Move> decoded = ImmutableSet.builder();
+    for (int i = 0; i < moves.size(); i++) {
+      decoded.add(PackedMove.decode(moves.get(i)));
+    }
+    return decoded.build();
   }
 
-  private char middleColumn() {
-    return (char) (firstColumn() + board.size() / 2);
+  private boolean overlapsExistingWall(int placement) {
+    for (int i = 0; i < geometry.wallLength(); i++) {
+      if (board.isGrooveWalledOff(geometry.coveredGroove(placement, i))) {
+        return true;
+      }
+    }
+    for (int i = 0; i < geometry.wallLength() - 1; i++) {
+      if (board.isVertexWalledOff(geometry.coveredVertex(placement, i))) {
+        return true;
+      }
+    }
+    return false;
   }
 
-  private char lastColumn() {
-    return (char) (firstColumn() + board.size() - 1);
+  /**
+   * Returns a bitmask, indexed by ordinal, of the {@code participants} whose last {@linkplain
+   * BridgeFinder#analyze analyzed} path is crossed by the wall with the given placement index, or
+   * {@code -1} if the wall covers a groove that alone separates a participant from their goal.
+   */
+  private int crossedPlayers(int placement, int participants) {
+    int crossedPlayers = 0;
+    for (Player participant : PLAYERS) {
+      if ((participants & (1 << participant.ordinal())) == 0) {
+        continue;
+      }
+      BridgeFinder bridgeFinder = bridgeFinders[participant.ordinal()];
+      for (int i = 0; i < geometry.wallLength(); i++) {
+        int groove = geometry.coveredGroove(placement, i);
+        if (bridgeFinder.isSeparating(groove)) {
+          return -1;
+        }
+        if (bridgeFinder.isOnPath(groove)) {
+          crossedPlayers |= 1 << participant.ordinal();
+        }
+      }
+    }
+    return crossedPlayers;
   }
 
-  private int topRow() {
-    return 1;
+  /**
+   * Temporarily places {@code wall} and searches for a path to the goal for each player in the
+   * {@code players} bitmask, indexed by ordinal.
+   */
+  private boolean blocksAnyPlayer(Wall wall, Player owner, int players) {
+    board.placeWall(wall, owner);
+    try {
+      for (Player player : PLAYERS) {
+        if ((players & (1 << player.ordinal())) != 0
+            && !pathFinder.pathToGoalExists(player, board)) {
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      board.undo();
+    }
   }
 
-  private int middleRow() {
-    return topRow() + board.size() / 2;
+  private BridgeFinder bridgeFinder(Player player) {
+    BridgeFinder bridgeFinder = bridgeFinders[player.ordinal()];
+    if (bridgeFinder == null) {
+      bridgeFinder = new BridgeFinder(geometry);
+      bridgeFinders[player.ordinal()] = bridgeFinder;
+    }
+    return bridgeFinder;
   }
 
-  private int bottomRow() {
-    return board.size();
+  /**
+   * A path from a player's pawn to their goal, which is reused until the pawn moves or a wall is
+   * placed across it.
+   *
+   * <p>The path is a shortest path when computed, but since it is only used to decide whether a
+   * path exists, it is kept even if walls are later removed via {@link Board#undo} and a shorter
+   * path opens up.
+   */
+  private final class CachedPath {
+    final Player player;
+    final int[] grooves = new int[geometry.squareCount()];
+    final long[] grooveMask = new long[(geometry.grooveCount() + Long.SIZE - 1) / Long.SIZE];
+    int start = -1;
+    int length = 0;
+
+    CachedPath(Player player) {
+      this.player = player;
+    }
+
+    /**
+     * Recomputes the path if the pawn has moved or the path has been walled off. Returns {@code
+     * false} if the player cannot reach their goal.
+     */
+    boolean refresh() {
+      if (start == board.pawnIndex(player) && !isWalledOff()) {
+        return true;
+      }
+      clearMask();
+      length = pathFinder.findPath(player, board, grooves);
+      if (length == PathFinder.NO_PATH) {
+        start = -1;
+        length = 0;
+        return false;
+      }
+      start = board.pawnIndex(player);
+      for (int i = 0; i < length; i++) {
+        grooveMask[grooves[i] >>> 6] |= 1L << grooves[i];
+      }
+      return true;
+    }
+
+    /** Returns {@code true} if the wall with the given placement index covers part of the path. */
+    boolean isCrossedBy(int wallPlacementIndex) {
+      for (int i = 0; i < geometry.wallLength(); i++) {
+        int groove = geometry.coveredGroove(wallPlacementIndex, i);
+        if ((grooveMask[groove >>> 6] & (1L << groove)) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean isWalledOff() {
+      for (int i = 0; i < length; i++) {
+        if (board.isGrooveWalledOff(grooves[i])) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void clearMask() {
+      for (int i = 0; i < length; i++) {
+        grooveMask[grooves[i] >>> 6] = 0;
+      }
+    }
   }
 }
@@ -0,0 +1,65 @@
+package sublimedisruptors.quoridor.player;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.Move;
+
+/**
+ * A participant in a game of quoridor that decides on its next move asynchronously.
+ *
+ * <p>Unlike a {@link QuoridorPlayer}, an asynchronous player does not block the game master while
+ * it thinks, so many games can be in progress on a few threads. Players that wait on a remote
+ * client or a search running elsewhere should implement this interface directly. Any other
+ * {@link QuoridorPlayer} can be {@linkplain #onExecutor run on an executor}.
+ */
+@FunctionalInterface
+public interface AsyncQuoridorPlayer {
+
+  interface Factory {
+    /**
+     * Creates an {@link AsyncQuoridorPlayer} prepared to participate as {@code self} in a game with
+     * the given {@code settings}.
+     */
+    AsyncQuoridorPlayer createPlayer(Player self, QuoridorSettings settings);
+  }
+
+  /**
+   * Returns a future for the {@link Move} that this player wishes to make.
+   *
+   * <p>The same contract as {@link QuoridorPlayer#getMove} applies to the move with which the
+   * future completes. The future may be {@linkplain CompletableFuture#cancel cancelled} by the game
+   * master if the player runs out of time, in which case the player should stop thinking.
+   */
+  CompletableFuture<Move> getMove(Board.Snapshot board, ImmutableSet<Move> validPawnMoves);
+
+  /** Returns a player that calls {@code player} on the thread that requests each move. */
+  static AsyncQuoridorPlayer blocking(QuoridorPlayer player) {
+    checkNotNull(player);
+    return (board, validPawnMoves) ->
+        CompletableFuture.completedFuture(player.getMove(board, validPawnMoves));
+  }
+
+  /** Returns a player that calls {@code player} on {@code executor}. */
+  static AsyncQuoridorPlayer onExecutor(QuoridorPlayer player, Executor executor) {
+    checkNotNull(player);
+    checkNotNull(executor);
+    return (board, validPawnMoves) ->
+        CompletableFuture.supplyAsync(() -> player.getMove(board, validPawnMoves), executor);
+  }
+
+  /**
+   * Returns a factory for players that call the players created by {@code factory} on {@code
+   * executor}.
+   */
+  static Factory factoryOnExecutor(QuoridorPlayer.Factory factory, Executor executor) {
+    checkNotNull(factory);
+    checkNotNull(executor);
+    return (self, settings) -> onExecutor(factory.createPlayer(self, settings), executor);
+  }
+}
@@ -0,0 +1,247 @@
+package sublimedisruptors.quoridor.player;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Groove;
+import sublimedisruptors.quoridor.board.Square;
+
+/**
+ * Draws {@linkplain Board.Snapshot snapshots} of a board as text.
+ *
+ * <p>The board is drawn with column headers above and below, a row number at the start of each row,
+ * and each pawn shown by its player's number. Walled-off grooves are drawn with {@code +}
+ * characters. For example, a 3x3 board with a horizontal wall below a1 and b1:
+ *
+ * <pre>
+ *     a   b   c
+ *   -------------
+ * 1 |   | 1 |   |
+ *   +++++++++----
+ * 2 |   |   |   |
+ *   -------------
+ * 3 |   | 2 |   |
+ *   -------------
+ *     a   b   c
+ * Walls available:
+ *   PLAYER1: 0
+ *   PLAYER2: 1
+ * </pre>
+ *
+ * <p>Every frame is composed in memory from a template of the empty board, computed once, and then
+ * written to the output with a single call. A renderer created with {@link #ansi} additionally
+ * remembers the last frame it wrote, and writes only the characters that have changed since,
+ * using ANSI escape sequences to move the cursor to them. This assumes that the renderer's frames
+ * are the only output above the line on which the last frame ended, so it suits a spectator view
+ * that redraws the board after every move.
+ *
+ * <p>A {@code BoardRenderer} is not safe for concurrent use.
+ */
+public final class BoardRenderer {
+
+  private static final String ESCAPE = "\033[";
+
+  /** Creates a renderer that writes every frame to {@code out} in full. */
+  public static BoardRenderer plain(int boardSize, PrintStream out) {
+    return new BoardRenderer(boardSize, out, /*ansi=*/ false);
+  }
+
+  /**
+   * Creates a renderer that writes only the changes since its last frame to {@code out}, which
+   * must be an ANSI terminal. The first frame clears the screen and is written in full.
+   */
+  public static BoardRenderer ansi(int boardSize, PrintStream out) {
+    return new BoardRenderer(boardSize, out, /*ansi=*/ true);
+  }
+
+  private final int size;
+  private final int labelWidth;
+  private final int lineLength;
+  private final PrintStream out;
+  private final boolean ansi;
+  private final char[] template;
+  private final char[] board;
+  private StringBuilder frame = new StringBuilder();
+  private StringBuilder previousFrame = null;
+  private final StringBuilder updates = new StringBuilder();
+
+  private BoardRenderer(int size, PrintStream out, boolean ansi) {
+    checkArgument(size > 0, "Board size must be positive: %s", size);
+    this.size = size;
+    this.labelWidth = Integer.toString(size).length();
+    // Every line other than the column headers has the row label and a space, the left edge, four
+    // characters for each column, the last of which is its right edge, and a newline.
+    this.lineLength = labelWidth + 1 + 1 + 4 * size + 1;
+    this.out = out;
+    this.ansi = ansi;
+    this.template = createTemplate();
+    this.board = new char[template.length];
+  }
+
+  /**
+   * Writes {@code snapshot} to the output, followed by the number of walls available to each
+   * player.
+   */
+  public void render(Board.Snapshot snapshot) {
+    checkArgument(
+        snapshot.size() == size, "Expected board of size %s, got %s", size, snapshot.size());
+    compose(snapshot);
+    if (!ansi) {
+      out.append(frame);
+    } else if (previousFrame == null) {
+      updates.setLength(0);
+      updates.append(ESCAPE).append("2J").append(ESCAPE).append('H').append(frame);
+      out.append(updates);
+      previousFrame = new StringBuilder();
+    } else {
+      out.append(diff(previousFrame, frame));
+    }
+    out.flush();
+    if (ansi) {
+      StringBuilder swap = previousFrame;
+      previousFrame = frame;
+      frame = swap;
+    }
+  }
+
+  private void compose(Board.Snapshot snapshot) {
+    System.arraycopy(template, 0, board, 0, template.length);
+    for (Map.Entry<Player, Square> pawn : snapshot.pawns().entrySet()) {
+      Square square = pawn.getValue();
+      board[cellOffset(square.row(), square.column() - 'a') + 2] =
+          (char) ('1' + pawn.getKey().ordinal());
+    }
+    for (Groove groove : snapshot.walledOffGrooves()) {
+      int row = groove.row();
+      int column = groove.column() - 'a';
+      if (groove.orientation() == Groove.Orientation.VERTICAL) {
+        board[cellOffset(row, column) + 4] = '+';
+        board[cornerOffset(row - 1, column + 1)] = '+';
+        board[cornerOffset(row, column + 1)] = '+';
+      } else {
+        Arrays.fill(board, cornerOffset(row, column), cornerOffset(row, column + 1) + 1, '+');
+      }
+    }
+    frame.setLength(0);
+    frame.append(board);
+    frame.append("Walls available:\n");
+    snapshot
+        .wallsAvailable()
+        .forEach(
+            (player, walls) ->
+                frame.append("  ").append(player).append(": ").append(walls).append('\n'));
+  }
+
+  /**
+   * Returns the escape sequences and characters that turn the terminal's display of {@code from}
+   * into {@code to}, leaving the cursor at the start of the line after {@code to}.
+   */
+  private CharSequence diff(CharSequence from, CharSequence to) {
+    updates.setLength(0);
+    int line = 0;
+    int fromStart = 0;
+    int toStart = 0;
+    while (toStart < to.length()) {
+      int fromEnd = lineEnd(from, fromStart);
+      int toEnd = lineEnd(to, toStart);
+      int fromLength = fromEnd - fromStart;
+      int toLength = toEnd - toStart;
+      int column = 0;
+      while (column < toLength) {
+        if (column < fromLength
+            && from.charAt(fromStart + column) == to.charAt(toStart + column)) {
+          column++;
+          continue;
+        }
+        moveCursor(line, column);
+        do {
+          updates.append(to.charAt(toStart + column));
+          column++;
+        } while (column < toLength
+            && (column >= fromLength
+                || from.charAt(fromStart + column) != to.charAt(toStart + column)));
+      }
+      if (fromLength > toLength) {
+        moveCursor(line, toLength);
+        updates.append(ESCAPE).append('K');
+      }
+      fromStart = Math.min(fromEnd + 1, from.length());
+      toStart = toEnd + 1;
+      line++;
+    }
+    moveCursor(line, 0);
+    updates.append(ESCAPE).append('J');
+    return updates;
+  }
+
+  private void moveCursor(int line, int column) {
+    updates.append(ESCAPE).append(line + 1).append(';').append(column + 1).append('H');
+  }
+
+  private static int lineEnd(CharSequence text, int start) {
+    int end = start;
+    while (end < text.length() && text.charAt(end) != '\n') {
+      end++;
+    }
+    return end;
+  }
+
+  private char[] createTemplate() {
+    char[] chars = new char[headerLength() * 2 + lineLength * (2 * size + 1)];
+    writeColumnHeaders(chars, 0);
+    for (int row = 0; row <= size; row++) {
+      int border = borderOffset(row);
+      Arrays.fill(chars, border, border + lineLength - 1, '-');
+      Arrays.fill(chars, border, border + labelWidth + 1, ' ');
+      chars[border + lineLength - 1] = '\n';
+      if (row == 0) {
+        continue;
+      }
+      int line = borderOffset(row) - lineLength;
+      Arrays.fill(chars, line, line + lineLength - 1, ' ');
+      String label = Integer.toString(row);
+      label.getChars(0, label.length(), chars, line + labelWidth - label.length());
+      chars[line + labelWidth + 1] = '|';
+      for (int column = 0; column < size; column++) {
+        chars[cellOffset(row, column) + 4] = '|';
+      }
+      chars[line + lineLength - 1] = '\n';
+    }
+    writeColumnHeaders(chars, chars.length - headerLength());
+    return chars;
+  }
+
+  private void writeColumnHeaders(char[] chars, int offset) {
+    Arrays.fill(chars, offset, offset + headerLength() - 1, ' ');
+    for (int column = 0; column < size; column++) {
+      chars[offset + labelWidth + 3 + 4 * column] = (char) ('a' + column);
+    }
+    chars[offset + headerLength() - 1] = '\n';
+  }
+
+  private int headerLength() {
+    return labelWidth + 4 * size + 4;
+  }
+
+  /** Returns the offset of the border below {@code row}, where row 0 is the top border. */
+  private int borderOffset(int row) {
+    return headerLength() + 2 * row * lineLength;
+  }
+
+  /** Returns the offset of the corner to the left of {@code column} on a border. */
+  private int cornerOffset(int row, int column) {
+    return borderOffset(row) + labelWidth + 1 + 4 * column;
+  }
+
+  /**
+   * Returns the offset of the left edge of a cell, which is followed by a space, the cell's pawn, a
+   * space and its right edge.
+   */
+  private int cellOffset(int row, int column) {
+    return borderOffset(row) - lineLength + labelWidth + 1 + 4 * column;
+  }
+}
@@ -0,0 +1,94 @@
+package sublimedisruptors.quoridor.player;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSet;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.record.OpeningBook;
+
+/**
+ * A {@link QuoridorPlayer} that plays the moves of an {@link OpeningBook} for as long as the game
+ * stays in the book, and defers to another player once it leaves.
+ *
+ * <p>In each position, the book move played in the most games is chosen, provided it was played
+ * in at least a minimum number of games and is legal. Once a position is not in the book, the book
+ * is no longer consulted for the rest of the game, so every move after the opening is made by the
+ * other player alone. If the book is of games with other settings, it is never consulted.
+ */
+public final class BookQuoridorPlayer implements QuoridorPlayer {
+
+  /**
+   * Returns a factory for players that play the moves of {@code book} that were played in at least
+   * {@code minGames} games, and otherwise defer to players created by {@code fallback}.
+   */
+  public static QuoridorPlayer.Factory factory(
+      OpeningBook book, int minGames, QuoridorPlayer.Factory fallback) {
+    checkNotNull(book);
+    checkArgument(minGames > 0, "Min games must be positive, got %s", minGames);
+    checkNotNull(fallback);
+    return (self, settings) ->
+        create(self, settings, book, minGames, fallback.createPlayer(self, settings));
+  }
+
+  public static BookQuoridorPlayer create(
+      Player self,
+      QuoridorSettings settings,
+      OpeningBook book,
+      int minGames,
+      QuoridorPlayer fallback) {
+    checkArgument(settings.players().contains(self), "%s not participating", self);
+    return new BookQuoridorPlayer(self, settings, book, minGames, checkNotNull(fallback));
+  }
+
+  private final Player me;
+  private final QuoridorSettings settings;
+  private final OpeningBook book;
+  private final int minGames;
+  private final QuoridorPlayer fallback;
+  private boolean inBook;
+
+  private BookQuoridorPlayer(
+      Player me,
+      QuoridorSettings settings,
+      OpeningBook book,
+      int minGames,
+      QuoridorPlayer fallback) {
+    this.me = me;
+    this.settings = settings;
+    this.book = book;
+    this.minGames = minGames;
+    this.fallback = fallback;
+    this.inBook = book.settings().equals(settings);
+  }
+
+  @Override
+  public Move getMove(Board.Snapshot board, ImmutableSet<Move> validPawnMoves) {
+    if (inBook) {
+      for (OpeningBook.Entry entry : book.lookUp(board)) {
+        if (entry.games() < minGames) {
+          break;
+        }
+        if (isValid(entry.move(), board, validPawnMoves)) {
+          return entry.move();
+        }
+      }
+      inBook = false;
+    }
+    return fallback.getMove(board, validPawnMoves);
+  }
+
+  private boolean isValid(Move move, Board.Snapshot board, ImmutableSet<Move> validPawnMoves) {
+    if (move.player() != me) {
+      return false;
+    }
+    if (move.type() == Move.Type.PAWN) {
+      return validPawnMoves.contains(move);
+    }
+    return RulesGovernor.create(Board.fromSnapshot(board), settings).isValidWallMove(move);
+  }
+}
@@ -0,0 +1,104 @@
+package sublimedisruptors.quoridor.player;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSet;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.search.MctsResult;
+import sublimedisruptors.quoridor.search.MonteCarloTreeSearch;
+
+/**
+ * A {@link QuoridorPlayer} that chooses its moves by {@linkplain MonteCarloTreeSearch Monte Carlo
+ * tree search}, within either a fixed amount of wall-clock time or a fixed number of playouts per
+ * move.
+ *
+ * <p>Unlike {@link SearchQuoridorPlayer}, this player supports games with any number of players.
+ * The result of every search, including the number of playouts run and the rate at which they were
+ * run, is passed to an optional listener.
+ *
+ * <p>All the players created by one {@linkplain #factory factory} run their playouts on a single
+ * {@link ForkJoinPool} of the given number of threads, whose idle threads expire. A factory may
+ * thus create players for any number of games without the players having to be closed, although
+ * players searching at the same time, as in games played in parallel, share the pool's threads.
+ */
+public final class MctsQuoridorPlayer implements QuoridorPlayer {
+
+  /**
+   * Returns a factory for players that search for {@code budget} per move on the given number of
+   * {@code threads}, passing the result of each search to {@code listener}.
+   */
+  public static QuoridorPlayer.Factory factory(
+      Duration budget, int threads, Consumer<? super MctsResult> listener) {
+    checkArgument(!budget.isNegative(), "Negative budget: %s", budget);
+    return factory(budget, 0, threads, listener);
+  }
+
+  /**
+   * Returns a factory for players that run the given number of {@code playouts} per move on the
+   * given number of {@code threads}, passing the result of each search to {@code listener}.
+   */
+  public static QuoridorPlayer.Factory factory(
+      long playouts, int threads, Consumer<? super MctsResult> listener) {
+    checkArgument(playouts > 0, "Playouts must be positive, got %s", playouts);
+    return factory(null, playouts, threads, listener);
+  }
+
+  private static QuoridorPlayer.Factory factory(
+      @Nullable Duration budget,
+      long playouts,
+      int threads,
+      Consumer<? super MctsResult> listener) {
+    checkArgument(threads > 0, "Threads must be positive, got %s", threads);
+    checkNotNull(listener);
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    return (self, settings) -> create(self, settings, budget, playouts, threads, pool, listener);
+  }
+
+  private static MctsQuoridorPlayer create(
+      Player self,
+      QuoridorSettings settings,
+      @Nullable Duration budget,
+      long playouts,
+      int threads,
+      ForkJoinPool pool,
+      Consumer<? super MctsResult> listener) {
+    checkArgument(settings.players().contains(self), "%s not participating", self);
+    return new MctsQuoridorPlayer(
+        self, MonteCarloTreeSearch.create(settings, threads, pool), budget, playouts, listener);
+  }
+
+  private final Player me;
+  private final MonteCarloTreeSearch search;
+  @Nullable private final Duration budget;
+  private final long playouts;
+  private final Consumer<? super MctsResult> listener;
+
+  private MctsQuoridorPlayer(
+      Player me,
+      MonteCarloTreeSearch search,
+      @Nullable Duration budget,
+      long playouts,
+      Consumer<? super MctsResult> listener) {
+    this.me = me;
+    this.search = search;
+    this.budget = budget;
+    this.playouts = playouts;
+    this.listener = listener;
+  }
+
+  @Override
+  public Move getMove(Board.Snapshot board, ImmutableSet<Move> validPawnMoves) {
+    MctsResult result =
+        budget != null ? search.search(board, me, budget) : search.search(board, me, playouts);
+    listener.accept(result);
+    return result.bestMove();
+  }
+}
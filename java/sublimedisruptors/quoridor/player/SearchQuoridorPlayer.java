@@ -0,0 +1,98 @@
+package sublimedisruptors.quoridor.player;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.search.AlphaBetaSearch;
+import sublimedisruptors.quoridor.search.Evaluator;
+import sublimedisruptors.quoridor.search.ParallelSearch;
+import sublimedisruptors.quoridor.search.SearchResult;
+import sublimedisruptors.quoridor.search.TranspositionTable;
+
+/**
+ * A {@link QuoridorPlayer} that chooses its moves by {@linkplain AlphaBetaSearch searching} ahead
+ * for a fixed amount of wall-clock time per move.
+ *
+ * <p>The search may use several threads, in which case it is a {@link ParallelSearch}. Only
+ * two-player games are supported. The result of every search, including the number of nodes
+ * searched and the rate at which they were searched, is passed to an optional listener.
+ *
+ * <p>All the players created by one {@linkplain #factory factory} for games with the same settings
+ * share a single {@link TranspositionTable}; Zobrist keys do not encode the settings, so games with
+ * other settings get tables of their own. All the players run their helper threads on a single
+ * executor, whose idle threads expire. A factory may thus create players for any number of games,
+ * in turn or at once, without the players having to be closed.
+ */
+public final class SearchQuoridorPlayer implements QuoridorPlayer {
+
+  /** Returns a factory for players that search for {@code budget} per move. */
+  public static QuoridorPlayer.Factory factory(Duration budget) {
+    return factory(budget, Evaluator.shortestPathDifference(), 1, result -> {});
+  }
+
+  /**
+   * Returns a factory for players that search for {@code budget} per move using {@code evaluator}
+   * on the given number of {@code threads}, passing the result of each search to {@code listener}.
+   */
+  public static QuoridorPlayer.Factory factory(
+      Duration budget,
+      Evaluator evaluator,
+      int threads,
+      Consumer<? super SearchResult> listener) {
+    checkArgument(!budget.isNegative(), "Negative budget: %s", budget);
+    checkArgument(threads > 0, "Threads must be positive, got %s", threads);
+    checkNotNull(evaluator);
+    checkNotNull(listener);
+    Map<QuoridorSettings, TranspositionTable> tables = new ConcurrentHashMap<>();
+    ExecutorService executor =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("search-player-%d").build());
+    return (self, settings) -> {
+      checkArgument(settings.players().contains(self), "%s not participating", self);
+      TranspositionTable table =
+          tables.computeIfAbsent(
+              settings,
+              unused -> TranspositionTable.withMegabytes(AlphaBetaSearch.DEFAULT_TABLE_MEGABYTES));
+      return new SearchQuoridorPlayer(
+          self,
+          ParallelSearch.create(settings, evaluator, threads, table, executor),
+          budget,
+          listener);
+    };
+  }
+
+  private final Player me;
+  private final ParallelSearch search;
+  private final Duration budget;
+  private final Consumer<? super SearchResult> listener;
+
+  private SearchQuoridorPlayer(
+      Player me,
+      ParallelSearch search,
+      Duration budget,
+      Consumer<? super SearchResult> listener) {
+    this.me = me;
+    this.search = search;
+    this.budget = budget;
+    this.listener = listener;
+  }
+
+  @Override
+  public Move getMove(Board.Snapshot board, ImmutableSet<Move> validPawnMoves) {
+    SearchResult result = search.search(board, me, budget);
+    listener.accept(result);
+    return result.bestMove();
+  }
+}
@@ -0,0 +1,319 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.move.PackedMove;
+
+/**
+ * A read-only, memory-mapped archive of game records written by a {@link GameArchiveWriter}.
+ *
+ * <p>The archive file starts with a header of {@value #HEADER_BYTES} bytes: a magic number, the
+ * format version, the number of games and the offset of the index. The {@linkplain RecordFormat
+ * game records} follow back to back, and the index, which holds the offset of each record as a
+ * big-endian {@code long}, comes last.
+ *
+ * <p>The records and the index are {@linkplain FileChannel#map mapped} into memory, so any game can
+ * be {@linkplain #reader read} without reading the games before it, and a full {@linkplain #cursor
+ * scan} of the archive reads nothing but the records themselves. Since a single mapping is limited
+ * to 2GB, the records are mapped in overlapping segments of 1GB, and the rare record that does not
+ * fit in the segment in which it starts is mapped on its own.
+ *
+ * <p>An archive may be read by any number of threads at once, although each {@link Cursor} and
+ * {@link GameRecordReader} may only be used by one thread.
+ */
+public final class GameArchive implements Closeable {
+
+  static final int MAGIC = 0x51415243; // "QARC"
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 24;
+
+  private static final long SEGMENT_BYTES = 1L << 30;
+  private static final int SEGMENT_OVERLAP = 1 << 20;
+
+  /** Opens and maps the archive at {@code path}. */
+  public static GameArchive open(Path path) throws IOException {
+    return open(path, SEGMENT_BYTES, SEGMENT_OVERLAP);
+  }
+
+  static GameArchive open(Path path, long segmentBytes, int segmentOverlap) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (header.hasRemaining()) {
+        if (channel.read(header, header.position()) < 0) {
+          break;
+        }
+      }
+      if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+        throw new IOException("Not a game archive: " + path);
+      }
+      if (header.getInt(4) != VERSION) {
+        throw new IOException("Unsupported game archive version: " + header.getInt(4));
+      }
+      long gameCount = header.getLong(8);
+      long indexOffset = header.getLong(16);
+      if (gameCount < 0
+          || gameCount > Integer.MAX_VALUE / Long.BYTES
+          || indexOffset < HEADER_BYTES
+          || indexOffset + gameCount * Long.BYTES != channel.size()) {
+        throw new IOException("Corrupt game archive header: " + path);
+      }
+      LongBuffer index =
+          channel.map(MapMode.READ_ONLY, indexOffset, gameCount * Long.BYTES).asLongBuffer();
+      MappedByteBuffer[] segments =
+          new MappedByteBuffer[(int) ((indexOffset + segmentBytes - 1) / segmentBytes)];
+      for (int i = 0; i < segments.length; i++) {
+        long start = i * segmentBytes;
+        long end = Math.min(start + segmentBytes + segmentOverlap, indexOffset);
+        segments[i] = channel.map(MapMode.READ_ONLY, start, end - start);
+      }
+      return new GameArchive(channel, index, (int) gameCount, indexOffset, segments, segmentBytes);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private final FileChannel channel;
+  private final LongBuffer index;
+  private final int size;
+  private final long indexOffset;
+  private final MappedByteBuffer[] segments;
+  private final long segmentBytes;
+
+  private GameArchive(
+      FileChannel channel,
+      LongBuffer index,
+      int size,
+      long indexOffset,
+      MappedByteBuffer[] segments,
+      long segmentBytes) {
+    this.channel = channel;
+    this.index = index;
+    this.size = size;
+    this.indexOffset = indexOffset;
+    this.segments = segments;
+    this.segmentBytes = segmentBytes;
+  }
+
+  /** Returns the number of games in the archive. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns a reader positioned at the first move of the game with the given index. */
+  public GameRecordReader reader(int game) throws IOException {
+    checkElementIndex(game, size, "game");
+    GameRecordReader reader = GameRecordReader.open(new ByteBufferInputStream(record(game)));
+    if (reader == null) {
+      throw new IOException("Empty record for game " + game);
+    }
+    return reader;
+  }
+
+  /** Returns a cursor over every position of every game in the archive. */
+  public Cursor cursor() {
+    return cursor(0, size);
+  }
+
+  /**
+   * Returns a cursor over every position of the games with indices in {@code [fromGame, toGame)}.
+   * Disjoint ranges may be scanned by separate threads.
+   */
+  public Cursor cursor(int fromGame, int toGame) {
+    checkPositionIndexes(fromGame, toGame, size);
+    return new Cursor(fromGame, toGame);
+  }
+
+  /**
+   * Returns an iterator over a {@linkplain Board#snapshot snapshot} of every position of every game
+   * in the archive. This is convenient, but a {@link #cursor} avoids allocating a snapshot per
+   * position. A failure to read the archive is thrown as {@link UncheckedIOException}.
+   */
+  public Iterator<Board.Snapshot> snapshots() {
+    Cursor cursor = cursor();
+    return new Iterator<Board.Snapshot>() {
+      private boolean advanced = false;
+      private boolean hasNext;
+
+      @Override
+      public boolean hasNext() {
+        if (!advanced) {
+          try {
+            hasNext = cursor.advance();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          advanced = true;
+        }
+        return hasNext;
+      }
+
+      @Override
+      public Board.Snapshot next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        advanced = false;
+        return cursor.board().snapshot();
+      }
+    };
+  }
+
+  /**
+   * Closes the file. Readers and cursors already created may continue to be used, since the
+   * mappings remain valid until they are garbage collected.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /** Returns a buffer holding exactly the record of the given game. */
+  private ByteBuffer record(int game) throws IOException {
+    long start = index.get(game);
+    long end = game + 1 < size ? index.get(game + 1) : indexOffset;
+    if (start < HEADER_BYTES || end <= start || end > indexOffset) {
+      throw new IOException("Corrupt index entry for game " + game);
+    }
+    MappedByteBuffer segment = segments[(int) (start / segmentBytes)];
+    long segmentStart = start / segmentBytes * segmentBytes;
+    if (end - segmentStart > segment.capacity()) {
+      return channel.map(MapMode.READ_ONLY, start, end - start);
+    }
+    ByteBuffer record = segment.duplicate();
+    record.limit((int) (end - segmentStart));
+    record.position((int) (start - segmentStart));
+    return record;
+  }
+
+  /**
+   * Replays the games of an archive, one position at a time, on a single reusable {@link Board}.
+   *
+   * <p>Each call to {@link #advance} moves to the next position: first the starting position of a
+   * game, then the position after each of its moves, then the starting position of the next game.
+   * The board is reset between games by {@linkplain Board#undo undoing} the previous game's moves,
+   * and replaced only when the settings change, so a scan allocates almost nothing per position.
+   *
+   * <p>The moves are applied without checking that they are legal. Use {@link
+   * GameRecordReader#replay} to check a game.
+   */
+  public final class Cursor {
+
+    private final int toGame;
+    private int nextGame;
+    private int game = -1;
+    @Nullable private GameRecordReader reader = null;
+    @Nullable private Board board = null;
+    @Nullable private QuoridorSettings settings = null;
+    private int ply = 0;
+    private int lastMove = PackedMove.NONE;
+
+    private Cursor(int fromGame, int toGame) {
+      this.nextGame = fromGame;
+      this.toGame = toGame;
+    }
+
+    /**
+     * Moves to the next position, returning {@code false} if there are none left. This must be
+     * called before the first position can be accessed.
+     */
+    public boolean advance() throws IOException {
+      if (reader != null) {
+        int move = reader.nextPacked();
+        if (move != PackedMove.NONE) {
+          PackedMove.applyTo(move, board);
+          ply++;
+          lastMove = move;
+          return true;
+        }
+        reader = null;
+      }
+      if (nextGame == toGame) {
+        return false;
+      }
+      startGame(nextGame++);
+      return true;
+    }
+
+    /** Returns the index of the current game within the archive. */
+    public int game() {
+      checkPositioned();
+      return game;
+    }
+
+    /** Returns the number of moves made in the current game to reach the current position. */
+    public int ply() {
+      checkPositioned();
+      return ply;
+    }
+
+    /** Returns the settings of the current game. */
+    public QuoridorSettings settings() {
+      checkPositioned();
+      return settings;
+    }
+
+    /**
+     * Returns the {@linkplain PackedMove packed move} that reached the current position, or {@link
+     * PackedMove#NONE} at the start of a game.
+     */
+    public int lastMove() {
+      checkPositioned();
+      return lastMove;
+    }
+
+    /**
+     * Returns the board in the current position. The same board is returned for every position,
+     * so it must not be modified, and it changes when the cursor advances. Take a {@linkplain
+     * Board#snapshot snapshot} to keep a position.
+     */
+    public Board board() {
+      checkPositioned();
+      return board;
+    }
+
+    private void startGame(int game) throws IOException {
+      GameRecordReader reader = reader(game);
+      if (board != null && reader.settings().equals(settings)) {
+        for (; ply > 0; ply--) {
+          board.undo();
+        }
+      } else {
+        settings = reader.settings();
+        board = Board.createFromSettings(settings);
+        BoardGeometry geometry = BoardGeometry.forSettings(settings);
+        for (Player player : settings.players()) {
+          board.movePawn(player, geometry.square(geometry.initialSquare(player)));
+        }
+      }
+      this.reader = reader;
+      this.game = game;
+      ply = 0;
+      lastMove = PackedMove.NONE;
+    }
+
+    private void checkPositioned() {
+      checkState(game >= 0, "Cursor not advanced");
+    }
+  }
+}
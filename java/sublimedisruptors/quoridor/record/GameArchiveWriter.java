@@ -0,0 +1,110 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.io.CountingOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import sublimedisruptors.quoridor.QuoridorSettings;
+
+/**
+ * Writes a {@link GameArchive}: a file of concatenated game records followed by an index of their
+ * offsets.
+ *
+ * <p>Games are written one at a time, each through the {@link GameRecordWriter} returned by {@link
+ * #startGame}. The offset of every game is held in memory, eight bytes per game, until the index
+ * is written when the writer is {@linkplain #close closed}. Only then does the archive become
+ * readable. A {@code GameArchiveWriter} is not safe for concurrent use.
+ */
+public final class GameArchiveWriter implements Closeable {
+
+  /** Creates an empty archive at {@code path}, replacing any existing file. */
+  public static GameArchiveWriter create(Path path) throws IOException {
+    FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    channel.position(GameArchive.HEADER_BYTES);
+    return new GameArchiveWriter(channel);
+  }
+
+  private final FileChannel channel;
+  private final CountingOutputStream out;
+  private long[] offsets = new long[1024];
+  private int gameCount = 0;
+  @Nullable private GameRecordWriter current = null;
+  private boolean closed = false;
+
+  private GameArchiveWriter(FileChannel channel) {
+    this.channel = channel;
+    this.out =
+        new CountingOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+  }
+
+  /**
+   * Starts the record of a new game with the given {@code settings}, ending the record of the
+   * previous game if it has not already been ended.
+   */
+  public GameRecordWriter startGame(QuoridorSettings settings) throws IOException {
+    checkState(!closed, "Archive already closed");
+    endCurrent();
+    if (gameCount == offsets.length) {
+      offsets = Arrays.copyOf(offsets, 2 * gameCount);
+    }
+    offsets[gameCount++] = GameArchive.HEADER_BYTES + out.getCount();
+    current = GameRecordWriter.start(out, settings);
+    return current;
+  }
+
+  /** Returns the number of games started so far. */
+  public int gameCount() {
+    return gameCount;
+  }
+
+  /**
+   * Ends the record of the last game, if necessary, writes the index and the archive header, and
+   * closes the file.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      endCurrent();
+      long indexOffset = GameArchive.HEADER_BYTES + out.getCount();
+      DataOutputStream index = new DataOutputStream(out);
+      for (int i = 0; i < gameCount; i++) {
+        index.writeLong(offsets[i]);
+      }
+      index.flush();
+      ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_BYTES);
+      header.putInt(GameArchive.MAGIC).putInt(GameArchive.VERSION);
+      header.putLong(gameCount).putLong(indexOffset).flip();
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+    } finally {
+      channel.close();
+    }
+  }
+
+  private void endCurrent() throws IOException {
+    if (current != null) {
+      current.end();
+      current = null;
+    }
+  }
+}
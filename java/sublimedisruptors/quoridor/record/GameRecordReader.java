@@ -0,0 +1,136 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.io.ByteStreams;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.annotation.Nullable;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.PackedMove;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+
+/**
+ * Reads a game record written by {@link GameRecordWriter}, one move at a time.
+ *
+ * <p>Moves can be read individually by {@link #next} or {@link #nextPacked}, or {@linkplain
+ * #replay replayed} onto a board, in which case the legality of each move is checked by a {@link
+ * RulesGovernor}. Once the end of the record has been read, the stream is positioned at the start
+ * of the next record, if any.
+ *
+ * <p>A malformed record, including one containing an illegal move, causes an {@link IOException}.
+ */
+public final class GameRecordReader {
+
+  /**
+   * Reads the header of the next record from {@code in}, or returns {@code null} if {@code in} is
+   * at the end of the stream.
+   *
+   * @throws EOFException if the stream ends part way through the header
+   */
+  @Nullable
+  public static GameRecordReader open(InputStream in) throws IOException {
+    checkNotNull(in);
+    byte[] header = new byte[RecordFormat.HEADER_BYTES];
+    int read = ByteStreams.read(in, header, 0, header.length);
+    if (read == 0) {
+      return null;
+    }
+    if (read < header.length) {
+      throw new EOFException("Truncated game record header");
+    }
+    return new GameRecordReader(in, RecordFormat.parseHeader(header));
+  }
+
+  private final InputStream in;
+  private final RecordFormat format;
+  private int moveCount = 0;
+  private boolean ended = false;
+
+  private GameRecordReader(InputStream in, RecordFormat format) {
+    this.in = in;
+    this.format = format;
+  }
+
+  /** Returns the settings of the recorded game. */
+  public QuoridorSettings settings() {
+    return format.settings();
+  }
+
+  /** Returns the number of moves read so far. */
+  public int moveCount() {
+    return moveCount;
+  }
+
+  /** Returns the next move, or {@code null} if the end of the record has been reached. */
+  @Nullable
+  public Move next() throws IOException {
+    int packedMove = nextPacked();
+    return packedMove == PackedMove.NONE ? null : PackedMove.decode(packedMove);
+  }
+
+  /**
+   * Returns the next move as a {@linkplain PackedMove packed move}, or {@link PackedMove#NONE} if
+   * the end of the record has been reached.
+   */
+  public int nextPacked() throws IOException {
+    if (ended) {
+      return PackedMove.NONE;
+    }
+    int code = readByte();
+    if (format.codeWidth() == 2) {
+      code = (code << 8) | readByte();
+    }
+    Player player = settings().players().get(moveCount % settings().players().size());
+    int packedMove = format.decode(code, player);
+    if (packedMove == PackedMove.NONE) {
+      ended = true;
+    } else {
+      moveCount++;
+    }
+    return packedMove;
+  }
+
+  /**
+   * Reads the remaining moves of the record onto a new board, checking that each is legal, and
+   * returns the board.
+   */
+  public Board replay() throws IOException {
+    Board board = Board.createFromSettings(settings());
+    replay(board, RulesGovernor.createAndSetUpPawns(board, settings()));
+    return board;
+  }
+
+  /**
+   * Reads the remaining moves of the record onto {@code board}, checking that each is legal by
+   * consulting {@code governor}, which must govern {@code board}.
+   *
+   * <p>The board must be in the position reached by the moves read so far.
+   */
+  public void replay(Board board, RulesGovernor governor) throws IOException {
+    checkArgument(board.size() == settings().boardSize(), "Board does not match record");
+    for (Move move = next(); move != null; move = next()) {
+      boolean legal =
+          move.type() == Move.Type.PAWN
+              ? governor.generateValidPawnMoves(move.player()).contains(move)
+              : governor.isValidWallMove(move);
+      if (!legal) {
+        throw new IOException(String.format("Illegal move %s at ply %s", move, moveCount));
+      }
+      move.applyTo(board);
+    }
+  }
+
+  private int readByte() throws IOException {
+    int b = in.read();
+    if (b < 0) {
+      throw new EOFException("Truncated game record after " + moveCount + " moves");
+    }
+    return b;
+  }
+}
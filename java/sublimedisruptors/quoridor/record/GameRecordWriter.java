@@ -0,0 +1,80 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.OutputStream;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.move.Move;
+
+/**
+ * Writes a compact binary record of a single game as it is played.
+ *
+ * <p>The record starts with the game's {@link QuoridorSettings}, is followed by each move as it is
+ * {@linkplain #append appended}, and is terminated by {@link #end}. On the default 9x9 board each
+ * move takes a single byte. Several records may be written one after another to the same stream,
+ * and read back in turn by {@link GameRecordReader}.
+ *
+ * <p>The writer does not buffer, flush or close the stream, all of which are the caller's
+ * responsibility. Writing to a {@link java.io.BufferedOutputStream} is recommended.
+ */
+public final class GameRecordWriter {
+
+  /** Writes the header of a record of a game with the given {@code settings} to {@code out}. */
+  public static GameRecordWriter start(OutputStream out, QuoridorSettings settings)
+      throws IOException {
+    checkNotNull(out);
+    RecordFormat format = RecordFormat.forSettings(settings);
+    out.write(format.header());
+    return new GameRecordWriter(out, format);
+  }
+
+  private final OutputStream out;
+  private final RecordFormat format;
+  private int moveCount = 0;
+  private boolean ended = false;
+
+  private GameRecordWriter(OutputStream out, RecordFormat format) {
+    this.out = out;
+    this.format = format;
+  }
+
+  /**
+   * Appends {@code move} to the record.
+   *
+   * <p>Moves must be appended in the order in which they were made, and each must be made by the
+   * player whose turn it is. Whether the move is legal is not checked.
+   */
+  public void append(Move move) throws IOException {
+    checkState(!ended, "Record already ended");
+    ImmutableList<Player> players = format.settings().players();
+    Player expected = players.get(moveCount % players.size());
+    checkArgument(move.player() == expected, "Expected a move by %s, got %s", expected, move);
+    writeCode(format.encode(move));
+    moveCount++;
+  }
+
+  /** Returns the number of moves appended so far. */
+  public int moveCount() {
+    return moveCount;
+  }
+
+  /** Ends the record. No more moves may be appended. Has no effect if already ended. */
+  public void end() throws IOException {
+    if (!ended) {
+      writeCode(RecordFormat.END);
+      ended = true;
+    }
+  }
+
+  private void writeCode(int code) throws IOException {
+    if (format.codeWidth() == 2) {
+      out.write(code >>> 8);
+    }
+    out.write(code);
+  }
+}
@@ -0,0 +1,196 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.PackedMove;
+
+/**
+ * A read-only, memory-mapped book of the moves played in the openings of archived games, written
+ * by an {@link OpeningBookWriter}.
+ *
+ * <p>The file starts with a header of {@value #HEADER_BYTES} bytes: a magic number, the format
+ * version, the board size, wall length and walls per player of the settings, the number of
+ * players, the players in turn order, packed two bits each from least to most significant, and the
+ * number of entries. The entries follow, {@value #ENTRY_BYTES} bytes each: the {@linkplain
+ * Board#zobristKey Zobrist key} of a position, a {@linkplain PackedMove packed move} played from
+ * it, the number of games in which it was played and the number of those won by the player who
+ * played it. The entries are sorted by key, and the entries of a position by the number of games,
+ * most first, so a position is {@linkplain #lookUp looked up} by a binary search of the mapped
+ * file.
+ *
+ * <p>If the settings are {@linkplain BoardGeometry#isMirrorSymmetric mirror symmetric}, a position
+ * and its mirror image share their entries, which are those of the {@linkplain
+ * Board.Snapshot#canonical canonical} position.
+ *
+ * <p>A book may be looked up by any number of threads at once.
+ */
+public final class OpeningBook implements Closeable {
+
+  static final int MAGIC = 0x51424F4B; // "QBOK"
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 36;
+  static final int ENTRY_BYTES = 20;
+
+  /** A move played from a position in the book, with the record of the games in which it was. */
+  @AutoValue
+  public abstract static class Entry {
+
+    static Entry create(Move move, int games, int wins) {
+      return new AutoValue_OpeningBook_Entry(move, games, wins);
+    }
+
+    /** The move played. */
+    public abstract Move move();
+
+    /** The number of games in which the move was played from the position. */
+    public abstract int games();
+
+    /** The number of those games that were won by the player who made the move. */
+    public abstract int wins();
+  }
+
+  /** Opens and maps the book at {@code path}. */
+  public static OpeningBook open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (header.hasRemaining()) {
+        if (channel.read(header, header.position()) < 0) {
+          break;
+        }
+      }
+      if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+        throw new IOException("Not an opening book: " + path);
+      }
+      if (header.getInt(4) != VERSION) {
+        throw new IOException("Unsupported opening book version: " + header.getInt(4));
+      }
+      QuoridorSettings settings;
+      try {
+        int playerCount = header.getInt(20);
+        checkArgument(playerCount > 0 && playerCount <= Player.values().length);
+        Player[] players = new Player[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+          players[i] = Player.values()[(header.getInt(24) >>> (2 * i)) & 0x3];
+        }
+        settings =
+            QuoridorSettings.builder()
+                .setBoardSize(header.getInt(8))
+                .setWallLength(header.getInt(12))
+                .setWallsPerPlayer(header.getInt(16))
+                .setPlayers(players)
+                .build();
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        throw new IOException("Corrupt opening book header: " + path, e);
+      }
+      long entryCount = header.getLong(28);
+      if (entryCount < 0
+          || entryCount > Integer.MAX_VALUE / ENTRY_BYTES
+          || HEADER_BYTES + entryCount * ENTRY_BYTES != channel.size()) {
+        throw new IOException("Corrupt opening book header: " + path);
+      }
+      MappedByteBuffer entries =
+          channel.map(MapMode.READ_ONLY, HEADER_BYTES, entryCount * ENTRY_BYTES);
+      return new OpeningBook(channel, settings, entries, (int) entryCount);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private final FileChannel channel;
+  private final QuoridorSettings settings;
+  private final boolean mirrorSymmetric;
+  private final MappedByteBuffer entries;
+  private final int size;
+
+  private OpeningBook(
+      FileChannel channel, QuoridorSettings settings, MappedByteBuffer entries, int size) {
+    this.channel = channel;
+    this.settings = settings;
+    this.mirrorSymmetric = BoardGeometry.isMirrorSymmetric(settings);
+    this.entries = entries;
+    this.size = size;
+  }
+
+  /** Returns the settings of the games whose openings are in the book. */
+  public QuoridorSettings settings() {
+    return settings;
+  }
+
+  /** Returns the number of entries in the book. */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the entries of {@code position}, most played first, or an empty list if the position
+   * is not in the book. The moves apply to {@code position} itself, even if it shares its entries
+   * with its mirror image.
+   *
+   * <p>A book move is only as legal as the games from which it was taken, and two positions may
+   * rarely share a Zobrist key, so callers should check a move before making it.
+   */
+  public ImmutableList<Entry> lookUp(Board.Snapshot position) {
+    checkArgument(
+        position.size() == settings.boardSize(),
+        "Position of size %s does not match settings %s",
+        position.size(),
+        settings);
+    boolean mirrored = mirrorSymmetric && !position.isCanonical();
+    long key = mirrored ? position.mirroredZobristKey() : position.zobristKey();
+    ImmutableList.Builder<Entry> result = ImmutableList.builder();
+    for (int i = firstEntry(key); i < size && key(i) == key; i++) {
+      int offset = i * ENTRY_BYTES;
+      int move = entries.getInt(offset + Long.BYTES);
+      if (mirrored) {
+        move = PackedMove.mirror(move, settings.boardSize());
+      }
+      result.add(
+          Entry.create(
+              PackedMove.decode(move),
+              entries.getInt(offset + Long.BYTES + Integer.BYTES),
+              entries.getInt(offset + Long.BYTES + 2 * Integer.BYTES)));
+    }
+    return result.build();
+  }
+
+  /** Returns the index of the first entry with a key of at least {@code key}. */
+  private int firstEntry(long key) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (key(middle) < key) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private long key(int entry) {
+    return entries.getLong(entry * ENTRY_BYTES);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
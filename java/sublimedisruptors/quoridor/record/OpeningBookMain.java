@@ -0,0 +1,52 @@
+package sublimedisruptors.quoridor.record;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Builds an {@link OpeningBook} from the games in an archive and writes it to a file.
+ *
+ * <p>Usage: {@code OpeningBookMain <archive> <book> [max ply] [min games]}. The book is of games
+ * with the settings of the first game in the archive. The max ply defaults to {@value
+ * #DEFAULT_MAX_PLY} and the min games to {@value #DEFAULT_MIN_GAMES}.
+ */
+public final class OpeningBookMain {
+
+  private static final int DEFAULT_MAX_PLY = 12;
+  private static final int DEFAULT_MIN_GAMES = 2;
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 4) {
+      System.err.println("Usage: OpeningBookMain <archive> <book> [max ply] [min games]");
+      System.exit(2);
+    }
+    Path archivePath = Paths.get(args[0]);
+    Path bookPath = Paths.get(args[1]);
+    int maxPly = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLY;
+    int minGames = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MIN_GAMES;
+
+    long start = System.nanoTime();
+    int entries;
+    OpeningBookWriter writer;
+    try (GameArchive archive = GameArchive.open(archivePath)) {
+      if (archive.size() == 0) {
+        System.err.println("No games in " + archivePath);
+        System.exit(1);
+      }
+      writer = OpeningBookWriter.create(archive.reader(0).settings(), maxPly, minGames);
+      try {
+        writer.addGames(archive);
+        entries = writer.writeTo(bookPath);
+      } finally {
+        writer.close();
+      }
+    }
+    long elapsedNanos = System.nanoTime() - start;
+
+    System.out.format("Settings: %s\n", writer.settings());
+    System.out.format("Games: %d\n", writer.gameCount());
+    System.out.format("Entries: %d\n", entries);
+    System.out.format("Time: %.3f s\n", elapsedNanos / 1e9);
+  }
+}
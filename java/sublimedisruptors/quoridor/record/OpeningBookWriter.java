@@ -0,0 +1,512 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import javax.annotation.Nullable;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.move.Move.Type;
+import sublimedisruptors.quoridor.move.PackedMove;
+
+/**
+ * Builds an {@link OpeningBook} from the games in one or more {@link GameArchive}s.
+ *
+ * <p>Every move made in the first plies of a game is tallied against the position from which it
+ * was made, along with whether the player who made it went on to win. A game is won by the player
+ * whose pawn reaches its goal with the last move, and a game that ends otherwise counts as won by
+ * nobody. If the settings are {@linkplain BoardGeometry#isMirrorSymmetric mirror symmetric}, moves
+ * are tallied against the {@linkplain Board.Snapshot#canonical canonical} position, mirrored to
+ * match, so that games that are mirror images of each other add to the same entries.
+ *
+ * <p>Each move is buffered in memory as a position key and a packed move, twelve bytes in all. When
+ * the buffer is full, it is sorted by key and move, and the tallies of its runs of equal moves are
+ * spilled to a temporary file. When the book is {@linkplain #writeTo written}, the spilled files
+ * and the buffer are merged in order, and moves played in fewer than the minimum number of games
+ * are left out. The writer must be {@linkplain #close closed} to delete the spilled files. An
+ * {@code OpeningBookWriter} is not safe for concurrent use.
+ */
+public final class OpeningBookWriter implements Closeable {
+
+  /** The number of moves that {@link #create} buffers in memory, 24 MB worth. */
+  static final int DEFAULT_BUFFER_SIZE = 1 << 21;
+
+  /**
+   * Creates a writer for a book of the first {@code maxPly} moves of games with the given {@code
+   * settings}, leaving out moves played in fewer than {@code minGames} games.
+   */
+  public static OpeningBookWriter create(QuoridorSettings settings, int maxPly, int minGames) {
+    return create(
+        settings,
+        maxPly,
+        minGames,
+        DEFAULT_BUFFER_SIZE,
+        Paths.get(System.getProperty("java.io.tmpdir")));
+  }
+
+  /**
+   * Creates a writer as {@link #create(QuoridorSettings, int, int)} does, which buffers up to
+   * {@code bufferSize} moves in memory and spills them to files in {@code spillDirectory}.
+   */
+  static OpeningBookWriter create(
+      QuoridorSettings settings, int maxPly, int minGames, int bufferSize, Path spillDirectory) {
+    checkArgument(maxPly > 0, "Max ply must be positive, got %s", maxPly);
+    checkArgument(minGames > 0, "Min games must be positive, got %s", minGames);
+    checkArgument(
+        bufferSize >= maxPly, "Buffer of %s moves cannot hold %s plies", bufferSize, maxPly);
+    return new OpeningBookWriter(settings, maxPly, minGames, bufferSize, spillDirectory);
+  }
+
+  private final QuoridorSettings settings;
+  private final BoardGeometry geometry;
+  private final boolean mirrorSymmetric;
+  private final int maxPly;
+  private final int minGames;
+  private final Path spillDirectory;
+  /** The keys and moves of the first plies of the current game, tallied once it is over. */
+  private final long[] gameKeys;
+  private final int[] gameMoves;
+  /** The position keys of the moves buffered since the last spill. */
+  private final long[] bufferKeys;
+  /** The buffered moves, each packed and shifted left by one, with the low bit set if it won. */
+  private final int[] bufferMoves;
+  private int bufferCount = 0;
+  /** The files to which the buffer has been spilled, each sorted by key and move. */
+  private final List<Path> spills = new ArrayList<>();
+  private int gameCount = 0;
+
+  private OpeningBookWriter(
+      QuoridorSettings settings, int maxPly, int minGames, int bufferSize, Path spillDirectory) {
+    this.settings = settings;
+    this.geometry = BoardGeometry.forSettings(settings);
+    this.mirrorSymmetric = BoardGeometry.isMirrorSymmetric(settings);
+    this.maxPly = maxPly;
+    this.minGames = minGames;
+    this.spillDirectory = spillDirectory;
+    this.gameKeys = new long[maxPly];
+    this.gameMoves = new int[maxPly];
+    this.bufferKeys = new long[bufferSize];
+    this.bufferMoves = new int[bufferSize];
+  }
+
+  /** Returns the settings of the games in the book. */
+  public QuoridorSettings settings() {
+    return settings;
+  }
+
+  /** Returns the number of games added so far. */
+  public int gameCount() {
+    return gameCount;
+  }
+
+  /**
+   * Adds the openings of the games in {@code archive} with the writer's settings, skipping any
+   * others, and returns the number of games added.
+   */
+  public int addGames(GameArchive archive) throws IOException {
+    int added = 0;
+    GameArchive.Cursor cursor = archive.cursor();
+    int game = -1;
+    int plies = 0;
+    Player winner = null;
+    long key = 0;
+    long mirroredKey = 0;
+    while (cursor.advance()) {
+      if (cursor.game() != game) {
+        if (game >= 0) {
+          tally(plies, winner);
+          added++;
+        }
+        game = -1;
+        if (!cursor.settings().equals(settings)) {
+          continue;
+        }
+        game = cursor.game();
+        plies = 0;
+        winner = null;
+      } else if (game < 0) {
+        continue;
+      } else {
+        int move = cursor.lastMove();
+        if (cursor.ply() <= maxPly) {
+          record(cursor.ply() - 1, key, mirroredKey, move);
+          plies = cursor.ply();
+        }
+        Player mover = PackedMove.player(move);
+        Board board = cursor.board();
+        winner =
+            PackedMove.type(move) == Type.PAWN && geometry.isGoal(mover, board.pawnIndex(mover))
+                ? mover
+                : null;
+      }
+      key = cursor.board().zobristKey();
+      mirroredKey = cursor.board().mirroredZobristKey();
+    }
+    if (game >= 0) {
+      tally(plies, winner);
+      added++;
+    }
+    gameCount += added;
+    return added;
+  }
+
+  /** Records the move made at {@code ply} of the current game from the position with the key. */
+  private void record(int ply, long key, long mirroredKey, int move) {
+    if (mirrorSymmetric && mirroredKey <= key) {
+      int mirroredMove = PackedMove.mirror(move, settings.boardSize());
+      // A position that is its own mirror image has pairs of equivalent moves, which are tallied
+      // together as the smaller of the two.
+      move = mirroredKey < key ? mirroredMove : Math.min(move, mirroredMove);
+      key = mirroredKey;
+    }
+    gameKeys[ply] = key;
+    gameMoves[ply] = move;
+  }
+
+  /** Adds the moves recorded for the first {@code plies} of the current game to the buffer. */
+  private void tally(int plies, @Nullable Player winner) throws IOException {
+    if (bufferCount + plies > bufferKeys.length) {
+      spill();
+    }
+    for (int ply = 0; ply < plies; ply++) {
+      bufferKeys[bufferCount] = gameKeys[ply];
+      bufferMoves[bufferCount] =
+          gameMoves[ply] << 1 | (PackedMove.player(gameMoves[ply]) == winner ? 1 : 0);
+      bufferCount++;
+    }
+  }
+
+  /** Sorts the buffer and writes its tallies to a new spill file, leaving the buffer empty. */
+  private void spill() throws IOException {
+    sortBuffer();
+    Path path = Files.createTempFile(spillDirectory, "opening-book", ".spill");
+    spills.add(path);
+    try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        TallyCursor tallies = new BufferCursor()) {
+      while (tallies.advance()) {
+        out.writeLong(tallies.key);
+        out.writeInt(tallies.move);
+        out.writeInt(tallies.games);
+        out.writeInt(tallies.wins);
+      }
+    }
+    bufferCount = 0;
+  }
+
+  /**
+   * Sorts the buffer by key and then by move. A heapsort is used, since it needs no memory beyond
+   * the buffer itself.
+   */
+  private void sortBuffer() {
+    for (int i = bufferCount / 2 - 1; i >= 0; i--) {
+      siftDown(i, bufferCount);
+    }
+    for (int end = bufferCount - 1; end > 0; end--) {
+      swap(0, end);
+      siftDown(0, end);
+    }
+  }
+
+  private void siftDown(int i, int end) {
+    for (int child = 2 * i + 1; child < end; i = child, child = 2 * i + 1) {
+      if (child + 1 < end && precedes(child, child + 1)) {
+        child++;
+      }
+      if (!precedes(i, child)) {
+        return;
+      }
+      swap(i, child);
+    }
+  }
+
+  /** Returns {@code true} if buffered move {@code i} sorts before buffered move {@code j}. */
+  private boolean precedes(int i, int j) {
+    return bufferKeys[i] != bufferKeys[j]
+        ? bufferKeys[i] < bufferKeys[j]
+        : bufferMoves[i] < bufferMoves[j];
+  }
+
+  private void swap(int i, int j) {
+    long key = bufferKeys[i];
+    bufferKeys[i] = bufferKeys[j];
+    bufferKeys[j] = key;
+    int move = bufferMoves[i];
+    bufferMoves[i] = bufferMoves[j];
+    bufferMoves[j] = move;
+  }
+
+  /**
+   * Writes the book to {@code path}, replacing any existing file, and returns the number of
+   * entries written.
+   */
+  public int writeTo(Path path) throws IOException {
+    sortBuffer();
+    long entryCount = 0;
+    try (PositionCursor positions = new PositionCursor()) {
+      while (positions.advance()) {
+        entryCount += positions.size;
+      }
+    }
+    checkArgument(
+        entryCount <= Integer.MAX_VALUE / OpeningBook.ENTRY_BYTES,
+        "Too many entries for a book: %s",
+        entryCount);
+
+    int players = 0;
+    for (int i = 0; i < settings.players().size(); i++) {
+      players |= settings.players().get(i).ordinal() << (2 * i);
+    }
+    try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        PositionCursor positions = new PositionCursor()) {
+      out.writeInt(OpeningBook.MAGIC);
+      out.writeInt(OpeningBook.VERSION);
+      out.writeInt(settings.boardSize());
+      out.writeInt(settings.wallLength());
+      out.writeInt(settings.wallsPerPlayer());
+      out.writeInt(settings.players().size());
+      out.writeInt(players);
+      out.writeLong(entryCount);
+      while (positions.advance()) {
+        for (int i = 0; i < positions.size; i++) {
+          out.writeLong(positions.key);
+          out.writeInt(positions.moves[i]);
+          out.writeInt(positions.games[i]);
+          out.writeInt(positions.wins[i]);
+        }
+      }
+    }
+    return (int) entryCount;
+  }
+
+  /** Deletes the files to which moves have been spilled. */
+  @Override
+  public void close() throws IOException {
+    while (!spills.isEmpty()) {
+      Files.deleteIfExists(spills.remove(spills.size() - 1));
+    }
+  }
+
+  /** Returns a cursor over the tallies of the sorted buffer and the spill files, merged. */
+  private TallyCursor openTallies() throws IOException {
+    List<TallyCursor> sources = new ArrayList<>(spills.size() + 1);
+    try {
+      sources.add(new BufferCursor());
+      for (Path spill : spills) {
+        sources.add(new SpillCursor(spill));
+      }
+      return new MergeCursor(sources);
+    } catch (IOException | RuntimeException e) {
+      for (TallyCursor source : sources) {
+        source.close();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * A cursor over the tallies of moves from positions, in order of key and then of move, with at
+   * most one tally for each move from a position.
+   */
+  private abstract static class TallyCursor implements Closeable {
+    long key;
+    int move;
+    int games;
+    int wins;
+
+    /** Advances to the next tally, returning {@code false} if there is none. */
+    abstract boolean advance() throws IOException;
+
+    /** Returns {@code true} if this cursor's tally sorts before {@code other}'s. */
+    boolean precedes(TallyCursor other) {
+      return key != other.key ? key < other.key : move < other.move;
+    }
+
+    @Override
+    public void close() throws IOException {}
+  }
+
+  /** Tallies the runs of equal moves in the sorted buffer. */
+  private final class BufferCursor extends TallyCursor {
+    private int next = 0;
+
+    @Override
+    boolean advance() {
+      if (next == bufferCount) {
+        return false;
+      }
+      key = bufferKeys[next];
+      move = bufferMoves[next] >>> 1;
+      games = 0;
+      wins = 0;
+      while (next < bufferCount
+          && bufferKeys[next] == key
+          && bufferMoves[next] >>> 1 == move) {
+        games++;
+        wins += bufferMoves[next] & 1;
+        next++;
+      }
+      return true;
+    }
+  }
+
+  /** Reads the tallies of a spill file. */
+  private static final class SpillCursor extends TallyCursor {
+    private final DataInputStream in;
+    private long remaining;
+
+    SpillCursor(Path path) throws IOException {
+      remaining = Files.size(path) / OpeningBook.ENTRY_BYTES;
+      in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+    }
+
+    @Override
+    boolean advance() throws IOException {
+      if (remaining == 0) {
+        return false;
+      }
+      remaining--;
+      key = in.readLong();
+      move = in.readInt();
+      games = in.readInt();
+      wins = in.readInt();
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  /** Merges the tallies of several cursors, adding up those of the same move from a position. */
+  private static final class MergeCursor extends TallyCursor {
+    private final List<TallyCursor> sources;
+    private final PriorityQueue<TallyCursor> queue =
+        new PriorityQueue<>((a, b) -> a.precedes(b) ? -1 : b.precedes(a) ? 1 : 0);
+
+    MergeCursor(List<TallyCursor> sources) throws IOException {
+      this.sources = sources;
+      for (TallyCursor source : sources) {
+        if (source.advance()) {
+          queue.add(source);
+        }
+      }
+    }
+
+    @Override
+    boolean advance() throws IOException {
+      if (queue.isEmpty()) {
+        return false;
+      }
+      TallyCursor first = queue.peek();
+      key = first.key;
+      move = first.move;
+      games = 0;
+      wins = 0;
+      while (!queue.isEmpty() && queue.peek().key == key && queue.peek().move == move) {
+        TallyCursor source = queue.poll();
+        games += source.games;
+        wins += source.wins;
+        if (source.advance()) {
+          queue.add(source);
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      for (TallyCursor source : sources) {
+        source.close();
+      }
+    }
+  }
+
+  /**
+   * Groups the merged tallies by position, keeping the moves played in at least the minimum number
+   * of games, sorted as in the book: by games and then wins, both descending, and then by move.
+   */
+  private final class PositionCursor implements Closeable {
+    private final TallyCursor tallies;
+    private boolean hasTally;
+    long key;
+    int size;
+    int[] moves = new int[16];
+    int[] games = new int[16];
+    int[] wins = new int[16];
+
+    PositionCursor() throws IOException {
+      tallies = openTallies();
+      try {
+        hasTally = tallies.advance();
+      } catch (IOException e) {
+        tallies.close();
+        throw e;
+      }
+    }
+
+    /** Advances to the next position with any moves kept, returning {@code false} if none is. */
+    boolean advance() throws IOException {
+      while (hasTally) {
+        key = tallies.key;
+        size = 0;
+        do {
+          if (tallies.games >= minGames) {
+            insert(tallies.move, tallies.games, tallies.wins);
+          }
+          hasTally = tallies.advance();
+        } while (hasTally && tallies.key == key);
+        if (size > 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /** Inserts a move into the sorted moves of the position, of which there are few. */
+    private void insert(int move, int moveGames, int moveWins) {
+      if (size == moves.length) {
+        moves = Arrays.copyOf(moves, 2 * size);
+        games = Arrays.copyOf(games, 2 * size);
+        wins = Arrays.copyOf(wins, 2 * size);
+      }
+      int i = size++;
+      for (; i > 0; i--) {
+        boolean after =
+            games[i - 1] != moveGames
+                ? games[i - 1] > moveGames
+                : wins[i - 1] != moveWins ? wins[i - 1] > moveWins : moves[i - 1] < move;
+        if (after) {
+          break;
+        }
+        moves[i] = moves[i - 1];
+        games[i] = games[i - 1];
+        wins[i] = wins[i - 1];
+      }
+      moves[i] = move;
+      games[i] = moveGames;
+      wins[i] = moveWins;
+    }
+
+    @Override
+    public void close() throws IOException {
+      tallies.close();
+    }
+  }
+}
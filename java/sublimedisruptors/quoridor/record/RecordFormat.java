@@ -0,0 +1,171 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.PackedMove;
+
+/**
+ * The binary format of a game record, shared by {@link GameRecordWriter} and {@link
+ * GameRecordReader}.
+ *
+ * <p>A record starts with a header of {@value #HEADER_BYTES} bytes: the magic byte {@code 'Q'}, the
+ * format version, the board size, the wall length, the number of walls per player, the number of
+ * players, and the players in turn order, packed two bits each from least to most significant.
+ * Each move follows as a code of {@link #codeWidth} big-endian bytes, and the record ends with the
+ * code {@value #END}.
+ *
+ * <p>Moves are coded without the player who made them, which is implied by the turn order. Code
+ * {@code 1 + i} moves the pawn to the square with index {@code i}, and code {@code 1 + squares +
+ * i} places the wall with {@linkplain BoardGeometry#wallPlacementIndex placement index} {@code
+ * i}. On the default 9x9 board there are 210 codes, so each move takes a single byte.
+ */
+final class RecordFormat {
+
+  static final int MAGIC = 'Q';
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 7;
+
+  /** The code that ends a record. */
+  static final int END = 0;
+
+  private static final Player[] PLAYERS = Player.values();
+  private static final ConcurrentMap<QuoridorSettings, RecordFormat> cache =
+      new ConcurrentHashMap<>();
+
+  /** Returns the format for games with the given {@code settings}, which is cached. */
+  static RecordFormat forSettings(QuoridorSettings settings) {
+    checkArgument(
+        settings.boardSize() <= 0xFF && settings.wallLength() <= 0xFF,
+        "Board too large to record: %s",
+        settings);
+    checkArgument(settings.wallsPerPlayer() <= 0xFF, "Too many walls to record: %s", settings);
+    return cache.computeIfAbsent(settings, RecordFormat::new);
+  }
+
+  private final QuoridorSettings settings;
+  private final BoardGeometry geometry;
+  private final int codeWidth;
+  private final int[][] packedMoves;
+
+  private RecordFormat(QuoridorSettings settings) {
+    this.settings = settings;
+    this.geometry = BoardGeometry.forSettings(settings);
+    int codes = 1 + geometry.squareCount() + geometry.wallPlacementCount();
+    checkArgument(codes <= 1 << 16, "Board too large to record: %s", settings);
+    this.codeWidth = codes <= 1 << 8 ? 1 : 2;
+    this.packedMoves = new int[PLAYERS.length][];
+    for (Player player : settings.players()) {
+      int[] moves = new int[codes];
+      moves[END] = PackedMove.NONE;
+      for (int i = 0; i < geometry.squareCount(); i++) {
+        Square square = geometry.square(i);
+        moves[1 + i] = PackedMove.pawnMove(player, square.column(), square.row());
+      }
+      for (int i = 0; i < geometry.wallPlacementCount(); i++) {
+        Wall wall = geometry.wall(i);
+        moves[1 + geometry.squareCount() + i] =
+            PackedMove.wallMove(
+                player,
+                wall.orientation(),
+                wall.firstVertex().column(),
+                wall.firstVertex().row(),
+                wall.length());
+      }
+      packedMoves[player.ordinal()] = moves;
+    }
+  }
+
+  QuoridorSettings settings() {
+    return settings;
+  }
+
+  /** Returns the number of bytes in each move code, either 1 or 2. */
+  int codeWidth() {
+    return codeWidth;
+  }
+
+  /** Returns the code of the given move, which must be on the board. */
+  int encode(Move move) {
+    int index =
+        move.type() == Move.Type.PAWN
+            ? geometry.squareIndex(move.destination())
+            : geometry.wallPlacementIndex(move.wall());
+    checkArgument(index >= 0, "Move not on the board: %s", move);
+    return move.type() == Move.Type.PAWN ? 1 + index : 1 + geometry.squareCount() + index;
+  }
+
+  /**
+   * Returns the {@linkplain PackedMove packed move} with the given code, made by {@code player},
+   * or {@link PackedMove#NONE} for {@link #END}.
+   *
+   * @throws IOException if the code is out of range
+   */
+  int decode(int code, Player player) throws IOException {
+    int[] moves = packedMoves[player.ordinal()];
+    if (code < 0 || code >= moves.length) {
+      throw new IOException("Invalid move code: " + code);
+    }
+    return moves[code];
+  }
+
+  /** Returns the header of a record of a game with the settings of this format. */
+  byte[] header() {
+    byte[] header = new byte[HEADER_BYTES];
+    header[0] = (byte) MAGIC;
+    header[1] = (byte) VERSION;
+    header[2] = (byte) settings.boardSize();
+    header[3] = (byte) settings.wallLength();
+    header[4] = (byte) settings.wallsPerPlayer();
+    header[5] = (byte) settings.players().size();
+    int order = 0;
+    for (int i = 0; i < settings.players().size(); i++) {
+      order |= settings.players().get(i).ordinal() << (2 * i);
+    }
+    header[6] = (byte) order;
+    return header;
+  }
+
+  /**
+   * Parses a header written by {@link #header}.
+   *
+   * @throws IOException if the header is malformed
+   */
+  static RecordFormat parseHeader(byte[] header) throws IOException {
+    if ((header[0] & 0xFF) != MAGIC) {
+      throw new IOException("Not a game record");
+    }
+    if ((header[1] & 0xFF) != VERSION) {
+      throw new IOException("Unsupported game record version: " + (header[1] & 0xFF));
+    }
+    int playerCount = header[5] & 0xFF;
+    if (playerCount > PLAYERS.length) {
+      throw new IOException("Invalid number of players: " + playerCount);
+    }
+    Player[] players = new Player[playerCount];
+    for (int i = 0; i < playerCount; i++) {
+      players[i] = PLAYERS[(header[6] >>> (2 * i)) & 0b11];
+    }
+    QuoridorSettings settings;
+    try {
+      settings =
+          QuoridorSettings.builder()
+              .setBoardSize(header[2] & 0xFF)
+              .setWallLength(header[3] & 0xFF)
+              .setWallsPerPlayer(header[4] & 0xFF)
+              .setPlayers(players)
+              .build();
+    } catch (IllegalStateException e) {
+      throw new IOException("Invalid settings in game record", e);
+    }
+    return forSettings(settings);
+  }
+}
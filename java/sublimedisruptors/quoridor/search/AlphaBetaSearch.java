@@ -0,0 +1,387 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.move.MoveList;
+import sublimedisruptors.quoridor.move.PackedMove;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.search.TranspositionTable.Bound;
+
+/**
+ * Searches two-player positions for the best move using negamax with alpha-beta pruning.
+ *
+ * <p>The search deepens iteratively, one move at a time, until the maximum depth is reached, a
+ * forced win or loss is found, or the time budget runs out. The first iteration always completes so
+ * that a move is available however small the budget. An iteration that is abandoned due to time is
+ * discarded, and the best move of the deepest completed iteration is tried first by the next one.
+ *
+ * <p>Results are cached in a {@link TranspositionTable}, which may be shared with other searches.
+ * A cached result is reused when it was searched deeply enough, and otherwise its best move is
+ * searched first. Scores of forced wins and losses are cached relative to the cached position, so
+ * that they remain correct when the position is reached at a different ply.
+ *
+ * <p>In games in which every player aims for a row, a position and its {@linkplain
+ * Board.Snapshot#mirror mirror image} share one entry in the table, stored under their {@linkplain
+ * Board#canonicalZobristKey canonical key} with the best move of the canonical form. This assumes
+ * that the evaluator scores a position and its mirror image alike, as the default one does.
+ *
+ * <p>When neither player has any walls left in the position searched, its positions are not
+ * searched, but scored exactly by an {@link EndgameSolver}. Walls cannot change in such a search,
+ * so the solver solves at most once. Positions in which the last wall is placed during the search
+ * are searched as usual instead, since each placement would need a solve of its own.
+ *
+ * <p>Positions are explored by applying {@linkplain PackedMove packed moves} to a private copy of
+ * the board and {@linkplain Board#undo undoing} them, with one reusable {@link MoveList} per ply,
+ * so the search allocates very little once it has started. Consequently, an {@code AlphaBetaSearch}
+ * is not safe for concurrent use.
+ */
+public final class AlphaBetaSearch {
+
+  /**
+   * The score of a position in which the player to move has already won. A win that takes {@code n}
+   * more moves is scored {@code WIN_SCORE - n}.
+   */
+  public static final int WIN_SCORE = 1_000_000;
+
+  /** The maximum number of moves ahead that a search may examine. */
+  public static final int MAX_DEPTH = 64;
+
+  private static final int INFINITY = WIN_SCORE + 1;
+
+  /** Scores at least this large in magnitude are forced wins or losses. */
+  private static final int MIN_WIN_SCORE = WIN_SCORE - MAX_DEPTH;
+
+  /** The deadline is checked whenever the number of nodes visited is a multiple of this + 1. */
+  private static final long DEADLINE_CHECK_MASK = (1 << 10) - 1;
+
+  /** The size of the transposition table of a search that is not given one. */
+  public static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+  /**
+   * Creates a search using the {@linkplain Evaluator#shortestPathDifference default} evaluator and
+   * a transposition table of its own.
+   */
+  public static AlphaBetaSearch create(QuoridorSettings settings) {
+    return create(settings, Evaluator.shortestPathDifference());
+  }
+
+  /** Creates a search using the given {@code evaluator} and a transposition table of its own. */
+  public static AlphaBetaSearch create(QuoridorSettings settings, Evaluator evaluator) {
+    return create(
+        settings, evaluator, TranspositionTable.withMegabytes(DEFAULT_TABLE_MEGABYTES));
+  }
+
+  /**
+   * Creates a search that uses the given {@code evaluator} and caches results in {@code table}.
+   *
+   * <p>The table may be shared with other searches, including those running concurrently, as long
+   * as they are for the same settings and use equivalent evaluators.
+   */
+  public static AlphaBetaSearch create(
+      QuoridorSettings settings, Evaluator evaluator, TranspositionTable table) {
+    checkArgument(
+        settings.players().size() == 2, "Search requires a two-player game: %s", settings);
+    return new AlphaBetaSearch(settings, checkNotNull(evaluator), checkNotNull(table));
+  }
+
+  private final QuoridorSettings settings;
+  private final Evaluator evaluator;
+  private final TranspositionTable table;
+  private final EndgameSolver endgameSolver;
+  /** Whether a position and its mirror image share an entry in the table. */
+  private final boolean mirrorSymmetric;
+  private final MoveList[] moveLists;
+  private Board board;
+  private RulesGovernor governor;
+  private long nodes;
+  private long deadline;
+  private AtomicBoolean abort;
+  private boolean deadlineEnforced;
+  private boolean stopped;
+  /** Whether the walls were spent in the position searched, which is then scored by the solver. */
+  private boolean solvingEndgame;
+
+  private AlphaBetaSearch(
+      QuoridorSettings settings, Evaluator evaluator, TranspositionTable table) {
+    this.settings = settings;
+    this.evaluator = evaluator;
+    this.table = table;
+    this.endgameSolver = EndgameSolver.create(settings);
+    this.mirrorSymmetric = BoardGeometry.isMirrorSymmetric(settings);
+    this.moveLists = new MoveList[MAX_DEPTH + 1];
+    for (int ply = 0; ply <= MAX_DEPTH; ply++) {
+      moveLists[ply] = new MoveList();
+    }
+  }
+
+  /**
+   * Searches for the best move for {@code player} in {@code position}, deepening until {@code
+   * budget} has elapsed.
+   *
+   * <p>The budget is checked periodically rather than continuously, so the search may overrun it
+   * slightly. It may also overrun it if the first iteration alone takes longer than the budget.
+   */
+  public SearchResult search(Board.Snapshot position, Player player, Duration budget) {
+    checkArgument(!budget.isNegative(), "Negative budget: %s", budget);
+    table.newSearch();
+    return search(position, player, MAX_DEPTH, deadlineAfter(budget), 0, new AtomicBoolean());
+  }
+
+  /** Searches for the best move for {@code player} in {@code position} to exactly {@code depth}. */
+  public SearchResult search(Board.Snapshot position, Player player, int depth) {
+    checkDepth(depth);
+    table.newSearch();
+    return search(position, player, depth, Long.MAX_VALUE, 0, new AtomicBoolean());
+  }
+
+  /**
+   * Searches as one of several threads searching the same position, which must share this
+   * search's transposition table.
+   *
+   * <p>The search stops at the {@link System#nanoTime} {@code deadline} or once {@code abort} is
+   * set, and sets {@code abort} itself if it runs to completion. The main thread, whose {@code
+   * helper} index is zero, always completes its first iteration. Helper threads give up on time
+   * without exception, start one iteration deeper if their index is odd and search root moves
+   * after the first in an order that depends on their index, so that they explore different parts
+   * of the tree from the main thread and leave useful results for it in the table.
+   */
+  SearchResult search(
+      Board.Snapshot position,
+      Player player,
+      int maxDepth,
+      long deadline,
+      int helper,
+      AtomicBoolean abort) {
+    checkArgument(
+        position.size() == settings.boardSize(),
+        "Position of size %s does not match settings %s",
+        position.size(),
+        settings);
+    checkArgument(settings.players().contains(player), "%s not participating", player);
+    long start = System.nanoTime();
+    board = Board.fromSnapshot(position);
+    governor = RulesGovernor.create(board, settings);
+    nodes = 0;
+    this.deadline = deadline;
+    this.abort = abort;
+    deadlineEnforced = helper > 0;
+    stopped = false;
+    solvingEndgame = endgameSolver.canSolve(board);
+
+    Player opponent = opponent(player);
+    MoveList rootMoves = moveLists[0];
+    rootMoves.clear();
+    generateMoves(player, rootMoves);
+    checkState(!rootMoves.isEmpty(), "%s has no valid moves", player);
+    long rootKey = tableKey();
+    moveToFront(rootMoves, tableMove(TranspositionTable.bestMove(table.probe(rootKey))));
+    if (helper > 0) {
+      Random random = new Random(helper);
+      for (int i = rootMoves.size() - 1; i > 1; i--) {
+        rootMoves.swap(i, 1 + random.nextInt(i));
+      }
+    }
+    int bestMove = rootMoves.get(0);
+    int bestScore = 0;
+    int completedDepth = 0;
+    for (int depth = 1 + (helper & 1); depth <= maxDepth; depth++) {
+      int alpha = -INFINITY;
+      int iterationBest = PackedMove.NONE;
+      for (int i = 0; i < rootMoves.size(); i++) {
+        if (shouldStop()) {
+          stopped = true;
+          break;
+        }
+        int move = rootMoves.get(i);
+        PackedMove.applyTo(move, board);
+        int score = -negamax(opponent, player, depth - 1, -INFINITY, -alpha, 1);
+        board.undo();
+        if (stopped) {
+          break;
+        }
+        if (score > alpha) {
+          alpha = score;
+          iterationBest = move;
+        }
+      }
+      if (stopped) {
+        break;
+      }
+      bestMove = iterationBest;
+      bestScore = alpha;
+      completedDepth = depth;
+      deadlineEnforced = true;
+      table.store(rootKey, depth, Bound.EXACT, bestScore, tableMove(bestMove));
+      if (Math.abs(bestScore) >= MIN_WIN_SCORE || rootMoves.size() == 1) {
+        break;
+      }
+      // Search the best move first next time, since it is the most likely to remain the best.
+      moveToFront(rootMoves, bestMove);
+    }
+    if (!stopped) {
+      abort.set(true);
+    }
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+    board = null;
+    governor = null;
+    this.abort = null;
+    return SearchResult.create(
+        PackedMove.decode(bestMove), bestScore, completedDepth, nodes, elapsed);
+  }
+
+  /**
+   * Returns the score of the current position from the perspective of {@code player}, who is to
+   * move, or an arbitrary value if the search has been {@linkplain #stopped stopped}.
+   */
+  private int negamax(Player player, Player opponent, int depth, int alpha, int beta, int ply) {
+    if ((++nodes & DEADLINE_CHECK_MASK) == 0 && shouldStop()) {
+      stopped = true;
+    }
+    if (stopped) {
+      return 0;
+    }
+    if (governor.isGoal(opponent, board.pawn(opponent))) {
+      return -(WIN_SCORE - ply);
+    }
+    if (solvingEndgame) {
+      if (!endgameSolver.isSolved(board) && shouldStop()) {
+        stopped = true;
+        return 0;
+      }
+      return endgameSolver.score(board, player, ply);
+    }
+    if (depth == 0) {
+      return evaluator.evaluate(board, governor, player, opponent);
+    }
+
+    long key = tableKey();
+    long entry = table.probe(key);
+    if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= depth) {
+      int score = fromTable(TranspositionTable.score(entry), ply);
+      Bound bound = TranspositionTable.bound(entry);
+      if (bound == Bound.EXACT
+          || (bound == Bound.LOWER && score >= beta)
+          || (bound == Bound.UPPER && score <= alpha)) {
+        return score;
+      }
+    }
+
+    MoveList moves = moveLists[ply];
+    moves.clear();
+    generateMoves(player, moves);
+    if (moves.isEmpty()) {
+      return evaluator.evaluate(board, governor, player, opponent);
+    }
+    moveToFront(moves, tableMove(TranspositionTable.bestMove(entry)));
+    int originalAlpha = alpha;
+    int best = -INFINITY;
+    int bestMove = PackedMove.NONE;
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      PackedMove.applyTo(move, board);
+      int score = -negamax(opponent, player, depth - 1, -beta, -alpha, ply + 1);
+      board.undo();
+      if (stopped) {
+        return 0;
+      }
+      if (score > best) {
+        best = score;
+        bestMove = move;
+        if (score > alpha) {
+          alpha = score;
+          if (alpha >= beta) {
+            break;
+          }
+        }
+      }
+    }
+    Bound bound =
+        best <= originalAlpha ? Bound.UPPER : best >= beta ? Bound.LOWER : Bound.EXACT;
+    table.store(key, depth, bound, toTable(best, ply), tableMove(bestMove));
+    return best;
+  }
+
+  private boolean shouldStop() {
+    return deadlineEnforced && (abort.get() || System.nanoTime() >= deadline);
+  }
+
+  /** Returns the key under which the current position is stored in the table. */
+  private long tableKey() {
+    return mirrorSymmetric ? board.canonicalZobristKey() : board.zobristKey();
+  }
+
+  /**
+   * Converts a move in the current position to the corresponding move in the position stored under
+   * its {@link #tableKey}, which is its mirror image if that is the canonical form, and back.
+   */
+  private int tableMove(int move) {
+    return mirrorSymmetric && board.mirroredZobristKey() < board.zobristKey()
+        ? PackedMove.mirror(move, board.size())
+        : move;
+  }
+
+  /**
+   * Moves {@code move} to the front of {@code moves}, if it is present, so that it is searched
+   * first. A move from the transposition table may be absent, since different positions can collide
+   * in the table.
+   */
+  private static void moveToFront(MoveList moves, int move) {
+    if (move == PackedMove.NONE) {
+      return;
+    }
+    for (int i = 0; i < moves.size(); i++) {
+      if (moves.get(i) == move) {
+        moves.swap(0, i);
+        return;
+      }
+    }
+  }
+
+  /** Converts a score of a forced win or loss {@code ply} moves from the root to the table. */
+  private static int toTable(int score, int ply) {
+    if (score >= MIN_WIN_SCORE) {
+      return score + ply;
+    }
+    return score <= -MIN_WIN_SCORE ? score - ply : score;
+  }
+
+  /** Reverses {@link #toTable}. */
+  private static int fromTable(int score, int ply) {
+    if (score >= MIN_WIN_SCORE) {
+      return score - ply;
+    }
+    return score <= -MIN_WIN_SCORE ? score + ply : score;
+  }
+
+  /** Generates pawn moves before wall moves, since they are more often the best. */
+  private void generateMoves(Player player, MoveList moves) {
+    governor.generateValidPawnMoves(player, moves);
+    governor.generateValidWallMoves(player, moves);
+  }
+
+  /** Returns the {@link System#nanoTime} at which {@code budget} will have elapsed from now. */
+  static long deadlineAfter(Duration budget) {
+    long start = System.nanoTime();
+    long deadline = start + budget.toNanos();
+    return deadline < start ? Long.MAX_VALUE : deadline;
+  }
+
+  static void checkDepth(int depth) {
+    checkArgument(depth >= 1 && depth <= MAX_DEPTH, "Depth out of range: %s", depth);
+  }
+
+  private Player opponent(Player player) {
+    return settings.players().get(0) == player
+        ? settings.players().get(1)
+        : settings.players().get(0);
+  }
+}
@@ -0,0 +1,39 @@
+package sublimedisruptors.quoridor.search;
+
+import com.google.auto.value.AutoValue;
+import javax.annotation.Nullable;
+import sublimedisruptors.quoridor.move.Move;
+
+/** The exact outcome of a position {@linkplain EndgameSolver solved} with perfect play. */
+@AutoValue
+public abstract class EndgameResult {
+
+  /** The game-theoretic value of a position for the player to move. */
+  public enum Outcome {
+    WIN,
+    LOSS,
+    /** Neither player can force a win, so perfect play continues forever. */
+    DRAW
+  }
+
+  static EndgameResult create(Outcome outcome, int distance, @Nullable Move bestMove) {
+    return new AutoValue_EndgameResult(outcome, distance, bestMove);
+  }
+
+  /** The outcome for the player to move. */
+  public abstract Outcome outcome();
+
+  /**
+   * The number of moves, including the winning move, until the game ends if both players play
+   * perfectly: the winner as quickly as possible and the loser as slowly as possible. This is zero
+   * if the game is already over, and also for a {@linkplain Outcome#DRAW draw}.
+   */
+  public abstract int distance();
+
+  /**
+   * A move that achieves {@link #outcome} in {@link #distance} moves, or {@code null} if the game
+   * is already over or the player to move has no moves.
+   */
+  @Nullable
+  public abstract Move bestMove();
+}
@@ -0,0 +1,286 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.MoveList;
+import sublimedisruptors.quoridor.move.PackedMove;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.search.EndgameResult.Outcome;
+
+/**
+ * Solves two-player positions in which neither player has any walls left, which are races between
+ * the two pawns.
+ *
+ * <p>Once the walls are spent the walls on the board can no longer change, so a position is
+ * determined by the squares of the two pawns and which player is to move. There are few enough
+ * such positions, 12,960 on a 9x9 board, to solve them all by retrograde analysis. Positions in
+ * which a player has already won are resolved first. Then, one move further from the end at a
+ * time, a position is won if it has a move to a position lost for the opponent, and lost if all of
+ * its moves lead to positions won for the opponent. Positions that are never resolved are draws,
+ * since the pawns can move back and forth without either player being forced to lose. Pawn moves,
+ * including jumps and diagonal moves, are generated by the {@link RulesGovernor}.
+ *
+ * <p>The solution depends only on the walls on the board, so it is kept and reused for every
+ * position with the same walls, such as all the positions of a search from a position in which the
+ * walls are spent. Solving for different walls takes a few milliseconds on a 9x9 board, which is
+ * too slow to do for every position of a search.
+ *
+ * <p>An {@code EndgameSolver} is not safe for concurrent use.
+ */
+public final class EndgameSolver {
+
+  private static final byte UNKNOWN = 0;
+  private static final byte WIN = 1;
+  private static final byte LOSS = 2;
+
+  /** Creates a solver for positions in two-player games with the given {@code settings}. */
+  public static EndgameSolver create(QuoridorSettings settings) {
+    checkArgument(
+        settings.players().size() == 2, "Solver requires a two-player game: %s", settings);
+    return new EndgameSolver(settings);
+  }
+
+  private final QuoridorSettings settings;
+  private final BoardGeometry geometry;
+  private final Player[] players;
+  private final int squareCount;
+  private final int stateCount;
+  /** The outcome for the player to move in each state, indexed by {@link #state}. */
+  private final byte[] outcomes;
+  /** The number of moves until the end of the game in each won or lost state. */
+  private final int[] distances;
+  /** The states reached by the moves of state {@code i} are in {@code [start[i], start[i + 1])}. */
+  private final int[] successorStart;
+  private int[] successors;
+  /** The walled-off grooves of the board the current solution is for, by groove index. */
+  private final long[] solvedGrooves;
+  private boolean solved = false;
+  private final MoveList moves = new MoveList();
+
+  private EndgameSolver(QuoridorSettings settings) {
+    this.settings = settings;
+    this.geometry = BoardGeometry.forSettings(settings);
+    this.players = settings.players().toArray(new Player[0]);
+    this.squareCount = geometry.squareCount();
+    this.stateCount = squareCount * squareCount * 2;
+    this.outcomes = new byte[stateCount];
+    this.distances = new int[stateCount];
+    this.successorStart = new int[stateCount + 1];
+    this.successors = new int[stateCount * 4];
+    this.solvedGrooves = new long[(geometry.grooveCount() + Long.SIZE - 1) / Long.SIZE];
+  }
+
+  /** Returns {@code true} if no player has any walls left in {@code position}. */
+  public boolean canSolve(Board.Snapshot position) {
+    for (Player player : players) {
+      Integer walls = position.wallsAvailable().get(player);
+      if (walls != null && walls > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Solves {@code position} for {@code player}, who is to move.
+   *
+   * <p>It is an error to call this method unless {@link #canSolve} returns {@code true} for {@code
+   * position}.
+   */
+  public EndgameResult solve(Board.Snapshot position, Player player) {
+    checkArgument(
+        position.size() == settings.boardSize(),
+        "Position of size %s does not match settings %s",
+        position.size(),
+        settings);
+    checkArgument(settings.players().contains(player), "%s not participating", player);
+    checkArgument(canSolve(position), "Walls remain: %s", position.wallsAvailable());
+    int state = prepare(Board.fromSnapshot(position), player);
+    byte outcome = outcomes[state];
+    int distance = distances[state];
+    int bestMove = -1;
+    for (int i = successorStart[state]; i < successorStart[state + 1]; i++) {
+      int next = successors[i];
+      boolean best =
+          outcome == WIN
+              ? outcomes[next] == LOSS && distances[next] == distance - 1
+              : outcome == LOSS
+                  ? outcomes[next] == WIN && distances[next] == distance - 1
+                  : outcomes[next] == UNKNOWN;
+      if (best) {
+        bestMove = next;
+        break;
+      }
+    }
+    return EndgameResult.create(
+        outcome == WIN ? Outcome.WIN : outcome == LOSS ? Outcome.LOSS : Outcome.DRAW,
+        distance,
+        bestMove < 0 ? null : Move.pawnMove(player, geometry.square(moverSquare(bestMove))));
+  }
+
+  /** Returns {@code true} if no player has any walls left on {@code board}. */
+  boolean canSolve(Board board) {
+    for (Player player : players) {
+      Integer walls = board.wallsAvailable(player);
+      if (walls != null && walls > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the score of the position on {@code board} for {@code player}, who is to move, {@code
+   * ply} moves from the root of an {@link AlphaBetaSearch}.
+   *
+   * <p>Wins and losses that end beyond {@link AlphaBetaSearch#MAX_DEPTH} are scored as if they
+   * ended at that depth, so that they are still recognized as forced.
+   */
+  int score(Board board, Player player, int ply) {
+    int state = prepare(board, player);
+    int end = Math.min(ply + distances[state], AlphaBetaSearch.MAX_DEPTH);
+    switch (outcomes[state]) {
+      case WIN:
+        return AlphaBetaSearch.WIN_SCORE - end;
+      case LOSS:
+        return -(AlphaBetaSearch.WIN_SCORE - end);
+      default:
+        return 0;
+    }
+  }
+
+  /** Returns {@code true} if the positions with the walls of {@code board} are already solved. */
+  boolean isSolved(Board board) {
+    return solved && hasSolvedGrooves(board);
+  }
+
+  /**
+   * Solves every position with the walls of {@code board} unless they have already been solved,
+   * and returns the state of its position with {@code player} to move.
+   */
+  private int prepare(Board board, Player player) {
+    if (!isSolved(board)) {
+      solveAll(Board.fromSnapshot(board.snapshot()));
+      solved = true;
+    }
+    int square0 = board.pawnIndex(players[0]);
+    int square1 = board.pawnIndex(players[1]);
+    checkState(square0 >= 0 && square1 >= 0, "Both pawns must be on the board");
+    return state(square0, square1, player == players[0] ? 0 : 1);
+  }
+
+  private boolean hasSolvedGrooves(Board board) {
+    for (int i = 0; i < geometry.grooveCount(); i++) {
+      if (board.isGrooveWalledOff(i) != ((solvedGrooves[i >>> 6] & (1L << i)) != 0)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Solves every position on {@code board}, a private copy whose pawns may be moved. */
+  private void solveAll(Board board) {
+    Arrays.fill(solvedGrooves, 0);
+    for (int i = 0; i < geometry.grooveCount(); i++) {
+      if (board.isGrooveWalledOff(i)) {
+        solvedGrooves[i >>> 6] |= 1L << i;
+      }
+    }
+    Arrays.fill(outcomes, UNKNOWN);
+    Arrays.fill(distances, 0);
+    RulesGovernor governor = RulesGovernor.create(board, settings);
+    int count = 0;
+    for (int square0 = 0; square0 < squareCount; square0++) {
+      for (int square1 = 0; square1 < squareCount; square1++) {
+        if (square0 == square1) {
+          successorStart[state(square0, square1, 0)] = count;
+          successorStart[state(square0, square1, 1)] = count;
+          continue;
+        }
+        board.movePawn(players[0], geometry.square(square0));
+        board.movePawn(players[1], geometry.square(square1));
+        for (int turn = 0; turn < 2; turn++) {
+          int state = state(square0, square1, turn);
+          successorStart[state] = count;
+          int mover = turn == 0 ? square0 : square1;
+          int waiter = turn == 0 ? square1 : square0;
+          if (geometry.isGoal(players[1 - turn], waiter)) {
+            outcomes[state] = LOSS;
+            continue;
+          }
+          if (geometry.isGoal(players[turn], mover)) {
+            outcomes[state] = WIN;
+            continue;
+          }
+          moves.clear();
+          governor.generateValidPawnMoves(players[turn], moves);
+          if (count + moves.size() > successors.length) {
+            successors = Arrays.copyOf(successors, 2 * successors.length);
+          }
+          for (int i = 0; i < moves.size(); i++) {
+            int destination = geometry.squareIndex(PackedMove.destination(moves.get(i)));
+            successors[count++] =
+                turn == 0 ? state(destination, square1, 1) : state(square0, destination, 0);
+          }
+        }
+        board.undo();
+        board.undo();
+      }
+    }
+    successorStart[stateCount] = count;
+    resolve();
+  }
+
+  /**
+   * Resolves the states that are won or lost, one move further from the end of the game at a time,
+   * so that each is resolved with the distance of perfect play.
+   */
+  private void resolve() {
+    boolean changed = true;
+    for (int distance = 1; changed; distance++) {
+      changed = false;
+      for (int state = 0; state < stateCount; state++) {
+        int start = successorStart[state];
+        int end = successorStart[state + 1];
+        if (outcomes[state] != UNKNOWN || start == end) {
+          continue;
+        }
+        boolean won = false;
+        boolean lost = true;
+        for (int i = start; i < end; i++) {
+          int next = successors[i];
+          if (outcomes[next] == LOSS && distances[next] == distance - 1) {
+            won = true;
+            break;
+          }
+          // States resolved in this pass are a move further from the end than required.
+          if (outcomes[next] != WIN || distances[next] >= distance) {
+            lost = false;
+          }
+        }
+        if (won || lost) {
+          outcomes[state] = won ? WIN : LOSS;
+          distances[state] = distance;
+          changed = true;
+        }
+      }
+    }
+  }
+
+  private int state(int square0, int square1, int turn) {
+    return (square0 * squareCount + square1) * 2 + turn;
+  }
+
+  /** Returns the square of the player who moved into {@code state}. */
+  private int moverSquare(int state) {
+    int squares = state >> 1;
+    return (state & 1) == 1 ? squares / squareCount : squares % squareCount;
+  }
+}
@@ -0,0 +1,29 @@
+package sublimedisruptors.quoridor.search;
+
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+
+/**
+ * Statically evaluates a two-player position that has not been decided.
+ *
+ * <p>Scores are from the perspective of {@code player}: positive scores favour {@code player} and
+ * negative scores favour {@code opponent}. Implementations must keep the magnitude of their scores
+ * well below {@link AlphaBetaSearch#WIN_SCORE}, so that evaluations are never confused with wins.
+ *
+ * <p>The board must not be left mutated when the evaluation returns.
+ */
+@FunctionalInterface
+public interface Evaluator {
+
+  int evaluate(Board board, RulesGovernor governor, Player player, Player opponent);
+
+  /**
+   * Returns an evaluator that scores a position as the number of moves {@code opponent} needs to
+   * reach their goal minus the number of moves {@code player} needs to reach theirs.
+   */
+  static Evaluator shortestPathDifference() {
+    return (board, governor, player, opponent) ->
+        governor.shortestDistanceToGoal(opponent) - governor.shortestDistanceToGoal(player);
+  }
+}
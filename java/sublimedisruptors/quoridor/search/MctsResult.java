@@ -0,0 +1,35 @@
+package sublimedisruptors.quoridor.search;
+
+import com.google.auto.value.AutoValue;
+import java.time.Duration;
+import sublimedisruptors.quoridor.move.Move;
+
+/** The outcome of a {@linkplain MonteCarloTreeSearch Monte Carlo tree search}. */
+@AutoValue
+public abstract class MctsResult {
+
+  static MctsResult create(Move bestMove, double expectedReward, long playouts, Duration elapsed) {
+    return new AutoValue_MctsResult(bestMove, expectedReward, playouts, elapsed);
+  }
+
+  /** The most visited move. */
+  public abstract Move bestMove();
+
+  /**
+   * The mean reward of the playouts through {@link #bestMove} for the player to move, in {@code [0,
+   * 1]}. This estimates the player's chance of winning.
+   */
+  public abstract double expectedReward();
+
+  /** The number of playouts run, across all threads. */
+  public abstract long playouts();
+
+  /** The wall-clock time spent searching. */
+  public abstract Duration elapsed();
+
+  /** Returns the number of playouts run per second of {@link #elapsed} time. */
+  public final long playoutsPerSecond() {
+    long nanos = elapsed().toNanos();
+    return nanos == 0 ? 0 : (long) (playouts() * 1e9 / nanos);
+  }
+}
@@ -0,0 +1,446 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.board.Direction;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.MoveList;
+import sublimedisruptors.quoridor.move.PackedMove;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+
+/**
+ * Searches positions with any number of players using Monte Carlo tree search.
+ *
+ * <p>Each playout descends the tree by UCT, choosing at every node the move that maximizes the
+ * mean reward of the player making it plus an exploration bonus, and adds one node to the tree.
+ * It then finishes the game with a rollout in which every player only moves their pawn, usually
+ * along a shortest path to their goal and occasionally at random. The winner receives a reward of
+ * one and every other player zero, and each player's reward is accumulated separately at every
+ * node on the way back up, so that every player maximizes their own reward. A rollout that has not
+ * finished after {@value #MAX_ROLLOUT_MOVES_PER_SQUARE} moves per square shares the reward among
+ * the players closest to their goals.
+ *
+ * <p>A player who can move their pawn into their goal always does so, both in the tree and when
+ * the best move is chosen, since no statistic could make any other move better.
+ *
+ * <p>Playouts run in parallel on a {@link ForkJoinPool}, with one task per thread, over a single
+ * shared tree whose statistics are updated atomically. Each task plays out on its own copy of the
+ * board. A move that is being played out counts as a visit with no reward, a "virtual loss", until
+ * its playout completes, which steers concurrent playouts to different moves.
+ *
+ * <p>The pool is either the search's own, which lives until the search is {@linkplain #close
+ * closed}, or one shared by several searches, which outlives them. Searches on a shared pool that
+ * run at the same time share its threads. The tree is discarded after each search. A {@code
+ * MonteCarloTreeSearch} is not safe for concurrent use.
+ */
+public final class MonteCarloTreeSearch implements AutoCloseable {
+
+  /** The exploration constant of UCT, suitable for rewards in {@code [0, 1]}. */
+  private static final double EXPLORATION = Math.sqrt(2);
+
+  /** The probability that a rollout moves a pawn at random rather than along a shortest path. */
+  private static final double RANDOM_MOVE_PROBABILITY = 0.2;
+
+  private static final int MAX_ROLLOUT_MOVES_PER_SQUARE = 2;
+
+  /** Playouts that reach this depth in the tree roll out from there without adding a node. */
+  private static final int MAX_TREE_DEPTH = 256;
+
+  /** Rewards are accumulated as fixed-point numbers with this many fractional bits. */
+  private static final int REWARD_BITS = 16;
+
+  private static final double REWARD_SCALE = 1 << REWARD_BITS;
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  /** Creates a search that runs playouts on the given number of {@code threads}. */
+  public static MonteCarloTreeSearch create(QuoridorSettings settings, int threads) {
+    checkArgument(threads > 0, "Threads must be positive, got %s", threads);
+    return new MonteCarloTreeSearch(settings, threads, new ForkJoinPool(threads), true);
+  }
+
+  /**
+   * Creates a search that runs playouts in {@code threads} tasks on {@code pool}, which may be
+   * shared with other searches and is not shut down when this search is {@linkplain #close
+   * closed}.
+   */
+  public static MonteCarloTreeSearch create(
+      QuoridorSettings settings, int threads, ForkJoinPool pool) {
+    checkArgument(threads > 0, "Threads must be positive, got %s", threads);
+    checkNotNull(pool);
+    return new MonteCarloTreeSearch(settings, threads, pool, false);
+  }
+
+  private final QuoridorSettings settings;
+  private final BoardGeometry geometry;
+  private final Player[] players;
+  private final ForkJoinPool pool;
+  private final boolean ownsPool;
+  private final Worker[] workers;
+
+  private MonteCarloTreeSearch(
+      QuoridorSettings settings, int threads, ForkJoinPool pool, boolean ownsPool) {
+    this.settings = settings;
+    this.geometry = BoardGeometry.forSettings(settings);
+    this.players = settings.players().toArray(new Player[0]);
+    this.pool = pool;
+    this.ownsPool = ownsPool;
+    this.workers = new Worker[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Worker();
+    }
+  }
+
+  /** Returns the number of threads running playouts. */
+  public int threads() {
+    return workers.length;
+  }
+
+  /**
+   * Searches for the best move for {@code player} in {@code position}, running playouts until
+   * {@code budget} has elapsed. At least one playout is always run.
+   */
+  public MctsResult search(Board.Snapshot position, Player player, Duration budget) {
+    checkArgument(!budget.isNegative(), "Negative budget: %s", budget);
+    return search(position, player, Long.MAX_VALUE, AlphaBetaSearch.deadlineAfter(budget));
+  }
+
+  /** Searches for the best move for {@code player} in {@code position} with {@code playouts}. */
+  public MctsResult search(Board.Snapshot position, Player player, long playouts) {
+    checkArgument(playouts > 0, "Playouts must be positive, got %s", playouts);
+    return search(position, player, playouts, Long.MAX_VALUE);
+  }
+
+  private MctsResult search(
+      Board.Snapshot position, Player player, long maxPlayouts, long deadline) {
+    checkArgument(
+        position.size() == settings.boardSize(),
+        "Position of size %s does not match settings %s",
+        position.size(),
+        settings);
+    int playerIndex = settings.players().indexOf(player);
+    checkArgument(playerIndex >= 0, "%s not participating", player);
+    long start = System.nanoTime();
+    Board rootBoard = Board.fromSnapshot(position);
+    Node root = createNode(rootBoard, RulesGovernor.create(rootBoard, settings), playerIndex);
+    checkState(root.moves.length > 0, "%s has no valid moves", player);
+
+    AtomicLong started = new AtomicLong();
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(workers.length);
+    for (Worker worker : workers) {
+      tasks.add(
+          pool.submit(
+              () -> worker.run(position, root, playerIndex, started, maxPlayouts, deadline)));
+    }
+    tasks.forEach(ForkJoinTask::join);
+
+    int best = root.winningMove;
+    if (best < 0) {
+      best = 0;
+      for (int child = 1; child < root.moves.length; child++) {
+        int visits = root.visits.get(child);
+        int bestVisits = root.visits.get(best);
+        if (visits > bestVisits
+            || (visits == bestVisits
+                && root.meanReward(child, playerIndex) > root.meanReward(best, playerIndex))) {
+          best = child;
+        }
+      }
+    }
+    // Every playout passes through the root exactly once.
+    return MctsResult.create(
+        PackedMove.decode(root.moves[best]),
+        root.meanReward(best, playerIndex),
+        root.totalVisits.get(),
+        Duration.ofNanos(System.nanoTime() - start));
+  }
+
+  /**
+   * Stops the threads running playouts, unless they belong to a pool that was passed in. Searching
+   * after closing is not allowed.
+   */
+  @Override
+  public void close() {
+    if (ownsPool) {
+      pool.shutdownNow();
+    }
+  }
+
+  /** Creates a node for the current position of {@code board}, with its moves generated. */
+  private Node createNode(Board board, RulesGovernor governor, int playerIndex) {
+    MoveList moves = new MoveList();
+    governor.generateValidPawnMoves(players[playerIndex], moves);
+    governor.generateValidWallMoves(players[playerIndex], moves);
+    int[] packedMoves = new int[moves.size()];
+    int winningMove = -1;
+    for (int i = 0; i < moves.size(); i++) {
+      packedMoves[i] = moves.get(i);
+      if (winningMove < 0 && isWinningMove(packedMoves[i])) {
+        winningMove = i;
+      }
+    }
+    return new Node(packedMoves, winningMove, players.length);
+  }
+
+  /** Returns {@code true} if {@code move} moves its player's pawn into their goal. */
+  private boolean isWinningMove(int move) {
+    return PackedMove.type(move) == Move.Type.PAWN
+        && geometry.isGoal(
+            PackedMove.player(move), geometry.squareIndex(PackedMove.destination(move)));
+  }
+
+  /**
+   * A position in the tree, with the statistics of each of the moves that can be made from it.
+   *
+   * <p>Statistics are stored per move rather than per child node, so that a node for the position
+   * after a move is only created once the move is played out.
+   */
+  private static final class Node {
+    final int[] moves;
+    /** The index of a move that wins the game immediately, or -1 if there is none. */
+    final int winningMove;
+    final AtomicInteger totalVisits = new AtomicInteger();
+    final AtomicIntegerArray visits;
+    final AtomicIntegerArray virtualLosses;
+    /** The fixed-point reward sum of each player, indexed by {@code move * players + player}. */
+    final AtomicLongArray rewards;
+    final AtomicReferenceArray<Node> children;
+    final int playerCount;
+
+    Node(int[] moves, int winningMove, int playerCount) {
+      this.moves = moves;
+      this.winningMove = winningMove;
+      this.visits = new AtomicIntegerArray(moves.length);
+      this.virtualLosses = new AtomicIntegerArray(moves.length);
+      this.rewards = new AtomicLongArray(moves.length * playerCount);
+      this.children = new AtomicReferenceArray<>(moves.length);
+      this.playerCount = playerCount;
+    }
+
+    /** Selects the move that maximizes the UCT value for the player to move, by index. */
+    int select(int playerIndex) {
+      if (winningMove >= 0) {
+        return winningMove;
+      }
+      double logTotal = Math.log(Math.max(totalVisits.get(), 1));
+      int best = 0;
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (int move = 0; move < moves.length; move++) {
+        int count = visits.get(move) + virtualLosses.get(move);
+        if (count == 0) {
+          return move;
+        }
+        double mean = rewards.get(move * playerCount + playerIndex) / REWARD_SCALE / count;
+        double value = mean + EXPLORATION * Math.sqrt(logTotal / count);
+        if (value > bestValue) {
+          best = move;
+          bestValue = value;
+        }
+      }
+      return best;
+    }
+
+    double meanReward(int move, int playerIndex) {
+      int count = visits.get(move);
+      return count == 0 ? 0 : rewards.get(move * playerCount + playerIndex) / REWARD_SCALE / count;
+    }
+  }
+
+  /** Runs playouts on one thread, reusing its buffers between playouts. */
+  private final class Worker {
+    final Node[] pathNodes = new Node[MAX_TREE_DEPTH];
+    final int[] pathMoves = new int[MAX_TREE_DEPTH];
+    final long[] rewards = new long[players.length];
+    final int[][] distances = new int[players.length][geometry.squareCount()];
+    final int[] queue = new int[geometry.squareCount()];
+    final MoveList moves = new MoveList();
+
+    void run(
+        Board.Snapshot position,
+        Node root,
+        int rootPlayer,
+        AtomicLong started,
+        long maxPlayouts,
+        long deadline) {
+      Board board = Board.fromSnapshot(position);
+      RulesGovernor governor = RulesGovernor.create(board, settings);
+      while (true) {
+        long count = started.getAndIncrement();
+        if (count >= maxPlayouts || (count > 0 && System.nanoTime() >= deadline)) {
+          return;
+        }
+        playOut(board, governor, root, rootPlayer);
+      }
+    }
+
+    private void playOut(Board board, RulesGovernor governor, Node root, int rootPlayer) {
+      Arrays.fill(rewards, 0);
+      int depth = 0;
+      int applied = 0;
+      Node node = root;
+      int playerIndex = rootPlayer;
+      while (true) {
+        int move = node.select(playerIndex);
+        node.totalVisits.incrementAndGet();
+        node.virtualLosses.incrementAndGet(move);
+        pathNodes[depth] = node;
+        pathMoves[depth++] = move;
+        int packedMove = node.moves[move];
+        PackedMove.applyTo(packedMove, board);
+        applied++;
+        if (isWinningMove(packedMove)) {
+          rewards[playerIndex] = (long) REWARD_SCALE;
+          break;
+        }
+        playerIndex = (playerIndex + 1) % players.length;
+        Node child = node.children.get(move);
+        if (child == null || depth == MAX_TREE_DEPTH) {
+          if (child == null) {
+            Node created = createNode(board, governor, playerIndex);
+            // A node with no moves is never selected from, so it is not worth keeping. If another
+            // thread created the node first, its node is kept and this one is discarded.
+            if (created.moves.length > 0) {
+              node.children.compareAndSet(move, null, created);
+            }
+          }
+          applied += rollOut(board, governor, playerIndex);
+          break;
+        }
+        node = child;
+      }
+      for (int i = 0; i < applied; i++) {
+        board.undo();
+      }
+      while (depth > 0) {
+        depth--;
+        Node pathNode = pathNodes[depth];
+        int move = pathMoves[depth];
+        for (int player = 0; player < players.length; player++) {
+          if (rewards[player] != 0) {
+            pathNode.rewards.addAndGet(move * players.length + player, rewards[player]);
+          }
+        }
+        pathNode.visits.incrementAndGet(move);
+        pathNode.virtualLosses.decrementAndGet(move);
+      }
+    }
+
+    /**
+     * Finishes the game by moving pawns only, and records the rewards.
+     *
+     * @return the number of moves applied to {@code board}
+     */
+    private int rollOut(Board board, RulesGovernor governor, int playerIndex) {
+      for (int i = 0; i < players.length; i++) {
+        computeDistances(board, players[i], distances[i]);
+      }
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int maxTurns = MAX_ROLLOUT_MOVES_PER_SQUARE * geometry.squareCount();
+      int applied = 0;
+      for (int turn = 0; turn < maxTurns; turn++) {
+        Player player = players[playerIndex];
+        moves.clear();
+        governor.generateValidPawnMoves(player, moves);
+        // A pawn that is boxed in by other pawns has no moves, and passes.
+        if (!moves.isEmpty()) {
+          int move =
+              random.nextDouble() < RANDOM_MOVE_PROBABILITY
+                  ? moves.get(random.nextInt(moves.size()))
+                  : closestMove(distances[playerIndex], random);
+          PackedMove.applyTo(move, board);
+          applied++;
+          if (geometry.isGoal(player, board.pawnIndex(player))) {
+            rewards[playerIndex] = (long) REWARD_SCALE;
+            return applied;
+          }
+        }
+        playerIndex = (playerIndex + 1) % players.length;
+      }
+
+      // Share the reward among the players who are closest to their goals.
+      int closest = Integer.MAX_VALUE;
+      int closestCount = 0;
+      for (int i = 0; i < players.length; i++) {
+        int distance = distances[i][board.pawnIndex(players[i])];
+        if (distance < closest) {
+          closest = distance;
+          closestCount = 0;
+        }
+        if (distance == closest) {
+          closestCount++;
+        }
+      }
+      for (int i = 0; i < players.length; i++) {
+        if (distances[i][board.pawnIndex(players[i])] == closest) {
+          rewards[i] = (long) (REWARD_SCALE / closestCount);
+        }
+      }
+      return applied;
+    }
+
+    /** Returns one of the generated {@link #moves} that gets closest to the goal, at random. */
+    private int closestMove(int[] distances, ThreadLocalRandom random) {
+      int best = PackedMove.NONE;
+      int bestDistance = Integer.MAX_VALUE;
+      int ties = 0;
+      for (int i = 0; i < moves.size(); i++) {
+        int move = moves.get(i);
+        int distance = distances[geometry.squareIndex(PackedMove.destination(move))];
+        if (distance < bestDistance) {
+          best = move;
+          bestDistance = distance;
+          ties = 1;
+        } else if (distance == bestDistance && random.nextInt(++ties) == 0) {
+          best = move;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Computes the distance from every square to {@code player}'s goal, considering only walls, by
+     * a breadth-first search outward from the goal. Unreachable squares get {@link
+     * Integer#MAX_VALUE}.
+     */
+    private void computeDistances(Board board, Player player, int[] distances) {
+      Arrays.fill(distances, Integer.MAX_VALUE);
+      int tail = 0;
+      for (int square = 0; square < distances.length; square++) {
+        if (geometry.isGoal(player, square)) {
+          distances[square] = 0;
+          queue[tail++] = square;
+        }
+      }
+      for (int head = 0; head < tail; head++) {
+        int square = queue[head];
+        for (Direction direction : DIRECTIONS) {
+          int neighbor = geometry.neighbor(square, direction);
+          if (neighbor >= 0
+              && distances[neighbor] == Integer.MAX_VALUE
+              && !board.isGrooveWalledOff(geometry.borderingGroove(square, direction))) {
+            distances[neighbor] = distances[square] + 1;
+            queue[tail++] = neighbor;
+          }
+        }
+      }
+    }
+  }
+}
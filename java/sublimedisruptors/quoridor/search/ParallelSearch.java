@@ -0,0 +1,191 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+
+/**
+ * Searches two-player positions with several threads at once, using the "lazy SMP" approach.
+ *
+ * <p>Every thread runs its own {@link AlphaBetaSearch} of the same position, on its own copy of the
+ * board, and all of them share one {@link TranspositionTable}. The threads are only loosely
+ * coordinated: helper threads vary their starting depth and root move order, and the results they
+ * leave in the table let the other threads skip or reorder work. The search ends when the time
+ * budget expires or any thread runs to completion, and the result of the deepest completed
+ * iteration of any thread is returned. Ties go to the main thread, which runs on the caller's
+ * thread.
+ *
+ * <p>Helper threads are daemon threads that live for as long as the {@code ParallelSearch}, unless
+ * it is {@linkplain #close closed}. Alternatively, helpers may run on an executor that is shared
+ * by several searches and outlives them, so that searches created and dropped in quick succession,
+ * such as one per game, need not be closed. A {@code ParallelSearch} is not safe for concurrent
+ * use.
+ */
+public final class ParallelSearch implements AutoCloseable {
+
+  /**
+   * Creates a search with the given number of {@code threads}, including the caller's thread, using
+   * a transposition table of its own.
+   */
+  public static ParallelSearch create(QuoridorSettings settings, Evaluator evaluator, int threads) {
+    return create(
+        settings,
+        evaluator,
+        threads,
+        TranspositionTable.withMegabytes(AlphaBetaSearch.DEFAULT_TABLE_MEGABYTES));
+  }
+
+  /**
+   * Creates a search with the given number of {@code threads}, including the caller's thread, that
+   * caches results in {@code table}.
+   */
+  public static ParallelSearch create(
+      QuoridorSettings settings, Evaluator evaluator, int threads, TranspositionTable table) {
+    checkArgument(threads > 0, "Threads must be positive, got %s", threads);
+    ExecutorService executor =
+        threads == 1
+            ? null
+            : Executors.newFixedThreadPool(
+                threads - 1,
+                new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("parallel-search-%d")
+                    .build());
+    return new ParallelSearch(settings, evaluator, threads, table, executor, true);
+  }
+
+  /**
+   * Creates a search with the given number of {@code threads}, including the caller's thread, that
+   * caches results in {@code table} and runs its helper threads on {@code executor}.
+   *
+   * <p>The executor must start every helper as soon as it is submitted, since a helper that waits
+   * for a thread delays the end of the search. It may be shared with other searches, and it is not
+   * shut down when this search is {@linkplain #close closed}.
+   */
+  public static ParallelSearch create(
+      QuoridorSettings settings,
+      Evaluator evaluator,
+      int threads,
+      TranspositionTable table,
+      ExecutorService executor) {
+    checkArgument(threads > 0, "Threads must be positive, got %s", threads);
+    checkNotNull(executor);
+    return new ParallelSearch(settings, evaluator, threads, table, executor, false);
+  }
+
+  private final AlphaBetaSearch[] workers;
+  private final TranspositionTable table;
+  @Nullable private final ExecutorService executor;
+  private final boolean ownsExecutor;
+
+  private ParallelSearch(
+      QuoridorSettings settings,
+      Evaluator evaluator,
+      int threads,
+      TranspositionTable table,
+      @Nullable ExecutorService executor,
+      boolean ownsExecutor) {
+    checkNotNull(table);
+    this.workers = new AlphaBetaSearch[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = AlphaBetaSearch.create(settings, evaluator, table);
+    }
+    this.table = table;
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  /** Returns the number of threads searching, including the caller's thread. */
+  public int threads() {
+    return workers.length;
+  }
+
+  /**
+   * Searches for the best move for {@code player} in {@code position} until {@code budget} has
+   * elapsed, with the same guarantees as {@link AlphaBetaSearch#search(Board.Snapshot, Player,
+   * Duration)}.
+   *
+   * <p>The {@linkplain SearchResult#nodes nodes} reported are the total visited by all threads.
+   */
+  public SearchResult search(Board.Snapshot position, Player player, Duration budget) {
+    checkArgument(!budget.isNegative(), "Negative budget: %s", budget);
+    return search(
+        position, player, AlphaBetaSearch.MAX_DEPTH, AlphaBetaSearch.deadlineAfter(budget));
+  }
+
+  /** Searches for the best move for {@code player} in {@code position} to {@code depth}. */
+  public SearchResult search(Board.Snapshot position, Player player, int depth) {
+    AlphaBetaSearch.checkDepth(depth);
+    return search(position, player, depth, Long.MAX_VALUE);
+  }
+
+  private SearchResult search(
+      Board.Snapshot position, Player player, int maxDepth, long deadline) {
+    long start = System.nanoTime();
+    table.newSearch();
+    AtomicBoolean abort = new AtomicBoolean();
+    List<Future<SearchResult>> helpers = new ArrayList<>(workers.length - 1);
+    for (int i = 1; i < workers.length; i++) {
+      AlphaBetaSearch worker = workers[i];
+      int helper = i;
+      helpers.add(
+          executor.submit(
+              () -> worker.search(position, player, maxDepth, deadline, helper, abort)));
+    }
+
+    SearchResult best;
+    try {
+      best = workers[0].search(position, player, maxDepth, deadline, 0, abort);
+    } finally {
+      // Stop the helpers even if the main thread failed, so that none outlive this search.
+      abort.set(true);
+    }
+    long nodes = best.nodes();
+    for (Future<SearchResult> helper : helpers) {
+      SearchResult result = getUninterruptibly(helper);
+      nodes += result.nodes();
+      if (result.depth() > best.depth()) {
+        best = result;
+      }
+    }
+    return SearchResult.create(
+        best.bestMove(),
+        best.score(),
+        best.depth(),
+        nodes,
+        Duration.ofNanos(System.nanoTime() - start));
+  }
+
+  /**
+   * Stops the helper threads, unless they run on an executor that was passed in. Searching after
+   * closing is not allowed.
+   */
+  @Override
+  public void close() {
+    if (executor != null && ownsExecutor) {
+      executor.shutdownNow();
+    }
+  }
+
+  private static SearchResult getUninterruptibly(Future<SearchResult> future) {
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Search thread failed", e.getCause());
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package sublimedisruptors.quoridor.search;
+
+import com.google.auto.value.AutoValue;
+import java.time.Duration;
+import sublimedisruptors.quoridor.move.Move;
+
+/** The outcome of a search for the best move in a position. */
+@AutoValue
+public abstract class SearchResult {
+
+  static SearchResult create(Move bestMove, int score, int depth, long nodes, Duration elapsed) {
+    return new AutoValue_SearchResult(bestMove, score, depth, nodes, elapsed);
+  }
+
+  /** The best move found. */
+  public abstract Move bestMove();
+
+  /**
+   * The score of {@link #bestMove} from the perspective of the player to move, as determined by the
+   * deepest completed search.
+   *
+   * <p>Scores within {@link AlphaBetaSearch#MAX_DEPTH} of {@link AlphaBetaSearch#WIN_SCORE} (or of
+   * its negation) indicate a forced win (or loss).
+   */
+  public abstract int score();
+
+  /**
+   * The number of moves ahead, including {@link #bestMove}, examined by the deepest completed
+   * search.
+   */
+  public abstract int depth();
+
+  /** The number of positions visited, including those of any search abandoned due to time. */
+  public abstract long nodes();
+
+  /** The wall-clock time spent searching. */
+  public abstract Duration elapsed();
+
+  /** Returns the number of positions visited per second of {@link #elapsed} time. */
+  public final long nodesPerSecond() {
+    long nanos = elapsed().toNanos();
+    return nanos == 0 ? 0 : (long) (nodes() * 1e9 / nanos);
+  }
+}
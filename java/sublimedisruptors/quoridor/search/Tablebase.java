@@ -0,0 +1,198 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.MoveList;
+import sublimedisruptors.quoridor.move.PackedMove;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.search.EndgameResult.Outcome;
+
+/**
+ * A read-only, memory-mapped table of the outcome with perfect play of every position of a
+ * two-player game with small settings, written by a {@link TablebaseGenerator}.
+ *
+ * <p>The file starts with a header of {@value #HEADER_BYTES} bytes: a magic number, the format
+ * version, the board size, wall length and walls per player of the settings, the ordinals of the
+ * two players and the number of entries. The entries follow, a byte per position in the order of
+ * a perfect index, so that a position is looked up without any search. An entry of zero is a
+ * draw, an entry {@code 1 + d} a win in {@code d} moves, an entry {@code 128 + d} a loss in {@code
+ * d} moves, and an entry of {@code 255} a position that cannot arise in a game.
+ *
+ * <p>A tablebase may be probed by any number of threads at once.
+ */
+public final class Tablebase implements Closeable {
+
+  static final int MAGIC = 0x5154424C; // "QTBL"
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 36;
+
+  /** The most entries in a tablebase, which is held in memory while it is generated. */
+  static final int MAX_ENTRIES = 1 << 30;
+
+  /** The most moves to the end of the game that an entry can record. */
+  static final int MAX_DISTANCE = 126;
+
+  static final byte ILLEGAL = (byte) 0xFF;
+  private static final int LOSS_BASE = 0x80;
+
+  /** Opens and maps the tablebase at {@code path}. */
+  public static Tablebase open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (header.hasRemaining()) {
+        if (channel.read(header, header.position()) < 0) {
+          break;
+        }
+      }
+      if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+        throw new IOException("Not a tablebase: " + path);
+      }
+      if (header.getInt(4) != VERSION) {
+        throw new IOException("Unsupported tablebase version: " + header.getInt(4));
+      }
+      QuoridorSettings settings;
+      TablebaseIndex index;
+      try {
+        settings =
+            QuoridorSettings.builder()
+                .setBoardSize(header.getInt(8))
+                .setWallLength(header.getInt(12))
+                .setWallsPerPlayer(header.getInt(16))
+                .setPlayers(player(header.getInt(20)), player(header.getInt(24)))
+                .build();
+        index = new TablebaseIndex(settings);
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        throw new IOException("Corrupt tablebase header: " + path, e);
+      }
+      long entryCount = header.getLong(28);
+      if (entryCount != index.size() || HEADER_BYTES + entryCount != channel.size()) {
+        throw new IOException("Corrupt tablebase header: " + path);
+      }
+      MappedByteBuffer entries = channel.map(MapMode.READ_ONLY, HEADER_BYTES, entryCount);
+      return new Tablebase(channel, settings, index, entries);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static Player player(int ordinal) {
+    checkArgument(ordinal >= 0 && ordinal < Player.values().length, "No player %s", ordinal);
+    return Player.values()[ordinal];
+  }
+
+  private final FileChannel channel;
+  private final QuoridorSettings settings;
+  private final TablebaseIndex index;
+  private final MappedByteBuffer entries;
+
+  private Tablebase(
+      FileChannel channel,
+      QuoridorSettings settings,
+      TablebaseIndex index,
+      MappedByteBuffer entries) {
+    this.channel = channel;
+    this.settings = settings;
+    this.index = index;
+    this.entries = entries;
+  }
+
+  /** Returns the settings of the games whose positions are in the tablebase. */
+  public QuoridorSettings settings() {
+    return settings;
+  }
+
+  /**
+   * Looks up {@code position} with {@code player} to move, along with a move that achieves its
+   * outcome.
+   *
+   * <p>{@code position} must be a position of a game with the tablebase's {@link #settings}, which
+   * may have been reached in any way. It is an error to look up a position that cannot arise in a
+   * game.
+   */
+  public EndgameResult probe(Board.Snapshot position, Player player) {
+    checkArgument(
+        position.size() == settings.boardSize(),
+        "Position of size %s does not match settings %s",
+        position.size(),
+        settings);
+    checkArgument(settings.players().contains(player), "%s not participating", player);
+    Board board = Board.fromSnapshot(position);
+    byte entry = entry(board, player);
+    Outcome outcome = outcome(entry);
+    int distance = distance(entry);
+    if (outcome != Outcome.DRAW && distance == 0) {
+      return EndgameResult.create(outcome, distance, null);
+    }
+    Player opponent = settings.players().get(1 - settings.players().indexOf(player));
+    RulesGovernor governor = RulesGovernor.create(board, settings);
+    MoveList moves = new MoveList();
+    governor.generateValidPawnMoves(player, moves);
+    governor.generateValidWallMoves(player, moves);
+    for (int i = 0; i < moves.size(); i++) {
+      PackedMove.applyTo(moves.get(i), board);
+      byte next = entry(board, opponent);
+      board.undo();
+      boolean best =
+          outcome == Outcome.WIN
+              ? outcome(next) == Outcome.LOSS && distance(next) == distance - 1
+              : outcome == Outcome.LOSS
+                  ? outcome(next) == Outcome.WIN && distance(next) == distance - 1
+                  : outcome(next) == Outcome.DRAW;
+      if (best) {
+        return EndgameResult.create(outcome, distance, PackedMove.decode(moves.get(i)));
+      }
+    }
+    return EndgameResult.create(outcome, distance, null);
+  }
+
+  private byte entry(Board board, Player player) {
+    long i = index.index(board, player);
+    checkArgument(i >= 0, "Walls on the board do not match settings %s", settings);
+    byte entry = entries.get((int) i);
+    checkArgument(entry != ILLEGAL, "Position cannot arise in a game:\n%s", board.snapshot());
+    return entry;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /** Encodes the {@code outcome} of a position with the given {@code distance} as an entry. */
+  static byte encode(Outcome outcome, int distance) {
+    checkArgument(distance >= 0 && distance <= MAX_DISTANCE, "Distance out of range: %s", distance);
+    switch (outcome) {
+      case WIN:
+        return (byte) (1 + distance);
+      case LOSS:
+        return (byte) (LOSS_BASE + distance);
+      default:
+        return 0;
+    }
+  }
+
+  /** Returns the outcome of a position with the given entry, other than {@link #ILLEGAL}. */
+  static Outcome outcome(byte entry) {
+    int value = entry & 0xFF;
+    return value == 0 ? Outcome.DRAW : value < LOSS_BASE ? Outcome.WIN : Outcome.LOSS;
+  }
+
+  /** Returns the distance of a position with the given entry, other than {@link #ILLEGAL}. */
+  static int distance(byte entry) {
+    int value = entry & 0xFF;
+    return value == 0 ? 0 : value < LOSS_BASE ? value - 1 : value - LOSS_BASE;
+  }
+}
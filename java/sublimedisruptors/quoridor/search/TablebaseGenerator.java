@@ -0,0 +1,410 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.board.Direction;
+import sublimedisruptors.quoridor.move.MoveList;
+import sublimedisruptors.quoridor.move.PackedMove;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.search.EndgameResult.Outcome;
+
+/**
+ * Generates a {@link Tablebase}: the outcome with perfect play of every position of a two-player
+ * game with small settings.
+ *
+ * <p>Every position, as numbered by a perfect index, is solved by retrograde analysis. A wall move
+ * places a wall for good, so the positions fall into layers by the number of walls on the board,
+ * and every wall move leads to the next layer up. The layers are therefore solved from the one
+ * with every wall on the board down to the empty board, each with the outcomes of the layer above
+ * at hand. Within a layer, the positions with one set of walls can only reach each other by pawn
+ * moves, so each set of walls is solved on its own as in the {@link EndgameSolver}, with the wall
+ * moves as moves to positions already solved. The sets of walls of a layer are independent of one
+ * another and are solved in parallel.
+ *
+ * <p>Positions that cannot arise in a game, such as those with overlapping walls, with both pawns
+ * on one square or with a pawn walled off from its goal, are marked as such.
+ *
+ * <p>The number of positions grows very quickly with the size of the board and the number of
+ * walls, so this is only feasible for small settings, such as a 5x5 board with a wall per player.
+ * The table holds a byte per position and is limited to {@value Tablebase#MAX_ENTRIES} of them.
+ */
+public final class TablebaseGenerator {
+
+  /** Sets of walls solved by each task, so that threads finishing early can pick up more. */
+  private static final int BLOCKS_PER_TASK = 16;
+
+  /**
+   * Creates a generator for two-player games with the given {@code settings}, which solves on the
+   * given number of {@code threads}.
+   */
+  public static TablebaseGenerator create(QuoridorSettings settings, int threads) {
+    checkArgument(threads > 0, "Non-positive number of threads: %s", threads);
+    TablebaseIndex index = new TablebaseIndex(settings);
+    checkArgument(
+        index.size() <= Tablebase.MAX_ENTRIES,
+        "Too many positions for a tablebase: %s for %s",
+        index.size(),
+        settings);
+    return new TablebaseGenerator(settings, index, threads);
+  }
+
+  private final QuoridorSettings settings;
+  private final TablebaseIndex index;
+  private final BoardGeometry geometry;
+  private final Player[] players;
+  private final int threads;
+
+  private TablebaseGenerator(QuoridorSettings settings, TablebaseIndex index, int threads) {
+    this.settings = settings;
+    this.index = index;
+    this.geometry = BoardGeometry.forSettings(settings);
+    this.players = settings.players().toArray(new Player[0]);
+    this.threads = threads;
+  }
+
+  /** Generates the tablebase and writes it to {@code path}, replacing any existing file. */
+  public void writeTo(Path path) throws IOException {
+    byte[] table = generate();
+    ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_BYTES);
+    header
+        .putInt(Tablebase.MAGIC)
+        .putInt(Tablebase.VERSION)
+        .putInt(settings.boardSize())
+        .putInt(settings.wallLength())
+        .putInt(settings.wallsPerPlayer())
+        .putInt(players[0].ordinal())
+        .putInt(players[1].ordinal())
+        .putLong(table.length);
+    header.flip();
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      for (ByteBuffer buffer : new ByteBuffer[] {header, ByteBuffer.wrap(table)}) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+    }
+  }
+
+  /** Generates the tablebase, returning the {@linkplain Tablebase encoded} entry of every index. */
+  byte[] generate() {
+    byte[] table = new byte[(int) index.size()];
+    int wallsPerPlayer = settings.wallsPerPlayer();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("tablebase-%d").build());
+    try {
+      for (int walls = 2 * wallsPerPlayer; walls >= 0; walls--) {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int left0 = 0; left0 <= wallsPerPlayer; left0++) {
+          int left1 = 2 * wallsPerPlayer - walls - left0;
+          if (left1 < 0 || left1 > wallsPerPlayer) {
+            continue;
+          }
+          long blocks = index.blockCount(left0, left1);
+          for (long start = 0; start < blocks; start += BLOCKS_PER_TASK) {
+            long from = start;
+            long to = Math.min(start + BLOCKS_PER_TASK, blocks);
+            int layer0 = left0;
+            int layer1 = left1;
+            futures.add(
+                executor.submit(
+                    () -> {
+                      BlockSolver solver = new BlockSolver(table);
+                      for (long rank = from; rank < to; rank++) {
+                        solver.solve(layer0, layer1, rank);
+                      }
+                    }));
+          }
+        }
+        // Every layer with fewer walls depends on this one, so it must be complete first.
+        for (Future<?> future : futures) {
+          getUninterruptibly(future);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return table;
+  }
+
+  private static void getUninterruptibly(Future<?> future) {
+    try {
+      Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Tablebase generation failed", e.getCause());
+    }
+  }
+
+  /**
+   * Solves the positions with one set of walls at a time, reusing its buffers from one set to the
+   * next. A {@code BlockSolver} is used by one thread only, and writes to its own part of the
+   * table.
+   */
+  private final class BlockSolver {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte WIN = 1;
+    private static final byte LOSS = 2;
+    private static final byte ILLEGAL = 3;
+
+    private final byte[] table;
+    private final int squareCount = geometry.squareCount();
+    private final int blockSize = index.blockSize();
+    private final int[] placements = new int[2 * settings.wallsPerPlayer()];
+    private final byte[] outcomes = new byte[blockSize];
+    private final int[] distances = new int[blockSize];
+    /** The states reached by pawn moves from state {@code i} are from {@code start[i]}. */
+    private final int[] successorStart = new int[blockSize + 1];
+    private int[] successors = new int[blockSize * 4];
+    /** The fewest moves in which each state is won by a wall move, or zero if it is not. */
+    private final int[] wallWins = new int[blockSize];
+    /**
+     * The most moves in which each state is lost after any wall move, or {@code -1} if a wall move
+     * avoids a loss. This is zero if there are no wall moves.
+     */
+    private final int[] wallLosses = new int[blockSize];
+    private final boolean[][] reachesGoal = new boolean[2][squareCount];
+    private final ArrayDeque<Integer> queue = new ArrayDeque<>();
+    private final MoveList moves = new MoveList();
+
+    BlockSolver(byte[] table) {
+      this.table = table;
+    }
+
+    /**
+     * Solves the positions in which the players have {@code left0} and {@code left1} walls left,
+     * with the walls of the given {@code rank} on the board.
+     */
+    void solve(int left0, int left1, long rank) {
+      int walls = index.wallsOnBoard(left0, left1);
+      index.unrank(rank, walls, placements);
+      int base = (int) index.index(left0, left1, rank, 0, 0, 0);
+      Board board = Board.createFromSettings(settings);
+      if (!placeWalls(board, walls, settings.wallsPerPlayer() - left0)) {
+        Arrays.fill(table, base, base + blockSize, Tablebase.ILLEGAL);
+        return;
+      }
+      for (int turn = 0; turn < 2; turn++) {
+        findSquaresReachingGoal(board, players[turn], reachesGoal[turn]);
+      }
+      Arrays.fill(outcomes, UNKNOWN);
+      Arrays.fill(distances, 0);
+      Arrays.fill(wallWins, 0);
+      Arrays.fill(wallLosses, 0);
+      RulesGovernor governor = RulesGovernor.create(board, settings);
+      int[] left = {left0, left1};
+      int count = 0;
+      for (int square0 = 0; square0 < squareCount; square0++) {
+        for (int square1 = 0; square1 < squareCount; square1++) {
+          if (square0 == square1 || !reachesGoal[0][square0] || !reachesGoal[1][square1]) {
+            for (int turn = 0; turn < 2; turn++) {
+              int state = state(square0, square1, turn);
+              successorStart[state] = count;
+              outcomes[state] = ILLEGAL;
+            }
+            continue;
+          }
+          board.movePawn(players[0], geometry.square(square0));
+          board.movePawn(players[1], geometry.square(square1));
+          for (int turn = 0; turn < 2; turn++) {
+            int state = state(square0, square1, turn);
+            successorStart[state] = count;
+            int mover = turn == 0 ? square0 : square1;
+            int waiter = turn == 0 ? square1 : square0;
+            if (geometry.isGoal(players[1 - turn], waiter)) {
+              outcomes[state] = LOSS;
+              continue;
+            }
+            if (geometry.isGoal(players[turn], mover)) {
+              outcomes[state] = WIN;
+              continue;
+            }
+            moves.clear();
+            governor.generateValidPawnMoves(players[turn], moves);
+            if (count + moves.size() > successors.length) {
+              successors = Arrays.copyOf(successors, 2 * successors.length);
+            }
+            for (int i = 0; i < moves.size(); i++) {
+              int destination = geometry.squareIndex(PackedMove.destination(moves.get(i)));
+              successors[count++] =
+                  turn == 0 ? state(destination, square1, 1) : state(square0, destination, 0);
+            }
+            if (left[turn] > 0) {
+              moves.clear();
+              governor.generateValidWallMoves(players[turn], moves);
+              for (int i = 0; i < moves.size(); i++) {
+                int placement = geometry.wallPlacementIndex(PackedMove.wall(moves.get(i)));
+                long next =
+                    index.index(
+                        turn == 0 ? left0 - 1 : left0,
+                        turn == 0 ? left1 : left1 - 1,
+                        index.rankWith(placements, walls, placement),
+                        square0,
+                        square1,
+                        1 - turn);
+                addWallMove(state, table[(int) next]);
+              }
+            }
+          }
+          board.undo();
+          board.undo();
+        }
+      }
+      successorStart[blockSize] = count;
+      resolve();
+      for (int state = 0; state < blockSize; state++) {
+        table[base + state] =
+            outcomes[state] == ILLEGAL
+                ? Tablebase.ILLEGAL
+                : Tablebase.encode(
+                    outcomes[state] == WIN
+                        ? Outcome.WIN
+                        : outcomes[state] == LOSS ? Outcome.LOSS : Outcome.DRAW,
+                    distances[state]);
+      }
+    }
+
+    /**
+     * Places the walls in {@link #placements} on {@code board}, the first {@code walls0} for
+     * player 0 and the rest for player 1. Returns {@code false} if any of them overlap.
+     */
+    private boolean placeWalls(Board board, int walls, int walls0) {
+      for (int i = 0; i < walls; i++) {
+        int placement = placements[i];
+        for (int j = 0; j < geometry.wallLength(); j++) {
+          if (board.isGrooveWalledOff(geometry.coveredGroove(placement, j))) {
+            return false;
+          }
+        }
+        for (int j = 0; j < geometry.wallLength() - 1; j++) {
+          if (board.isVertexWalledOff(geometry.coveredVertex(placement, j))) {
+            return false;
+          }
+        }
+        board.placeWall(geometry.wall(placement), players[i < walls0 ? 0 : 1]);
+      }
+      return true;
+    }
+
+    /** Marks the squares from which {@code player} can reach their goal, ignoring the pawns. */
+    private void findSquaresReachingGoal(Board board, Player player, boolean[] reaches) {
+      Arrays.fill(reaches, false);
+      for (int square = 0; square < squareCount; square++) {
+        if (geometry.isGoal(player, square)) {
+          reaches[square] = true;
+          queue.add(square);
+        }
+      }
+      while (!queue.isEmpty()) {
+        int square = queue.remove();
+        for (Direction direction : Direction.values()) {
+          int neighbor = geometry.neighbor(square, direction);
+          if (neighbor >= 0
+              && !reaches[neighbor]
+              && !board.isGrooveWalledOff(geometry.borderingGroove(square, direction))) {
+            reaches[neighbor] = true;
+            queue.add(neighbor);
+          }
+        }
+      }
+    }
+
+    /** Records a wall move from {@code state} to a position with the given encoded entry. */
+    private void addWallMove(int state, byte entry) {
+      checkState(entry != Tablebase.ILLEGAL, "Valid wall move to an illegal position");
+      int distance = Tablebase.distance(entry) + 1;
+      switch (Tablebase.outcome(entry)) {
+        case LOSS:
+          if (wallWins[state] == 0 || distance < wallWins[state]) {
+            wallWins[state] = distance;
+          }
+          wallLosses[state] = -1;
+          break;
+        case WIN:
+          if (wallLosses[state] >= 0) {
+            wallLosses[state] = Math.max(wallLosses[state], distance);
+          }
+          break;
+        case DRAW:
+          wallLosses[state] = -1;
+          break;
+      }
+    }
+
+    /**
+     * Resolves the states that are won or lost, one move further from the end of the game at a
+     * time, as in the {@link EndgameSolver}. Wall moves lead to states resolved beforehand, so
+     * their outcomes may resolve a state at any distance, even after a pass that resolves nothing.
+     */
+    private void resolve() {
+      int wallDistance = 0;
+      for (int state = 0; state < blockSize; state++) {
+        wallDistance = Math.max(wallDistance, Math.max(wallWins[state], wallLosses[state]));
+      }
+      boolean changed = true;
+      for (int distance = 1; changed || distance <= wallDistance; distance++) {
+        changed = false;
+        for (int state = 0; state < blockSize; state++) {
+          int start = successorStart[state];
+          int end = successorStart[state + 1];
+          if (outcomes[state] != UNKNOWN
+              || (start == end && wallWins[state] == 0 && wallLosses[state] == 0)) {
+            continue;
+          }
+          boolean won = wallWins[state] == distance;
+          boolean lost = wallLosses[state] >= 0 && wallLosses[state] <= distance;
+          for (int i = start; i < end && !won; i++) {
+            int next = successors[i];
+            if (outcomes[next] == LOSS && distances[next] == distance - 1) {
+              won = true;
+            }
+            // States resolved in this pass are a move further from the end than required.
+            if (outcomes[next] != WIN || distances[next] >= distance) {
+              lost = false;
+            }
+          }
+          if (won || lost) {
+            checkState(
+                distance <= Tablebase.MAX_DISTANCE,
+                "Distance beyond %s moves: %s",
+                Tablebase.MAX_DISTANCE,
+                settings);
+            outcomes[state] = won ? WIN : LOSS;
+            distances[state] = distance;
+            changed = true;
+          }
+        }
+      }
+    }
+
+    private int state(int square0, int square1, int turn) {
+      return (square0 * squareCount + square1) * 2 + turn;
+    }
+  }
+}
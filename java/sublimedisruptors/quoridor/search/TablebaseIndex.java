@@ -0,0 +1,240 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+
+/**
+ * A perfect index of the positions of two-player games with given settings, as used by a {@link
+ * Tablebase}.
+ *
+ * <p>A position is determined by the number of walls each player has left, the set of walls on the
+ * board, the squares of the two pawns and the player to move. Walls are distinguished only by
+ * their {@linkplain BoardGeometry#wallPlacementIndex placement}, since it does not matter who
+ * placed them. The number of walls on the board follows from the number each player has left, so
+ * the positions are divided into layers, one for each pair of numbers of walls left. Within a
+ * layer, each set of walls is ranked in the combinatorial number system, which numbers the {@code
+ * k}-element subsets of placements {@code c1 < c2 < ... < ck} densely by {@code C(c1, 1) + C(c2,
+ * 2) + ... + C(ck, k)}. Each set of walls thus has a block of {@link #blockSize} consecutive
+ * indices, one for each arrangement of the pawns and player to move.
+ *
+ * <p>Every position has exactly one index and every index one position, including positions that
+ * cannot arise in a game, such as those with overlapping walls or with both pawns on one square.
+ */
+final class TablebaseIndex {
+
+  private final BoardGeometry geometry;
+  private final Player[] players;
+  private final int wallsPerPlayer;
+  private final int squareCount;
+  private final int placementCount;
+  private final int blockSize;
+  /** {@code binomials[n][k]} is the number of {@code k}-element subsets of {@code n} elements. */
+  private final long[][] binomials;
+  /** The first index of each layer, by the number of walls left to each player. */
+  private final long[][] layerStarts;
+  private final long size;
+
+  TablebaseIndex(QuoridorSettings settings) {
+    checkArgument(
+        settings.players().size() == 2, "Tablebase requires a two-player game: %s", settings);
+    this.geometry = BoardGeometry.forSettings(settings);
+    this.players = settings.players().toArray(new Player[0]);
+    this.wallsPerPlayer = settings.wallsPerPlayer();
+    this.squareCount = geometry.squareCount();
+    this.placementCount = geometry.wallPlacementCount();
+    this.blockSize = squareCount * squareCount * 2;
+    int maxWalls = 2 * wallsPerPlayer;
+    this.binomials = new long[placementCount + 1][maxWalls + 2];
+    for (int n = 0; n <= placementCount; n++) {
+      binomials[n][0] = 1;
+      for (int k = 1; k <= Math.min(n, maxWalls + 1); k++) {
+        binomials[n][k] = binomials[n - 1][k - 1] + (k <= n - 1 ? binomials[n - 1][k] : 0);
+      }
+    }
+    this.layerStarts = new long[wallsPerPlayer + 1][wallsPerPlayer + 1];
+    long start = 0;
+    for (int left0 = 0; left0 <= wallsPerPlayer; left0++) {
+      for (int left1 = 0; left1 <= wallsPerPlayer; left1++) {
+        layerStarts[left0][left1] = start;
+        start += blockCount(left0, left1) * blockSize;
+        checkArgument(start >= 0, "Too many positions to index: %s", settings);
+      }
+    }
+    this.size = start;
+  }
+
+  /** Returns the number of indices, which are in the range {@code [0, size())}. */
+  long size() {
+    return size;
+  }
+
+  /** Returns the number of indices for each set of walls. */
+  int blockSize() {
+    return blockSize;
+  }
+
+  /** Returns the number of walls on the board when the players have the given numbers left. */
+  int wallsOnBoard(int left0, int left1) {
+    return 2 * wallsPerPlayer - left0 - left1;
+  }
+
+  /** Returns the number of sets of walls when the players have the given numbers of walls left. */
+  long blockCount(int left0, int left1) {
+    return binomials[placementCount][wallsOnBoard(left0, left1)];
+  }
+
+  /**
+   * Returns the index of the position with the given numbers of walls left, walls of the given
+   * {@code rank}, pawns on the given squares, and player 0 or 1 of the settings to move.
+   */
+  long index(int left0, int left1, long rank, int square0, int square1, int turn) {
+    return layerStarts[left0][left1]
+        + rank * blockSize
+        + ((long) square0 * squareCount + square1) * 2
+        + turn;
+  }
+
+  /** Returns the rank of the first {@code k} placements, which must be in increasing order. */
+  long rank(int[] placements, int k) {
+    long rank = 0;
+    for (int i = 0; i < k; i++) {
+      rank += binomials[placements[i]][i + 1];
+    }
+    return rank;
+  }
+
+  /**
+   * Returns the rank of the first {@code k} placements, which must be in increasing order, with
+   * {@code extra} added, which must not already be among them.
+   */
+  long rankWith(int[] placements, int k, int extra) {
+    long rank = 0;
+    int offset = 0;
+    for (int i = 0; i < k; i++) {
+      if (offset == 0 && extra < placements[i]) {
+        rank += binomials[extra][i + 1];
+        offset = 1;
+      }
+      rank += binomials[placements[i]][i + 1 + offset];
+    }
+    return offset == 0 ? rank + binomials[extra][k + 1] : rank;
+  }
+
+  /** Stores the {@code k} placements with the given {@code rank} in increasing order. */
+  void unrank(long rank, int k, int[] placements) {
+    int candidate = placementCount - 1;
+    for (int i = k; i > 0; i--) {
+      while (binomials[candidate][i] > rank) {
+        candidate--;
+      }
+      placements[i - 1] = candidate;
+      rank -= binomials[candidate][i];
+      candidate--;
+    }
+  }
+
+  /**
+   * Returns the index of the position on {@code board} with {@code player} to move, or {@code -1}
+   * if the walls on the board cannot be divided into walls of the configured length, as many as
+   * the players have used.
+   */
+  long index(Board board, Player player) {
+    Integer left0 = board.wallsAvailable(players[0]);
+    Integer left1 = board.wallsAvailable(players[1]);
+    if (left0 == null
+        || left1 == null
+        || left0 < 0
+        || left0 > wallsPerPlayer
+        || left1 < 0
+        || left1 > wallsPerPlayer) {
+      return -1;
+    }
+    int k = wallsOnBoard(left0, left1);
+    int walledGrooves = 0;
+    for (int i = 0; i < geometry.grooveCount(); i++) {
+      if (board.isGrooveWalledOff(i)) {
+        walledGrooves++;
+      }
+    }
+    int walledVertices = 0;
+    for (int i = 0; i < squareCount; i++) {
+      if (board.isVertexWalledOff(i)) {
+        walledVertices++;
+      }
+    }
+    if (walledGrooves != k * geometry.wallLength()
+        || walledVertices != k * (geometry.wallLength() - 1)) {
+      return -1;
+    }
+    int[] placements = new int[k];
+    boolean[] covered = new boolean[geometry.grooveCount() + squareCount];
+    if (!findWalls(board, covered, placements, 0, 0)) {
+      return -1;
+    }
+    return index(
+        left0,
+        left1,
+        rank(placements, k),
+        board.pawnIndex(players[0]),
+        board.pawnIndex(players[1]),
+        player == players[0] ? 0 : 1);
+  }
+
+  /**
+   * Finds walls, in increasing order of placement from {@code from}, that together cover exactly
+   * the walled-off grooves and vertices of {@code board} not yet {@code covered}, and stores them
+   * in {@code placements} from {@code count}. Returns {@code false} if there are none.
+   *
+   * <p>Grooves and vertices share {@code covered}, vertices after grooves. Should different sets
+   * of walls cover the same grooves and vertices, they would leave the same moves open, so any of
+   * them may be chosen.
+   */
+  private boolean findWalls(
+      Board board, boolean[] covered, int[] placements, int count, int from) {
+    if (count == placements.length) {
+      return true;
+    }
+    for (int placement = from; placement < placementCount; placement++) {
+      if (!fits(board, covered, placement)) {
+        continue;
+      }
+      setCovered(covered, placement, true);
+      placements[count] = placement;
+      if (findWalls(board, covered, placements, count + 1, placement + 1)) {
+        return true;
+      }
+      setCovered(covered, placement, false);
+    }
+    return false;
+  }
+
+  /** Returns {@code true} if the wall lies on walled-off grooves and vertices not yet covered. */
+  private boolean fits(Board board, boolean[] covered, int placement) {
+    for (int i = 0; i < geometry.wallLength(); i++) {
+      int groove = geometry.coveredGroove(placement, i);
+      if (covered[groove] || !board.isGrooveWalledOff(groove)) {
+        return false;
+      }
+    }
+    for (int i = 0; i < geometry.wallLength() - 1; i++) {
+      int vertex = geometry.coveredVertex(placement, i);
+      if (covered[geometry.grooveCount() + vertex] || !board.isVertexWalledOff(vertex)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void setCovered(boolean[] covered, int placement, boolean value) {
+    for (int i = 0; i < geometry.wallLength(); i++) {
+      covered[geometry.coveredGroove(placement, i)] = value;
+    }
+    for (int i = 0; i < geometry.wallLength() - 1; i++) {
+      covered[geometry.grooveCount() + geometry.coveredVertex(placement, i)] = value;
+    }
+  }
+}
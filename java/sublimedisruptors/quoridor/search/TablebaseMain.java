@@ -0,0 +1,37 @@
+package sublimedisruptors.quoridor.search;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import sublimedisruptors.quoridor.QuoridorSettings;
+
+/**
+ * Generates the {@link Tablebase} of a two-player game on a small board and writes it to a file.
+ *
+ * <p>Usage: {@code TablebaseMain <file> <board size> <walls per player> [threads]}. The number of
+ * threads defaults to the number of available processors.
+ */
+public final class TablebaseMain {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 3 || args.length > 4) {
+      System.err.println("Usage: TablebaseMain <file> <board size> <walls per player> [threads]");
+      System.exit(2);
+    }
+    Path path = Paths.get(args[0]);
+    QuoridorSettings settings =
+        QuoridorSettings.defaultTwoPlayer().toBuilder()
+            .setBoardSize(Integer.parseInt(args[1]))
+            .setWallsPerPlayer(Integer.parseInt(args[2]))
+            .build();
+    int threads =
+        args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+    long start = System.nanoTime();
+    TablebaseGenerator.create(settings, threads).writeTo(path);
+    long elapsedNanos = System.nanoTime() - start;
+
+    System.out.format("Positions: %d\n", new TablebaseIndex(settings).size());
+    System.out.format("Time: %.3f s\n", elapsedNanos / 1e9);
+  }
+}
@@ -0,0 +1,216 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import java.util.Arrays;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.PackedMove;
+
+/**
+ * A fixed-size cache of search results keyed by {@linkplain Board#zobristKey Zobrist key}.
+ *
+ * <p>Each entry records the depth to which a position was searched, the score found, whether that
+ * score is {@linkplain Bound exact or a bound}, and the best {@linkplain PackedMove packed move}.
+ * The entry is packed into a single {@code long}, which is retrieved by {@link #probe} and unpacked
+ * by the static accessors of this class, so neither storing nor probing allocates.
+ *
+ * <p>Entries are held in a {@code long[]} of two slots per entry, grouped into buckets of {@value
+ * #BUCKET_SIZE} entries. A position may be stored in either entry of the bucket selected by the low
+ * bits of its key. When both are occupied by other positions, the entry from an older {@linkplain
+ * #newSearch search} is replaced first, and otherwise the entry searched to the lesser depth.
+ *
+ * <p>The table may be shared by any number of threads without locking. The first slot of an entry
+ * holds its key XORed with its data, and the second holds the data. A probe verifies that the two
+ * slots XOR to the probed key, so an entry that is torn by concurrent writes is treated as a miss
+ * rather than returned with mismatched data. Concurrent stores to the same bucket may lose one of
+ * the results, which costs only some repeated work.
+ */
+public final class TranspositionTable {
+
+  /** How a stored score relates to the true score of the position. */
+  public enum Bound {
+    /** The stored score is the true score. */
+    EXACT,
+    /** The true score is at least the stored score, since a move at least that good was found. */
+    LOWER,
+    /** The true score is at most the stored score, since no move was better. */
+    UPPER
+  }
+
+  /** Returned by {@link #probe} if the position is not in the table. Never a valid entry. */
+  public static final long MISS = 0;
+
+  /** The number of entries in each bucket. */
+  public static final int BUCKET_SIZE = 2;
+
+  /** The size, in bytes, of a single entry. */
+  public static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+
+  private static final Bound[] BOUNDS = Bound.values();
+
+  // From least to most significant: the best move plus one (27 bits), the score (21 bits, two's
+  // complement), the depth (7 bits), the bound plus one (2 bits) and the search generation (7
+  // bits). Storing the bound plus one ensures that no stored entry equals MISS.
+  private static final int MOVE_BITS = 27;
+  private static final int SCORE_SHIFT = MOVE_BITS;
+  private static final int SCORE_BITS = 21;
+  private static final int DEPTH_SHIFT = SCORE_SHIFT + SCORE_BITS;
+  private static final int DEPTH_BITS = 7;
+  private static final int BOUND_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+  private static final int BOUND_BITS = 2;
+  private static final int GENERATION_SHIFT = BOUND_SHIFT + BOUND_BITS;
+  private static final int GENERATION_BITS = Long.SIZE - GENERATION_SHIFT;
+
+  /** The maximum depth that can be stored. */
+  public static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
+  /** The maximum magnitude of a score that can be stored. */
+  public static final int MAX_SCORE = (1 << (SCORE_BITS - 1)) - 1;
+
+  /**
+   * Creates a table with the given number of entries, which must be a power of two and at least
+   * {@value #BUCKET_SIZE}.
+   */
+  public static TranspositionTable withEntries(int entries) {
+    checkArgument(
+        entries >= BUCKET_SIZE && Integer.bitCount(entries) == 1,
+        "Entries must be a power of two of at least %s, got %s",
+        BUCKET_SIZE,
+        entries);
+    return new TranspositionTable(entries);
+  }
+
+  /**
+   * Creates the largest table that occupies at most the given number of megabytes, which must be
+   * positive.
+   */
+  public static TranspositionTable withMegabytes(int megabytes) {
+    checkArgument(megabytes > 0, "Megabytes must be positive, got %s", megabytes);
+    long entries = ((long) megabytes << 20) / BYTES_PER_ENTRY;
+    // Two slots per entry must fit in a single array.
+    entries = Math.min(Long.highestOneBit(entries), Integer.highestOneBit(Integer.MAX_VALUE / 2));
+    return new TranspositionTable((int) entries);
+  }
+
+  private final long[] slots;
+  private final int bucketMask;
+  private volatile int generation = 0;
+
+  private TranspositionTable(int entries) {
+    this.slots = new long[2 * entries];
+    this.bucketMask = entries / BUCKET_SIZE - 1;
+  }
+
+  /** Returns the number of entries this table can hold. */
+  public int capacity() {
+    return slots.length / 2;
+  }
+
+  /**
+   * Advances the search generation, which marks every entry stored so far as older than those
+   * stored from now on, and so preferred for replacement.
+   *
+   * <p>This should be called once before each new search, not by each thread of a parallel search.
+   */
+  public void newSearch() {
+    generation = (generation + 1) & ((1 << GENERATION_BITS) - 1);
+  }
+
+  /** Removes every entry. This must not be called concurrently with other methods. */
+  public void clear() {
+    Arrays.fill(slots, 0);
+    generation = 0;
+  }
+
+  /**
+   * Returns the entry for the position with the given {@code key}, or {@link #MISS} if there is
+   * none. The entry's contents can be read with {@link #depth}, {@link #score}, {@link #bound} and
+   * {@link #bestMove}.
+   */
+  public long probe(long key) {
+    int slot = firstSlot(key);
+    for (int i = 0; i < BUCKET_SIZE; i++, slot += 2) {
+      long data = slots[slot + 1];
+      if (data != MISS && (slots[slot] ^ data) == key) {
+        return data;
+      }
+    }
+    return MISS;
+  }
+
+  /**
+   * Stores the result of searching the position with the given {@code key}.
+   *
+   * <p>If the position is already in the table, its entry is overwritten. If {@code bestMove} is
+   * {@link PackedMove#NONE}, the previously stored best move, if any, is kept.
+   *
+   * @param depth the depth searched, in {@code [0, MAX_DEPTH]}
+   * @param score the score found, in {@code [-MAX_SCORE, MAX_SCORE]}
+   * @param bestMove the best move found, or {@link PackedMove#NONE}
+   */
+  public void store(long key, int depth, Bound bound, int score, int bestMove) {
+    checkElementIndex(depth, MAX_DEPTH + 1, "depth");
+    checkArgument(Math.abs(score) <= MAX_SCORE, "Score out of range: %s", score);
+    checkArgument(bestMove >= PackedMove.NONE, "Invalid packed move: %s", bestMove);
+    int currentGeneration = generation;
+    int first = firstSlot(key);
+    int victim = -1;
+    int victimPriority = Integer.MAX_VALUE;
+    for (int i = 0, slot = first; i < BUCKET_SIZE; i++, slot += 2) {
+      long data = slots[slot + 1];
+      if (data != MISS && (slots[slot] ^ data) == key) {
+        if (bestMove == PackedMove.NONE) {
+          bestMove = bestMove(data);
+        }
+        victim = slot;
+        break;
+      }
+      // Empty entries are replaced first, then entries from old searches, then shallow entries.
+      int priority = -1;
+      if (data != MISS) {
+        priority = (generation(data) == currentGeneration ? MAX_DEPTH + 1 : 0) + depth(data);
+      }
+      if (priority < victimPriority) {
+        victim = slot;
+        victimPriority = priority;
+      }
+    }
+    long data =
+        (bestMove + 1L)
+            | ((score & ((1L << SCORE_BITS) - 1)) << SCORE_SHIFT)
+            | ((long) depth << DEPTH_SHIFT)
+            | ((bound.ordinal() + 1L) << BOUND_SHIFT)
+            | ((long) currentGeneration << GENERATION_SHIFT);
+    slots[victim] = key ^ data;
+    slots[victim + 1] = data;
+  }
+
+  /** Returns the depth to which the position of the given entry was searched. */
+  public static int depth(long entry) {
+    return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+  }
+
+  /** Returns the score stored in the given entry. */
+  public static int score(long entry) {
+    return (int) (entry << (Long.SIZE - SCORE_SHIFT - SCORE_BITS) >> (Long.SIZE - SCORE_BITS));
+  }
+
+  /** Returns how the score stored in the given entry relates to the true score. */
+  public static Bound bound(long entry) {
+    return BOUNDS[(int) (entry >>> BOUND_SHIFT & ((1 << BOUND_BITS) - 1)) - 1];
+  }
+
+  /** Returns the best move stored in the given entry, or {@link PackedMove#NONE} if none. */
+  public static int bestMove(long entry) {
+    return (int) (entry & ((1L << MOVE_BITS) - 1)) - 1;
+  }
+
+  private static int generation(long entry) {
+    return (int) (entry >>> GENERATION_SHIFT);
+  }
+
+  private int firstSlot(long key) {
+    return ((int) key & bucketMask) * 2 * BUCKET_SIZE;
+  }
+}
@@ -0,0 +1,118 @@
+package sublimedisruptors.quoridor.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.search.EndgameResult;
+
+/**
+ * A plain search of every line of play for forced wins in two-player games, against which the
+ * results of faster searches are checked.
+ *
+ * <p>As in {@link sublimedisruptors.quoridor.search.EndgameSolver} and {@link
+ * sublimedisruptors.quoridor.search.Tablebase}, a player without any moves is not forced to lose.
+ */
+public final class ExhaustiveSearch {
+
+  /** Generates the moves that a player may make from the position on a governed board. */
+  public interface MoveGenerator {
+    ImmutableSet<Move> generate(RulesGovernor governor, Player player);
+  }
+
+  /** Generates only the valid pawn moves. */
+  public static final MoveGenerator PAWN_MOVES =
+      (governor, player) -> governor.generateValidPawnMoves(player);
+
+  /** Generates the valid pawn and wall moves. */
+  public static final MoveGenerator ALL_MOVES =
+      (governor, player) ->
+          Sets.union(
+                  governor.generateValidPawnMoves(player), governor.generateValidWallMoves(player))
+              .immutableCopy();
+
+  /**
+   * Creates a search of the position on {@code board}, which is governed by {@code governor}, over
+   * the moves generated by {@code moveGenerator}. The board is restored after each search.
+   */
+  public static ExhaustiveSearch create(
+      Board board, RulesGovernor governor, MoveGenerator moveGenerator) {
+    return new ExhaustiveSearch(board, governor, moveGenerator);
+  }
+
+  private final Board board;
+  private final RulesGovernor governor;
+  private final MoveGenerator moveGenerator;
+
+  private ExhaustiveSearch(Board board, RulesGovernor governor, MoveGenerator moveGenerator) {
+    this.board = board;
+    this.governor = governor;
+    this.moveGenerator = moveGenerator;
+  }
+
+  /**
+   * Checks {@code result}, the outcome of the position for {@code player} to move, against a search
+   * for forced wins of every length up to the result's. A draw is checked up to {@code
+   * maxDistance} moves.
+   */
+  public void assertMatches(EndgameResult result, Player player, Player opponent, int maxDistance) {
+    int distance = result.distance();
+    switch (result.outcome()) {
+      case WIN:
+        assertThat(wins(player, opponent, distance)).isTrue();
+        assertThat(wins(player, opponent, distance - 1)).isFalse();
+        break;
+      case LOSS:
+        assertThat(loses(player, opponent, distance)).isTrue();
+        assertThat(loses(player, opponent, distance - 1)).isFalse();
+        break;
+      case DRAW:
+        assertThat(wins(player, opponent, maxDistance)).isFalse();
+        assertThat(loses(player, opponent, maxDistance)).isFalse();
+        break;
+    }
+  }
+
+  /** Returns {@code true} if {@code player} can force a win within {@code moves} moves. */
+  public boolean wins(Player player, Player opponent, int moves) {
+    if (moves <= 0) {
+      return false;
+    }
+    for (Move move : moveGenerator.generate(governor, player)) {
+      if (move.type() == Move.Type.PAWN && governor.isGoal(player, move.destination())) {
+        return true;
+      }
+      move.applyTo(board);
+      boolean won = loses(opponent, player, moves - 1);
+      board.undo();
+      if (won) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns {@code true} if {@code player} cannot avoid a loss within {@code moves} moves. */
+  public boolean loses(Player player, Player opponent, int moves) {
+    ImmutableSet<Move> validMoves = moveGenerator.generate(governor, player);
+    if (moves <= 0 || validMoves.isEmpty()) {
+      return false;
+    }
+    for (Move move : validMoves) {
+      if (move.type() == Move.Type.PAWN && governor.isGoal(player, move.destination())) {
+        return false;
+      }
+      move.applyTo(board);
+      boolean lost = wins(opponent, player, moves - 1);
+      board.undo();
+      if (!lost) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
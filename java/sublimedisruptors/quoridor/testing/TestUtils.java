@@ -1,5 +1,18 @@
 package sublimedisruptors.quoridor.testing;
 
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.record.GameArchive;
+import sublimedisruptors.quoridor.record.GameArchiveWriter;
+import sublimedisruptors.quoridor.record.GameRecordWriter;
+import sublimedisruptors.quoridor.record.OpeningBookWriter;
+
 /** Test utilities for Quoridor. */
 public final class TestUtils {
 
@@ -13,5 +26,47 @@ public final class TestUtils {
     }
   }
 
+  /** Returns a board for {@code settings} with every pawn in its initial square. */
+  public static Board setUpBoard(QuoridorSettings settings) {
+    Board board = Board.createFromSettings(settings);
+    RulesGovernor.createAndSetUpPawns(board, settings);
+    return board;
+  }
+
+  /** Writes an archive of {@code games}, each played under {@code settings}, to {@code path}. */
+  @SafeVarargs
+  public static void writeArchive(
+      Path path, QuoridorSettings settings, ImmutableList<Move>... games) throws IOException {
+    try (GameArchiveWriter writer = GameArchiveWriter.create(path)) {
+      for (ImmutableList<Move> game : games) {
+        GameRecordWriter record = writer.startGame(settings);
+        for (Move move : game) {
+          record.append(move);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes an opening book of {@code games}, each played under {@code settings}, to {@code path},
+   * with the given {@linkplain OpeningBookWriter#create max ply and min games}.
+   */
+  @SafeVarargs
+  public static void writeBook(
+      Path path, QuoridorSettings settings, int maxPly, int minGames, ImmutableList<Move>... games)
+      throws IOException {
+    Path archivePath = Files.createTempFile(path.toAbsolutePath().getParent(), "games", null);
+    try {
+      writeArchive(archivePath, settings, games);
+      try (OpeningBookWriter writer = OpeningBookWriter.create(settings, maxPly, minGames);
+          GameArchive archive = GameArchive.open(archivePath)) {
+        writer.addGames(archive);
+        writer.writeTo(path);
+      }
+    } finally {
+      Files.delete(archivePath);
+    }
+  }
+
   private TestUtils() {}
 }
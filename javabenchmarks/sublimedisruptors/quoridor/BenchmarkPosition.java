@@ -0,0 +1,106 @@
+package sublimedisruptors.quoridor;
+
+import com.google.common.collect.ImmutableList;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+
+/**
+ * A fixed corpus of representative positions on which benchmarks are run, so that results are
+ * comparable across commits.
+ *
+ * <p>Each position is reached from the initial position by a fixed sequence of moves in <a
+ * href="https://en.wikipedia.org/wiki/Quoridor#Notation">Glendenning notation</a>, made by the
+ * players in turn. The moves are checked against the {@link RulesGovernor} whenever a position is
+ * set up, so a change to the rules that makes one of them illegal fails loudly instead of quietly
+ * benchmarking a different position.
+ *
+ * <p>These positions must not be changed once results have been published against them. Add new
+ * positions instead.
+ */
+public enum BenchmarkPosition {
+
+  /** The initial position of a two-player game. */
+  OPENING(QuoridorSettings.defaultTwoPlayer()),
+
+  /** Both pawns in the middle of the board and no walls placed. */
+  OPEN(QuoridorSettings.defaultTwoPlayer(), "e8", "e2", "e7", "e3", "e6", "e4"),
+
+  /** Pawns face to face, with walls preventing a straight jump and one of the diagonals. */
+  CROWDED(
+      QuoridorSettings.defaultTwoPlayer(),
+      "e8", "e2", "e7", "e3", "e6", "e4", "e5", "d3h", "e4v", "c4v"),
+
+  /** Four pawns converging on the center of the board. */
+  FOUR_PLAYER_CROWDED(
+      QuoridorSettings.defaultFourPlayer(),
+      "e8", "e2", "b5", "h5", "e7", "e3", "c5", "g5", "e6", "e4", "d5", "f5", "e5"),
+
+  /** A few walls placed in front of each pawn. */
+  SPARSE_WALLS(
+      QuoridorSettings.defaultTwoPlayer(), "e8", "e2", "e7", "e3", "e3h", "d6h", "b3v", "g6v"),
+
+  /**
+   * Fourteen walls forming barriers across the board, each with a gap at alternating ends, so
+   * that the only paths to the goals wind from side to side. Each player has one wall left.
+   */
+  DENSE_WALLS(
+      QuoridorSettings.defaultTwoPlayer(),
+      "a2h", "b4h", "c2h", "d4h", "e2h", "f4h", "g2h", "h4h", "a6h", "c6h", "e6h", "g6h", "d7v",
+      "f7v");
+
+  private final QuoridorSettings settings;
+  private final ImmutableList<String> moves;
+
+  BenchmarkPosition(QuoridorSettings settings, String... moves) {
+    this.settings = settings;
+    this.moves = ImmutableList.copyOf(moves);
+  }
+
+  /** Returns the settings of the game in which this position arises. */
+  public QuoridorSettings settings() {
+    return settings;
+  }
+
+  /** Returns the player whose turn it is in this position. */
+  public Player playerToMove() {
+    return settings.players().get(moves.size() % settings.players().size());
+  }
+
+  /**
+   * Creates a new board in this position.
+   *
+   * @throws IllegalStateException if any of the moves leading to this position is illegal
+   */
+  public Board createBoard() {
+    Board board = Board.createFromSettings(settings);
+    RulesGovernor rulesGovernor = RulesGovernor.createAndSetUpPawns(board, settings);
+    for (int i = 0; i < moves.size(); i++) {
+      Player player = settings.players().get(i % settings.players().size());
+      Move move = parseMove(player, moves.get(i));
+      boolean legal =
+          move.type() == Move.Type.PAWN
+              ? rulesGovernor.generateValidPawnMoves(player).contains(move)
+              : rulesGovernor.isValidWallMove(move);
+      if (!legal) {
+        throw new IllegalStateException(
+            String.format("Illegal move %s in position %s", moves.get(i), this));
+      }
+      move.applyTo(board);
+    }
+    return board;
+  }
+
+  private Move parseMove(Player player, String notation) {
+    char column = notation.charAt(0);
+    int row = Character.getNumericValue(notation.charAt(1));
+    if (notation.length() == 2) {
+      return Move.pawnMove(player, Square.at(column, row));
+    }
+    Wall.Builder wall =
+        notation.charAt(2) == 'v' ? Wall.vertical(column, row) : Wall.horizontal(column, row);
+    return Move.wallMove(player, wall.withLength(settings.wallLength()));
+  }
+}
@@ -0,0 +1,71 @@
+package sublimedisruptors.quoridor.board;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for obtaining {@link Square} and {@link Wall} instances, both from the {@linkplain
+ * LocationCache cache} and from the interners used outside of its range.
+ *
+ * <p>Each operation looks up every location on a 9x9 board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LocationBenchmark {
+
+  private static final int SIZE = 9;
+
+  /** Rows beyond the cached range, which are always interned. */
+  private static final int INTERNED_ROW_OFFSET = 100;
+
+  @Benchmark
+  public void squareAt_cached(Blackhole blackhole) {
+    for (char column = 'a'; column < 'a' + SIZE; column++) {
+      for (int row = 1; row <= SIZE; row++) {
+        blackhole.consume(Square.at(column, row));
+      }
+    }
+  }
+
+  @Benchmark
+  public void squareAt_interned(Blackhole blackhole) {
+    for (char column = 'a'; column < 'a' + SIZE; column++) {
+      for (int row = 1; row <= SIZE; row++) {
+        blackhole.consume(Square.at(column, INTERNED_ROW_OFFSET + row));
+      }
+    }
+  }
+
+  @Benchmark
+  public void wallWithLength_cached(Blackhole blackhole) {
+    for (char column = 'a'; column < 'a' + SIZE - 1; column++) {
+      for (int row = 1; row < SIZE; row++) {
+        blackhole.consume(Wall.vertical(column, row).withLength(2));
+        blackhole.consume(Wall.horizontal(column, row).withLength(2));
+      }
+    }
+  }
+
+  @Benchmark
+  public void wallWithLength_interned(Blackhole blackhole) {
+    for (char column = 'a'; column < 'a' + SIZE - 1; column++) {
+      for (int row = 1; row < SIZE; row++) {
+        blackhole.consume(Wall.vertical(column, INTERNED_ROW_OFFSET + row).withLength(2));
+        blackhole.consume(Wall.horizontal(column, INTERNED_ROW_OFFSET + row).withLength(2));
+      }
+    }
+  }
+}
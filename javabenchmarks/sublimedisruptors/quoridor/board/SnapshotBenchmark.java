@@ -0,0 +1,62 @@
+package sublimedisruptors.quoridor.board;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sublimedisruptors.quoridor.BenchmarkPosition;
+import sublimedisruptors.quoridor.Player;
+
+/** Benchmarks for converting a {@link Board} to and from a {@link Board.Snapshot}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SnapshotBenchmark {
+
+  @Param public BenchmarkPosition position;
+
+  private Board board;
+  private Player player;
+  private Board.Snapshot snapshot;
+
+  @Setup
+  public void setUp() {
+    board = position.createBoard();
+    player = position.playerToMove();
+    snapshot = board.snapshot();
+  }
+
+  /**
+   * Rebuilds the snapshot of the position. Moving a pawn to the square it is already on discards
+   * the cached snapshot while leaving the pawns and walls unchanged, and undoing the move restores
+   * it.
+   */
+  @Benchmark
+  public Board.Snapshot snapshot_rebuild() {
+    board.movePawn(player, board.pawn(player));
+    Board.Snapshot rebuilt = board.snapshot();
+    board.undo();
+    return rebuilt;
+  }
+
+  @Benchmark
+  public Board.Snapshot snapshot_cached() {
+    return board.snapshot();
+  }
+
+  @Benchmark
+  public Board fromSnapshot() {
+    return Board.fromSnapshot(snapshot);
+  }
+}
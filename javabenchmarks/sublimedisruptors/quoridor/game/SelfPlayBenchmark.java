@@ -0,0 +1,110 @@
+package sublimedisruptors.quoridor.game;
+
+import com.google.common.collect.ImmutableList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.MoveList;
+import sublimedisruptors.quoridor.move.PackedMove;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.player.QuoridorPlayer;
+
+/**
+ * Benchmarks for playing complete two-player games between players that move at random, reported
+ * in games per second.
+ *
+ * <p>The random number generator is reseeded before every iteration, so each iteration plays the
+ * same sequence of games.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SelfPlayBenchmark {
+
+  private static final int MAX_PLIES = 1000;
+  private static final long SEED = 0x5EED;
+
+  private final QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+  private final Random random = new Random();
+  private final Map<Player, QuoridorPlayer.Factory> playerFactories = new EnumMap<>(Player.class);
+  private final MoveList moves = new MoveList();
+  private Board board;
+  private RulesGovernor rulesGovernor;
+
+  @Setup
+  public void setUp() {
+    QuoridorPlayer.Factory randomPawnMover =
+        (self, gameSettings) ->
+            (snapshot, validPawnMoves) -> {
+              ImmutableList<Move> choices = validPawnMoves.asList();
+              return choices.get(random.nextInt(choices.size()));
+            };
+    for (Player player : settings.players()) {
+      playerFactories.put(player, randomPawnMover);
+    }
+    board = Board.createFromSettings(settings);
+    rulesGovernor = RulesGovernor.createAndSetUpPawns(board, settings);
+  }
+
+  @Setup(Level.Iteration)
+  public void reseed() {
+    random.setSeed(SEED);
+  }
+
+  /**
+   * Plays a game through a {@link GameMaster}, between players that make random pawn moves. This
+   * includes the overhead of snapshots and of move validation by the game master.
+   */
+  @Benchmark
+  public int gameMaster_randomPawnMoves() {
+    GameMaster gameMaster = GameMaster.setUpGame(settings, playerFactories);
+    gameMaster.playGame(MAX_PLIES);
+    return gameMaster.getPlyCount();
+  }
+
+  /**
+   * Plays a game directly on a {@link Board}, choosing uniformly among all legal pawn and wall
+   * moves, and then undoes every move to restore the initial position.
+   */
+  @Benchmark
+  public int rulesGovernor_randomMoves() {
+    ImmutableList<Player> players = settings.players();
+    int plies = 0;
+    boolean won = false;
+    while (!won && plies < MAX_PLIES) {
+      Player player = players.get(plies % players.size());
+      moves.clear();
+      rulesGovernor.generateValidPawnMoves(player, moves);
+      rulesGovernor.generateValidWallMoves(player, moves);
+      int move = moves.get(random.nextInt(moves.size()));
+      PackedMove.applyTo(move, board);
+      plies++;
+      won =
+          PackedMove.type(move) == Move.Type.PAWN
+              && rulesGovernor.isGoal(player, PackedMove.destination(move));
+    }
+    for (int i = 0; i < plies; i++) {
+      board.undo();
+    }
+    return plies;
+  }
+}
@@ -0,0 +1,82 @@
+package sublimedisruptors.quoridor.move;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sublimedisruptors.quoridor.BenchmarkPosition;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+
+/**
+ * Benchmarks for generating and validating moves with the {@link RulesGovernor}, for the player to
+ * move in each {@linkplain BenchmarkPosition benchmark position}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MoveGenerationBenchmark {
+
+  @Param public BenchmarkPosition position;
+
+  private RulesGovernor rulesGovernor;
+  private Player player;
+  private Move[] wallMoves;
+  private final MoveList moves = new MoveList();
+
+  @Setup
+  public void setUp() {
+    Board board = position.createBoard();
+    rulesGovernor = RulesGovernor.create(board, position.settings());
+    player = position.playerToMove();
+    BoardGeometry geometry = BoardGeometry.forSettings(position.settings());
+    wallMoves = new Move[geometry.wallPlacementCount()];
+    for (int i = 0; i < wallMoves.length; i++) {
+      wallMoves[i] = Move.wallMove(player, geometry.wall(i));
+    }
+  }
+
+  @Benchmark
+  public int generateValidPawnMoves_packed() {
+    moves.clear();
+    rulesGovernor.generateValidPawnMoves(player, moves);
+    return moves.size();
+  }
+
+  @Benchmark
+  public ImmutableSet<Move> generateValidPawnMoves() {
+    return rulesGovernor.generateValidPawnMoves(player);
+  }
+
+  @Benchmark
+  public int generateValidWallMoves_packed() {
+    moves.clear();
+    rulesGovernor.generateValidWallMoves(player, moves);
+    return moves.size();
+  }
+
+  /** Validates every wall placement on the board, one at a time. */
+  @Benchmark
+  public int isValidWallMove_everyPlacement() {
+    int valid = 0;
+    for (Move wallMove : wallMoves) {
+      if (rulesGovernor.isValidWallMove(wallMove)) {
+        valid++;
+      }
+    }
+    return valid;
+  }
+}
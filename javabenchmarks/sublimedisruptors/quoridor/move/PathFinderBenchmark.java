@@ -0,0 +1,60 @@
+package sublimedisruptors.quoridor.move;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sublimedisruptors.quoridor.BenchmarkPosition;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+
+/**
+ * Benchmarks for {@link PathFinder} searches, run for every player in each {@linkplain
+ * BenchmarkPosition benchmark position}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PathFinderBenchmark {
+
+  @Param public BenchmarkPosition position;
+
+  private Board board;
+  private ImmutableList<Player> players;
+  private PathFinder pathFinder;
+
+  @Setup
+  public void setUp() {
+    board = position.createBoard();
+    players = position.settings().players();
+    pathFinder = new PathFinder(BoardGeometry.forSettings(position.settings()));
+  }
+
+  @Benchmark
+  public void pathToGoalExists(Blackhole blackhole) {
+    for (int i = 0; i < players.size(); i++) {
+      blackhole.consume(pathFinder.pathToGoalExists(players.get(i), board));
+    }
+  }
+
+  @Benchmark
+  public void shortestDistanceToGoal(Blackhole blackhole) {
+    for (int i = 0; i < players.size(); i++) {
+      blackhole.consume(pathFinder.shortestDistanceToGoal(players.get(i), board));
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package sublimedisruptors.quoridor.board;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+
+/** Tests for {@link BoardGeometry}. */
+@RunWith(JUnit4.class)
+public final class BoardGeometryTest {
+
+  @Test
+  public void forSettings_sameShape_sharesInstance() {
+    assertThat(BoardGeometry.forSettings(QuoridorSettings.defaultTwoPlayer()))
+        .isSameAs(BoardGeometry.forSettings(QuoridorSettings.defaultFourPlayer()));
+  }
+
+  @Test
+  public void forSettings_differentShape_distinctInstances() {
+    assertThat(BoardGeometry.of(9, 2)).isNotSameAs(BoardGeometry.of(9, 3));
+    assertThat(BoardGeometry.of(9, 2)).isNotSameAs(BoardGeometry.of(7, 2));
+  }
+
+  @Test
+  public void squareIndex_roundTrips() {
+    BoardGeometry geometry = BoardGeometry.of(5, 2);
+    for (int i = 0; i < geometry.squareCount(); i++) {
+      assertThat(geometry.squareIndex(geometry.square(i))).isEqualTo(i);
+      assertThat(geometry.squareIndex(geometry.vertex(i))).isEqualTo(i);
+    }
+    assertThat(geometry.square(0)).isEqualTo(Square.at('a', 1));
+    assertThat(geometry.square(7)).isEqualTo(Square.at('c', 2));
+  }
+
+  @Test
+  public void squareIndex_offBoard() {
+    BoardGeometry geometry = BoardGeometry.of(5, 2);
+    assertThat(geometry.squareIndex(Square.at('f', 1))).isEqualTo(-1);
+    assertThat(geometry.squareIndex(Square.at('a', 6))).isEqualTo(-1);
+    assertThat(geometry.squareIndex(Square.at('a', 0))).isEqualTo(-1);
+  }
+
+  @Test
+  public void grooveIndex_roundTrips() {
+    BoardGeometry geometry = BoardGeometry.of(5, 2);
+    Set<Groove> grooves = new HashSet<>();
+    for (int i = 0; i < geometry.grooveCount(); i++) {
+      assertThat(geometry.grooveIndex(geometry.groove(i))).isEqualTo(i);
+      grooves.add(geometry.groove(i));
+    }
+    assertThat(grooves).hasSize(geometry.grooveCount());
+  }
+
+  @Test
+  public void neighbor() {
+    BoardGeometry geometry = BoardGeometry.of(3, 2);
+    int b2 = geometry.squareIndex(Square.at('b', 2));
+    assertThat(geometry.neighbor(b2, Direction.UP))
+        .isEqualTo(geometry.squareIndex(Square.at('b', 1)));
+    assertThat(geometry.neighbor(b2, Direction.DOWN))
+        .isEqualTo(geometry.squareIndex(Square.at('b', 3)));
+    assertThat(geometry.neighbor(b2, Direction.LEFT))
+        .isEqualTo(geometry.squareIndex(Square.at('a', 2)));
+    assertThat(geometry.neighbor(b2, Direction.RIGHT))
+        .isEqualTo(geometry.squareIndex(Square.at('c', 2)));
+  }
+
+  @Test
+  public void neighbor_offBoard() {
+    BoardGeometry geometry = BoardGeometry.of(3, 2);
+    int a1 = geometry.squareIndex(Square.at('a', 1));
+    assertThat(geometry.neighbor(a1, Direction.UP)).isEqualTo(-1);
+    assertThat(geometry.neighbor(a1, Direction.LEFT)).isEqualTo(-1);
+    assertThat(geometry.borderingGroove(a1, Direction.UP)).isEqualTo(-1);
+    assertThat(geometry.borderingGroove(a1, Direction.LEFT)).isEqualTo(-1);
+  }
+
+  @Test
+  public void borderingGroove_matchesSquare() {
+    BoardGeometry geometry = BoardGeometry.of(3, 2);
+    int b2 = geometry.squareIndex(Square.at('b', 2));
+    for (Direction direction : Direction.values()) {
+      assertThat(geometry.groove(geometry.borderingGroove(b2, direction)))
+          .isEqualTo(Square.at('b', 2).borderingGroove(direction));
+    }
+  }
+
+  @Test
+  public void wallPlacementCount_standardBoard() {
+    // 8 x 8 interior vertices, each of which can hold a vertical and a horizontal wall.
+    assertThat(BoardGeometry.of(9, 2).wallPlacementCount()).isEqualTo(128);
+  }
+
+  @Test
+  public void wallPlacementCount_longWalls() {
+    // 7 starting rows x 8 columns for each orientation.
+    assertThat(BoardGeometry.of(9, 3).wallPlacementCount()).isEqualTo(112);
+  }
+
+  @Test
+  public void wallPlacementCount_wallsDoNotFit() {
+    assertThat(BoardGeometry.of(2, 3).wallPlacementCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void wallPlacements_matchCoveredLocations() {
+    BoardGeometry geometry = BoardGeometry.of(5, 3);
+    for (int p = 0; p < geometry.wallPlacementCount(); p++) {
+      Wall wall = geometry.wall(p);
+      assertThat(geometry.wallPlacementIndex(wall)).isEqualTo(p);
+      for (int i = 0; i < geometry.wallLength(); i++) {
+        assertThat(geometry.groove(geometry.coveredGroove(p, i)))
+            .isEqualTo(wall.coveredGrooves().get(i));
+      }
+      for (int i = 0; i < geometry.wallLength() - 1; i++) {
+        assertThat(geometry.vertex(geometry.coveredVertex(p, i)))
+            .isEqualTo(wall.coveredVertices().get(i));
+      }
+    }
+  }
+
+  @Test
+  public void wallPlacementIndex_invalidWalls() {
+    BoardGeometry geometry = BoardGeometry.of(5, 2);
+    assertThat(geometry.wallPlacementIndex(Wall.vertical('a', 1).withLength(3))).isEqualTo(-1);
+    assertThat(geometry.wallPlacementIndex(Wall.vertical('e', 1).withLength(2))).isEqualTo(-1);
+    assertThat(geometry.wallPlacementIndex(Wall.vertical('a', 5).withLength(2))).isEqualTo(-1);
+    assertThat(geometry.wallPlacementIndex(Wall.horizontal('a', 5).withLength(2))).isEqualTo(-1);
+    assertThat(geometry.wallPlacementIndex(Wall.horizontal('e', 1).withLength(2))).isEqualTo(-1);
+    assertThat(geometry.wallPlacementIndex(Wall.horizontal('f', 1).withLength(2))).isEqualTo(-1);
+  }
+
+  @Test
+  public void isGoal() {
+    BoardGeometry geometry = BoardGeometry.of(5, 2);
+    int c1 = geometry.squareIndex(Square.at('c', 1));
+    int c5 = geometry.squareIndex(Square.at('c', 5));
+    int a3 = geometry.squareIndex(Square.at('a', 3));
+    int e3 = geometry.squareIndex(Square.at('e', 3));
+    assertThat(geometry.isGoal(Player.PLAYER1, c1)).isTrue();
+    assertThat(geometry.isGoal(Player.PLAYER1, c5)).isFalse();
+    assertThat(geometry.isGoal(Player.PLAYER2, c5)).isTrue();
+    assertThat(geometry.isGoal(Player.PLAYER2, c1)).isFalse();
+    assertThat(geometry.isGoal(Player.PLAYER3, e3)).isTrue();
+    assertThat(geometry.isGoal(Player.PLAYER3, a3)).isFalse();
+    assertThat(geometry.isGoal(Player.PLAYER4, a3)).isTrue();
+    assertThat(geometry.isGoal(Player.PLAYER4, e3)).isFalse();
+  }
+
+  @Test
+  public void initialSquare() {
+    BoardGeometry geometry = BoardGeometry.of(9, 2);
+    assertThat(geometry.square(geometry.initialSquare(Player.PLAYER1)))
+        .isEqualTo(Square.at('e', 9));
+    assertThat(geometry.square(geometry.initialSquare(Player.PLAYER2)))
+        .isEqualTo(Square.at('e', 1));
+    assertThat(geometry.square(geometry.initialSquare(Player.PLAYER3)))
+        .isEqualTo(Square.at('a', 5));
+    assertThat(geometry.square(geometry.initialSquare(Player.PLAYER4)))
+        .isEqualTo(Square.at('i', 5));
+  }
+
+  @Test
+  public void isMirrorSymmetric_onlyIfAllPlayersAimForRows() {
+    QuoridorSettings twoPlayer = QuoridorSettings.defaultTwoPlayer();
+    assertThat(BoardGeometry.isMirrorSymmetric(twoPlayer)).isTrue();
+    assertThat(BoardGeometry.isMirrorSymmetric(QuoridorSettings.defaultFourPlayer())).isFalse();
+    assertThat(
+            BoardGeometry.isMirrorSymmetric(
+                twoPlayer.toBuilder().setPlayers(Player.PLAYER3, Player.PLAYER4).build()))
+        .isFalse();
+  }
+}
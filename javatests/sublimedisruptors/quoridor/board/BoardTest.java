@@ -1,7 +1,9 @@
 package sublimedisruptors.quoridor.board;
 
 import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
 
+import com.google.common.collect.ImmutableSet;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -67,4 +69,355 @@ public final class BoardTest {
     assertThat(snapshot.walledOffVertices()).containsExactlyElementsIn(wall.coveredVertices());
     assertThat(snapshot.wallsAvailable()).containsExactly(Player.PLAYER1, 1, Player.PLAYER2, 2);
   }
+
+  @Test
+  public void placeWall_isWalledOff() {
+    Board board = Board.createFromSettings(settings.build());
+    board.placeWall(Wall.horizontal('c', 3).withLength(2), Player.PLAYER1);
+    assertThat(board.isWalledOff(Groove.horizontal('c', 3))).isTrue();
+    assertThat(board.isWalledOff(Groove.horizontal('d', 3))).isTrue();
+    assertThat(board.isWalledOff(Vertex.at('c', 3))).isTrue();
+    assertThat(board.isWalledOff(Groove.vertical('c', 3))).isFalse();
+    assertThat(board.isWalledOff(Groove.horizontal('e', 3))).isFalse();
+    assertThat(board.isWalledOff(Vertex.at('d', 3))).isFalse();
+  }
+
+  @Test
+  public void isWalledOff_outsideOfBoard_false() {
+    Board board = Board.createFromSettings(settings.build());
+    assertThat(board.isWalledOff(Groove.horizontal('z', 3))).isFalse();
+    assertThat(board.isWalledOff(Groove.vertical('c', 0))).isFalse();
+    assertThat(board.isWalledOff(Vertex.at('`', 1))).isFalse();
+  }
+
+  @Test
+  public void placeWall_outsideOfBoard_throws() {
+    settings.setBoardSize(3);
+    Board board = Board.createFromSettings(settings.build());
+    assertThrows(() -> board.placeWall(Wall.horizontal('c', 3).withLength(2), Player.PLAYER1));
+  }
+
+  @Test
+  public void pawnAndIsOccupied() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    assertThat(board.pawn(Player.PLAYER1)).isEqualTo(Square.at('e', 9));
+    assertThat(board.pawn(Player.PLAYER2)).isNull();
+    assertThat(board.isOccupied(Square.at('e', 9))).isTrue();
+    assertThat(board.isOccupied(Square.at('e', 8))).isFalse();
+  }
+
+  @Test
+  public void indexQueries_matchGeometry() {
+    QuoridorSettings quoridorSettings = settings.build();
+    BoardGeometry geometry = BoardGeometry.forSettings(quoridorSettings);
+    Board board = Board.createFromSettings(quoridorSettings);
+    Wall wall = Wall.horizontal('c', 4).withLength(2);
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board.placeWall(wall, Player.PLAYER2);
+
+    int placement = geometry.wallPlacementIndex(wall);
+    assertThat(board.pawnIndex(Player.PLAYER1))
+        .isEqualTo(geometry.squareIndex(Square.at('e', 9)));
+    assertThat(board.pawnIndex(Player.PLAYER2)).isEqualTo(-1);
+    assertThat(board.isOccupied(geometry.squareIndex(Square.at('e', 9)))).isTrue();
+    assertThat(board.isOccupied(geometry.squareIndex(Square.at('e', 8)))).isFalse();
+    assertThat(board.isGrooveWalledOff(geometry.coveredGroove(placement, 0))).isTrue();
+    assertThat(board.isGrooveWalledOff(geometry.coveredGroove(placement, 1))).isTrue();
+    assertThat(board.isGrooveWalledOff(geometry.grooveIndex(Groove.vertical('c', 4)))).isFalse();
+    assertThat(board.isVertexWalledOff(geometry.coveredVertex(placement, 0))).isTrue();
+    assertThat(board.wallsAvailable(Player.PLAYER2)).isEqualTo(7);
+    assertThat(board.wallsAvailable(Player.PLAYER3)).isNull();
+
+    board.undo();
+    board.undo();
+    assertThat(board.pawnIndex(Player.PLAYER1)).isEqualTo(-1);
+    assertThat(board.isGrooveWalledOff(geometry.coveredGroove(placement, 0))).isFalse();
+    assertThat(board.isVertexWalledOff(geometry.coveredVertex(placement, 0))).isFalse();
+  }
+
+  @Test
+  public void fromSnapshot_sameState() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board.placeWall(Wall.vertical('a', 1).withLength(2), Player.PLAYER2);
+    board.placeWall(Wall.horizontal('h', 8).withLength(2), Player.PLAYER1);
+    Board copy = Board.fromSnapshot(board.snapshot());
+    assertThat(copy.snapshot()).isEqualTo(board.snapshot());
+    assertThat(copy.isWalledOff(Groove.vertical('a', 2))).isTrue();
+    assertThat(copy.isWalledOff(Vertex.at('h', 8))).isTrue();
+  }
+
+  @Test
+  public void fromSnapshot_independentCopy() {
+    Board board = Board.createFromSettings(settings.build());
+    Board copy = Board.fromSnapshot(board.snapshot());
+    copy.placeWall(Wall.vertical('a', 1).withLength(2), Player.PLAYER2);
+    assertThat(board.isWalledOff(Groove.vertical('a', 1))).isFalse();
+    assertThat(board.snapshot().walledOffGrooves()).isEmpty();
+  }
+
+  @Test
+  public void fromSnapshot_copyPlacesWall_snapshotAndOriginalUnchanged() {
+    Board board = Board.createFromSettings(settings.build());
+    board.placeWall(Wall.vertical('a', 1).withLength(2), Player.PLAYER1);
+    Board.Snapshot snapshot = board.snapshot();
+    Board copy = Board.fromSnapshot(snapshot);
+    copy.placeWall(Wall.horizontal('c', 3).withLength(2), Player.PLAYER2);
+    board.undo();
+    assertThat(snapshot.walledOffGrooves())
+        .containsExactly(Groove.vertical('a', 1), Groove.vertical('a', 2));
+    assertThat(board.isWalledOff(Groove.horizontal('c', 3))).isFalse();
+    assertThat(board.isWalledOff(Groove.vertical('a', 1))).isFalse();
+    assertThat(copy.isWalledOff(Groove.horizontal('c', 3))).isTrue();
+    assertThat(copy.isWalledOff(Groove.vertical('a', 1))).isTrue();
+  }
+
+  @Test
+  public void snapshot_unchangedByLaterWalls() {
+    Board board = Board.createFromSettings(settings.build());
+    board.placeWall(Wall.vertical('a', 1).withLength(2), Player.PLAYER1);
+    Board.Snapshot snapshot = board.snapshot();
+    board.placeWall(Wall.horizontal('c', 3).withLength(2), Player.PLAYER2);
+    board.undo();
+    board.undo();
+    board.placeWall(Wall.horizontal('e', 5).withLength(2), Player.PLAYER1);
+    assertThat(snapshot.walledOffGrooves())
+        .containsExactly(Groove.vertical('a', 1), Groove.vertical('a', 2));
+    assertThat(snapshot.walledOffVertices()).containsExactly(Vertex.at('a', 1));
+    assertThat(snapshot.wallsAvailable()).containsExactly(Player.PLAYER1, 7, Player.PLAYER2, 8);
+  }
+
+  @Test
+  public void snapshot_sharesUnchangedMapsWithPreviousSnapshot() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    Board.Snapshot first = board.snapshot();
+    board.movePawn(Player.PLAYER1, Square.at('e', 8));
+    Board.Snapshot second = board.snapshot();
+    board.placeWall(Wall.vertical('a', 1).withLength(2), Player.PLAYER1);
+    Board.Snapshot third = board.snapshot();
+
+    assertThat(second.wallsAvailable()).isSameAs(first.wallsAvailable());
+    assertThat(second.pawns()).isNotEqualTo(first.pawns());
+    assertThat(third.pawns()).isSameAs(second.pawns());
+    assertThat(third.wallsAvailable()).isNotEqualTo(second.wallsAvailable());
+  }
+
+  @Test
+  public void snapshot_toString() {
+    Board board = Board.createFromSettings(settings.build());
+    board.placeWall(Wall.vertical('a', 1).withLength(2), Player.PLAYER1);
+    assertThat(board.snapshot().toString())
+        .contains("walledOffGrooves=[" + Groove.vertical('a', 1));
+  }
+
+  @Test
+  public void undo_movePawn() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    Board.Snapshot snapshot = board.snapshot();
+    board.movePawn(Player.PLAYER1, Square.at('e', 8));
+    board.undo();
+    assertThat(board.snapshot()).isSameAs(snapshot);
+    assertThat(board.pawn(Player.PLAYER1)).isEqualTo(Square.at('e', 9));
+  }
+
+  @Test
+  public void undo_movePawnNotPreviouslyOnBoard() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER2, Square.at('e', 1));
+    board.undo();
+    assertThat(board.pawn(Player.PLAYER2)).isNull();
+    assertThat(board.snapshot().pawns()).isEmpty();
+  }
+
+  @Test
+  public void undo_placeWall() {
+    settings.setPlayers(Player.PLAYER1, Player.PLAYER2).setWallsPerPlayer(2);
+    Board board = Board.createFromSettings(settings.build());
+    Board.Snapshot snapshot = board.snapshot();
+    board.placeWall(Wall.vertical('a', 1).withLength(2), Player.PLAYER1);
+    board.undo();
+    assertThat(board.snapshot()).isSameAs(snapshot);
+    assertThat(board.isWalledOff(Groove.vertical('a', 1))).isFalse();
+    assertThat(board.isWalledOff(Vertex.at('a', 1))).isFalse();
+    assertThat(board.snapshot().wallsAvailable())
+        .containsExactly(Player.PLAYER1, 2, Player.PLAYER2, 2);
+  }
+
+  @Test
+  public void undo_placeOverlappingWall_keepsExistingWall() {
+    Board board = Board.createFromSettings(settings.build());
+    board.placeWall(Wall.vertical('c', 3).withLength(2), Player.PLAYER1);
+    board.placeWall(Wall.horizontal('c', 3).withLength(2), Player.PLAYER2);
+    board.undo();
+    assertThat(board.isWalledOff(Vertex.at('c', 3))).isTrue();
+    assertThat(board.isWalledOff(Groove.vertical('c', 4))).isTrue();
+    assertThat(board.isWalledOff(Groove.horizontal('c', 3))).isFalse();
+  }
+
+  @Test
+  public void undo_multipleMutations_restoresInReverseOrder() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board.movePawn(Player.PLAYER2, Square.at('e', 1));
+    Board.Snapshot snapshot = Board.fromSnapshot(board.snapshot()).snapshot();
+    for (int i = 0; i < 20; i++) {
+      board.movePawn(Player.PLAYER1, Square.at('e', 8));
+      board.placeWall(Wall.horizontal('a', 1).withLength(2), Player.PLAYER2);
+    }
+    for (int i = 0; i < 40; i++) {
+      board.undo();
+    }
+    assertThat(board.snapshot()).isEqualTo(snapshot);
+  }
+
+  @Test
+  public void undo_nothingToUndo_throws() {
+    Board board = Board.createFromSettings(settings.build());
+    assertThrows(board::undo);
+  }
+
+  @Test
+  public void zobristKey_matchesKeyComputedFromScratch() {
+    Board board = Board.createFromSettings(settings.build());
+    assertThat(board.zobristKey()).isEqualTo(Zobrist.keyOf(board.snapshot()));
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board.movePawn(Player.PLAYER2, Square.at('e', 1));
+    board.placeWall(Wall.vertical('c', 3).withLength(2), Player.PLAYER1);
+    board.movePawn(Player.PLAYER2, Square.at('e', 2));
+    board.placeWall(Wall.horizontal('c', 3).withLength(2), Player.PLAYER2);
+    assertThat(board.zobristKey()).isEqualTo(Zobrist.keyOf(board.snapshot()));
+  }
+
+  @Test
+  public void zobristKey_transpositionsHaveSameKey() {
+    Board board1 = Board.createFromSettings(settings.build());
+    board1.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board1.placeWall(Wall.vertical('c', 3).withLength(2), Player.PLAYER1);
+    board1.movePawn(Player.PLAYER2, Square.at('e', 1));
+    board1.placeWall(Wall.horizontal('f', 5).withLength(2), Player.PLAYER2);
+    Board board2 = Board.createFromSettings(settings.build());
+    board2.movePawn(Player.PLAYER1, Square.at('e', 8));
+    board2.placeWall(Wall.horizontal('f', 5).withLength(2), Player.PLAYER2);
+    board2.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board2.placeWall(Wall.vertical('c', 3).withLength(2), Player.PLAYER1);
+    board2.movePawn(Player.PLAYER2, Square.at('e', 1));
+    board2.placeWall(Wall.horizontal('a', 1).withLength(2), Player.PLAYER2);
+    board2.undo();
+    board2.placeWall(Wall.horizontal('f', 5).withLength(2), Player.PLAYER1);
+    board2.undo();
+    assertThat(board2.zobristKey()).isEqualTo(board1.zobristKey());
+    assertThat(board2.snapshot()).isEqualTo(board1.snapshot());
+  }
+
+  @Test
+  public void zobristKey_differentPositionsHaveDifferentKeys() {
+    Board board = Board.createFromSettings(settings.build());
+    long emptyKey = board.zobristKey();
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    long pawnKey = board.zobristKey();
+    board.movePawn(Player.PLAYER1, Square.at('e', 8));
+    long movedPawnKey = board.zobristKey();
+    board.placeWall(Wall.vertical('c', 3).withLength(2), Player.PLAYER1);
+    long wallKey = board.zobristKey();
+    board.movePawn(Player.PLAYER2, Square.at('e', 1));
+    board.movePawn(Player.PLAYER1, Square.at('e', 8));
+    long secondPawnKey = board.zobristKey();
+    assertThat(ImmutableSet.of(emptyKey, pawnKey, movedPawnKey, wallKey, secondPawnKey))
+        .hasSize(5);
+  }
+
+  @Test
+  public void zobristKey_restoredByUndo() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    long key = board.zobristKey();
+    board.placeWall(Wall.vertical('c', 3).withLength(2), Player.PLAYER2);
+    board.movePawn(Player.PLAYER1, Square.at('e', 8));
+    board.undo();
+    board.undo();
+    assertThat(board.zobristKey()).isEqualTo(key);
+  }
+
+  @Test
+  public void zobristKey_exposedOnSnapshotAndPreservedByCopy() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board.placeWall(Wall.vertical('c', 3).withLength(2), Player.PLAYER2);
+    Board.Snapshot snapshot = board.snapshot();
+    assertThat(snapshot.zobristKey()).isEqualTo(board.zobristKey());
+    assertThat(snapshot.lastMover()).isEqualTo(Player.PLAYER2);
+    Board copy = Board.fromSnapshot(snapshot);
+    copy.movePawn(Player.PLAYER1, Square.at('e', 8));
+    board.movePawn(Player.PLAYER1, Square.at('e', 8));
+    assertThat(copy.zobristKey()).isEqualTo(board.zobristKey());
+  }
+
+  @Test
+  public void mirroredZobristKey_matchesKeyOfMirrorImage() {
+    Board board = Board.createFromSettings(settings.build());
+    assertThat(board.mirroredZobristKey()).isEqualTo(board.zobristKey());
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board.movePawn(Player.PLAYER2, Square.at('e', 1));
+    board.placeWall(Wall.vertical('c', 3).withLength(2), Player.PLAYER1);
+    board.movePawn(Player.PLAYER2, Square.at('d', 1));
+    board.placeWall(Wall.horizontal('a', 7).withLength(2), Player.PLAYER2);
+    board.placeWall(Wall.horizontal('g', 7).withLength(2), Player.PLAYER1);
+    board.undo();
+    Board.Snapshot mirror = board.snapshot().mirror();
+    assertThat(board.mirroredZobristKey()).isEqualTo(Zobrist.keyOf(mirror));
+    assertThat(mirror.zobristKey()).isEqualTo(board.mirroredZobristKey());
+    assertThat(mirror.mirroredZobristKey()).isEqualTo(board.zobristKey());
+    assertThat(Board.fromSnapshot(mirror).mirroredZobristKey()).isEqualTo(board.zobristKey());
+  }
+
+  @Test
+  public void mirror_reflectsPawnsAndWalls() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER1, Square.at('c', 8));
+    board.placeWall(Wall.vertical('a', 3).withLength(2), Player.PLAYER2);
+    board.placeWall(Wall.horizontal('b', 5).withLength(2), Player.PLAYER1);
+    Board mirror = Board.createFromSettings(settings.build());
+    mirror.movePawn(Player.PLAYER1, Square.at('g', 8));
+    mirror.placeWall(Wall.vertical('h', 3).withLength(2), Player.PLAYER2);
+    mirror.placeWall(Wall.horizontal('g', 5).withLength(2), Player.PLAYER1);
+
+    assertThat(board.snapshot().mirror()).isEqualTo(mirror.snapshot());
+    assertThat(board.snapshot().mirror().mirror()).isEqualTo(board.snapshot());
+  }
+
+  @Test
+  public void canonical_sameForPositionAndMirrorImage() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER1, Square.at('c', 8));
+    board.placeWall(Wall.horizontal('b', 5).withLength(2), Player.PLAYER1);
+    Board.Snapshot snapshot = board.snapshot();
+    Board.Snapshot mirror = snapshot.mirror();
+
+    assertThat(snapshot.canonical()).isEqualTo(mirror.canonical());
+    assertThat(snapshot.isCanonical()).isNotEqualTo(mirror.isCanonical());
+    assertThat(board.canonicalZobristKey()).isEqualTo(snapshot.canonical().zobristKey());
+  }
+
+  @Test
+  public void canonical_symmetricPosition_isItself() {
+    Board board = Board.createFromSettings(settings.build());
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board.movePawn(Player.PLAYER2, Square.at('e', 1));
+    board.placeWall(Wall.horizontal('a', 5).withLength(2), Player.PLAYER1);
+    board.placeWall(Wall.horizontal('h', 5).withLength(2), Player.PLAYER2);
+
+    assertThat(board.mirroredZobristKey()).isEqualTo(board.zobristKey());
+    assertThat(board.snapshot().isCanonical()).isTrue();
+    assertThat(board.snapshot().canonical()).isSameAs(board.snapshot());
+  }
+
+  @Test
+  public void mirror_wallOnRightEdge_throws() {
+    Board board = Board.createFromSettings(settings.build());
+    board.placeWall(Wall.vertical('i', 1).withLength(2), Player.PLAYER1);
+    assertThrows(() -> board.snapshot().mirror());
+  }
 }
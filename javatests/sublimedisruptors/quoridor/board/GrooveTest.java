@@ -25,5 +25,11 @@ public final class GrooveTest {
     assertThat(groove).isLocatedAt('c', 3);
     assertThat(groove.orientation()).isEqualTo(Orientation.HORIZONTAL);
   }
-}
 
+  @Test
+  public void sameInstance() {
+    assertThat(Groove.vertical('c', 3)).isSameAs(Groove.vertical('c', 3));
+    assertThat(Groove.vertical('c', 3)).isNotSameAs(Groove.horizontal('c', 3));
+    assertThat(Groove.horizontal('~', 100)).isSameAs(Groove.horizontal('~', 100));
+  }
+}
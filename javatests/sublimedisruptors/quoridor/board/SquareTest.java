@@ -84,4 +84,17 @@ public final class SquareTest {
     Square square = Square.at('c', 3);
     assertThrows(() -> square.adjacentSquare(null));
   }
+
+  @Test
+  public void at_sameInstance() {
+    assertThat(Square.at('c', 3)).isSameAs(Square.at('c', 3));
+    assertThat(Square.at('`', 0)).isSameAs(Square.at('`', 0));
+  }
+
+  @Test
+  public void at_outsideCachedRange_sameInstance() {
+    Square square = Square.at('~', 100);
+    assertThat(square).isLocatedAt('~', 100);
+    assertThat(square).isSameAs(Square.at('~', 100));
+  }
 }
@@ -15,5 +15,10 @@ public final class VertexTest {
     Vertex vertex = Vertex.at('c', 3);
     assertThat(vertex).isLocatedAt('c', 3);
   }
-}
 
+  @Test
+  public void at_sameInstance() {
+    assertThat(Vertex.at('c', 3)).isSameAs(Vertex.at('c', 3));
+    assertThat(Vertex.at('~', -5)).isSameAs(Vertex.at('~', -5));
+  }
+}
@@ -2,7 +2,11 @@ package sublimedisruptors.quoridor.board;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -70,4 +74,33 @@ public final class WallTest {
     List<Vertex> coveredVertices = wall.coveredVertices();
     assertThat(coveredVertices).containsExactly(Vertex.at('c', 3), Vertex.at('d', 3));
   }
+
+  @Test
+  public void withLength_sameInstance() {
+    assertThat(Wall.vertical('c', 3).withLength(2)).isSameAs(Wall.vertical('c', 3).withLength(2));
+    assertThat(Wall.vertical('c', 3).withLength(2))
+        .isNotSameAs(Wall.horizontal('c', 3).withLength(2));
+    assertThat(Wall.vertical('c', 3).withLength(2))
+        .isNotSameAs(Wall.vertical('c', 3).withLength(3));
+    assertThat(Wall.horizontal('a', 1).withLength(40))
+        .isSameAs(Wall.horizontal('a', 1).withLength(40));
+    assertThat(Wall.horizontal('~', 100).withLength(2))
+        .isSameAs(Wall.horizontal('~', 100).withLength(2));
+  }
+
+  @Test
+  public void withLength_concurrentCallers_sameInstance() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Wall>> walls = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        walls.add(executor.submit(() -> Wall.horizontal('f', 6).withLength(4)));
+      }
+      for (Future<Wall> wall : walls) {
+        assertThat(wall.get()).isSameAs(Wall.horizontal('f', 6).withLength(4));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
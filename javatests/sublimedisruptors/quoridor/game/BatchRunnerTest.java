@@ -0,0 +1,217 @@
+package sublimedisruptors.quoridor.game;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Direction;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.player.QuoridorPlayer;
+
+/** Tests for {@link BatchRunner}. */
+@RunWith(JUnit4.class)
+public final class BatchRunnerTest {
+
+  private static final QuoridorSettings SETTINGS = QuoridorSettings.defaultTwoPlayer();
+
+  /** Advances toward the opposite side of the board. */
+  private static final QuoridorPlayer.Factory FORWARD =
+      (self, settings) -> mover(self, self == Player.PLAYER1 ? Direction.UP : Direction.DOWN);
+
+  /** Shuffles between the two squares beside its starting square. */
+  private static final QuoridorPlayer.Factory SIDEWAYS =
+      (self, settings) ->
+          (board, validPawnMoves) ->
+              pawnMove(
+                  board,
+                  self,
+                  board.pawns().get(self).column() == 'e' ? Direction.LEFT : Direction.RIGHT);
+
+  /** Makes a uniformly random pawn move. */
+  private static final BatchRunner.SeededFactory RANDOM =
+      (self, settings, seed) -> {
+        Random random = new Random(seed + self.ordinal());
+        return (board, validPawnMoves) ->
+            validPawnMoves.asList().get(random.nextInt(validPawnMoves.size()));
+      };
+
+  @Test
+  public void run_aggregatesWinsAndLosses() {
+    BatchResult result =
+        BatchRunner.create(
+                SETTINGS, ImmutableMap.of(Player.PLAYER1, FORWARD, Player.PLAYER2, SIDEWAYS))
+            .run(10, 0);
+
+    assertThat(result.games()).hasSize(10);
+    assertThat(result.wins(Player.PLAYER1)).isEqualTo(10);
+    assertThat(result.losses(Player.PLAYER1)).isEqualTo(0);
+    assertThat(result.wins(Player.PLAYER2)).isEqualTo(0);
+    assertThat(result.losses(Player.PLAYER2)).isEqualTo(10);
+    assertThat(result.draws()).isEqualTo(0);
+    // Player 1 needs 8 moves, and player 2 moves in between.
+    assertThat(result.averagePlies()).isEqualTo(15.0);
+    assertThat(result.gamesPerSecond()).isGreaterThan(0.0);
+  }
+
+  @Test
+  public void run_gamesAreNumberedInOrder() {
+    BatchResult result =
+        BatchRunner.createSeeded(
+                SETTINGS, ImmutableMap.of(Player.PLAYER1, RANDOM, Player.PLAYER2, RANDOM), 3, 50)
+            .run(20, 42);
+
+    for (int i = 0; i < 20; i++) {
+      assertThat(result.games().get(i).index()).isEqualTo(i);
+      assertThat(result.games().get(i).seed()).isEqualTo(BatchRunner.gameSeed(42, i));
+    }
+  }
+
+  @Test
+  public void run_maxPliesReached_draws() {
+    BatchResult result =
+        BatchRunner.createSeeded(
+                SETTINGS,
+                ImmutableMap.of(
+                    Player.PLAYER1, unseeded(SIDEWAYS), Player.PLAYER2, unseeded(SIDEWAYS)),
+                2,
+                10)
+            .run(4, 0);
+
+    assertThat(result.draws()).isEqualTo(4);
+    assertThat(result.wins(Player.PLAYER1)).isEqualTo(0);
+    assertThat(result.losses(Player.PLAYER1)).isEqualTo(0);
+    assertThat(result.averagePlies()).isEqualTo(10.0);
+    for (BatchResult.GameOutcome game : result.games()) {
+      assertThat(game.isDrawn()).isTrue();
+      assertThat(game.winner()).isNull();
+    }
+  }
+
+  @Test
+  public void run_illegalMove_forfeits() {
+    QuoridorPlayer.Factory illegal =
+        (self, settings) -> (board, validPawnMoves) -> Move.pawnMove(self, Square.at('z', -1));
+    BatchResult result =
+        BatchRunner.create(
+                SETTINGS, ImmutableMap.of(Player.PLAYER1, FORWARD, Player.PLAYER2, illegal))
+            .run(5, 0);
+
+    assertThat(result.forfeits(Player.PLAYER2)).isEqualTo(5);
+    assertThat(result.losses(Player.PLAYER2)).isEqualTo(5);
+    assertThat(result.forfeits(Player.PLAYER1)).isEqualTo(0);
+    assertThat(result.wins(Player.PLAYER1)).isEqualTo(0);
+    assertThat(result.draws()).isEqualTo(0);
+    assertThat(result.averagePlies()).isEqualTo(1.0);
+  }
+
+  @Test
+  public void run_sameSeed_sameOutcomesRegardlessOfThreads() {
+    ImmutableMap<Player, BatchRunner.SeededFactory> factories =
+        ImmutableMap.of(Player.PLAYER1, RANDOM, Player.PLAYER2, RANDOM);
+
+    BatchResult oneThread = BatchRunner.createSeeded(SETTINGS, factories, 1, 200).run(16, 7);
+    BatchResult fourThreads = BatchRunner.createSeeded(SETTINGS, factories, 4, 200).run(16, 7);
+
+    assertThat(fourThreads.games()).isEqualTo(oneThread.games());
+  }
+
+  @Test
+  public void run_suppliedExecutor_playsEachRunOnNewExecutorAndShutsItDown() {
+    ImmutableMap<Player, BatchRunner.SeededFactory> factories =
+        ImmutableMap.of(Player.PLAYER1, RANDOM, Player.PLAYER2, RANDOM);
+    List<ExecutorService> executors = new ArrayList<>();
+    BatchRunner runner =
+        BatchRunner.createSeeded(
+            SETTINGS,
+            factories,
+            () -> {
+              ExecutorService executor = Executors.newSingleThreadExecutor();
+              executors.add(executor);
+              return executor;
+            },
+            200);
+
+    BatchResult first = runner.run(16, 7);
+    BatchResult second = runner.run(16, 7);
+
+    assertThat(executors).hasSize(2);
+    assertThat(executors.get(0).isShutdown()).isTrue();
+    assertThat(executors.get(1).isShutdown()).isTrue();
+    assertThat(second.games()).isEqualTo(first.games());
+    assertThat(first.games())
+        .isEqualTo(BatchRunner.createSeeded(SETTINGS, factories, 4, 200).run(16, 7).games());
+  }
+
+  @Test
+  public void run_zeroGames() {
+    BatchResult result =
+        BatchRunner.create(
+                SETTINGS, ImmutableMap.of(Player.PLAYER1, FORWARD, Player.PLAYER2, FORWARD))
+            .run(0, 0);
+
+    assertThat(result.games()).isEmpty();
+    assertThat(result.averagePlies()).isEqualTo(0.0);
+  }
+
+  @Test
+  public void run_playerThrows_throws() {
+    QuoridorPlayer.Factory broken =
+        (self, settings) ->
+            (board, validPawnMoves) -> {
+              throw new UnsupportedOperationException();
+            };
+    BatchRunner runner =
+        BatchRunner.create(
+            SETTINGS, ImmutableMap.of(Player.PLAYER1, broken, Player.PLAYER2, FORWARD));
+
+    assertThrows(() -> runner.run(3, 0));
+  }
+
+  @Test
+  public void gameSeed_distinct() {
+    Set<Long> seeds = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      seeds.add(BatchRunner.gameSeed(0, i));
+      seeds.add(BatchRunner.gameSeed(1, i));
+    }
+    assertThat(seeds).hasSize(2000);
+  }
+
+  @Test
+  public void create_invalidArguments_throws() {
+    ImmutableMap<Player, BatchRunner.SeededFactory> factories =
+        ImmutableMap.of(Player.PLAYER1, RANDOM, Player.PLAYER2, RANDOM);
+    assertThrows(
+        () -> BatchRunner.createSeeded(SETTINGS, ImmutableMap.of(Player.PLAYER1, RANDOM), 1, 10));
+    assertThrows(() -> BatchRunner.createSeeded(SETTINGS, factories, 0, 10));
+    assertThrows(() -> BatchRunner.createSeeded(SETTINGS, factories, null, 10));
+    assertThrows(() -> BatchRunner.createSeeded(SETTINGS, factories, 1, 0));
+    assertThrows(() -> BatchRunner.createSeeded(SETTINGS, factories, 1, 10).run(-1, 0));
+  }
+
+  private static BatchRunner.SeededFactory unseeded(QuoridorPlayer.Factory factory) {
+    return (self, settings, seed) -> factory.createPlayer(self, settings);
+  }
+
+  private static QuoridorPlayer mover(Player self, Direction direction) {
+    return (board, validPawnMoves) -> pawnMove(board, self, direction);
+  }
+
+  private static Move pawnMove(Board.Snapshot board, Player self, Direction direction) {
+    return Move.pawnMove(self, board.pawns().get(self).adjacentSquare(direction));
+  }
+}
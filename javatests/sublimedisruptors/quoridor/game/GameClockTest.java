@@ -0,0 +1,66 @@
+package sublimedisruptors.quoridor.game;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import java.time.Duration;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link GameClock}. */
+@RunWith(JUnit4.class)
+public final class GameClockTest {
+
+  private final GameClock.Builder customClock =
+      GameClock.builder()
+          .setInitialTime(Duration.ofMinutes(5))
+          .setIncrement(Duration.ofSeconds(3))
+          .setMoveLimit(Duration.ofSeconds(30))
+          .setTimeoutAction(GameClock.TimeoutAction.MOVE_TOWARD_GOAL);
+
+  @Test
+  public void fischer_valid() {
+    GameClock clock = GameClock.fischer(Duration.ofMinutes(1), Duration.ofSeconds(1));
+    assertThat(clock.initialTime()).isEqualTo(Duration.ofMinutes(1));
+    assertThat(clock.increment()).isEqualTo(Duration.ofSeconds(1));
+    assertThat(clock.moveLimit()).isEqualTo(GameClock.NO_MOVE_LIMIT);
+    assertThat(clock.timeoutAction()).isEqualTo(GameClock.TimeoutAction.FORFEIT);
+  }
+
+  @Test
+  public void customClock_valid() {
+    GameClock clock = customClock.build();
+    assertThat(clock.moveLimit()).isEqualTo(Duration.ofSeconds(30));
+    assertThat(clock.timeoutAction()).isEqualTo(GameClock.TimeoutAction.MOVE_TOWARD_GOAL);
+  }
+
+  @Test
+  public void initialTimeNotSet_invalid() {
+    assertThrows(GameClock.builder()::build);
+  }
+
+  @Test
+  public void initialTimeZero_invalid() {
+    customClock.setInitialTime(Duration.ZERO);
+    assertThrows(customClock::build);
+  }
+
+  @Test
+  public void incrementNegative_invalid() {
+    customClock.setIncrement(Duration.ofSeconds(-1));
+    assertThrows(customClock::build);
+  }
+
+  @Test
+  public void incrementZero_valid() {
+    customClock.setIncrement(Duration.ZERO);
+    assertThat(customClock.build().increment()).isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  public void moveLimitZero_invalid() {
+    customClock.setMoveLimit(Duration.ZERO);
+    assertThrows(customClock::build);
+  }
+}
@@ -6,6 +6,16 @@ import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -14,13 +24,26 @@ import sublimedisruptors.quoridor.QuoridorSettings;
 import sublimedisruptors.quoridor.board.Board;
 import sublimedisruptors.quoridor.board.Direction;
 import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
 import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.player.AsyncQuoridorPlayer;
 import sublimedisruptors.quoridor.player.QuoridorPlayer;
+import sublimedisruptors.quoridor.record.GameRecordReader;
+import sublimedisruptors.quoridor.record.GameRecordWriter;
 
 /** Tests for {@link GameMaster}. */
 @RunWith(JUnit4.class)
 public final class GameMasterTest {
 
+  private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void shutDownExecutors() {
+    timer.shutdownNow();
+    executor.shutdownNow();
+  }
+
   @Test
   public void twoPlayerGame_player1Wins() {
     GameMaster gameMaster =
@@ -45,6 +68,41 @@ public final class GameMasterTest {
     assertThat(winner).isEqualTo(Player.PLAYER2);
   }
 
+  @Test
+  public void twoPlayerGame_countsPlies() {
+    GameMaster gameMaster =
+        GameMaster.setUpGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1, SmartPlayer.FACTORY, Player.PLAYER2, DumbPlayer.FACTORY));
+    gameMaster.playGame();
+    assertThat(gameMaster.getPlyCount()).isEqualTo(15);
+    assertThat(gameMaster.isDrawn()).isFalse();
+  }
+
+  @Test
+  public void maxPliesReached_drawn() {
+    GameMaster gameMaster =
+        GameMaster.setUpGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1, DumbPlayer.FACTORY, Player.PLAYER2, DumbPlayer.FACTORY));
+    gameMaster.playGame(10);
+    assertThat(gameMaster.isDrawn()).isTrue();
+    assertThat(gameMaster.getPlyCount()).isEqualTo(10);
+    assertThrows(gameMaster::getWinner);
+  }
+
+  @Test
+  public void maxPliesNotPositive_throws() {
+    GameMaster gameMaster =
+        GameMaster.setUpGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1, DumbPlayer.FACTORY, Player.PLAYER2, SmartPlayer.FACTORY));
+    assertThrows(() -> gameMaster.playGame(0));
+  }
+
   @Test
   public void playerRequestsIllegalMove_throws() {
     QuoridorPlayer illegalMovePlayer =
@@ -102,6 +160,329 @@ public final class GameMasterTest {
                     Player.PLAYER1, DumbPlayer.FACTORY, Player.PLAYER2, (self, settings) -> null)));
   }
 
+  @Test
+  public void recordTo_recordsEveryMove() throws Exception {
+    GameMaster gameMaster =
+        GameMaster.setUpGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1, SmartPlayer.FACTORY, Player.PLAYER2, DumbPlayer.FACTORY));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    gameMaster.recordTo(GameRecordWriter.start(out, QuoridorSettings.defaultTwoPlayer()));
+    gameMaster.playGame();
+
+    GameRecordReader reader = GameRecordReader.open(new ByteArrayInputStream(out.toByteArray()));
+    Board board = reader.replay();
+    assertThat(reader.moveCount()).isEqualTo(15);
+    assertThat(board.pawn(Player.PLAYER1).row()).isEqualTo(1);
+  }
+
+  @Test
+  public void recordTo_illegalMove_endsRecord() throws Exception {
+    GameMaster gameMaster =
+        GameMaster.setUpGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1,
+                SmartPlayer.FACTORY,
+                Player.PLAYER2,
+                (self, settings) ->
+                    (board, validPawnMoves) -> Move.pawnMove(self, Square.at('z', -1))));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    gameMaster.recordTo(GameRecordWriter.start(out, QuoridorSettings.defaultTwoPlayer()));
+    assertThrows(gameMaster::playGame);
+
+    GameRecordReader reader = GameRecordReader.open(new ByteArrayInputStream(out.toByteArray()));
+    reader.replay();
+    assertThat(reader.moveCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void asyncGame_player1Wins() throws Exception {
+    GameMaster gameMaster =
+        GameMaster.setUpAsyncGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1,
+                AsyncQuoridorPlayer.factoryOnExecutor(SmartPlayer.FACTORY, executor),
+                Player.PLAYER2,
+                AsyncQuoridorPlayer.factoryOnExecutor(DumbPlayer.FACTORY, executor)));
+    gameMaster
+        .playGameAsync(GameClock.fischer(Duration.ofMinutes(1), Duration.ZERO), timer)
+        .get(10, TimeUnit.SECONDS);
+    assertThat(gameMaster.getWinner()).isEqualTo(Player.PLAYER1);
+    assertThat(gameMaster.getPlyCount()).isEqualTo(15);
+    assertThat(gameMaster.getRemainingTime(Player.PLAYER1)).isGreaterThan(Duration.ZERO);
+  }
+
+  @Test
+  public void asyncGame_addsIncrement() throws Exception {
+    GameMaster gameMaster =
+        GameMaster.setUpGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1, SmartPlayer.FACTORY, Player.PLAYER2, DumbPlayer.FACTORY));
+    gameMaster
+        .playGameAsync(GameClock.fischer(Duration.ofSeconds(10), Duration.ofSeconds(10)), timer)
+        .get(10, TimeUnit.SECONDS);
+    assertThat(gameMaster.getWinner()).isEqualTo(Player.PLAYER1);
+    // Eight moves, each taking much less than the ten second increment.
+    assertThat(gameMaster.getRemainingTime(Player.PLAYER1)).isGreaterThan(Duration.ofSeconds(80));
+    assertThat(gameMaster.getRemainingTime(Player.PLAYER2)).isGreaterThan(Duration.ofSeconds(70));
+  }
+
+  @Test
+  public void asyncGame_maxPliesReached_drawn() throws Exception {
+    GameMaster gameMaster =
+        GameMaster.setUpGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1, DumbPlayer.FACTORY, Player.PLAYER2, DumbPlayer.FACTORY));
+    gameMaster
+        .playGameAsync(GameClock.fischer(Duration.ofMinutes(1), Duration.ZERO), 10, timer)
+        .get(10, TimeUnit.SECONDS);
+    assertThat(gameMaster.isDrawn()).isTrue();
+    assertThat(gameMaster.getPlyCount()).isEqualTo(10);
+  }
+
+  @Test
+  public void asyncGame_moveNeverArrives_forfeits() throws Exception {
+    CompletableFuture<Move> neverCompletes = new CompletableFuture<>();
+    GameMaster gameMaster =
+        GameMaster.setUpAsyncGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1,
+                (self, settings) -> (board, validPawnMoves) -> neverCompletes,
+                Player.PLAYER2,
+                AsyncQuoridorPlayer.factoryOnExecutor(DumbPlayer.FACTORY, executor)));
+    ExecutionException e =
+        expectExecutionException(
+            gameMaster.playGameAsync(
+                GameClock.fischer(Duration.ofMillis(20), Duration.ZERO), timer));
+    assertThat(e.getCause()).isInstanceOf(MoveTimeoutException.class);
+    assertThat(((MoveTimeoutException) e.getCause()).player()).isEqualTo(Player.PLAYER1);
+    assertThat(neverCompletes.isCancelled()).isTrue();
+    assertThrows(gameMaster::getWinner);
+  }
+
+  @Test
+  public void asyncGame_slowBlockingPlayer_exceedsMoveLimit_forfeits() throws Exception {
+    QuoridorPlayer.Factory slowPlayer =
+        (self, settings) -> {
+          QuoridorPlayer smartPlayer = SmartPlayer.FACTORY.createPlayer(self, settings);
+          return (board, validPawnMoves) -> {
+            try {
+              Thread.sleep(50);
+            } catch (InterruptedException e) {
+              throw new IllegalStateException(e);
+            }
+            return smartPlayer.getMove(board, validPawnMoves);
+          };
+        };
+    GameMaster gameMaster =
+        GameMaster.setUpGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(Player.PLAYER1, DumbPlayer.FACTORY, Player.PLAYER2, slowPlayer));
+    GameClock clock =
+        GameClock.builder()
+            .setInitialTime(Duration.ofMinutes(1))
+            .setMoveLimit(Duration.ofMillis(10))
+            .build();
+    ExecutionException e = expectExecutionException(gameMaster.playGameAsync(clock, timer));
+    assertThat(((MoveTimeoutException) e.getCause()).player()).isEqualTo(Player.PLAYER2);
+    assertThat(gameMaster.getPlyCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void asyncGame_timeout_movesTowardGoal() throws Exception {
+    GameMaster gameMaster =
+        GameMaster.setUpAsyncGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1,
+                (self, settings) -> (board, validPawnMoves) -> new CompletableFuture<>(),
+                Player.PLAYER2,
+                AsyncQuoridorPlayer.factoryOnExecutor(DumbPlayer.FACTORY, executor)));
+    GameClock clock =
+        GameClock.builder()
+            .setInitialTime(Duration.ofMinutes(1))
+            .setMoveLimit(Duration.ofMillis(20))
+            .setTimeoutAction(GameClock.TimeoutAction.MOVE_TOWARD_GOAL)
+            .build();
+    gameMaster.playGameAsync(clock, timer).get(10, TimeUnit.SECONDS);
+    assertThat(gameMaster.getWinner()).isEqualTo(Player.PLAYER1);
+    assertThat(gameMaster.getPlyCount()).isEqualTo(15);
+  }
+
+  @Test
+  public void asyncGame_timeout_movesTowardGoal_chargesMoveLimit() throws Exception {
+    GameMaster gameMaster =
+        GameMaster.setUpAsyncGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1,
+                (self, settings) -> (board, validPawnMoves) -> new CompletableFuture<>(),
+                Player.PLAYER2,
+                AsyncQuoridorPlayer.factoryOnExecutor(DumbPlayer.FACTORY, executor)));
+    GameClock clock =
+        GameClock.builder()
+            .setInitialTime(Duration.ofMinutes(1))
+            .setIncrement(Duration.ofSeconds(5))
+            .setMoveLimit(Duration.ofMillis(20))
+            .setTimeoutAction(GameClock.TimeoutAction.MOVE_TOWARD_GOAL)
+            .build();
+    gameMaster.playGameAsync(clock, timer).get(10, TimeUnit.SECONDS);
+    assertThat(gameMaster.getWinner()).isEqualTo(Player.PLAYER1);
+    // Each of the eight moves made for player 1 is charged the 20 ms move limit, not its bank.
+    assertThat(gameMaster.getRemainingTime(Player.PLAYER1))
+        .isEqualTo(Duration.ofSeconds(100).minusMillis(8 * 20));
+  }
+
+  @Test
+  public void asyncGame_timeout_noValidPawnMove_forfeits() throws Exception {
+    /*
+     *                 a   b   c
+     *               -------------
+     *             1 |   | 2 |   |
+     *               ----+++++++++
+     *             2 | 3 | 1 | 4 |
+     *               ----+++++++++
+     *             3 |   |   |   |
+     *               -------------
+     *                 a   b   c
+     */
+    ImmutableMap<Player, Move> moves =
+        ImmutableMap.of(
+            Player.PLAYER1, Move.pawnMove(Player.PLAYER1, Square.at('b', 2)),
+            Player.PLAYER2, Move.wallMove(Player.PLAYER2, Wall.horizontal('b', 1).withLength(2)),
+            Player.PLAYER3, Move.wallMove(Player.PLAYER3, Wall.horizontal('b', 2).withLength(2)));
+    AsyncQuoridorPlayer.Factory scripted =
+        (self, settings) ->
+            (board, validPawnMoves) ->
+                moves.containsKey(self)
+                    ? CompletableFuture.completedFuture(moves.get(self))
+                    : new CompletableFuture<>();
+    GameMaster gameMaster =
+        GameMaster.setUpAsyncGame(
+            QuoridorSettings.defaultFourPlayer().toBuilder().setBoardSize(3).build(),
+            ImmutableMap.of(
+                Player.PLAYER1, scripted,
+                Player.PLAYER2, scripted,
+                Player.PLAYER3, scripted,
+                Player.PLAYER4, scripted));
+    GameClock clock =
+        GameClock.builder()
+            .setInitialTime(Duration.ofMinutes(1))
+            .setMoveLimit(Duration.ofMillis(20))
+            .setTimeoutAction(GameClock.TimeoutAction.MOVE_TOWARD_GOAL)
+            .build();
+    ExecutionException e = expectExecutionException(gameMaster.playGameAsync(clock, timer));
+    assertThat(e.getCause()).isInstanceOf(MoveTimeoutException.class);
+    assertThat(((MoveTimeoutException) e.getCause()).player()).isEqualTo(Player.PLAYER4);
+    assertThat(gameMaster.getPlyCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void asyncGames_sharingTimer_slowPlayerDoesNotDelayOtherTimeouts() throws Exception {
+    // In the first game, player 2 thinks on whichever thread continues the game after player 1
+    // times out. That must not be the timer, which is also due to time out the second game.
+    QuoridorPlayer.Factory slowPlayer =
+        (self, settings) -> {
+          QuoridorPlayer dumbPlayer = DumbPlayer.FACTORY.createPlayer(self, settings);
+          return (board, validPawnMoves) -> {
+            try {
+              Thread.sleep(2000);
+            } catch (InterruptedException e) {
+              throw new IllegalStateException(e);
+            }
+            return dumbPlayer.getMove(board, validPawnMoves);
+          };
+        };
+    GameMaster slowGame =
+        GameMaster.setUpAsyncGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1,
+                (self, settings) -> (board, validPawnMoves) -> new CompletableFuture<>(),
+                Player.PLAYER2,
+                (self, settings) ->
+                    AsyncQuoridorPlayer.blocking(slowPlayer.createPlayer(self, settings))));
+    GameMaster stalledGame =
+        GameMaster.setUpAsyncGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1,
+                (self, settings) -> (board, validPawnMoves) -> new CompletableFuture<>(),
+                Player.PLAYER2,
+                AsyncQuoridorPlayer.factoryOnExecutor(DumbPlayer.FACTORY, executor)));
+
+    long start = System.nanoTime();
+    slowGame.playGameAsync(
+        GameClock.builder()
+            .setInitialTime(Duration.ofMinutes(1))
+            .setMoveLimit(Duration.ofMillis(10))
+            .setTimeoutAction(GameClock.TimeoutAction.MOVE_TOWARD_GOAL)
+            .build(),
+        2,
+        timer,
+        executor);
+    ExecutionException e =
+        expectExecutionException(
+            stalledGame.playGameAsync(
+                GameClock.builder()
+                    .setInitialTime(Duration.ofMinutes(1))
+                    .setMoveLimit(Duration.ofMillis(100))
+                    .build(),
+                timer));
+    assertThat(e.getCause()).isInstanceOf(MoveTimeoutException.class);
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+  }
+
+  @Test
+  public void asyncGame_playerFails_completesExceptionally() throws Exception {
+    GameMaster gameMaster =
+        GameMaster.setUpAsyncGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1,
+                (self, settings) ->
+                    (board, validPawnMoves) -> {
+                      CompletableFuture<Move> move = new CompletableFuture<>();
+                      move.completeExceptionally(new UnsupportedOperationException());
+                      return move;
+                    },
+                Player.PLAYER2,
+                AsyncQuoridorPlayer.factoryOnExecutor(DumbPlayer.FACTORY, executor)));
+    ExecutionException e =
+        expectExecutionException(
+            gameMaster.playGameAsync(
+                GameClock.fischer(Duration.ofMinutes(1), Duration.ZERO), timer));
+    assertThat(e.getCause()).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void asyncGame_playTwice_throws() {
+    GameMaster gameMaster =
+        GameMaster.setUpGame(
+            QuoridorSettings.defaultTwoPlayer(),
+            ImmutableMap.of(
+                Player.PLAYER1, DumbPlayer.FACTORY, Player.PLAYER2, SmartPlayer.FACTORY));
+    gameMaster.playGame();
+    GameClock clock = GameClock.fischer(Duration.ofMinutes(1), Duration.ZERO);
+    assertThrows(() -> gameMaster.playGameAsync(clock, timer));
+  }
+
+  private static ExecutionException expectExecutionException(CompletableFuture<Void> game)
+      throws Exception {
+    try {
+      game.get(10, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      return e;
+    }
+    throw new AssertionError("Game completed normally");
+  }
+
   /** A player that advances toward its goal. */
   private static final class SmartPlayer implements QuoridorPlayer {
 
@@ -0,0 +1,112 @@
+package sublimedisruptors.quoridor.move;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.board.Groove;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+
+/** Tests for {@link BridgeFinder}. */
+@RunWith(JUnit4.class)
+public final class BridgeFinderTest {
+
+  private Board board;
+  private BoardGeometry geometry;
+  private BridgeFinder bridgeFinder;
+
+  @Test
+  public void noWalls_noSeparatingGrooves() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5));
+    board.movePawn(Player.PLAYER1, Square.at('c', 5));
+    assertThat(bridgeFinder.analyze(Player.PLAYER1, board)).isTrue();
+    for (int groove = 0; groove < geometry.grooveCount(); groove++) {
+      assertThat(bridgeFinder.isSeparating(groove)).isFalse();
+    }
+  }
+
+  @Test
+  public void corridor_separatingGrooves() {
+    /*
+     *                 a   b   c
+     *               --------+----
+     *             1 |   |   + 2 |
+     *               --------+++++
+     *             2 |   |   |   |
+     *               -------------
+     *             3 |   | 1 |   |
+     *               -------------
+     *                 a   b   c
+     */
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3).setWallLength(1));
+    board.movePawn(Player.PLAYER2, Square.at('c', 1));
+    board.placeWall(Wall.horizontal('c', 1).withLength(1), Player.PLAYER1);
+    assertThat(bridgeFinder.analyze(Player.PLAYER2, board)).isTrue();
+    assertThat(isSeparating(Groove.vertical('b', 1))).isTrue();
+    assertThat(isOnPath(Groove.vertical('b', 1))).isTrue();
+    assertThat(isSeparating(Groove.vertical('a', 1))).isFalse();
+    assertThat(isSeparating(Groove.horizontal('b', 1))).isFalse();
+    assertThat(isSeparating(Groove.horizontal('b', 2))).isFalse();
+  }
+
+  @Test
+  public void pathEndsAtGoal() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3).setWallLength(1));
+    board.movePawn(Player.PLAYER1, Square.at('a', 3));
+    board.placeWall(Wall.horizontal('a', 2).withLength(1), Player.PLAYER2);
+    board.placeWall(Wall.horizontal('b', 2).withLength(1), Player.PLAYER2);
+    assertThat(bridgeFinder.analyze(Player.PLAYER1, board)).isTrue();
+    // The only way out of the bottom row is up column c.
+    assertThat(isSeparating(Groove.horizontal('c', 2))).isTrue();
+    assertThat(isOnPath(Groove.horizontal('c', 2))).isTrue();
+    assertThat(isOnPath(Groove.vertical('a', 3))).isTrue();
+    assertThat(isOnPath(Groove.vertical('b', 3))).isTrue();
+  }
+
+  @Test
+  public void walledIn_returnsFalse() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3));
+    board.movePawn(Player.PLAYER1, Square.at('b', 3));
+    board.placeWall(Wall.horizontal('a', 2).withLength(3), Player.PLAYER2);
+    assertThat(bridgeFinder.analyze(Player.PLAYER1, board)).isFalse();
+  }
+
+  @Test
+  public void alreadyAtGoal_noPathGrooves() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3));
+    board.movePawn(Player.PLAYER1, Square.at('b', 1));
+    assertThat(bridgeFinder.analyze(Player.PLAYER1, board)).isTrue();
+    for (int groove = 0; groove < geometry.grooveCount(); groove++) {
+      assertThat(bridgeFinder.isOnPath(groove)).isFalse();
+      assertThat(bridgeFinder.isSeparating(groove)).isFalse();
+    }
+  }
+
+  @Test
+  public void pawnNotOnBoard_throws() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3));
+    assertThrows(() -> bridgeFinder.analyze(Player.PLAYER1, board));
+  }
+
+  private void setUpBoard(QuoridorSettings.Builder settingsBuilder) {
+    QuoridorSettings settings = settingsBuilder.build();
+    board = Board.createFromSettings(settings);
+    geometry = BoardGeometry.forSettings(settings);
+    bridgeFinder = new BridgeFinder(geometry);
+  }
+
+  private boolean isSeparating(Groove groove) {
+    return bridgeFinder.isSeparating(geometry.grooveIndex(groove));
+  }
+
+  private boolean isOnPath(Groove groove) {
+    return bridgeFinder.isOnPath(geometry.grooveIndex(groove));
+  }
+}
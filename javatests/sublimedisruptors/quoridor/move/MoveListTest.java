@@ -0,0 +1,70 @@
+package sublimedisruptors.quoridor.move;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link MoveList}. */
+@RunWith(JUnit4.class)
+public final class MoveListTest {
+
+  @Test
+  public void initiallyEmpty() {
+    MoveList moves = new MoveList();
+    assertThat(moves.size()).isEqualTo(0);
+    assertThat(moves.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void add_growsBeyondInitialCapacity() {
+    MoveList moves = new MoveList(2);
+    for (int i = 0; i < 10; i++) {
+      moves.add(i);
+    }
+    assertThat(moves.size()).isEqualTo(10);
+    for (int i = 0; i < 10; i++) {
+      assertThat(moves.get(i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void contains() {
+    MoveList moves = new MoveList();
+    moves.add(3);
+    moves.add(5);
+    assertThat(moves.contains(5)).isTrue();
+    assertThat(moves.contains(4)).isFalse();
+  }
+
+  @Test
+  public void setAndSwap() {
+    MoveList moves = new MoveList();
+    moves.add(1);
+    moves.add(2);
+    moves.set(0, 7);
+    moves.swap(0, 1);
+    assertThat(moves.get(0)).isEqualTo(2);
+    assertThat(moves.get(1)).isEqualTo(7);
+  }
+
+  @Test
+  public void clear_retainsNothing() {
+    MoveList moves = new MoveList();
+    moves.add(1);
+    moves.clear();
+    assertThat(moves.isEmpty()).isTrue();
+    assertThat(moves.contains(1)).isFalse();
+    assertThrows(() -> moves.get(0));
+  }
+
+  @Test
+  public void get_outOfBounds_throws() {
+    MoveList moves = new MoveList();
+    moves.add(1);
+    assertThrows(() -> moves.get(1));
+    assertThrows(() -> moves.get(-1));
+  }
+}
@@ -7,6 +7,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
 import sublimedisruptors.quoridor.board.Square;
 import sublimedisruptors.quoridor.board.Wall;
 
@@ -33,4 +35,29 @@ public final class MoveTest {
     assertThat(wallMove.wall()).isEqualTo(wall);
     assertThrows(wallMove::destination);
   }
+
+  @Test
+  public void applyTo_pawnMove() {
+    Board board = Board.createFromSettings(QuoridorSettings.defaultTwoPlayer());
+    Move.pawnMove(Player.PLAYER1, Square.at('c', 3)).applyTo(board);
+    assertThat(board.pawn(Player.PLAYER1)).isEqualTo(Square.at('c', 3));
+  }
+
+  @Test
+  public void applyTo_wallMove() {
+    Board board = Board.createFromSettings(QuoridorSettings.defaultTwoPlayer());
+    Wall wall = Wall.vertical('c', 3).withLength(2);
+    Move.wallMove(Player.PLAYER1, wall).applyTo(board);
+    assertThat(board.snapshot().walledOffGrooves())
+        .containsExactlyElementsIn(wall.coveredGrooves());
+    assertThat(board.snapshot().wallsAvailable()).containsEntry(Player.PLAYER1, 7);
+  }
+
+  @Test
+  public void mirror() {
+    assertThat(Move.pawnMove(Player.PLAYER1, Square.at('a', 5)).mirror(5))
+        .isEqualTo(Move.pawnMove(Player.PLAYER1, Square.at('e', 5)));
+    assertThat(Move.wallMove(Player.PLAYER2, Wall.horizontal('a', 2).withLength(2)).mirror(5))
+        .isEqualTo(Move.wallMove(Player.PLAYER2, Wall.horizontal('d', 2).withLength(2)));
+  }
 }
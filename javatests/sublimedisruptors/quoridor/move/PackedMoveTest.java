@@ -0,0 +1,148 @@
+package sublimedisruptors.quoridor.move;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Groove.Orientation;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move.Type;
+
+/** Tests for {@link PackedMove}. */
+@RunWith(JUnit4.class)
+public final class PackedMoveTest {
+
+  @Test
+  public void pawnMove_fields() {
+    int move = PackedMove.pawnMove(Player.PLAYER3, 'e', 9);
+    assertThat(PackedMove.player(move)).isEqualTo(Player.PLAYER3);
+    assertThat(PackedMove.type(move)).isEqualTo(Type.PAWN);
+    assertThat(PackedMove.column(move)).isEqualTo('e');
+    assertThat(PackedMove.row(move)).isEqualTo(9);
+    assertThat(PackedMove.destination(move)).isEqualTo(Square.at('e', 9));
+  }
+
+  @Test
+  public void wallMove_fields() {
+    int move = PackedMove.wallMove(Player.PLAYER4, Orientation.HORIZONTAL, 'c', 7, 3);
+    assertThat(PackedMove.player(move)).isEqualTo(Player.PLAYER4);
+    assertThat(PackedMove.type(move)).isEqualTo(Type.WALL);
+    assertThat(PackedMove.column(move)).isEqualTo('c');
+    assertThat(PackedMove.row(move)).isEqualTo(7);
+    assertThat(PackedMove.orientation(move)).isEqualTo(Orientation.HORIZONTAL);
+    assertThat(PackedMove.wallLength(move)).isEqualTo(3);
+    assertThat(PackedMove.wall(move)).isEqualTo(Wall.horizontal('c', 7).withLength(3));
+  }
+
+  @Test
+  public void encodeDecode_roundTrips() {
+    for (Player player : Player.values()) {
+      for (Move move :
+          new Move[] {
+            Move.pawnMove(player, Square.at('a', 1)),
+            Move.pawnMove(player, Square.at('z', 26)),
+            Move.wallMove(player, Wall.vertical('h', 8).withLength(2)),
+            Move.wallMove(player, Wall.horizontal('a', 1).withLength(1)),
+          }) {
+        int packed = PackedMove.encode(move);
+        assertThat(packed).isAtLeast(0);
+        assertThat(PackedMove.decode(packed)).isEqualTo(move);
+      }
+    }
+  }
+
+  @Test
+  public void encode_distinctMovesHaveDistinctEncodings() {
+    assertThat(PackedMove.pawnMove(Player.PLAYER1, 'b', 3))
+        .isNotEqualTo(PackedMove.pawnMove(Player.PLAYER2, 'b', 3));
+    assertThat(PackedMove.wallMove(Player.PLAYER1, Orientation.VERTICAL, 'b', 3, 2))
+        .isNotEqualTo(PackedMove.wallMove(Player.PLAYER1, Orientation.HORIZONTAL, 'b', 3, 2));
+    assertThat(PackedMove.wallMove(Player.PLAYER1, Orientation.VERTICAL, 'b', 3, 2))
+        .isNotEqualTo(PackedMove.pawnMove(Player.PLAYER1, 'b', 3));
+  }
+
+  @Test
+  public void applyTo_matchesMove() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    Board board = Board.createFromSettings(settings);
+    Board expected = Board.createFromSettings(settings);
+    Move pawnMove = Move.pawnMove(Player.PLAYER1, Square.at('e', 9));
+    Move wallMove = Move.wallMove(Player.PLAYER2, Wall.vertical('c', 3).withLength(2));
+    PackedMove.applyTo(PackedMove.encode(pawnMove), board);
+    PackedMove.applyTo(PackedMove.encode(wallMove), board);
+    pawnMove.applyTo(expected);
+    wallMove.applyTo(expected);
+    assertThat(board.snapshot()).isEqualTo(expected.snapshot());
+  }
+
+  @Test
+  public void outOfRange_throws() {
+    assertThrows(() -> PackedMove.pawnMove(Player.PLAYER1, (char) ('a' - 1), 1));
+    assertThrows(() -> PackedMove.pawnMove(Player.PLAYER1, 'a', -1));
+    assertThrows(() -> PackedMove.wallMove(Player.PLAYER1, Orientation.VERTICAL, 'a', 1, 64));
+  }
+
+  @Test
+  public void wallAccessorsOnPawnMove_throw() {
+    int move = PackedMove.pawnMove(Player.PLAYER1, 'e', 9);
+    assertThrows(() -> PackedMove.orientation(move));
+    assertThrows(() -> PackedMove.wallLength(move));
+    assertThrows(() -> PackedMove.wall(move));
+  }
+
+  @Test
+  public void destinationOfWallMove_throws() {
+    int move = PackedMove.wallMove(Player.PLAYER1, Orientation.VERTICAL, 'a', 1, 2);
+    assertThrows(() -> PackedMove.destination(move));
+  }
+
+  @Test
+  public void mirror_reflectsColumn() {
+    assertThat(PackedMove.mirror(PackedMove.pawnMove(Player.PLAYER1, 'b', 4), 9))
+        .isEqualTo(PackedMove.pawnMove(Player.PLAYER1, 'h', 4));
+    assertThat(PackedMove.mirror(PackedMove.pawnMove(Player.PLAYER2, 'e', 1), 9))
+        .isEqualTo(PackedMove.pawnMove(Player.PLAYER2, 'e', 1));
+    assertThat(
+            PackedMove.mirror(
+                PackedMove.wallMove(Player.PLAYER1, Orientation.VERTICAL, 'a', 3, 2), 9))
+        .isEqualTo(PackedMove.wallMove(Player.PLAYER1, Orientation.VERTICAL, 'h', 3, 2));
+    assertThat(
+            PackedMove.mirror(
+                PackedMove.wallMove(Player.PLAYER2, Orientation.HORIZONTAL, 'a', 3, 3), 9))
+        .isEqualTo(PackedMove.wallMove(Player.PLAYER2, Orientation.HORIZONTAL, 'g', 3, 3));
+    assertThat(PackedMove.mirror(PackedMove.NONE, 9)).isEqualTo(PackedMove.NONE);
+  }
+
+  @Test
+  public void mirror_matchesMirroredBoard() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    for (int move :
+        new int[] {
+          PackedMove.pawnMove(Player.PLAYER1, 'c', 8),
+          PackedMove.wallMove(Player.PLAYER1, Orientation.VERTICAL, 'b', 2, 2),
+          PackedMove.wallMove(Player.PLAYER2, Orientation.HORIZONTAL, 'f', 6, 2),
+        }) {
+      Board board = Board.createFromSettings(settings);
+      Board mirror = Board.createFromSettings(settings);
+      PackedMove.applyTo(move, board);
+      PackedMove.applyTo(PackedMove.mirror(move, 9), mirror);
+
+      assertThat(mirror.snapshot()).isEqualTo(board.snapshot().mirror());
+      assertThat(PackedMove.mirror(PackedMove.mirror(move, 9), 9)).isEqualTo(move);
+    }
+  }
+
+  @Test
+  public void mirror_wallOnRightEdge_throws() {
+    assertThrows(
+        () ->
+            PackedMove.mirror(
+                PackedMove.wallMove(Player.PLAYER1, Orientation.VERTICAL, 'i', 1, 2), 9));
+  }
+}
@@ -9,6 +9,7 @@ import org.junit.runners.JUnit4;
 import sublimedisruptors.quoridor.Player;
 import sublimedisruptors.quoridor.QuoridorSettings;
 import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
 import sublimedisruptors.quoridor.board.Square;
 import sublimedisruptors.quoridor.board.Wall;
 
@@ -17,7 +18,7 @@ import sublimedisruptors.quoridor.board.Wall;
 public final class PathFinderTest {
 
   private Board board;
-  private RulesGovernor governor;
+  private PathFinder pathFinder;
 
   @Test
   public void noWalls() {
@@ -195,6 +196,58 @@ public final class PathFinderTest {
     assertThat(pathToGoalExists(Player.PLAYER1)).isTrue();
   }
 
+  @Test
+  public void shortestDistanceToGoal_noWalls() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(9));
+    board.movePawn(Player.PLAYER2, Square.at('e', 1));
+    board.movePawn(Player.PLAYER1, Square.at('c', 6));
+    assertThat(shortestDistanceToGoal(Player.PLAYER2)).isEqualTo(8);
+    assertThat(shortestDistanceToGoal(Player.PLAYER1)).isEqualTo(5);
+  }
+
+  @Test
+  public void shortestDistanceToGoal_alreadyAtGoal() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(9));
+    board.movePawn(Player.PLAYER1, Square.at('c', 1));
+    assertThat(shortestDistanceToGoal(Player.PLAYER1)).isEqualTo(0);
+  }
+
+  @Test
+  public void shortestDistanceToGoal_detourAroundWall() {
+    /*
+     *                 a   b   c   d   e   f   g   h   i
+     *               -------------------------------------
+     *             1 |   |   |   |   |   |   |   |   |   |
+     *               -------------------------------------
+     *                                  ...
+     *               -------------------------------------
+     *             7 |   |   |   |   |   |   |   |   |   |
+     *               +++++++++++++++++++++++++++++++++----
+     *             8 |   |   |   |   | 2 |   |   |   |   |
+     *               -------------------------------------
+     *             9 |   |   |   |   | 1 |   |   |   |   |
+     *               -------------------------------------
+     *                 a   b   c   d   e   f   g   h   i
+     */
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(9));
+    board.movePawn(Player.PLAYER2, Square.at('e', 8));
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board.placeWall(Wall.horizontal('a', 7).withLength(8), Player.PLAYER1);
+    // Player 2's pawn does not block player 1, who walks to column i and then straight up.
+    assertThat(shortestDistanceToGoal(Player.PLAYER1)).isEqualTo(12);
+    assertThat(shortestDistanceToGoal(Player.PLAYER2)).isEqualTo(1);
+  }
+
+  @Test
+  public void shortestDistanceToGoal_walledIn() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(9));
+    board.movePawn(Player.PLAYER2, Square.at('e', 1));
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board.placeWall(Wall.horizontal('a', 7).withLength(9), Player.PLAYER1);
+    assertThat(shortestDistanceToGoal(Player.PLAYER1)).isEqualTo(PathFinder.NO_PATH);
+    assertThat(shortestDistanceToGoal(Player.PLAYER2)).isEqualTo(PathFinder.NO_PATH);
+  }
+
   @Test
   public void boardNotMutatedBySearch() {
     setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(9));
@@ -226,26 +279,35 @@ public final class PathFinderTest {
   @Test
   public void nullBoard_throws() {
     setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(9));
-    board.movePawn(Player.PLAYER2, Square.at('b', 3));
-    board.movePawn(Player.PLAYER1, Square.at('f', 8));
-    assertThrows(() -> PathFinder.pathToGoalExists(Player.PLAYER1, null, governor));
+    assertThrows(() -> pathFinder.pathToGoalExists(Player.PLAYER1, null));
+  }
+
+  @Test
+  public void nullGeometry_throws() {
+    assertThrows(() -> new PathFinder(null));
   }
 
   @Test
-  public void nullRulesGovernor_throws() {
+  public void boardSizeMismatch_throws() {
     setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(9));
-    board.movePawn(Player.PLAYER2, Square.at('b', 3));
-    board.movePawn(Player.PLAYER1, Square.at('f', 8));
-    assertThrows(() -> PathFinder.pathToGoalExists(Player.PLAYER1, board, null));
+    Board otherBoard =
+        Board.createFromSettings(
+            QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5).build());
+    otherBoard.movePawn(Player.PLAYER1, Square.at('c', 5));
+    assertThrows(() -> pathFinder.pathToGoalExists(Player.PLAYER1, otherBoard));
   }
 
   private void setUpBoard(QuoridorSettings.Builder settingsBuilder) {
     QuoridorSettings settings = settingsBuilder.build();
     board = Board.createFromSettings(settings);
-    governor = RulesGovernor.createAndSetUpPawns(board, settings);
+    pathFinder = new PathFinder(BoardGeometry.forSettings(settings));
   }
 
   private boolean pathToGoalExists(Player player) {
-    return PathFinder.pathToGoalExists(player, board, governor);
+    return pathFinder.pathToGoalExists(player, board);
+  }
+
+  private int shortestDistanceToGoal(Player player) {
+    return pathFinder.shortestDistanceToGoal(player, board);
   }
 }
@@ -0,0 +1,206 @@
+package sublimedisruptors.quoridor.move;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.board.Square;
+
+/** Tests for {@link Perft}. */
+@RunWith(JUnit4.class)
+public final class PerftTest {
+
+  @Test
+  public void perft_referenceCounts_boardSize5() {
+    assertReferenceCounts(settings(5, 4), 35, 1_109, 31_540);
+  }
+
+  @Test
+  public void perft_referenceCounts_boardSize7() {
+    assertReferenceCounts(settings(7, 6), 75, 5_357, 363_872);
+  }
+
+  @Test
+  public void perft_referenceCounts_boardSize9() {
+    assertReferenceCounts(QuoridorSettings.defaultTwoPlayer(), 131, 16_677, 2_062_264);
+  }
+
+  @Test
+  public void perft_depthZero_countsPosition() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    assertThat(Perft.create(settings).perft(initialPosition(settings), Player.PLAYER1, 0))
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void perft_winningMove_endsGame() {
+    /*
+     *                 a   b   c
+     *               -------------
+     *             1 |   |   | 2 |
+     *               -------------
+     *             2 |   | 1 |   |
+     *               -------------
+     *             3 |   |   |   |
+     *               -------------
+     *                 a   b   c
+     */
+    QuoridorSettings settings = settings(3, 0);
+    Board board = Board.createFromSettings(settings);
+    board.movePawn(Player.PLAYER1, Square.at('b', 2));
+    board.movePawn(Player.PLAYER2, Square.at('c', 1));
+    Perft perft = Perft.create(settings);
+
+    assertThat(perft.perft(board.snapshot(), Player.PLAYER1, 1)).isEqualTo(4);
+    // Moving to b1 wins, so player 2 only gets to move after the other three moves.
+    assertThat(perft.perft(board.snapshot(), Player.PLAYER1, 2)).isEqualTo(6);
+    assertThat(perft.divide(board.snapshot(), Player.PLAYER1, 2))
+        .containsExactly(
+            Move.pawnMove(Player.PLAYER1, Square.at('b', 1)), 0L,
+            Move.pawnMove(Player.PLAYER1, Square.at('a', 2)), 2L,
+            Move.pawnMove(Player.PLAYER1, Square.at('c', 2)), 2L,
+            Move.pawnMove(Player.PLAYER1, Square.at('b', 3)), 2L);
+  }
+
+  @Test
+  public void perft_gameOver_noMoves() {
+    QuoridorSettings settings = settings(3, 1);
+    Board board = Board.createFromSettings(settings);
+    board.movePawn(Player.PLAYER1, Square.at('b', 1));
+    board.movePawn(Player.PLAYER2, Square.at('a', 2));
+    Perft perft = Perft.create(settings);
+
+    assertThat(perft.perft(board.snapshot(), Player.PLAYER2, 0)).isEqualTo(1);
+    assertThat(perft.perft(board.snapshot(), Player.PLAYER2, 1)).isEqualTo(0);
+    assertThat(perft.divide(board.snapshot(), Player.PLAYER2, 1)).isEmpty();
+  }
+
+  @Test
+  public void divide_addsUpToPerft() {
+    QuoridorSettings settings = settings(5, 4);
+    Board.Snapshot position = initialPosition(settings);
+    Board board = Board.fromSnapshot(position);
+    RulesGovernor governor = RulesGovernor.create(board, settings);
+    Perft perft = Perft.create(settings);
+
+    ImmutableMap<Move, Long> divide = perft.divide(position, Player.PLAYER1, 2);
+
+    assertThat(divide.keySet())
+        .containsExactlyElementsIn(legalMoves(settings, governor, Player.PLAYER1));
+    assertThat(divide.values().stream().mapToLong(Long::longValue).sum())
+        .isEqualTo(perft.perft(position, Player.PLAYER1, 2));
+  }
+
+  @Test
+  public void perft_randomPositions_matchesNaiveCount() {
+    Random random = new Random(19);
+    ImmutableList<QuoridorSettings> allSettings =
+        ImmutableList.of(
+            settings(5, 4),
+            settings(5, 4).toBuilder().setPlayers(Player.PLAYER1, Player.PLAYER3).build(),
+            settings(5, 2).toBuilder()
+                .setPlayers(Player.PLAYER1, Player.PLAYER4, Player.PLAYER2)
+                .build(),
+            settings(7, 3).toBuilder().setWallLength(3).build());
+    for (QuoridorSettings settings : allSettings) {
+      Board board = Board.createFromSettings(settings);
+      RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, settings);
+      Perft perft = Perft.create(settings);
+      for (int ply = 0; ply < 12; ply++) {
+        int turn = ply % settings.players().size();
+        Player player = settings.players().get(turn);
+        assertThat(perft.perft(board.snapshot(), player, 2))
+            .isEqualTo(naivePerft(settings, board.snapshot(), turn, 2));
+
+        List<Move> moves = legalMoves(settings, governor, player);
+        Move move = moves.get(random.nextInt(moves.size()));
+        if (move.type() == Move.Type.PAWN && governor.isGoal(player, move.destination())) {
+          break;
+        }
+        move.applyTo(board);
+      }
+    }
+  }
+
+  @Test
+  public void perft_invalidArguments_throws() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    Board.Snapshot position = initialPosition(settings);
+    Perft perft = Perft.create(settings);
+
+    assertThrows(() -> perft.perft(position, Player.PLAYER1, -1));
+    assertThrows(() -> perft.perft(position, Player.PLAYER3, 1));
+    assertThrows(() -> perft.perft(initialPosition(settings(5, 4)), Player.PLAYER1, 1));
+    assertThrows(() -> perft.divide(position, Player.PLAYER1, 0));
+  }
+
+  private static void assertReferenceCounts(QuoridorSettings settings, long... counts) {
+    Board.Snapshot position = initialPosition(settings);
+    Perft perft = Perft.create(settings);
+    for (int depth = 1; depth <= counts.length; depth++) {
+      assertThat(perft.perft(position, Player.PLAYER1, depth)).isEqualTo(counts[depth - 1]);
+    }
+  }
+
+  /**
+   * Counts positions the slow way, by copying the board for every move and checking every wall
+   * placement individually.
+   */
+  private static long naivePerft(
+      QuoridorSettings settings, Board.Snapshot position, int turn, int depth) {
+    if (depth == 0) {
+      return 1;
+    }
+    Player player = settings.players().get(turn);
+    RulesGovernor governor = RulesGovernor.create(Board.fromSnapshot(position), settings);
+    long count = 0;
+    for (Move move : legalMoves(settings, governor, player)) {
+      if (move.type() == Move.Type.PAWN && governor.isGoal(player, move.destination())) {
+        count += depth == 1 ? 1 : 0;
+        continue;
+      }
+      Board next = Board.fromSnapshot(position);
+      move.applyTo(next);
+      count +=
+          naivePerft(settings, next.snapshot(), (turn + 1) % settings.players().size(), depth - 1);
+    }
+    return count;
+  }
+
+  private static List<Move> legalMoves(
+      QuoridorSettings settings, RulesGovernor governor, Player player) {
+    List<Move> moves = new ArrayList<>(governor.generateValidPawnMoves(player));
+    BoardGeometry geometry = BoardGeometry.forSettings(settings);
+    for (int i = 0; i < geometry.wallPlacementCount(); i++) {
+      Move wallMove = Move.wallMove(player, geometry.wall(i));
+      if (governor.isValidWallMove(wallMove)) {
+        moves.add(wallMove);
+      }
+    }
+    return moves;
+  }
+
+  private static Board.Snapshot initialPosition(QuoridorSettings settings) {
+    Board board = Board.createFromSettings(settings);
+    RulesGovernor.createAndSetUpPawns(board, settings);
+    return board.snapshot();
+  }
+
+  private static QuoridorSettings settings(int boardSize, int wallsPerPlayer) {
+    return QuoridorSettings.defaultTwoPlayer().toBuilder()
+        .setBoardSize(boardSize)
+        .setWallsPerPlayer(wallsPerPlayer)
+        .build();
+  }
+}
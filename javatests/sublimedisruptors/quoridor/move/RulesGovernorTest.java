@@ -3,6 +3,11 @@ package sublimedisruptors.quoridor.move;
 import static com.google.common.truth.Truth.assertThat;
 import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
 
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -10,6 +15,7 @@ import org.junit.runners.JUnit4;
 import sublimedisruptors.quoridor.Player;
 import sublimedisruptors.quoridor.QuoridorSettings;
 import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
 import sublimedisruptors.quoridor.board.Square;
 import sublimedisruptors.quoridor.board.Wall;
 
@@ -68,6 +74,27 @@ public final class RulesGovernorTest {
         .containsExactly(Player.PLAYER2, Square.at('e', 1), Player.PLAYER1, Square.at('e', 9));
   }
 
+  @Test
+  public void create_restoredBoard_doesNotMovePawns() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    setUpBoard(settings.toBuilder());
+    board.movePawn(Player.PLAYER1, Square.at('e', 8));
+    Board restored = Board.fromSnapshot(board.snapshot());
+    RulesGovernor restoredGovernor = RulesGovernor.create(restored, settings);
+    assertThat(restored.snapshot().pawns()).isEqualTo(board.snapshot().pawns());
+    assertThat(restoredGovernor.shortestDistanceToGoal(Player.PLAYER1)).isEqualTo(7);
+    assertThat(restoredGovernor.generateValidPawnMoves(Player.PLAYER2))
+        .isEqualTo(governor.generateValidPawnMoves(Player.PLAYER2));
+  }
+
+  @Test
+  public void create_sizeMismatch_throws() {
+    Board smallBoard =
+        Board.createFromSettings(
+            QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5).build());
+    assertThrows(() -> RulesGovernor.create(smallBoard, QuoridorSettings.defaultTwoPlayer()));
+  }
+
   @Test
   public void setUpPawns_fourPlayer_boardSize3() {
     /*
@@ -645,12 +672,240 @@ public final class RulesGovernorTest {
     assertThat(valid).isFalse();
   }
 
+  @Test
+  public void isValidWallMove_boardNotMutated() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3).setWallLength(1));
+    board.movePawn(Player.PLAYER2, Square.at('c', 1));
+    board.movePawn(Player.PLAYER1, Square.at('b', 3));
+    board.placeWall(Wall.horizontal('c', 1).withLength(1), Player.PLAYER1);
+    Board.Snapshot snapshot = board.snapshot();
+    governor.isValidWallMove(Move.wallMove(Player.PLAYER1, Wall.vertical('b', 1).withLength(1)));
+    governor.isValidWallMove(Move.wallMove(Player.PLAYER2, Wall.vertical('a', 1).withLength(1)));
+    assertThat(board.snapshot()).isSameAs(snapshot);
+  }
+
+  @Test
+  public void isValidWallMove_crossesCachedPath_searchesAgain() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3).setWallLength(1));
+    board.movePawn(Player.PLAYER2, Square.at('c', 1));
+    board.movePawn(Player.PLAYER1, Square.at('b', 3));
+    board.placeWall(Wall.horizontal('c', 1).withLength(1), Player.PLAYER1);
+    assertThat(
+            governor.isValidWallMove(
+                Move.wallMove(Player.PLAYER1, Wall.vertical('a', 1).withLength(1))))
+        .isTrue();
+    assertThat(
+            governor.isValidWallMove(
+                Move.wallMove(Player.PLAYER1, Wall.vertical('b', 1).withLength(1))))
+        .isFalse();
+  }
+
+  @Test
+  public void isValidWallMove_cachedPathWalledOffDirectly_searchesAgain() {
+    /*
+     *                 a   b   c
+     *               --------+----
+     *             1 |   |   + 2 |
+     *               --------+++++
+     *             2 |   |   |   |
+     *               -------------
+     *             3 |   | 1 |   |
+     *               -------------
+     *                 a   b   c
+     */
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3).setWallLength(1));
+    board.movePawn(Player.PLAYER2, Square.at('c', 1));
+    board.movePawn(Player.PLAYER1, Square.at('b', 3));
+    // Caches player 2's path straight down column c.
+    assertThat(
+            governor.isValidWallMove(
+                Move.wallMove(Player.PLAYER1, Wall.horizontal('a', 2).withLength(1))))
+        .isTrue();
+    board.placeWall(Wall.horizontal('c', 1).withLength(1), Player.PLAYER1);
+    assertThat(
+            governor.isValidWallMove(
+                Move.wallMove(Player.PLAYER1, Wall.vertical('b', 1).withLength(1))))
+        .isFalse();
+  }
+
+  @Test
+  public void isValidWallMove_pawnMoved_searchesAgain() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3).setWallLength(1));
+    board.movePawn(Player.PLAYER2, Square.at('a', 1));
+    board.movePawn(Player.PLAYER1, Square.at('b', 3));
+    board.placeWall(Wall.horizontal('c', 1).withLength(1), Player.PLAYER1);
+    assertThat(
+            governor.isValidWallMove(
+                Move.wallMove(Player.PLAYER1, Wall.vertical('b', 1).withLength(1))))
+        .isTrue();
+    board.movePawn(Player.PLAYER2, Square.at('c', 1));
+    assertThat(
+            governor.isValidWallMove(
+                Move.wallMove(Player.PLAYER1, Wall.vertical('b', 1).withLength(1))))
+        .isFalse();
+  }
+
+  @Test
+  public void isValidWallMove_matchesExhaustiveSearch() {
+    QuoridorSettings settings =
+        QuoridorSettings.defaultTwoPlayer()
+            .toBuilder()
+            .setBoardSize(5)
+            .setWallsPerPlayer(20)
+            .build();
+    BoardGeometry geometry = BoardGeometry.forSettings(settings);
+    PathFinder pathFinder = new PathFinder(geometry);
+    Random random = new Random(42);
+    for (int game = 0; game < 20; game++) {
+      setUpBoard(settings.toBuilder());
+      for (int turn = 0; turn < 12; turn++) {
+        for (int p = 0; p < geometry.wallPlacementCount(); p++) {
+          Move move = Move.wallMove(Player.PLAYER1, geometry.wall(p));
+          assertThat(governor.isValidWallMove(move)).isEqualTo(isValidUncached(move, pathFinder));
+        }
+        Player player = turn % 2 == 0 ? Player.PLAYER1 : Player.PLAYER2;
+        if (random.nextBoolean()) {
+          List<Move> pawnMoves = new ArrayList<>(governor.generateValidPawnMoves(player));
+          pawnMoves.get(random.nextInt(pawnMoves.size())).applyTo(board);
+        } else {
+          Wall wall = geometry.wall(random.nextInt(geometry.wallPlacementCount()));
+          if (governor.isValidWallMove(Move.wallMove(player, wall))) {
+            board.placeWall(wall, player);
+          }
+        }
+      }
+    }
+  }
+
   @Test
   public void isValidWallMove_notWallMove_throws() {
     setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3));
     assertThrows(() -> governor.isValidWallMove(Move.pawnMove(Player.PLAYER1, Square.at('e', 2))));
   }
 
+  @Test
+  public void generateValidWallMoves_emptyBoard_allPlacements() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(9));
+    Set<Move> moves = governor.generateValidWallMoves(Player.PLAYER1);
+    assertThat(moves).hasSize(128);
+    assertThat(moves).contains(Move.wallMove(Player.PLAYER1, Wall.vertical('a', 1).withLength(2)));
+    assertThat(moves)
+        .contains(Move.wallMove(Player.PLAYER1, Wall.horizontal('h', 8).withLength(2)));
+  }
+
+  @Test
+  public void generateValidWallMoves_excludesOverlappingAndBlockingWalls() {
+    /*
+     *                 a   b   c
+     *               --------+----
+     *             1 |   |   + 2 |
+     *               --------+++++
+     *             2 |   |   |   |
+     *               -------------
+     *             3 |   | 1 |   |
+     *               -------------
+     *                 a   b   c
+     */
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3).setWallLength(1));
+    board.movePawn(Player.PLAYER2, Square.at('c', 1));
+    board.movePawn(Player.PLAYER1, Square.at('b', 3));
+    board.placeWall(Wall.horizontal('c', 1).withLength(1), Player.PLAYER1);
+    Set<Move> moves = governor.generateValidWallMoves(Player.PLAYER1);
+    assertThat(moves)
+        .doesNotContain(Move.wallMove(Player.PLAYER1, Wall.vertical('b', 1).withLength(1)));
+    assertThat(moves).contains(Move.wallMove(Player.PLAYER1, Wall.vertical('a', 1).withLength(1)));
+    assertThat(moves)
+        .contains(Move.wallMove(Player.PLAYER1, Wall.horizontal('b', 1).withLength(1)));
+  }
+
+  @Test
+  public void generateValidWallMoves_outOfWalls_empty() {
+    setUpBoard(
+        QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(9).setWallsPerPlayer(1));
+    board.placeWall(Wall.vertical('a', 1).withLength(2), Player.PLAYER1);
+    assertThat(governor.generateValidWallMoves(Player.PLAYER1)).isEmpty();
+    assertThat(governor.generateValidWallMoves(Player.PLAYER2)).isNotEmpty();
+  }
+
+  @Test
+  public void generateValidWallMoves_notParticipating_throws() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(9));
+    assertThrows(() -> governor.generateValidWallMoves(Player.PLAYER3));
+  }
+
+  @Test
+  public void generateValidWallMoves_matchesIsValidWallMove() {
+    for (QuoridorSettings settings :
+        ImmutableList.of(
+            QuoridorSettings.defaultTwoPlayer()
+                .toBuilder()
+                .setBoardSize(5)
+                .setWallLength(1)
+                .setWallsPerPlayer(30)
+                .build(),
+            QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5).build(),
+            QuoridorSettings.defaultFourPlayer()
+                .toBuilder()
+                .setBoardSize(7)
+                .setWallLength(3)
+                .setWallsPerPlayer(10)
+                .build())) {
+      BoardGeometry geometry = BoardGeometry.forSettings(settings);
+      Random random = new Random(7);
+      for (int game = 0; game < 10; game++) {
+        setUpBoard(settings.toBuilder());
+        for (int turn = 0; turn < 40; turn++) {
+          Player player = settings.players().get(turn % settings.players().size());
+          Set<Move> expected = new HashSet<>();
+          for (int p = 0; p < geometry.wallPlacementCount(); p++) {
+            Move move = Move.wallMove(player, geometry.wall(p));
+            if (governor.isValidWallMove(move)) {
+              expected.add(move);
+            }
+          }
+          Set<Move> wallMoves = governor.generateValidWallMoves(player);
+          assertThat(wallMoves).containsExactlyElementsIn(expected);
+          List<Move> moves = new ArrayList<>(wallMoves);
+          if (moves.isEmpty() || random.nextInt(3) == 0) {
+            moves.addAll(governor.generateValidPawnMoves(player));
+          }
+          if (moves.isEmpty()) {
+            break;
+          }
+          moves.get(random.nextInt(moves.size())).applyTo(board);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void generateValidMoves_moveList_matchesSets() {
+    setUpBoard(QuoridorSettings.defaultFourPlayer().toBuilder().setBoardSize(5));
+    board.movePawn(Player.PLAYER1, Square.at('c', 3));
+    board.movePawn(Player.PLAYER2, Square.at('c', 2));
+    board.movePawn(Player.PLAYER3, Square.at('b', 3));
+    board.placeWall(Wall.horizontal('c', 1).withLength(2), Player.PLAYER4);
+    board.placeWall(Wall.vertical('a', 2).withLength(2), Player.PLAYER4);
+    MoveList moves = new MoveList();
+    for (Player player : Player.values()) {
+      moves.clear();
+      governor.generateValidPawnMoves(player, moves);
+      assertThat(decode(moves)).containsExactlyElementsIn(governor.generateValidPawnMoves(player));
+      assertThat(decode(moves)).hasSize(moves.size()); // No duplicate diagonal moves.
+      moves.clear();
+      governor.generateValidWallMoves(player, moves);
+      assertThat(decode(moves)).containsExactlyElementsIn(governor.generateValidWallMoves(player));
+    }
+  }
+
+  @Test
+  public void shortestDistanceToGoal() {
+    setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5));
+    board.placeWall(Wall.horizontal('b', 4).withLength(2), Player.PLAYER2);
+    assertThat(governor.shortestDistanceToGoal(Player.PLAYER1)).isEqualTo(5);
+    assertThat(governor.shortestDistanceToGoal(Player.PLAYER2)).isEqualTo(5);
+  }
+
   @Test
   public void isGoal_player1_boardSize3_goal() {
     setUpBoard(QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3));
@@ -775,6 +1030,31 @@ public final class RulesGovernorTest {
     assertThrows(() -> governor.isGoal(Player.PLAYER1, null));
   }
 
+  private static Set<Move> decode(MoveList moves) {
+    Set<Move> decoded = new HashSet<>();
+    for (int i = 0; i < moves.size(); i++) {
+      decoded.add(PackedMove.decode(moves.get(i)));
+    }
+    return decoded;
+  }
+
+  /** Checks validity by placing the wall and searching for every player, without caching. */
+  private boolean isValidUncached(Move wallMove, PathFinder pathFinder) {
+    Wall wall = wallMove.wall();
+    if (board.wallsAvailable(wallMove.player()) < 1
+        || wall.coveredGrooves().stream().anyMatch(board::isWalledOff)
+        || wall.coveredVertices().stream().anyMatch(board::isWalledOff)) {
+      return false;
+    }
+    board.placeWall(wall, wallMove.player());
+    try {
+      return pathFinder.pathToGoalExists(Player.PLAYER1, board)
+          && pathFinder.pathToGoalExists(Player.PLAYER2, board);
+    } finally {
+      board.undo();
+    }
+  }
+
   private void setUpBoard(QuoridorSettings.Builder settingsBuilder) {
     QuoridorSettings settings = settingsBuilder.build();
     board = Board.createFromSettings(settings);
@@ -0,0 +1,203 @@
+package sublimedisruptors.quoridor.player;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import com.google.common.base.Joiner;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+
+/** Tests for {@link BoardRenderer}. */
+@RunWith(JUnit4.class)
+public final class BoardRendererTest {
+
+  private static final String ESCAPE = "\033[";
+
+  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  private final PrintStream out = new PrintStream(bytes, /*autoFlush=*/ false);
+
+  @Test
+  public void plain_horizontalWall() {
+    Board board = createBoard(3, 1);
+    board.placeWall(Wall.horizontal('a', 1).withLength(2), Player.PLAYER1);
+
+    BoardRenderer.plain(3, out).render(board.snapshot());
+
+    assertThat(output())
+        .isEqualTo(
+            lines(
+                "    a   b   c   ",
+                "  -------------",
+                "1 |   | 1 |   |",
+                "  +++++++++----",
+                "2 |   |   |   |",
+                "  -------------",
+                "3 |   | 2 |   |",
+                "  -------------",
+                "    a   b   c   ",
+                "Walls available:",
+                "  PLAYER1: 0",
+                "  PLAYER2: 1"));
+  }
+
+  @Test
+  public void plain_verticalWall() {
+    Board board = createBoard(3, 1);
+    board.placeWall(Wall.vertical('a', 1).withLength(2), Player.PLAYER2);
+
+    BoardRenderer.plain(3, out).render(board.snapshot());
+
+    assertThat(output())
+        .isEqualTo(
+            lines(
+                "    a   b   c   ",
+                "  ----+--------",
+                "1 |   + 1 |   |",
+                "  ----+--------",
+                "2 |   +   |   |",
+                "  ----+--------",
+                "3 |   | 2 |   |",
+                "  -------------",
+                "    a   b   c   ",
+                "Walls available:",
+                "  PLAYER1: 1",
+                "  PLAYER2: 0"));
+  }
+
+  @Test
+  public void plain_twoDigitRows_alignsLabels() {
+    Board board = createBoard(11, 0);
+
+    BoardRenderer.plain(11, out).render(board.snapshot());
+
+    String[] lines = output().split("\n");
+    assertThat(lines[0]).startsWith("     a   b");
+    assertThat(lines[1]).startsWith("   ---");
+    assertThat(lines[2]).startsWith(" 1 |   |");
+    assertThat(lines[20]).startsWith("10 |   |");
+    assertThat(lines[22]).startsWith("11 |   |");
+    for (int i = 1; i < 2 * 11 + 2; i++) {
+      assertThat(lines[i]).hasLength(lines[1].length());
+    }
+  }
+
+  @Test
+  public void plain_rendersEveryFrameInFull() {
+    Board board = createBoard(3, 1);
+    BoardRenderer renderer = BoardRenderer.plain(3, out);
+    renderer.render(board.snapshot());
+    String first = output();
+    bytes.reset();
+
+    renderer.render(board.snapshot());
+
+    assertThat(output()).isEqualTo(first);
+  }
+
+  @Test
+  public void ansi_firstFrame_clearsScreenAndRendersInFull() {
+    Board board = createBoard(3, 1);
+    BoardRenderer.plain(3, out).render(board.snapshot());
+    String plain = output();
+    bytes.reset();
+
+    BoardRenderer.ansi(3, out).render(board.snapshot());
+
+    assertThat(output()).isEqualTo(ESCAPE + "2J" + ESCAPE + "H" + plain);
+  }
+
+  @Test
+  public void ansi_unchanged_onlyMovesCursorBelowFrame() {
+    Board board = createBoard(3, 1);
+    BoardRenderer renderer = BoardRenderer.ansi(3, out);
+    renderer.render(board.snapshot());
+    bytes.reset();
+
+    renderer.render(board.snapshot());
+
+    assertThat(output()).isEqualTo(ESCAPE + "13;1H" + ESCAPE + "J");
+  }
+
+  @Test
+  public void ansi_pawnMove_updatesChangedCells() {
+    Board board = createBoard(3, 1);
+    BoardRenderer renderer = BoardRenderer.ansi(3, out);
+    renderer.render(board.snapshot());
+    bytes.reset();
+
+    board.movePawn(Player.PLAYER1, Square.at('a', 1));
+    renderer.render(board.snapshot());
+
+    assertThat(output())
+        .isEqualTo(ESCAPE + "3;5H1" + ESCAPE + "3;9H " + ESCAPE + "13;1H" + ESCAPE + "J");
+  }
+
+  @Test
+  public void ansi_shorterLine_erasesRemainder() {
+    Board board = createBoard(3, 10);
+    BoardRenderer renderer = BoardRenderer.ansi(3, out);
+    renderer.render(board.snapshot());
+    bytes.reset();
+
+    board.placeWall(Wall.horizontal('b', 2).withLength(2), Player.PLAYER2);
+    renderer.render(board.snapshot());
+
+    assertThat(output())
+        .isEqualTo(
+            ESCAPE
+                + "6;7H+++++++++"
+                + ESCAPE
+                + "12;12H9"
+                + ESCAPE
+                + "12;13H"
+                + ESCAPE
+                + "K"
+                + ESCAPE
+                + "13;1H"
+                + ESCAPE
+                + "J");
+  }
+
+  @Test
+  public void render_wrongBoardSize_throws() {
+    BoardRenderer renderer = BoardRenderer.plain(5, out);
+    assertThrows(() -> renderer.render(createBoard(3, 1).snapshot()));
+  }
+
+  @Test
+  public void create_nonPositiveBoardSize_throws() {
+    assertThrows(() -> BoardRenderer.plain(0, out));
+    assertThrows(() -> BoardRenderer.ansi(-1, out));
+  }
+
+  /** Creates a board with player 1 on b1 and player 2 on b3. */
+  private static Board createBoard(int size, int wallsPerPlayer) {
+    Board board =
+        Board.createFromSettings(
+            QuoridorSettings.defaultTwoPlayer().toBuilder()
+                .setBoardSize(size)
+                .setWallsPerPlayer(wallsPerPlayer)
+                .build());
+    board.movePawn(Player.PLAYER1, Square.at('b', 1));
+    board.movePawn(Player.PLAYER2, Square.at('b', 3));
+    return board;
+  }
+
+  private String output() {
+    out.flush();
+    return new String(bytes.toByteArray(), UTF_8);
+  }
+
+  private static String lines(String... lines) {
+    return Joiner.on('\n').join(lines) + "\n";
+  }
+}
@@ -0,0 +1,161 @@
+package sublimedisruptors.quoridor.player;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.record.OpeningBook;
+import sublimedisruptors.quoridor.testing.TestUtils;
+
+/** Tests for {@link BookQuoridorPlayer}. */
+@RunWith(JUnit4.class)
+public final class BookQuoridorPlayerTest {
+
+  private static final QuoridorSettings SETTINGS =
+      QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5).setWallsPerPlayer(2).build();
+
+  private static final ImmutableList<Move> STRAIGHT_ON =
+      ImmutableList.of(
+          Move.pawnMove(Player.PLAYER1, Square.at('c', 4)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 1)),
+          Move.pawnMove(Player.PLAYER1, Square.at('c', 3)));
+
+  private static final ImmutableList<Move> WALL_FIRST =
+      ImmutableList.of(
+          Move.wallMove(Player.PLAYER1, Wall.horizontal('a', 3).withLength(2)),
+          Move.pawnMove(Player.PLAYER2, Square.at('b', 1)));
+
+  private static final Move FALLBACK_MOVE = Move.pawnMove(Player.PLAYER1, Square.at('b', 5));
+
+  @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+  private final List<Board.Snapshot> fallbackCalls = new ArrayList<>();
+  private final QuoridorPlayer.Factory fallback =
+      (self, settings) ->
+          (board, validPawnMoves) -> {
+            fallbackCalls.add(board);
+            return FALLBACK_MOVE;
+          };
+
+  @Test
+  public void getMove_inBook_playsMostPlayedMove() throws IOException {
+    try (OpeningBook book = writeBook(STRAIGHT_ON, STRAIGHT_ON, WALL_FIRST)) {
+      QuoridorPlayer player =
+          BookQuoridorPlayer.factory(book, 1, fallback).createPlayer(Player.PLAYER1, SETTINGS);
+
+      assertThat(getMove(player, Player.PLAYER1)).isEqualTo(STRAIGHT_ON.get(0));
+      assertThat(getMove(player, Player.PLAYER1, STRAIGHT_ON.get(0), STRAIGHT_ON.get(1)))
+          .isEqualTo(STRAIGHT_ON.get(2));
+      assertThat(fallbackCalls).isEmpty();
+    }
+  }
+
+  @Test
+  public void getMove_mirrorImageInBook_playsMirroredMove() throws IOException {
+    try (OpeningBook book = writeBook(WALL_FIRST)) {
+      QuoridorPlayer player =
+          BookQuoridorPlayer.factory(book, 1, fallback).createPlayer(Player.PLAYER2, SETTINGS);
+
+      Move wall = Move.wallMove(Player.PLAYER1, Wall.horizontal('d', 3).withLength(2));
+      assertThat(getMove(player, Player.PLAYER2, wall))
+          .isEqualTo(Move.pawnMove(Player.PLAYER2, Square.at('d', 1)));
+      assertThat(fallbackCalls).isEmpty();
+    }
+  }
+
+  @Test
+  public void getMove_outOfBook_defersForRestOfGame() throws IOException {
+    try (OpeningBook book = writeBook(STRAIGHT_ON)) {
+      QuoridorPlayer player =
+          BookQuoridorPlayer.factory(book, 1, fallback).createPlayer(Player.PLAYER1, SETTINGS);
+
+      assertThat(getMove(player, Player.PLAYER1, WALL_FIRST.get(0), WALL_FIRST.get(1)))
+          .isEqualTo(FALLBACK_MOVE);
+      assertThat(getMove(player, Player.PLAYER1)).isEqualTo(FALLBACK_MOVE);
+      assertThat(fallbackCalls).hasSize(2);
+    }
+  }
+
+  @Test
+  public void getMove_belowMinGames_defers() throws IOException {
+    try (OpeningBook book = writeBook(STRAIGHT_ON, STRAIGHT_ON, WALL_FIRST)) {
+      QuoridorPlayer player =
+          BookQuoridorPlayer.factory(book, 3, fallback).createPlayer(Player.PLAYER1, SETTINGS);
+
+      assertThat(getMove(player, Player.PLAYER1)).isEqualTo(FALLBACK_MOVE);
+      assertThat(fallbackCalls).hasSize(1);
+    }
+  }
+
+  @Test
+  public void getMove_bookOfOtherSettings_defers() throws IOException {
+    QuoridorSettings settings = SETTINGS.toBuilder().setWallsPerPlayer(3).build();
+    try (OpeningBook book = writeBook(STRAIGHT_ON)) {
+      QuoridorPlayer player =
+          BookQuoridorPlayer.factory(book, 1, fallback).createPlayer(Player.PLAYER1, settings);
+      Board board = Board.createFromSettings(settings);
+      RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, settings);
+
+      assertThat(player.getMove(board.snapshot(), governor.generateValidPawnMoves(Player.PLAYER1)))
+          .isEqualTo(FALLBACK_MOVE);
+      assertThat(fallbackCalls).hasSize(1);
+    }
+  }
+
+  @Test
+  public void getMove_illegalBookMove_defers() throws IOException {
+    // Archived games are not checked as the book is built, so a book may hold illegal moves.
+    ImmutableList<Move> illegal =
+        ImmutableList.of(Move.pawnMove(Player.PLAYER1, Square.at('c', 3)));
+    try (OpeningBook book = writeBook(illegal)) {
+      QuoridorPlayer player =
+          BookQuoridorPlayer.factory(book, 1, fallback).createPlayer(Player.PLAYER1, SETTINGS);
+
+      assertThat(getMove(player, Player.PLAYER1)).isEqualTo(FALLBACK_MOVE);
+      assertThat(fallbackCalls).hasSize(1);
+    }
+  }
+
+  @Test
+  public void factory_invalidArguments_throws() throws IOException {
+    try (OpeningBook book = writeBook(STRAIGHT_ON)) {
+      assertThrows(() -> BookQuoridorPlayer.factory(book, 0, fallback));
+      assertThrows(
+          () ->
+              BookQuoridorPlayer.factory(book, 1, fallback)
+                  .createPlayer(Player.PLAYER3, SETTINGS));
+    }
+  }
+
+  @SafeVarargs
+  private final OpeningBook writeBook(ImmutableList<Move>... games) throws IOException {
+    Path path = tmp.newFile().toPath();
+    TestUtils.writeBook(path, SETTINGS, 12, 1, games);
+    return OpeningBook.open(path);
+  }
+
+  private static Move getMove(QuoridorPlayer player, Player self, Move... moves) {
+    Board board = Board.createFromSettings(SETTINGS);
+    RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, SETTINGS);
+    for (Move move : moves) {
+      move.applyTo(board);
+    }
+    return player.getMove(board.snapshot(), governor.generateValidPawnMoves(self));
+  }
+}
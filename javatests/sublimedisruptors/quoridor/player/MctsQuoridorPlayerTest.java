@@ -0,0 +1,83 @@
+package sublimedisruptors.quoridor.player;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.game.GameMaster;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.search.MctsResult;
+
+/** Tests for {@link MctsQuoridorPlayer}. */
+@RunWith(JUnit4.class)
+public final class MctsQuoridorPlayerTest {
+
+  private static final QuoridorSettings FOUR_PLAYER =
+      QuoridorSettings.defaultFourPlayer().toBuilder().setBoardSize(5).setWallsPerPlayer(1).build();
+
+  @Test
+  public void getMove_takesWinningMove() {
+    Board board = Board.createFromSettings(FOUR_PLAYER);
+    RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, FOUR_PLAYER);
+    board.movePawn(Player.PLAYER4, Square.at('b', 2));
+    List<MctsResult> results = new ArrayList<>();
+    QuoridorPlayer player =
+        MctsQuoridorPlayer.factory(1000, 2, results::add).createPlayer(Player.PLAYER4, FOUR_PLAYER);
+
+    Move move = player.getMove(board.snapshot(), governor.generateValidPawnMoves(Player.PLAYER4));
+
+    assertThat(move).isEqualTo(Move.pawnMove(Player.PLAYER4, Square.at('a', 2)));
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0).playouts()).isEqualTo(1000L);
+  }
+
+  @Test
+  public void playsFourPlayerGame() {
+    QuoridorPlayer.Factory factory = MctsQuoridorPlayer.factory(Duration.ofMillis(5), 2, r -> {});
+    GameMaster gameMaster =
+        GameMaster.setUpGame(
+            FOUR_PLAYER,
+            ImmutableMap.of(
+                Player.PLAYER1, factory,
+                Player.PLAYER2, factory,
+                Player.PLAYER3, factory,
+                Player.PLAYER4, factory));
+    gameMaster.playGame();
+    assertThat(FOUR_PLAYER.players()).contains(gameMaster.getWinner());
+  }
+
+  @Test
+  public void factory_playersOfManyGames_shareOnePool() {
+    QuoridorPlayer.Factory factory = MctsQuoridorPlayer.factory(50, 2, r -> {});
+    int threadsBefore = Thread.activeCount();
+
+    for (int game = 0; game < 20; game++) {
+      Board board = Board.createFromSettings(FOUR_PLAYER);
+      RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, FOUR_PLAYER);
+      factory
+          .createPlayer(Player.PLAYER1, FOUR_PLAYER)
+          .getMove(board.snapshot(), governor.generateValidPawnMoves(Player.PLAYER1));
+    }
+
+    // Had every player started a pool of its own, there would be forty threads.
+    assertThat(Thread.activeCount() - threadsBefore).isAtMost(2);
+  }
+
+  @Test
+  public void invalidBudgets_throw() {
+    assertThrows(() -> MctsQuoridorPlayer.factory(0, 1, r -> {}));
+    assertThrows(() -> MctsQuoridorPlayer.factory(Duration.ofMillis(-1), 1, r -> {}));
+    assertThrows(() -> MctsQuoridorPlayer.factory(Duration.ofMillis(1), 0, r -> {}));
+  }
+}
@@ -0,0 +1,112 @@
+package sublimedisruptors.quoridor.player;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.search.Evaluator;
+import sublimedisruptors.quoridor.search.SearchResult;
+
+/** Tests for {@link SearchQuoridorPlayer}. */
+@RunWith(JUnit4.class)
+public final class SearchQuoridorPlayerTest {
+
+  private static final QuoridorSettings SETTINGS =
+      QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5).setWallsPerPlayer(2).build();
+
+  @Test
+  public void getMove_takesWinningMove() {
+    Board board = Board.createFromSettings(SETTINGS);
+    RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, SETTINGS);
+    board.movePawn(Player.PLAYER2, Square.at('d', 4));
+    QuoridorPlayer player =
+        SearchQuoridorPlayer.factory(Duration.ofMillis(50)).createPlayer(Player.PLAYER2, SETTINGS);
+
+    Move move = player.getMove(board.snapshot(), governor.generateValidPawnMoves(Player.PLAYER2));
+
+    assertThat(move).isEqualTo(Move.pawnMove(Player.PLAYER2, Square.at('d', 5)));
+  }
+
+  @Test
+  public void getMove_reportsResultToListener() {
+    Board board = Board.createFromSettings(SETTINGS);
+    RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, SETTINGS);
+    List<SearchResult> results = new ArrayList<>();
+    QuoridorPlayer player =
+        SearchQuoridorPlayer.factory(
+                Duration.ofMillis(20), Evaluator.shortestPathDifference(), 1, results::add)
+            .createPlayer(Player.PLAYER1, SETTINGS);
+
+    Move move = player.getMove(board.snapshot(), governor.generateValidPawnMoves(Player.PLAYER1));
+
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0).bestMove()).isEqualTo(move);
+    assertThat(results.get(0).nodes()).isGreaterThan(0L);
+  }
+
+  @Test
+  public void getMove_multipleThreads_takesWinningMove() {
+    Board board = Board.createFromSettings(SETTINGS);
+    RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, SETTINGS);
+    board.movePawn(Player.PLAYER1, Square.at('b', 2));
+    QuoridorPlayer player =
+        SearchQuoridorPlayer.factory(
+                Duration.ofMillis(50), Evaluator.shortestPathDifference(), 4, result -> {})
+            .createPlayer(Player.PLAYER1, SETTINGS);
+
+    Move move = player.getMove(board.snapshot(), governor.generateValidPawnMoves(Player.PLAYER1));
+
+    assertThat(move).isEqualTo(Move.pawnMove(Player.PLAYER1, Square.at('b', 1)));
+  }
+
+  @Test
+  public void factory_playersOfManyGames_reuseHelperThreads() {
+    QuoridorPlayer.Factory factory =
+        SearchQuoridorPlayer.factory(
+            Duration.ofMillis(5), Evaluator.shortestPathDifference(), 3, result -> {});
+    int threadsBefore = Thread.activeCount();
+
+    for (int game = 0; game < 20; game++) {
+      Board board = Board.createFromSettings(SETTINGS);
+      RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, SETTINGS);
+      factory
+          .createPlayer(Player.PLAYER1, SETTINGS)
+          .getMove(board.snapshot(), governor.generateValidPawnMoves(Player.PLAYER1));
+    }
+
+    // Each search needs two helpers. Had every player started its own, there would be forty. A
+    // helper may take a moment to return to the pool after its search ends, so allow a few more.
+    assertThat(Thread.activeCount() - threadsBefore).isAtMost(6);
+  }
+
+  @Test
+  public void nonPositiveThreads_throws() {
+    assertThrows(
+        () ->
+            SearchQuoridorPlayer.factory(
+                Duration.ofMillis(10), Evaluator.shortestPathDifference(), 0, result -> {}));
+  }
+
+  @Test
+  public void fourPlayerGame_throws() {
+    QuoridorPlayer.Factory factory = SearchQuoridorPlayer.factory(Duration.ofMillis(10));
+    assertThrows(
+        () -> factory.createPlayer(Player.PLAYER1, QuoridorSettings.defaultFourPlayer()));
+  }
+
+  @Test
+  public void negativeBudget_throws() {
+    assertThrows(() -> SearchQuoridorPlayer.factory(Duration.ofMillis(-1)));
+  }
+}
@@ -0,0 +1,297 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.PackedMove;
+
+/** Tests for {@link GameArchive} and {@link GameArchiveWriter}. */
+@RunWith(JUnit4.class)
+public final class GameArchiveTest {
+
+  private static final QuoridorSettings TWO_PLAYER = QuoridorSettings.defaultTwoPlayer();
+  private static final QuoridorSettings FOUR_PLAYER = QuoridorSettings.defaultFourPlayer();
+
+  private static final ImmutableList<Move> OPENING =
+      ImmutableList.of(
+          Move.pawnMove(Player.PLAYER1, Square.at('e', 8)),
+          Move.pawnMove(Player.PLAYER2, Square.at('e', 2)),
+          Move.wallMove(Player.PLAYER1, Wall.horizontal('d', 8).withLength(2)),
+          Move.wallMove(Player.PLAYER2, Wall.vertical('e', 2).withLength(2)));
+
+  private static final ImmutableList<Move> SHORT_GAME =
+      ImmutableList.of(
+          Move.pawnMove(Player.PLAYER1, Square.at('d', 9)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 1)));
+
+  private static final ImmutableList<Move> FOUR_PLAYER_GAME =
+      ImmutableList.of(
+          Move.pawnMove(Player.PLAYER1, Square.at('e', 8)),
+          Move.pawnMove(Player.PLAYER2, Square.at('e', 2)),
+          Move.pawnMove(Player.PLAYER3, Square.at('b', 5)),
+          Move.pawnMove(Player.PLAYER4, Square.at('h', 5)));
+
+  @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void reader_randomAccess() throws IOException {
+    Path path = writeArchive(OPENING, SHORT_GAME, OPENING);
+
+    try (GameArchive archive = GameArchive.open(path)) {
+      assertThat(archive.size()).isEqualTo(3);
+      assertThat(readMoves(archive.reader(1))).isEqualTo(SHORT_GAME);
+      assertThat(readMoves(archive.reader(2))).isEqualTo(OPENING);
+      assertThat(readMoves(archive.reader(0))).isEqualTo(OPENING);
+    }
+  }
+
+  @Test
+  public void reader_replaysLegally() throws IOException {
+    Path path = writeArchive(SHORT_GAME, OPENING);
+
+    try (GameArchive archive = GameArchive.open(path)) {
+      Board board = archive.reader(1).replay();
+      assertThat(board.pawn(Player.PLAYER1)).isEqualTo(Square.at('e', 8));
+      assertThat(board.wallsAvailable(Player.PLAYER2)).isEqualTo(7);
+    }
+  }
+
+  @Test
+  public void reader_outOfRange_throws() throws IOException {
+    Path path = writeArchive(OPENING);
+
+    try (GameArchive archive = GameArchive.open(path)) {
+      assertThrows(() -> readerUnchecked(archive, 1));
+      assertThrows(() -> readerUnchecked(archive, -1));
+    }
+  }
+
+  @Test
+  public void cursor_visitsEveryPosition() throws IOException {
+    Path path = writeArchive(OPENING, SHORT_GAME);
+
+    List<String> visited = new ArrayList<>();
+    try (GameArchive archive = GameArchive.open(path)) {
+      GameArchive.Cursor cursor = archive.cursor();
+      while (cursor.advance()) {
+        visited.add(cursor.game() + ":" + cursor.ply());
+      }
+    }
+
+    assertThat(visited)
+        .containsExactly("0:0", "0:1", "0:2", "0:3", "0:4", "1:0", "1:1", "1:2")
+        .inOrder();
+  }
+
+  @Test
+  public void cursor_matchesReplayedPositions() throws IOException {
+    Path path = writeArchive(OPENING, SHORT_GAME, FOUR_PLAYER_GAME, OPENING);
+    List<Board.Snapshot> expected = new ArrayList<>();
+    for (ImmutableList<Move> game :
+        ImmutableList.of(OPENING, SHORT_GAME, FOUR_PLAYER_GAME, OPENING)) {
+      Board board = initialBoard(game == FOUR_PLAYER_GAME ? FOUR_PLAYER : TWO_PLAYER);
+      expected.add(board.snapshot());
+      for (Move move : game) {
+        move.applyTo(board);
+        expected.add(board.snapshot());
+      }
+    }
+
+    List<Board.Snapshot> actual = new ArrayList<>();
+    try (GameArchive archive = GameArchive.open(path)) {
+      GameArchive.Cursor cursor = archive.cursor();
+      while (cursor.advance()) {
+        actual.add(cursor.board().snapshot());
+        if (cursor.ply() > 0) {
+          assertThat(PackedMove.decode(cursor.lastMove()).player())
+              .isEqualTo(cursor.board().snapshot().lastMover());
+        } else {
+          assertThat(cursor.lastMove()).isEqualTo(PackedMove.NONE);
+        }
+      }
+    }
+
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void cursor_range() throws IOException {
+    Path path = writeArchive(OPENING, SHORT_GAME, FOUR_PLAYER_GAME);
+
+    try (GameArchive archive = GameArchive.open(path)) {
+      GameArchive.Cursor cursor = archive.cursor(1, 2);
+      int positions = 0;
+      while (cursor.advance()) {
+        assertThat(cursor.game()).isEqualTo(1);
+        assertThat(cursor.settings()).isEqualTo(TWO_PLAYER);
+        positions++;
+      }
+      assertThat(positions).isEqualTo(SHORT_GAME.size() + 1);
+      assertThrows(() -> archive.cursor(2, 4));
+    }
+  }
+
+  @Test
+  public void cursor_notAdvanced_throws() throws IOException {
+    Path path = writeArchive(OPENING);
+
+    try (GameArchive archive = GameArchive.open(path)) {
+      assertThrows(archive.cursor()::board);
+    }
+  }
+
+  @Test
+  public void snapshots_iteratesEveryPosition() throws IOException {
+    Path path = writeArchive(OPENING, SHORT_GAME);
+
+    try (GameArchive archive = GameArchive.open(path)) {
+      Iterator<Board.Snapshot> snapshots = archive.snapshots();
+      int count = 0;
+      Board.Snapshot last = null;
+      while (snapshots.hasNext()) {
+        last = snapshots.next();
+        count++;
+      }
+      assertThat(count).isEqualTo(OPENING.size() + SHORT_GAME.size() + 2);
+      assertThat(last.pawns()).containsEntry(Player.PLAYER2, Square.at('d', 1));
+    }
+  }
+
+  @Test
+  public void smallSegments_recordsSpanningSegments() throws IOException {
+    Path path = writeArchive(OPENING, SHORT_GAME, FOUR_PLAYER_GAME, OPENING, SHORT_GAME);
+
+    try (GameArchive archive = GameArchive.open(path, 8, 4)) {
+      assertThat(readMoves(archive.reader(0))).isEqualTo(OPENING);
+      assertThat(readMoves(archive.reader(2))).isEqualTo(FOUR_PLAYER_GAME);
+      assertThat(readMoves(archive.reader(3))).isEqualTo(OPENING);
+      assertThat(readMoves(archive.reader(4))).isEqualTo(SHORT_GAME);
+    }
+  }
+
+  @Test
+  public void emptyArchive() throws IOException {
+    Path path = writeArchive();
+
+    try (GameArchive archive = GameArchive.open(path)) {
+      assertThat(archive.size()).isEqualTo(0);
+      assertThat(archive.cursor().advance()).isFalse();
+    }
+  }
+
+  @Test
+  public void writer_endsUnendedRecords() throws IOException {
+    Path path = tmp.newFile().toPath();
+    try (GameArchiveWriter writer = GameArchiveWriter.create(path)) {
+      writer.startGame(TWO_PLAYER).append(SHORT_GAME.get(0));
+      writer.startGame(TWO_PLAYER).append(SHORT_GAME.get(0));
+      assertThat(writer.gameCount()).isEqualTo(2);
+    }
+
+    try (GameArchive archive = GameArchive.open(path)) {
+      assertThat(readMoves(archive.reader(0))).containsExactly(SHORT_GAME.get(0));
+      assertThat(readMoves(archive.reader(1))).containsExactly(SHORT_GAME.get(0));
+    }
+  }
+
+  @Test
+  public void writer_startGameAfterClose_throws() throws IOException {
+    GameArchiveWriter writer = GameArchiveWriter.create(tmp.newFile().toPath());
+    writer.close();
+    assertThrows(
+        () -> {
+          try {
+            writer.startGame(TWO_PLAYER);
+          } catch (IOException e) {
+            throw new AssertionError(e);
+          }
+        });
+  }
+
+  @Test
+  public void open_notAnArchive_throws() throws IOException {
+    Path path = tmp.newFile().toPath();
+    Files.write(path, new byte[] {'Q', 1, 9, 2, 8, 2, 4, 0});
+    try {
+      GameArchive.open(path);
+      throw new AssertionError("no exception thrown");
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void open_truncated_throws() throws IOException {
+    Path path = writeArchive(OPENING, SHORT_GAME);
+    byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+    try {
+      GameArchive.open(path);
+      throw new AssertionError("no exception thrown");
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+
+  @SafeVarargs
+  private final Path writeArchive(ImmutableList<Move>... games) throws IOException {
+    Path path = tmp.newFile().toPath();
+    try (GameArchiveWriter writer = GameArchiveWriter.create(path)) {
+      for (ImmutableList<Move> game : games) {
+        GameRecordWriter record =
+            writer.startGame(game == FOUR_PLAYER_GAME ? FOUR_PLAYER : TWO_PLAYER);
+        for (Move move : game) {
+          record.append(move);
+        }
+        record.end();
+      }
+    }
+    return path;
+  }
+
+  private static Board initialBoard(QuoridorSettings settings) {
+    Board board = Board.createFromSettings(settings);
+    board.movePawn(Player.PLAYER1, Square.at('e', 9));
+    board.movePawn(Player.PLAYER2, Square.at('e', 1));
+    if (settings.players().size() == 4) {
+      board.movePawn(Player.PLAYER3, Square.at('a', 5));
+      board.movePawn(Player.PLAYER4, Square.at('i', 5));
+    }
+    return board;
+  }
+
+  private static List<Move> readMoves(GameRecordReader reader) throws IOException {
+    List<Move> moves = new ArrayList<>();
+    for (Move move = reader.next(); move != null; move = reader.next()) {
+      moves.add(move);
+    }
+    return moves;
+  }
+
+  private static void readerUnchecked(GameArchive archive, int game) {
+    try {
+      archive.reader(game);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+}
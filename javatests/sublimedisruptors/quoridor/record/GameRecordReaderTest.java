@@ -0,0 +1,186 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.PackedMove;
+
+/** Tests for {@link GameRecordReader}. */
+@RunWith(JUnit4.class)
+public final class GameRecordReaderTest {
+
+  private static final ImmutableList<Move> MOVES =
+      ImmutableList.of(
+          Move.pawnMove(Player.PLAYER1, Square.at('e', 8)),
+          Move.pawnMove(Player.PLAYER2, Square.at('e', 2)),
+          Move.wallMove(Player.PLAYER1, Wall.horizontal('d', 8).withLength(2)),
+          Move.wallMove(Player.PLAYER2, Wall.vertical('e', 2).withLength(2)),
+          Move.pawnMove(Player.PLAYER1, Square.at('d', 8)));
+
+  @Test
+  public void next_roundTrip() throws IOException {
+    GameRecordReader reader = GameRecordReader.open(write(QuoridorSettings.defaultTwoPlayer()));
+
+    assertThat(reader.settings()).isEqualTo(QuoridorSettings.defaultTwoPlayer());
+    for (Move move : MOVES) {
+      assertThat(reader.next()).isEqualTo(move);
+    }
+    assertThat(reader.next()).isNull();
+    assertThat(reader.next()).isNull();
+    assertThat(reader.moveCount()).isEqualTo(MOVES.size());
+  }
+
+  @Test
+  public void nextPacked_roundTrip() throws IOException {
+    GameRecordReader reader = GameRecordReader.open(write(QuoridorSettings.defaultTwoPlayer()));
+
+    for (Move move : MOVES) {
+      assertThat(reader.nextPacked()).isEqualTo(PackedMove.encode(move));
+    }
+    assertThat(reader.nextPacked()).isEqualTo(PackedMove.NONE);
+  }
+
+  @Test
+  public void largeBoard_roundTrip() throws IOException {
+    QuoridorSettings settings =
+        QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(15).build();
+    GameRecordReader reader = GameRecordReader.open(write(settings));
+
+    assertThat(reader.settings()).isEqualTo(settings);
+    for (Move move : MOVES) {
+      assertThat(reader.next()).isEqualTo(move);
+    }
+    assertThat(reader.next()).isNull();
+  }
+
+  @Test
+  public void replay_reachesRecordedPosition() throws IOException {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    Board expected = Board.createFromSettings(settings);
+    expected.movePawn(Player.PLAYER1, Square.at('e', 9));
+    expected.movePawn(Player.PLAYER2, Square.at('e', 1));
+    MOVES.forEach(move -> move.applyTo(expected));
+
+    Board board = GameRecordReader.open(write(settings)).replay();
+
+    assertThat(board.snapshot()).isEqualTo(expected.snapshot());
+  }
+
+  @Test
+  public void replay_illegalMove_throws() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    GameRecordWriter writer = GameRecordWriter.start(out, QuoridorSettings.defaultTwoPlayer());
+    writer.append(Move.pawnMove(Player.PLAYER1, Square.at('a', 1)));
+    writer.end();
+    GameRecordReader reader = GameRecordReader.open(new ByteArrayInputStream(out.toByteArray()));
+
+    assertReplayThrows(reader, IOException.class);
+  }
+
+  @Test
+  public void open_consecutiveRecords() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeTo(out, QuoridorSettings.defaultTwoPlayer());
+    GameRecordWriter.start(out, QuoridorSettings.defaultFourPlayer()).end();
+    writeTo(out, QuoridorSettings.defaultTwoPlayer());
+    InputStream in = new ByteArrayInputStream(out.toByteArray());
+
+    assertThat(GameRecordReader.open(in).replay().snapshot().pawns())
+        .containsEntry(Player.PLAYER1, Square.at('d', 8));
+    GameRecordReader second = GameRecordReader.open(in);
+    assertThat(second.settings()).isEqualTo(QuoridorSettings.defaultFourPlayer());
+    assertThat(second.next()).isNull();
+    assertThat(GameRecordReader.open(in).replay().snapshot().pawns())
+        .containsEntry(Player.PLAYER1, Square.at('d', 8));
+    assertThat(GameRecordReader.open(in)).isNull();
+  }
+
+  @Test
+  public void truncatedRecord_throws() throws IOException {
+    byte[] bytes = toBytes(QuoridorSettings.defaultTwoPlayer());
+    GameRecordReader reader =
+        GameRecordReader.open(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+
+    assertReplayThrows(reader, EOFException.class);
+  }
+
+  @Test
+  public void truncatedHeader_throws() {
+    byte[] bytes = toBytes(QuoridorSettings.defaultTwoPlayer());
+    try {
+      GameRecordReader.open(new ByteArrayInputStream(Arrays.copyOf(bytes, 3)));
+      throw new AssertionError("no exception thrown");
+    } catch (IOException e) {
+      assertThat(e).isInstanceOf(EOFException.class);
+    }
+  }
+
+  @Test
+  public void notAGameRecord_throws() {
+    byte[] bytes = toBytes(QuoridorSettings.defaultTwoPlayer());
+    bytes[0] = 'X';
+    try {
+      GameRecordReader.open(new ByteArrayInputStream(bytes));
+      throw new AssertionError("no exception thrown");
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void invalidMoveCode_throws() throws IOException {
+    byte[] bytes = toBytes(QuoridorSettings.defaultTwoPlayer());
+    bytes[RecordFormat.HEADER_BYTES] = (byte) 0xFF;
+    GameRecordReader reader = GameRecordReader.open(new ByteArrayInputStream(bytes));
+
+    assertReplayThrows(reader, IOException.class);
+  }
+
+  private static void assertReplayThrows(
+      GameRecordReader reader, Class<? extends IOException> expected) {
+    try {
+      reader.replay();
+      throw new AssertionError("no exception thrown");
+    } catch (IOException e) {
+      assertThat(e).isInstanceOf(expected);
+    }
+  }
+
+  private static InputStream write(QuoridorSettings settings) {
+    return new ByteArrayInputStream(toBytes(settings));
+  }
+
+  private static byte[] toBytes(QuoridorSettings settings) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      writeTo(out, settings);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeTo(ByteArrayOutputStream out, QuoridorSettings settings)
+      throws IOException {
+    GameRecordWriter writer = GameRecordWriter.start(out, settings);
+    for (Move move : MOVES) {
+      writer.append(move);
+    }
+    writer.end();
+  }
+}
@@ -0,0 +1,93 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move;
+
+/** Tests for {@link GameRecordWriter}. */
+@RunWith(JUnit4.class)
+public final class GameRecordWriterTest {
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  @Test
+  public void emptyGame_headerAndEnd() throws IOException {
+    GameRecordWriter writer = GameRecordWriter.start(out, QuoridorSettings.defaultTwoPlayer());
+    writer.end();
+
+    assertThat(out.toByteArray())
+        .isEqualTo(new byte[] {'Q', 1, 9, 2, 8, 2, (byte) 0b0100, RecordFormat.END});
+  }
+
+  @Test
+  public void defaultBoard_oneBytePerMove() throws IOException {
+    GameRecordWriter writer = GameRecordWriter.start(out, QuoridorSettings.defaultTwoPlayer());
+    writer.append(Move.pawnMove(Player.PLAYER1, Square.at('e', 8)));
+    writer.append(Move.wallMove(Player.PLAYER2, Wall.horizontal('a', 1).withLength(2)));
+    writer.append(Move.pawnMove(Player.PLAYER1, Square.at('e', 7)));
+    writer.end();
+
+    assertThat(writer.moveCount()).isEqualTo(3);
+    assertThat(out.size()).isEqualTo(RecordFormat.HEADER_BYTES + 4);
+  }
+
+  @Test
+  public void fourPlayerGame_headerRecordsTurnOrder() throws IOException {
+    GameRecordWriter.start(out, QuoridorSettings.defaultFourPlayer());
+
+    byte[] header = out.toByteArray();
+    assertThat(header[5]).isEqualTo(4);
+    assertThat(header[6]).isEqualTo((byte) 0b11_10_01_00);
+  }
+
+  @Test
+  public void largeBoard_twoBytesPerMove() throws IOException {
+    QuoridorSettings settings =
+        QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(15).build();
+    GameRecordWriter writer = GameRecordWriter.start(out, settings);
+    writer.append(Move.pawnMove(Player.PLAYER1, Square.at('h', 14)));
+    writer.end();
+
+    assertThat(out.size()).isEqualTo(RecordFormat.HEADER_BYTES + 4);
+  }
+
+  @Test
+  public void moveOutOfTurn_throws() throws IOException {
+    GameRecordWriter writer = GameRecordWriter.start(out, QuoridorSettings.defaultTwoPlayer());
+    assertThrows(
+        () -> appendUnchecked(writer, Move.pawnMove(Player.PLAYER2, Square.at('e', 2))));
+  }
+
+  @Test
+  public void moveOffBoard_throws() throws IOException {
+    GameRecordWriter writer = GameRecordWriter.start(out, QuoridorSettings.defaultTwoPlayer());
+    assertThrows(
+        () -> appendUnchecked(writer, Move.pawnMove(Player.PLAYER1, Square.at('z', 1))));
+  }
+
+  @Test
+  public void appendAfterEnd_throws() throws IOException {
+    GameRecordWriter writer = GameRecordWriter.start(out, QuoridorSettings.defaultTwoPlayer());
+    writer.end();
+    assertThrows(
+        () -> appendUnchecked(writer, Move.pawnMove(Player.PLAYER1, Square.at('e', 8))));
+  }
+
+  private static void appendUnchecked(GameRecordWriter writer, Move move) {
+    try {
+      writer.append(move);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+}
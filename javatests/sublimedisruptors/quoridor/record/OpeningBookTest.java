@@ -0,0 +1,277 @@
+package sublimedisruptors.quoridor.record;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+import static sublimedisruptors.quoridor.testing.TestUtils.setUpBoard;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.testing.TestUtils;
+
+/** Tests for {@link OpeningBook} and {@link OpeningBookWriter}. */
+@RunWith(JUnit4.class)
+public final class OpeningBookTest {
+
+  private static final QuoridorSettings SETTINGS =
+      QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5).setWallsPerPlayer(2).build();
+
+  private static final ImmutableList<Move> PLAYER1_WINS =
+      ImmutableList.of(
+          Move.pawnMove(Player.PLAYER1, Square.at('c', 4)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 1)),
+          Move.pawnMove(Player.PLAYER1, Square.at('c', 3)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 2)),
+          Move.pawnMove(Player.PLAYER1, Square.at('c', 2)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 3)),
+          Move.pawnMove(Player.PLAYER1, Square.at('c', 1)));
+
+  private static final ImmutableList<Move> PLAYER2_WINS =
+      ImmutableList.of(
+          Move.pawnMove(Player.PLAYER1, Square.at('c', 4)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 1)),
+          Move.pawnMove(Player.PLAYER1, Square.at('b', 4)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 2)),
+          Move.pawnMove(Player.PLAYER1, Square.at('b', 3)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 3)),
+          Move.pawnMove(Player.PLAYER1, Square.at('b', 2)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 4)),
+          Move.pawnMove(Player.PLAYER1, Square.at('a', 2)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 5)));
+
+  private static final ImmutableList<Move> WALL_ON_LEFT =
+      ImmutableList.of(
+          Move.wallMove(Player.PLAYER1, Wall.horizontal('a', 3).withLength(2)),
+          Move.pawnMove(Player.PLAYER2, Square.at('b', 1)));
+
+  private static final ImmutableList<Move> WALL_ON_RIGHT =
+      ImmutableList.of(
+          Move.wallMove(Player.PLAYER1, Wall.horizontal('d', 3).withLength(2)),
+          Move.pawnMove(Player.PLAYER2, Square.at('d', 1)));
+
+  @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void lookUp_talliesGamesAndWins() throws IOException {
+    Path path = writeBook(12, 1, PLAYER1_WINS, PLAYER2_WINS);
+
+    try (OpeningBook book = OpeningBook.open(path)) {
+      assertThat(book.settings()).isEqualTo(SETTINGS);
+      assertThat(book.lookUp(position()))
+          .containsExactly(OpeningBook.Entry.create(PLAYER1_WINS.get(0), 2, 1));
+      // The position after the first move is its own mirror image, so the reply is tallied
+      // together with its mirror image.
+      assertThat(book.lookUp(position(PLAYER1_WINS.get(0))))
+          .containsExactly(
+              OpeningBook.Entry.create(Move.pawnMove(Player.PLAYER2, Square.at('b', 1)), 2, 1));
+      assertThat(book.lookUp(position(PLAYER1_WINS.get(0), PLAYER1_WINS.get(1))))
+          .containsExactly(
+              OpeningBook.Entry.create(PLAYER1_WINS.get(2), 1, 1),
+              OpeningBook.Entry.create(PLAYER2_WINS.get(2), 1, 0))
+          .inOrder();
+      assertThat(book.lookUp(position(PLAYER2_WINS.subList(0, 9).toArray(new Move[0]))))
+          .containsExactly(OpeningBook.Entry.create(PLAYER2_WINS.get(9), 1, 1));
+    }
+  }
+
+  @Test
+  public void lookUp_mirrorImages_shareEntries() throws IOException {
+    Path path = writeBook(12, 1, WALL_ON_LEFT, WALL_ON_RIGHT, WALL_ON_LEFT);
+
+    try (OpeningBook book = OpeningBook.open(path)) {
+      ImmutableList<OpeningBook.Entry> initial = book.lookUp(position());
+      assertThat(initial).hasSize(1);
+      assertThat(initial.get(0).games()).isEqualTo(3);
+      assertThat(initial.get(0).move()).isAnyOf(WALL_ON_LEFT.get(0), WALL_ON_RIGHT.get(0));
+      assertThat(book.lookUp(position(WALL_ON_LEFT.get(0))))
+          .containsExactly(OpeningBook.Entry.create(WALL_ON_LEFT.get(1), 3, 0));
+      assertThat(book.lookUp(position(WALL_ON_RIGHT.get(0))))
+          .containsExactly(OpeningBook.Entry.create(WALL_ON_RIGHT.get(1), 3, 0));
+      assertThat(book.size()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  public void lookUp_beyondMaxPly_isEmpty() throws IOException {
+    Path path = writeBook(2, 1, PLAYER1_WINS);
+
+    try (OpeningBook book = OpeningBook.open(path)) {
+      assertThat(book.size()).isEqualTo(2);
+      assertThat(book.lookUp(position(PLAYER1_WINS.get(0)))).hasSize(1);
+      assertThat(book.lookUp(position(PLAYER1_WINS.get(0), PLAYER1_WINS.get(1)))).isEmpty();
+    }
+  }
+
+  @Test
+  public void writeTo_leavesOutMovesBelowMinGames() throws IOException {
+    Path path = writeBook(12, 2, PLAYER1_WINS, PLAYER2_WINS);
+
+    try (OpeningBook book = OpeningBook.open(path)) {
+      assertThat(book.size()).isEqualTo(2);
+      assertThat(book.lookUp(position())).hasSize(1);
+      assertThat(book.lookUp(position(PLAYER1_WINS.get(0), PLAYER1_WINS.get(1)))).isEmpty();
+    }
+  }
+
+  @Test
+  public void addGames_skipsGamesWithOtherSettings() throws IOException {
+    Path archivePath = tmp.newFile().toPath();
+    try (GameArchiveWriter writer = GameArchiveWriter.create(archivePath)) {
+      writer
+          .startGame(QuoridorSettings.defaultTwoPlayer())
+          .append(Move.pawnMove(Player.PLAYER1, Square.at('e', 8)));
+      GameRecordWriter record = writer.startGame(SETTINGS);
+      for (Move move : PLAYER1_WINS) {
+        record.append(move);
+      }
+    }
+    try (OpeningBookWriter bookWriter = OpeningBookWriter.create(SETTINGS, 12, 1);
+        GameArchive archive = GameArchive.open(archivePath)) {
+      assertThat(bookWriter.addGames(archive)).isEqualTo(1);
+      assertThat(bookWriter.addGames(archive)).isEqualTo(1);
+      assertThat(bookWriter.gameCount()).isEqualTo(2);
+      assertThat(bookWriter.writeTo(tmp.newFile().toPath())).isEqualTo(PLAYER1_WINS.size());
+    }
+  }
+
+  @Test
+  public void writeTo_manyGamesSpilledToDisk_matchesBookBuiltInMemory() throws IOException {
+    Path archivePath = tmp.newFile().toPath();
+    Random random = new Random(42);
+    try (GameArchiveWriter writer = GameArchiveWriter.create(archivePath)) {
+      for (int game = 0; game < 2000; game++) {
+        GameRecordWriter record = writer.startGame(SETTINGS);
+        for (Move move : randomGame(random, 12)) {
+          record.append(move);
+        }
+      }
+    }
+    Path spillDirectory = tmp.newFolder().toPath();
+    Path inMemory = tmp.newFile().toPath();
+    Path spilled = tmp.newFile().toPath();
+
+    try (OpeningBookWriter writer = OpeningBookWriter.create(SETTINGS, 12, 2);
+        GameArchive archive = GameArchive.open(archivePath)) {
+      writer.addGames(archive);
+      writer.writeTo(inMemory);
+    }
+    try (GameArchive archive = GameArchive.open(archivePath)) {
+      OpeningBookWriter writer = OpeningBookWriter.create(SETTINGS, 12, 2, 1000, spillDirectory);
+      writer.addGames(archive);
+      assertThat(spillDirectory.toFile().list().length).isGreaterThan(10);
+      writer.writeTo(spilled);
+      writer.close();
+    }
+
+    assertThat(spillDirectory.toFile().list()).isEmpty();
+    assertThat(Files.readAllBytes(spilled)).isEqualTo(Files.readAllBytes(inMemory));
+    try (OpeningBook book = OpeningBook.open(spilled)) {
+      int games = 0;
+      for (OpeningBook.Entry entry : book.lookUp(position())) {
+        games += entry.games();
+      }
+      assertThat(games).isEqualTo(2000);
+    }
+  }
+
+  @Test
+  public void lookUp_positionOfOtherSize_throws() throws IOException {
+    Path path = writeBook(12, 1, PLAYER1_WINS);
+
+    try (OpeningBook book = OpeningBook.open(path)) {
+      assertThrows(
+          () ->
+              book.lookUp(
+                  Board.createFromSettings(QuoridorSettings.defaultTwoPlayer()).snapshot()));
+    }
+  }
+
+  @Test
+  public void create_invalidArguments_throws() {
+    assertThrows(() -> OpeningBookWriter.create(SETTINGS, 0, 1));
+    assertThrows(() -> OpeningBookWriter.create(SETTINGS, 12, 0));
+  }
+
+  @Test
+  public void open_notABook_throws() throws IOException {
+    Path path = writeArchive(PLAYER1_WINS);
+    try {
+      OpeningBook.open(path);
+      throw new AssertionError("no exception thrown");
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void open_truncated_throws() throws IOException {
+    Path path = writeBook(12, 1, PLAYER1_WINS);
+    byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+    try {
+      OpeningBook.open(path);
+      throw new AssertionError("no exception thrown");
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+
+  @SafeVarargs
+  private final Path writeBook(int maxPly, int minGames, ImmutableList<Move>... games)
+      throws IOException {
+    Path path = tmp.newFile().toPath();
+    TestUtils.writeBook(path, SETTINGS, maxPly, minGames, games);
+    return path;
+  }
+
+  @SafeVarargs
+  private final Path writeArchive(ImmutableList<Move>... games) throws IOException {
+    Path path = tmp.newFile().toPath();
+    TestUtils.writeArchive(path, SETTINGS, games);
+    return path;
+  }
+
+  /** Returns up to {@code maxPlies} random valid moves, ending early if a player wins. */
+  private static ImmutableList<Move> randomGame(Random random, int maxPlies) {
+    Board board = setUpBoard(SETTINGS);
+    RulesGovernor governor = RulesGovernor.create(board, SETTINGS);
+    ImmutableList.Builder<Move> game = ImmutableList.builder();
+    for (int ply = 0; ply < maxPlies; ply++) {
+      Player player = SETTINGS.players().get(ply % 2);
+      List<Move> moves = new ArrayList<>(governor.generateValidPawnMoves(player));
+      moves.addAll(governor.generateValidWallMoves(player));
+      Move move = moves.get(random.nextInt(moves.size()));
+      game.add(move);
+      move.applyTo(board);
+      if (move.type() == Move.Type.PAWN && governor.isGoal(player, move.destination())) {
+        break;
+      }
+    }
+    return game.build();
+  }
+
+  private static Board.Snapshot position(Move... moves) {
+    Board board = setUpBoard(SETTINGS);
+    for (Move move : moves) {
+      move.applyTo(board);
+    }
+    return board.snapshot();
+  }
+}
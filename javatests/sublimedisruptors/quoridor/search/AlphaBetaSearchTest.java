@@ -0,0 +1,231 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+import static sublimedisruptors.quoridor.testing.TestUtils.setUpBoard;
+
+import java.time.Duration;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+
+/** Tests for {@link AlphaBetaSearch}. */
+@RunWith(JUnit4.class)
+public final class AlphaBetaSearchTest {
+
+  private static final QuoridorSettings SMALL_SETTINGS =
+      QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5).setWallsPerPlayer(2).build();
+
+  @Test
+  public void takesImmediateWin() {
+    Board board = setUpBoard(SMALL_SETTINGS);
+    board.movePawn(Player.PLAYER1, Square.at('c', 2));
+    board.movePawn(Player.PLAYER2, Square.at('a', 2));
+
+    SearchResult result =
+        AlphaBetaSearch.create(SMALL_SETTINGS).search(board.snapshot(), Player.PLAYER1, 3);
+
+    assertThat(result.bestMove()).isEqualTo(Move.pawnMove(Player.PLAYER1, Square.at('c', 1)));
+    assertThat(result.score()).isEqualTo(AlphaBetaSearch.WIN_SCORE - 1);
+    assertThat(result.depth()).isEqualTo(1);
+  }
+
+  @Test
+  public void blocksImmediateLoss() {
+    Board board = setUpBoard(SMALL_SETTINGS);
+    board.movePawn(Player.PLAYER1, Square.at('a', 3));
+    board.movePawn(Player.PLAYER2, Square.at('c', 4));
+
+    SearchResult result =
+        AlphaBetaSearch.create(SMALL_SETTINGS).search(board.snapshot(), Player.PLAYER1, 2);
+
+    assertThat(result.bestMove().type()).isEqualTo(Move.Type.WALL);
+    assertThat(result.score())
+        .isGreaterThan(-AlphaBetaSearch.WIN_SCORE + AlphaBetaSearch.MAX_DEPTH);
+    result.bestMove().applyTo(board);
+    RulesGovernor governor = RulesGovernor.create(board, SMALL_SETTINGS);
+    assertThat(governor.shortestDistanceToGoal(Player.PLAYER2)).isGreaterThan(1);
+  }
+
+  @Test
+  public void findsForcedLoss() {
+    QuoridorSettings settings = SMALL_SETTINGS.toBuilder().setWallsPerPlayer(1).build();
+    Board board = setUpBoard(settings);
+    board.movePawn(Player.PLAYER1, Square.at('a', 3));
+    board.movePawn(Player.PLAYER2, Square.at('e', 4));
+    // Player 2 keeps a wall, so that the position is searched rather than solved as a race.
+    board.placeWall(Wall.horizontal('a', 1).withLength(2), Player.PLAYER1);
+
+    SearchResult result =
+        AlphaBetaSearch.create(settings).search(board.snapshot(), Player.PLAYER1, 4);
+
+    assertThat(result.score()).isEqualTo(-AlphaBetaSearch.WIN_SCORE + 2);
+    assertThat(result.depth()).isEqualTo(2);
+  }
+
+  @Test
+  public void noWallsLeft_scoresExactly() {
+    QuoridorSettings settings = SMALL_SETTINGS.toBuilder().setWallsPerPlayer(0).build();
+    Board board = setUpBoard(settings);
+    board.movePawn(Player.PLAYER1, Square.at('a', 4));
+    board.movePawn(Player.PLAYER2, Square.at('e', 2));
+    EndgameResult solution =
+        EndgameSolver.create(settings).solve(board.snapshot(), Player.PLAYER1);
+
+    SearchResult result =
+        AlphaBetaSearch.create(settings).search(board.snapshot(), Player.PLAYER1, 1);
+
+    assertThat(solution.outcome()).isEqualTo(EndgameResult.Outcome.WIN);
+    assertThat(solution.distance()).isEqualTo(5);
+    assertThat(result.score()).isEqualTo(AlphaBetaSearch.WIN_SCORE - 5);
+    assertThat(result.depth()).isEqualTo(1);
+  }
+
+  @Test
+  public void fixedDepth_searchesToDepth() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    Board board = setUpBoard(settings);
+
+    SearchResult result =
+        AlphaBetaSearch.create(settings).search(board.snapshot(), Player.PLAYER1, 2);
+
+    assertThat(result.depth()).isEqualTo(2);
+    assertThat(result.nodes()).isGreaterThan(100L);
+    assertThat(result.bestMove().player()).isEqualTo(Player.PLAYER1);
+  }
+
+  @Test
+  public void zeroBudget_completesFirstIteration() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    Board board = setUpBoard(settings);
+
+    SearchResult result =
+        AlphaBetaSearch.create(settings).search(board.snapshot(), Player.PLAYER2, Duration.ZERO);
+
+    assertThat(result.depth()).isEqualTo(1);
+    assertThat(result.bestMove().player()).isEqualTo(Player.PLAYER2);
+  }
+
+  @Test
+  public void timeBudget_reportsNodesPerSecond() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    Board board = setUpBoard(settings);
+
+    SearchResult result =
+        AlphaBetaSearch.create(settings)
+            .search(board.snapshot(), Player.PLAYER1, Duration.ofMillis(100));
+
+    assertThat(result.depth()).isAtLeast(1);
+    assertThat(result.nodes()).isGreaterThan(0L);
+    assertThat(result.nodesPerSecond()).isGreaterThan(0L);
+  }
+
+  @Test
+  public void timeBudget_lastWallLeft_honoursBudget() {
+    QuoridorSettings settings =
+        QuoridorSettings.defaultTwoPlayer().toBuilder().setWallsPerPlayer(1).build();
+    Board board = setUpBoard(settings);
+    // Every wall player 1 could place spends the last of the walls, leaving a race to solve.
+    board.placeWall(Wall.horizontal('a', 7).withLength(2), Player.PLAYER2);
+
+    SearchResult result =
+        AlphaBetaSearch.create(settings)
+            .search(board.snapshot(), Player.PLAYER1, Duration.ofMillis(100));
+
+    assertThat(result.depth()).isAtLeast(1);
+    assertThat(result.elapsed()).isLessThan(Duration.ofMillis(300));
+  }
+
+  @Test
+  public void customEvaluator_isUsed() {
+    Board board = setUpBoard(SMALL_SETTINGS);
+    Square target = Square.at('b', 5);
+    Evaluator evaluator =
+        (b, governor, player, opponent) -> {
+          int score = b.pawn(Player.PLAYER1).equals(target) ? 1 : 0;
+          return player == Player.PLAYER1 ? score : -score;
+        };
+
+    SearchResult result =
+        AlphaBetaSearch.create(SMALL_SETTINGS, evaluator)
+            .search(board.snapshot(), Player.PLAYER1, 1);
+
+    assertThat(result.bestMove()).isEqualTo(Move.pawnMove(Player.PLAYER1, target));
+    assertThat(result.score()).isEqualTo(1);
+  }
+
+  @Test
+  public void sharedTable_reusesResults() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    Board board = setUpBoard(settings);
+    TranspositionTable table = TranspositionTable.withEntries(1 << 16);
+    Evaluator evaluator = Evaluator.shortestPathDifference();
+
+    SearchResult first =
+        AlphaBetaSearch.create(settings, evaluator, table)
+            .search(board.snapshot(), Player.PLAYER1, 2);
+    SearchResult second =
+        AlphaBetaSearch.create(settings, evaluator, table)
+            .search(board.snapshot(), Player.PLAYER1, 2);
+
+    assertThat(second.bestMove()).isEqualTo(first.bestMove());
+    assertThat(second.score()).isEqualTo(first.score());
+    assertThat(second.nodes()).isLessThan(first.nodes());
+  }
+
+  @Test
+  public void sharedTable_reusesResultsForMirrorImage() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    Board board = setUpBoard(settings);
+    board.movePawn(Player.PLAYER1, Square.at('c', 8));
+    board.placeWall(Wall.vertical('f', 2).withLength(2), Player.PLAYER2);
+    TranspositionTable table = TranspositionTable.withEntries(1 << 16);
+    Evaluator evaluator = Evaluator.shortestPathDifference();
+
+    SearchResult first =
+        AlphaBetaSearch.create(settings, evaluator, table)
+            .search(board.snapshot(), Player.PLAYER1, 2);
+    SearchResult second =
+        AlphaBetaSearch.create(settings, evaluator, table)
+            .search(board.snapshot().mirror(), Player.PLAYER1, 2);
+
+    assertThat(second.bestMove()).isEqualTo(first.bestMove().mirror(settings.boardSize()));
+    assertThat(second.score()).isEqualTo(first.score());
+    assertThat(second.nodes()).isLessThan(first.nodes());
+  }
+
+  @Test
+  public void fourPlayerGame_throws() {
+    assertThrows(() -> AlphaBetaSearch.create(QuoridorSettings.defaultFourPlayer()));
+  }
+
+  @Test
+  public void mismatchedPosition_throws() {
+    AlphaBetaSearch search = AlphaBetaSearch.create(QuoridorSettings.defaultTwoPlayer());
+    Board board = setUpBoard(SMALL_SETTINGS);
+    assertThrows(() -> search.search(board.snapshot(), Player.PLAYER1, 1));
+  }
+
+  @Test
+  public void nonParticipant_throws() {
+    AlphaBetaSearch search = AlphaBetaSearch.create(SMALL_SETTINGS);
+    Board board = setUpBoard(SMALL_SETTINGS);
+    assertThrows(() -> search.search(board.snapshot(), Player.PLAYER3, 1));
+  }
+
+  @Test
+  public void depthOutOfRange_throws() {
+    AlphaBetaSearch search = AlphaBetaSearch.create(SMALL_SETTINGS);
+    Board board = setUpBoard(SMALL_SETTINGS);
+    assertThrows(() -> search.search(board.snapshot(), Player.PLAYER1, 0));
+    assertThrows(
+        () -> search.search(board.snapshot(), Player.PLAYER1, AlphaBetaSearch.MAX_DEPTH + 1));
+  }
+}
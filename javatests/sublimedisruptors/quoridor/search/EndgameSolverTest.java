@@ -0,0 +1,192 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.search.EndgameResult.Outcome;
+import sublimedisruptors.quoridor.testing.ExhaustiveSearch;
+
+/** Tests for {@link EndgameSolver}. */
+@RunWith(JUnit4.class)
+public final class EndgameSolverTest {
+
+  private static final QuoridorSettings SETTINGS =
+      QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5).setWallsPerPlayer(0).build();
+
+  /** The longest game searched exhaustively to check the solver, to keep the test fast. */
+  private static final int MAX_EXHAUSTIVE_DISTANCE = 8;
+
+  @Test
+  public void solve_gameOver_lost() {
+    Board board = Board.createFromSettings(SETTINGS);
+    board.movePawn(Player.PLAYER1, Square.at('c', 1));
+    board.movePawn(Player.PLAYER2, Square.at('c', 3));
+
+    EndgameResult result = EndgameSolver.create(SETTINGS).solve(board.snapshot(), Player.PLAYER2);
+
+    assertThat(result).isEqualTo(EndgameResult.create(Outcome.LOSS, 0, null));
+  }
+
+  @Test
+  public void solve_oneMoveFromGoal_wins() {
+    Board board = Board.createFromSettings(SETTINGS);
+    board.movePawn(Player.PLAYER1, Square.at('c', 2));
+    board.movePawn(Player.PLAYER2, Square.at('a', 1));
+
+    EndgameResult result = EndgameSolver.create(SETTINGS).solve(board.snapshot(), Player.PLAYER1);
+
+    assertThat(result)
+        .isEqualTo(
+            EndgameResult.create(
+                Outcome.WIN, 1, Move.pawnMove(Player.PLAYER1, Square.at('c', 1))));
+  }
+
+  @Test
+  public void solve_jumpOverOpponent_wins() {
+    Board board = Board.createFromSettings(SETTINGS);
+    board.movePawn(Player.PLAYER1, Square.at('c', 3));
+    board.movePawn(Player.PLAYER2, Square.at('c', 2));
+
+    EndgameResult result = EndgameSolver.create(SETTINGS).solve(board.snapshot(), Player.PLAYER1);
+
+    assertThat(result)
+        .isEqualTo(
+            EndgameResult.create(
+                Outcome.WIN, 1, Move.pawnMove(Player.PLAYER1, Square.at('c', 1))));
+  }
+
+  @Test
+  public void solve_longerRace_lost() {
+    Board board = Board.createFromSettings(SETTINGS);
+    board.movePawn(Player.PLAYER1, Square.at('a', 5));
+    board.movePawn(Player.PLAYER2, Square.at('e', 3));
+
+    EndgameResult result = EndgameSolver.create(SETTINGS).solve(board.snapshot(), Player.PLAYER1);
+
+    // Player 2 needs two moves to player 1's four, so wins with their second move.
+    assertThat(result.outcome()).isEqualTo(Outcome.LOSS);
+    assertThat(result.distance()).isEqualTo(4);
+    assertThat(result.bestMove().player()).isEqualTo(Player.PLAYER1);
+  }
+
+  @Test
+  public void solve_matchesExhaustiveSearch() {
+    QuoridorSettings settings = SETTINGS.toBuilder().setWallsPerPlayer(3).build();
+    BoardGeometry geometry = BoardGeometry.forSettings(settings);
+    Random random = new Random(22);
+    for (int trial = 0; trial < 4; trial++) {
+      Board board = Board.createFromSettings(settings);
+      RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, settings);
+      placeRandomWalls(board, governor, settings, geometry, random);
+      EndgameSolver solver = EndgameSolver.create(settings);
+      ExhaustiveSearch exhaustiveSearch =
+          ExhaustiveSearch.create(board, governor, ExhaustiveSearch.PAWN_MOVES);
+      for (int i = 0; i < 40; i++) {
+        int square1 = random.nextInt(geometry.squareCount());
+        int square2 = random.nextInt(geometry.squareCount());
+        if (square1 == square2) {
+          continue;
+        }
+        board.movePawn(Player.PLAYER1, geometry.square(square1));
+        board.movePawn(Player.PLAYER2, geometry.square(square2));
+        for (Player player : settings.players()) {
+          Player opponent = player == Player.PLAYER1 ? Player.PLAYER2 : Player.PLAYER1;
+          if (governor.isGoal(player, board.pawn(player))
+              || governor.isGoal(opponent, board.pawn(opponent))) {
+            continue;
+          }
+          EndgameResult result = solver.solve(board.snapshot(), player);
+          if (result.distance() > MAX_EXHAUSTIVE_DISTANCE) {
+            continue;
+          }
+          exhaustiveSearch.assertMatches(result, player, opponent, MAX_EXHAUSTIVE_DISTANCE);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void solve_followingBestMoves_achievesOutcome() {
+    Board board = Board.createFromSettings(SETTINGS);
+    RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, SETTINGS);
+    EndgameSolver solver = EndgameSolver.create(SETTINGS);
+    ImmutableList<Player> players = SETTINGS.players();
+
+    EndgameResult initial = solver.solve(board.snapshot(), players.get(0));
+    int plies = 0;
+    for (EndgameResult result = initial; result.bestMove() != null; plies++) {
+      result.bestMove().applyTo(board);
+      result = solver.solve(board.snapshot(), players.get((plies + 1) % 2));
+    }
+
+    // On an open 5x5 board, the second player wins the race from the initial position.
+    assertThat(initial.outcome()).isEqualTo(Outcome.LOSS);
+    assertThat(plies).isEqualTo(initial.distance());
+    assertThat(governor.isGoal(players.get(1), board.pawn(players.get(1)))).isTrue();
+  }
+
+  @Test
+  public void canSolve_onlyWithoutWalls() {
+    QuoridorSettings settings = SETTINGS.toBuilder().setWallsPerPlayer(1).build();
+    Board board = Board.createFromSettings(settings);
+    RulesGovernor.createAndSetUpPawns(board, settings);
+    EndgameSolver solver = EndgameSolver.create(settings);
+
+    assertThat(solver.canSolve(board.snapshot())).isFalse();
+    board.placeWall(Wall.horizontal('a', 2).withLength(2), Player.PLAYER1);
+    assertThat(solver.canSolve(board.snapshot())).isFalse();
+    board.placeWall(Wall.horizontal('d', 2).withLength(2), Player.PLAYER2);
+    assertThat(solver.canSolve(board.snapshot())).isTrue();
+    assertThrows(() -> solver.solve(Board.createFromSettings(settings).snapshot(), Player.PLAYER1));
+  }
+
+  @Test
+  public void invalidArguments_throw() {
+    EndgameSolver solver = EndgameSolver.create(SETTINGS);
+    Board board = Board.createFromSettings(SETTINGS);
+    RulesGovernor.createAndSetUpPawns(board, SETTINGS);
+
+    assertThrows(() -> solver.solve(board.snapshot(), Player.PLAYER3));
+    assertThrows(
+        () ->
+            solver.solve(
+                Board.createFromSettings(QuoridorSettings.defaultTwoPlayer()).snapshot(),
+                Player.PLAYER1));
+    assertThrows(
+        () ->
+            EndgameSolver.create(
+                SETTINGS.toBuilder()
+                    .setPlayers(Player.PLAYER1, Player.PLAYER2, Player.PLAYER3)
+                    .build()));
+  }
+
+  private static void placeRandomWalls(
+      Board board,
+      RulesGovernor governor,
+      QuoridorSettings settings,
+      BoardGeometry geometry,
+      Random random) {
+    for (int walls = 0; walls < 2 * settings.wallsPerPlayer(); ) {
+      Player player = settings.players().get(walls % 2);
+      Move move =
+          Move.wallMove(player, geometry.wall(random.nextInt(geometry.wallPlacementCount())));
+      if (governor.isValidWallMove(move)) {
+        move.applyTo(board);
+        walls++;
+      }
+    }
+  }
+}
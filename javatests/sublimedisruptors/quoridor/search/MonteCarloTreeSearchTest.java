@@ -0,0 +1,125 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+import static sublimedisruptors.quoridor.testing.TestUtils.setUpBoard;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.move.Move;
+
+/** Tests for {@link MonteCarloTreeSearch}. */
+@RunWith(JUnit4.class)
+public final class MonteCarloTreeSearchTest {
+
+  private static final QuoridorSettings TWO_PLAYER =
+      QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5).setWallsPerPlayer(2).build();
+
+  private static final QuoridorSettings FOUR_PLAYER =
+      QuoridorSettings.defaultFourPlayer().toBuilder().setBoardSize(5).setWallsPerPlayer(1).build();
+
+  @Test
+  public void takesImmediateWin() {
+    Board board = setUpBoard(TWO_PLAYER);
+    board.movePawn(Player.PLAYER1, Square.at('c', 2));
+    board.movePawn(Player.PLAYER2, Square.at('a', 2));
+
+    try (MonteCarloTreeSearch search = MonteCarloTreeSearch.create(TWO_PLAYER, 1)) {
+      MctsResult result = search.search(board.snapshot(), Player.PLAYER1, 2000);
+
+      assertThat(result.bestMove()).isEqualTo(Move.pawnMove(Player.PLAYER1, Square.at('c', 1)));
+      assertThat(result.expectedReward()).isEqualTo(1.0);
+      assertThat(result.playouts()).isEqualTo(2000L);
+    }
+  }
+
+  @Test
+  public void parallel_takesImmediateWin() {
+    Board board = setUpBoard(FOUR_PLAYER);
+    board.movePawn(Player.PLAYER3, Square.at('d', 2));
+
+    try (MonteCarloTreeSearch search = MonteCarloTreeSearch.create(FOUR_PLAYER, 4)) {
+      MctsResult result = search.search(board.snapshot(), Player.PLAYER3, 4000);
+
+      assertThat(result.bestMove()).isEqualTo(Move.pawnMove(Player.PLAYER3, Square.at('e', 2)));
+      assertThat(result.playouts()).isEqualTo(4000L);
+    }
+  }
+
+  @Test
+  public void fourPlayer_timeBudget_reportsPlayoutsPerSecond() {
+    Board board = setUpBoard(QuoridorSettings.defaultFourPlayer());
+
+    try (MonteCarloTreeSearch search =
+        MonteCarloTreeSearch.create(QuoridorSettings.defaultFourPlayer(), 2)) {
+      MctsResult result = search.search(board.snapshot(), Player.PLAYER2, Duration.ofMillis(100));
+
+      assertThat(result.bestMove().player()).isEqualTo(Player.PLAYER2);
+      assertThat(result.playouts()).isGreaterThan(0L);
+      assertThat(result.playoutsPerSecond()).isGreaterThan(0L);
+      assertThat(result.expectedReward()).isAtLeast(0.0);
+      assertThat(result.expectedReward()).isAtMost(1.0);
+    }
+  }
+
+  @Test
+  public void zeroBudget_runsOnePlayout() {
+    Board board = setUpBoard(TWO_PLAYER);
+
+    try (MonteCarloTreeSearch search = MonteCarloTreeSearch.create(TWO_PLAYER, 1)) {
+      MctsResult result = search.search(board.snapshot(), Player.PLAYER2, Duration.ZERO);
+
+      assertThat(result.playouts()).isEqualTo(1L);
+      assertThat(result.bestMove().player()).isEqualTo(Player.PLAYER2);
+    }
+  }
+
+  @Test
+  public void searchesRepeatedly() {
+    Board board = setUpBoard(FOUR_PLAYER);
+
+    try (MonteCarloTreeSearch search = MonteCarloTreeSearch.create(FOUR_PLAYER, 3)) {
+      for (int i = 0; i < 8; i++) {
+        Player player = FOUR_PLAYER.players().get(i % 4);
+        MctsResult result = search.search(board.snapshot(), player, 200);
+        assertThat(result.bestMove().player()).isEqualTo(player);
+        result.bestMove().applyTo(board);
+      }
+    }
+  }
+
+  @Test
+  public void sharedPool_notShutDownOnClose() {
+    Board board = setUpBoard(TWO_PLAYER);
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      for (int i = 0; i < 2; i++) {
+        try (MonteCarloTreeSearch search = MonteCarloTreeSearch.create(TWO_PLAYER, 2, pool)) {
+          assertThat(search.search(board.snapshot(), Player.PLAYER1, 100).playouts())
+              .isEqualTo(100L);
+        }
+      }
+      assertThat(pool.isShutdown()).isFalse();
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void invalidArguments_throw() {
+    Board board = setUpBoard(TWO_PLAYER);
+    assertThrows(() -> MonteCarloTreeSearch.create(TWO_PLAYER, 0));
+    try (MonteCarloTreeSearch search = MonteCarloTreeSearch.create(TWO_PLAYER, 1)) {
+      assertThrows(() -> search.search(board.snapshot(), Player.PLAYER1, 0));
+      assertThrows(() -> search.search(board.snapshot(), Player.PLAYER1, Duration.ofMillis(-1)));
+      assertThrows(() -> search.search(board.snapshot(), Player.PLAYER3, 10));
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+import static sublimedisruptors.quoridor.testing.TestUtils.setUpBoard;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.move.Move;
+
+/** Tests for {@link ParallelSearch}. */
+@RunWith(JUnit4.class)
+public final class ParallelSearchTest {
+
+  private static final QuoridorSettings SMALL_SETTINGS =
+      QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(5).setWallsPerPlayer(2).build();
+
+  @Test
+  public void takesImmediateWin() {
+    Board board = setUpBoard(SMALL_SETTINGS);
+    board.movePawn(Player.PLAYER2, Square.at('c', 4));
+    board.movePawn(Player.PLAYER1, Square.at('a', 4));
+
+    try (ParallelSearch search =
+        ParallelSearch.create(SMALL_SETTINGS, Evaluator.shortestPathDifference(), 4)) {
+      SearchResult result = search.search(board.snapshot(), Player.PLAYER2, Duration.ofMillis(50));
+
+      assertThat(result.bestMove()).isEqualTo(Move.pawnMove(Player.PLAYER2, Square.at('c', 5)));
+      assertThat(result.score()).isEqualTo(AlphaBetaSearch.WIN_SCORE - 1);
+    }
+  }
+
+  @Test
+  public void findsForcedLoss() {
+    QuoridorSettings settings = SMALL_SETTINGS.toBuilder().setWallsPerPlayer(0).build();
+    Board board = setUpBoard(settings);
+    board.movePawn(Player.PLAYER1, Square.at('a', 3));
+    board.movePawn(Player.PLAYER2, Square.at('e', 4));
+
+    try (ParallelSearch search =
+        ParallelSearch.create(settings, Evaluator.shortestPathDifference(), 3)) {
+      SearchResult result = search.search(board.snapshot(), Player.PLAYER1, 6);
+
+      assertThat(result.score()).isEqualTo(-AlphaBetaSearch.WIN_SCORE + 2);
+    }
+  }
+
+  @Test
+  public void fixedDepth_reachesDepth() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    Board board = setUpBoard(settings);
+
+    try (ParallelSearch search =
+        ParallelSearch.create(settings, Evaluator.shortestPathDifference(), 2)) {
+      SearchResult result = search.search(board.snapshot(), Player.PLAYER1, 2);
+
+      assertThat(result.depth()).isEqualTo(2);
+      assertThat(result.bestMove().player()).isEqualTo(Player.PLAYER1);
+    }
+  }
+
+  @Test
+  public void timeBudget_countsNodesOfAllThreads() {
+    QuoridorSettings settings = QuoridorSettings.defaultTwoPlayer();
+    Board board = setUpBoard(settings);
+
+    try (ParallelSearch search =
+        ParallelSearch.create(settings, Evaluator.shortestPathDifference(), 4)) {
+      SearchResult result = search.search(board.snapshot(), Player.PLAYER1, Duration.ofMillis(200));
+
+      assertThat(search.threads()).isEqualTo(4);
+      assertThat(result.depth()).isAtLeast(1);
+      assertThat(result.nodesPerSecond()).isGreaterThan(0L);
+    }
+  }
+
+  @Test
+  public void searchesRepeatedly() {
+    QuoridorSettings settings = SMALL_SETTINGS;
+    Board board = setUpBoard(settings);
+
+    try (ParallelSearch search =
+        ParallelSearch.create(settings, Evaluator.shortestPathDifference(), 3)) {
+      for (int i = 0; i < 5; i++) {
+        Player player = i % 2 == 0 ? Player.PLAYER1 : Player.PLAYER2;
+        SearchResult result = search.search(board.snapshot(), player, Duration.ofMillis(10));
+        assertThat(result.bestMove().player()).isEqualTo(player);
+        result.bestMove().applyTo(board);
+      }
+    }
+  }
+
+  @Test
+  public void singleThread_matchesAlphaBetaSearch() {
+    QuoridorSettings settings = SMALL_SETTINGS;
+    Board board = setUpBoard(settings);
+    board.movePawn(Player.PLAYER1, Square.at('b', 3));
+
+    try (ParallelSearch search =
+        ParallelSearch.create(settings, Evaluator.shortestPathDifference(), 1)) {
+      SearchResult parallel = search.search(board.snapshot(), Player.PLAYER2, 3);
+      SearchResult serial =
+          AlphaBetaSearch.create(settings).search(board.snapshot(), Player.PLAYER2, 3);
+
+      assertThat(parallel.bestMove()).isEqualTo(serial.bestMove());
+      assertThat(parallel.score()).isEqualTo(serial.score());
+      assertThat(parallel.nodes()).isEqualTo(serial.nodes());
+    }
+  }
+
+  @Test
+  public void sharedExecutor_notShutDownOnClose() {
+    Board board = setUpBoard(SMALL_SETTINGS);
+    TranspositionTable table = TranspositionTable.withEntries(1 << 12);
+    ExecutorService executor = Executors.newCachedThreadPool();
+    try {
+      for (int i = 0; i < 2; i++) {
+        try (ParallelSearch search =
+            ParallelSearch.create(
+                SMALL_SETTINGS, Evaluator.shortestPathDifference(), 3, table, executor)) {
+          SearchResult result = search.search(board.snapshot(), Player.PLAYER1, 3);
+
+          assertThat(result.depth()).isEqualTo(3);
+        }
+      }
+      assertThat(executor.isShutdown()).isFalse();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void nonPositiveThreads_throws() {
+    assertThrows(
+        () -> ParallelSearch.create(SMALL_SETTINGS, Evaluator.shortestPathDifference(), 0));
+  }
+}
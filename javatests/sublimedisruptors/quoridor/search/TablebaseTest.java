@@ -0,0 +1,297 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.QuoridorSettings;
+import sublimedisruptors.quoridor.board.Board;
+import sublimedisruptors.quoridor.board.BoardGeometry;
+import sublimedisruptors.quoridor.board.Square;
+import sublimedisruptors.quoridor.board.Wall;
+import sublimedisruptors.quoridor.move.Move;
+import sublimedisruptors.quoridor.move.RulesGovernor;
+import sublimedisruptors.quoridor.search.EndgameResult.Outcome;
+import sublimedisruptors.quoridor.testing.ExhaustiveSearch;
+
+/** Tests for {@link Tablebase}, {@link TablebaseGenerator} and {@link TablebaseIndex}. */
+@RunWith(JUnit4.class)
+public final class TablebaseTest {
+
+  private static final QuoridorSettings ONE_WALL =
+      QuoridorSettings.defaultTwoPlayer().toBuilder().setBoardSize(3).setWallsPerPlayer(1).build();
+  private static final QuoridorSettings TWO_WALLS =
+      ONE_WALL.toBuilder().setWallsPerPlayer(2).build();
+
+  /** The longest game searched exhaustively to check the tablebase, to keep the test fast. */
+  private static final int MAX_EXHAUSTIVE_DISTANCE = 6;
+
+  @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void index_size() {
+    // A 3x3 board has 8 wall placements and 162 arrangements of the pawns and player to move.
+    assertThat(new TablebaseIndex(ONE_WALL).size()).isEqualTo((1 + 2 * 8 + 28) * 162);
+    assertThat(new TablebaseIndex(TWO_WALLS).size())
+        .isEqualTo((1 + 2 * 8 + 3 * 28 + 2 * 56 + 70) * 162);
+  }
+
+  @Test
+  public void index_ranksSetsOfWallsDensely() {
+    TablebaseIndex index = new TablebaseIndex(TWO_WALLS);
+    int[] placements = new int[4];
+    int[] merged = new int[5];
+    for (int k = 0; k <= 4; k++) {
+      long blocks = index.blockCount(2 - Math.min(k, 2), 2 - Math.max(k - 2, 0));
+      for (long rank = 0; rank < blocks; rank++) {
+        index.unrank(rank, k, placements);
+        assertThat(index.rank(placements, k)).isEqualTo(rank);
+        for (int i = 1; i < k; i++) {
+          assertThat(placements[i]).isGreaterThan(placements[i - 1]);
+        }
+        for (int extra = 0; extra < 8; extra++) {
+          if (Arrays.binarySearch(placements, 0, k, extra) >= 0) {
+            continue;
+          }
+          System.arraycopy(placements, 0, merged, 0, k);
+          merged[k] = extra;
+          Arrays.sort(merged, 0, k + 1);
+          assertThat(index.rankWith(placements, k, extra)).isEqualTo(index.rank(merged, k + 1));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void index_ofBoard_ignoresOrderAndOwnerOfWalls() {
+    TablebaseIndex index = new TablebaseIndex(TWO_WALLS);
+    BoardGeometry geometry = BoardGeometry.forSettings(TWO_WALLS);
+    Wall first = Wall.horizontal('a', 1).withLength(2);
+    Wall second = Wall.vertical('b', 2).withLength(2);
+    Board board = Board.createFromSettings(TWO_WALLS);
+    board.movePawn(Player.PLAYER1, Square.at('c', 3));
+    board.movePawn(Player.PLAYER2, Square.at('a', 2));
+    board.placeWall(first, Player.PLAYER1);
+    board.placeWall(second, Player.PLAYER2);
+    Board other = Board.createFromSettings(TWO_WALLS);
+    other.movePawn(Player.PLAYER1, Square.at('c', 3));
+    other.movePawn(Player.PLAYER2, Square.at('a', 2));
+    other.placeWall(second, Player.PLAYER1);
+    other.placeWall(first, Player.PLAYER2);
+
+    int[] placements = {geometry.wallPlacementIndex(first), geometry.wallPlacementIndex(second)};
+    Arrays.sort(placements);
+    long expected =
+        index.index(
+            1,
+            1,
+            index.rank(placements, 2),
+            geometry.squareIndex(Square.at('c', 3)),
+            geometry.squareIndex(Square.at('a', 2)),
+            1);
+    assertThat(index.index(board, Player.PLAYER2)).isEqualTo(expected);
+    assertThat(index.index(other, Player.PLAYER2)).isEqualTo(expected);
+  }
+
+  @Test
+  public void index_ofBoard_wallsNotMatchingCounts() {
+    TablebaseIndex index = new TablebaseIndex(TWO_WALLS);
+    Board board = Board.createFromSettings(TWO_WALLS);
+    RulesGovernor.createAndSetUpPawns(board, TWO_WALLS);
+    board.placeWall(Wall.horizontal('a', 1).withLength(1), Player.PLAYER1);
+
+    assertThat(index.index(board, Player.PLAYER1)).isEqualTo(-1);
+  }
+
+  @Test
+  public void generate_sameOnAnyNumberOfThreads() {
+    byte[] sequential = TablebaseGenerator.create(TWO_WALLS, 1).generate();
+    byte[] parallel = TablebaseGenerator.create(TWO_WALLS, 4).generate();
+
+    assertThat(parallel).isEqualTo(sequential);
+  }
+
+  @Test
+  public void probe_gameOver() throws IOException {
+    Board board = Board.createFromSettings(ONE_WALL);
+    board.movePawn(Player.PLAYER1, Square.at('a', 1));
+    board.movePawn(Player.PLAYER2, Square.at('c', 2));
+
+    try (Tablebase tablebase = generate(ONE_WALL)) {
+      assertThat(tablebase.probe(board.snapshot(), Player.PLAYER2))
+          .isEqualTo(EndgameResult.create(Outcome.LOSS, 0, null));
+    }
+  }
+
+  @Test
+  public void probe_noWallsLeft_matchesEndgameSolver() throws IOException {
+    Board board = Board.createFromSettings(ONE_WALL);
+    board.placeWall(Wall.horizontal('a', 1).withLength(2), Player.PLAYER1);
+    board.placeWall(Wall.horizontal('b', 2).withLength(2), Player.PLAYER2);
+    BoardGeometry geometry = BoardGeometry.forSettings(ONE_WALL);
+    EndgameSolver solver = EndgameSolver.create(ONE_WALL);
+
+    try (Tablebase tablebase = generate(ONE_WALL)) {
+      for (int square1 = 0; square1 < geometry.squareCount(); square1++) {
+        for (int square2 = 0; square2 < geometry.squareCount(); square2++) {
+          if (square1 == square2) {
+            continue;
+          }
+          board.movePawn(Player.PLAYER1, geometry.square(square1));
+          board.movePawn(Player.PLAYER2, geometry.square(square2));
+          for (Player player : ONE_WALL.players()) {
+            EndgameResult expected = solver.solve(board.snapshot(), player);
+            EndgameResult actual = tablebase.probe(board.snapshot(), player);
+            assertThat(actual.outcome()).isEqualTo(expected.outcome());
+            assertThat(actual.distance()).isEqualTo(expected.distance());
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void probe_matchesExhaustiveSearch() throws IOException {
+    BoardGeometry geometry = BoardGeometry.forSettings(TWO_WALLS);
+    Random random = new Random(23);
+    try (Tablebase tablebase = generate(TWO_WALLS)) {
+      for (int trial = 0; trial < 60; trial++) {
+        Board board = Board.createFromSettings(TWO_WALLS);
+        RulesGovernor governor = RulesGovernor.create(board, TWO_WALLS);
+        board.movePawn(Player.PLAYER1, geometry.square(random.nextInt(geometry.squareCount())));
+        board.movePawn(Player.PLAYER2, geometry.square(random.nextInt(geometry.squareCount())));
+        if (board.pawnIndex(Player.PLAYER1) == board.pawnIndex(Player.PLAYER2)) {
+          continue;
+        }
+        for (int walls = random.nextInt(4); walls > 0; walls--) {
+          ImmutableList<Move> wallMoves =
+              governor
+                  .generateValidWallMoves(random.nextBoolean() ? Player.PLAYER1 : Player.PLAYER2)
+                  .asList();
+          if (wallMoves.isEmpty()) {
+            break;
+          }
+          wallMoves.get(random.nextInt(wallMoves.size())).applyTo(board);
+        }
+        ExhaustiveSearch exhaustiveSearch =
+            ExhaustiveSearch.create(board, governor, ExhaustiveSearch.ALL_MOVES);
+        for (Player player : TWO_WALLS.players()) {
+          Player opponent = player == Player.PLAYER1 ? Player.PLAYER2 : Player.PLAYER1;
+          EndgameResult result = tablebase.probe(board.snapshot(), player);
+          if (result.distance() > MAX_EXHAUSTIVE_DISTANCE
+              || governor.isGoal(player, board.pawn(player))
+              || governor.isGoal(opponent, board.pawn(opponent))) {
+            continue;
+          }
+          exhaustiveSearch.assertMatches(result, player, opponent, MAX_EXHAUSTIVE_DISTANCE);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void probe_followingBestMoves_achievesOutcome() throws IOException {
+    Board board = Board.createFromSettings(TWO_WALLS);
+    RulesGovernor governor = RulesGovernor.createAndSetUpPawns(board, TWO_WALLS);
+    ImmutableList<Player> players = TWO_WALLS.players();
+
+    try (Tablebase tablebase = generate(TWO_WALLS)) {
+      EndgameResult initial = tablebase.probe(board.snapshot(), players.get(0));
+      int plies = 0;
+      for (EndgameResult result = initial; result.bestMove() != null; plies++) {
+        result.bestMove().applyTo(board);
+        result = tablebase.probe(board.snapshot(), players.get((plies + 1) % 2));
+      }
+
+      assertThat(initial.outcome()).isNotEqualTo(Outcome.DRAW);
+      assertThat(plies).isEqualTo(initial.distance());
+      Player winner = players.get(initial.outcome() == Outcome.WIN ? 0 : 1);
+      assertThat(governor.isGoal(winner, board.pawn(winner))).isTrue();
+    }
+  }
+
+  @Test
+  public void open_readsSettings() throws IOException {
+    try (Tablebase tablebase = generate(TWO_WALLS)) {
+      assertThat(tablebase.settings()).isEqualTo(TWO_WALLS);
+    }
+  }
+
+  @Test
+  public void open_notATablebase_throws() throws IOException {
+    Path path = tmp.newFile().toPath();
+    Files.write(path, "not a tablebase, just some text".getBytes(UTF_8));
+
+    try {
+      Tablebase.open(path);
+      throw new AssertionError("no exception thrown");
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void open_truncated_throws() throws IOException {
+    Path path = tmp.newFile().toPath();
+    TablebaseGenerator.create(ONE_WALL, 1).writeTo(path);
+    byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+
+    try {
+      Tablebase.open(path);
+      throw new AssertionError("no exception thrown");
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void probe_invalidArguments_throw() throws IOException {
+    Board board = Board.createFromSettings(ONE_WALL);
+    RulesGovernor.createAndSetUpPawns(board, ONE_WALL);
+    Board samePawnSquares = Board.createFromSettings(ONE_WALL);
+    samePawnSquares.movePawn(Player.PLAYER1, Square.at('b', 2));
+    samePawnSquares.movePawn(Player.PLAYER2, Square.at('b', 2));
+
+    try (Tablebase tablebase = generate(ONE_WALL)) {
+      assertThrows(() -> tablebase.probe(board.snapshot(), Player.PLAYER3));
+      assertThrows(
+          () ->
+              tablebase.probe(
+                  Board.createFromSettings(QuoridorSettings.defaultTwoPlayer()).snapshot(),
+                  Player.PLAYER1));
+      assertThrows(() -> tablebase.probe(samePawnSquares.snapshot(), Player.PLAYER1));
+    }
+  }
+
+  @Test
+  public void create_invalidArguments_throw() {
+    assertThrows(
+        () ->
+            TablebaseGenerator.create(
+                ONE_WALL.toBuilder()
+                    .setPlayers(Player.PLAYER1, Player.PLAYER2, Player.PLAYER3)
+                    .build(),
+                1));
+    assertThrows(() -> TablebaseGenerator.create(ONE_WALL, 0));
+    assertThrows(() -> TablebaseGenerator.create(QuoridorSettings.defaultTwoPlayer(), 1));
+  }
+
+  private Tablebase generate(QuoridorSettings settings) throws IOException {
+    Path path = tmp.newFile().toPath();
+    TablebaseGenerator.create(settings, 2).writeTo(path);
+    return Tablebase.open(path);
+  }
+}
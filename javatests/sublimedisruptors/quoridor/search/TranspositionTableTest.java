@@ -0,0 +1,185 @@
+package sublimedisruptors.quoridor.search;
+
+import static com.google.common.truth.Truth.assertThat;
+import static sublimedisruptors.quoridor.testing.TestUtils.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import sublimedisruptors.quoridor.Player;
+import sublimedisruptors.quoridor.board.Groove.Orientation;
+import sublimedisruptors.quoridor.move.PackedMove;
+import sublimedisruptors.quoridor.search.TranspositionTable.Bound;
+
+/** Tests for {@link TranspositionTable}. */
+@RunWith(JUnit4.class)
+public final class TranspositionTableTest {
+
+  private static final int PAWN_MOVE = PackedMove.pawnMove(Player.PLAYER4, 'z', 26);
+  private static final int WALL_MOVE =
+      PackedMove.wallMove(Player.PLAYER2, Orientation.HORIZONTAL, 'c', 4, 3);
+
+  @Test
+  public void probe_emptyTable_misses() {
+    TranspositionTable table = TranspositionTable.withEntries(16);
+    assertThat(table.probe(0)).isEqualTo(TranspositionTable.MISS);
+    assertThat(table.probe(12345)).isEqualTo(TranspositionTable.MISS);
+  }
+
+  @Test
+  public void store_roundTrips() {
+    TranspositionTable table = TranspositionTable.withEntries(16);
+    table.store(42, 7, Bound.LOWER, -123456, WALL_MOVE);
+    long entry = table.probe(42);
+    assertThat(entry).isNotEqualTo(TranspositionTable.MISS);
+    assertThat(TranspositionTable.depth(entry)).isEqualTo(7);
+    assertThat(TranspositionTable.bound(entry)).isEqualTo(Bound.LOWER);
+    assertThat(TranspositionTable.score(entry)).isEqualTo(-123456);
+    assertThat(TranspositionTable.bestMove(entry)).isEqualTo(WALL_MOVE);
+  }
+
+  @Test
+  public void store_extremeValues_roundTrip() {
+    TranspositionTable table = TranspositionTable.withEntries(16);
+    for (Bound bound : Bound.values()) {
+      table.store(0, TranspositionTable.MAX_DEPTH, bound, TranspositionTable.MAX_SCORE, PAWN_MOVE);
+      long entry = table.probe(0);
+      assertThat(TranspositionTable.depth(entry)).isEqualTo(TranspositionTable.MAX_DEPTH);
+      assertThat(TranspositionTable.bound(entry)).isEqualTo(bound);
+      assertThat(TranspositionTable.score(entry)).isEqualTo(TranspositionTable.MAX_SCORE);
+      assertThat(TranspositionTable.bestMove(entry)).isEqualTo(PAWN_MOVE);
+
+      table.store(-1, 0, bound, -TranspositionTable.MAX_SCORE, PackedMove.NONE);
+      entry = table.probe(-1);
+      assertThat(TranspositionTable.depth(entry)).isEqualTo(0);
+      assertThat(TranspositionTable.score(entry)).isEqualTo(-TranspositionTable.MAX_SCORE);
+      assertThat(TranspositionTable.bestMove(entry)).isEqualTo(PackedMove.NONE);
+    }
+  }
+
+  @Test
+  public void store_outOfRange_throws() {
+    TranspositionTable table = TranspositionTable.withEntries(16);
+    assertThrows(() -> table.store(1, -1, Bound.EXACT, 0, PAWN_MOVE));
+    assertThrows(() -> table.store(1, TranspositionTable.MAX_DEPTH + 1, Bound.EXACT, 0, PAWN_MOVE));
+    assertThrows(
+        () -> table.store(1, 1, Bound.EXACT, TranspositionTable.MAX_SCORE + 1, PAWN_MOVE));
+    assertThrows(() -> table.store(1, 1, Bound.EXACT, 0, -2));
+  }
+
+  @Test
+  public void store_samePosition_overwrites() {
+    TranspositionTable table = TranspositionTable.withEntries(16);
+    table.store(5, 9, Bound.EXACT, 10, PAWN_MOVE);
+    table.store(5, 2, Bound.UPPER, -3, WALL_MOVE);
+    long entry = table.probe(5);
+    assertThat(TranspositionTable.depth(entry)).isEqualTo(2);
+    assertThat(TranspositionTable.bound(entry)).isEqualTo(Bound.UPPER);
+    assertThat(TranspositionTable.score(entry)).isEqualTo(-3);
+    assertThat(TranspositionTable.bestMove(entry)).isEqualTo(WALL_MOVE);
+  }
+
+  @Test
+  public void store_samePositionWithoutMove_keepsBestMove() {
+    TranspositionTable table = TranspositionTable.withEntries(16);
+    table.store(5, 3, Bound.LOWER, 10, PAWN_MOVE);
+    table.store(5, 4, Bound.UPPER, 8, PackedMove.NONE);
+    assertThat(TranspositionTable.bestMove(table.probe(5))).isEqualTo(PAWN_MOVE);
+  }
+
+  @Test
+  public void store_fullBucket_replacesShallowerEntry() {
+    // Two buckets, so keys with the same lowest bit share one.
+    TranspositionTable table = TranspositionTable.withEntries(4);
+    table.store(2, 5, Bound.EXACT, 0, PAWN_MOVE);
+    table.store(4, 3, Bound.EXACT, 0, PAWN_MOVE);
+    table.store(6, 1, Bound.EXACT, 0, PAWN_MOVE);
+    assertThat(table.probe(2)).isNotEqualTo(TranspositionTable.MISS);
+    assertThat(table.probe(4)).isEqualTo(TranspositionTable.MISS);
+    assertThat(table.probe(6)).isNotEqualTo(TranspositionTable.MISS);
+  }
+
+  @Test
+  public void store_fullBucket_replacesOlderSearchFirst() {
+    TranspositionTable table = TranspositionTable.withEntries(4);
+    table.store(2, 5, Bound.EXACT, 0, PAWN_MOVE);
+    table.newSearch();
+    table.store(4, 1, Bound.EXACT, 0, PAWN_MOVE);
+    table.store(6, 2, Bound.EXACT, 0, PAWN_MOVE);
+    assertThat(table.probe(2)).isEqualTo(TranspositionTable.MISS);
+    assertThat(table.probe(4)).isNotEqualTo(TranspositionTable.MISS);
+    assertThat(table.probe(6)).isNotEqualTo(TranspositionTable.MISS);
+  }
+
+  @Test
+  public void probe_differentKeyInSameBucket_misses() {
+    TranspositionTable table = TranspositionTable.withEntries(4);
+    table.store(2, 5, Bound.EXACT, 0, PAWN_MOVE);
+    assertThat(table.probe(4)).isEqualTo(TranspositionTable.MISS);
+    assertThat(table.probe(2 | (1L << 40))).isEqualTo(TranspositionTable.MISS);
+  }
+
+  @Test
+  public void clear_removesEntries() {
+    TranspositionTable table = TranspositionTable.withEntries(16);
+    table.store(5, 3, Bound.LOWER, 10, PAWN_MOVE);
+    table.clear();
+    assertThat(table.probe(5)).isEqualTo(TranspositionTable.MISS);
+  }
+
+  @Test
+  public void withEntries_notPowerOfTwo_throws() {
+    assertThrows(() -> TranspositionTable.withEntries(0));
+    assertThrows(() -> TranspositionTable.withEntries(1));
+    assertThrows(() -> TranspositionTable.withEntries(12));
+  }
+
+  @Test
+  public void withMegabytes_capacity() {
+    assertThat(TranspositionTable.withMegabytes(1).capacity())
+        .isEqualTo((1 << 20) / TranspositionTable.BYTES_PER_ENTRY);
+    assertThat(TranspositionTable.withMegabytes(3).capacity())
+        .isEqualTo((2 << 20) / TranspositionTable.BYTES_PER_ENTRY);
+    assertThrows(() -> TranspositionTable.withMegabytes(0));
+  }
+
+  @Test
+  public void concurrentAccess_neverReturnsMismatchedEntry() throws Exception {
+    TranspositionTable table = TranspositionTable.withEntries(64);
+    AtomicBoolean mismatch = new AtomicBoolean();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Random random = new Random(t);
+      threads.add(
+          new Thread(
+              () -> {
+                for (int i = 0; i < 200_000; i++) {
+                  long key = random.nextInt(1024);
+                  if (random.nextBoolean()) {
+                    // Every field is derived from the key, so a mismatched entry is detectable.
+                    table.store(key, (int) key % 100, Bound.EXACT, (int) key * 7, (int) key);
+                  } else {
+                    long entry = table.probe(key);
+                    if (entry != TranspositionTable.MISS
+                        && (TranspositionTable.score(entry) != key * 7
+                            || TranspositionTable.bestMove(entry) != key
+                            || TranspositionTable.depth(entry) != key % 100)) {
+                      mismatch.set(true);
+                    }
+                  }
+                }
+              }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(mismatch.get()).isFalse();
+  }
+}